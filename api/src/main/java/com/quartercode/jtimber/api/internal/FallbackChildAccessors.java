@@ -0,0 +1,157 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+
+/**
+ * This internal class provides the child accessors of {@link DefaultNode} subclasses which have not been transformed by the runtime hook.
+ * That is the case if neither the javaagent nor any other kind of bytecode weaving is available.
+ * The child accessors generated by the runtime hook override the dummy methods of {@link DefaultNode}; therefore, this class is only used as a fallback.<br>
+ * <br>
+ * The fallback accessors consider the same fields as the generated ones (all non-static fields of the node class and its node superclasses).
+ * However, instead of reading the fields with reflection on each call, {@link MethodHandle} getters are created once per node class and cached.
+ * 
+ * @see DefaultNode#getChildren()
+ * @see DefaultNode#getChildCount()
+ */
+public class FallbackChildAccessors {
+
+    private static final MethodType                         GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final ClassValue<FallbackChildAccessors> CACHE       = new AccessorsClassValue();
+
+    private final MethodHandle[]                            getters;
+
+    /**
+     * Returns the fallback child accessors for the given node class.
+     * The accessors are only created on the first call for each class; afterwards, they are retrieved from a cache.
+     * 
+     * @param nodeClass The node class whose fallback child accessors should be returned.
+     * @return The fallback child accessors for the given node class.
+     */
+    public static FallbackChildAccessors get(Class<?> nodeClass) {
+
+        return CACHE.get(nodeClass);
+    }
+
+    private FallbackChildAccessors(Class<?> nodeClass) {
+
+        List<MethodHandle> getterList = new ArrayList<>();
+        collectGetters(nodeClass, getterList);
+        getters = getterList.toArray(new MethodHandle[getterList.size()]);
+    }
+
+    /*
+     * Adds getters for the non-static fields of the given class and all its node superclasses to the given list.
+     * The fields of the superclasses are added first in order to retain the order of the generated child accessors.
+     */
+    private static void collectGetters(Class<?> type, List<MethodHandle> getters) {
+
+        if (type == DefaultNode.class || !Node.class.isAssignableFrom(type)) {
+            return;
+        }
+
+        collectGetters(type.getSuperclass(), getters);
+
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+
+            try {
+                field.setAccessible(true);
+                getters.add(MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE));
+            } catch (IllegalAccessException | SecurityException e) {
+                throw new IllegalStateException("Cannot access field '" + field.getName() + "' of node class '" + type.getName() + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the children of the given node, which must be an instance of the node class these accessors were created for.
+     * The list is assembled using {@link RHConstFunctions#addActualChildrenToList(List, Object)}, just like in the generated child accessors.
+     * 
+     * @param node The node whose children should be returned.
+     * @return The children of the given node.
+     * @see Node#getChildren()
+     */
+    public List<Object> getChildren(Object node) {
+
+        List<Object> children = new ArrayList<>();
+
+        for (MethodHandle getter : getters) {
+            RHConstFunctions.addActualChildrenToList(children, invokeGetter(getter, node));
+        }
+
+        return children;
+    }
+
+    /**
+     * Returns the amount of children the given node has. The node must be an instance of the node class these accessors were created for.
+     * The amount is calculated using {@link RHConstFunctions#countActualChildren(Object)}, just like in the generated child accessors.
+     * 
+     * @param node The node whose children should be counted.
+     * @return The amount of children of the given node.
+     * @see Node#getChildCount()
+     */
+    public int getChildCount(Object node) {
+
+        int count = 0;
+
+        for (MethodHandle getter : getters) {
+            count += RHConstFunctions.countActualChildren(invokeGetter(getter, node));
+        }
+
+        return count;
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object node) {
+
+        try {
+            return getter.invokeExact(node);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Field getters never throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * Creates the fallback child accessors for each node class on first access.
+     */
+    private static class AccessorsClassValue extends ClassValue<FallbackChildAccessors> {
+
+        @Override
+        protected FallbackChildAccessors computeValue(Class<?> type) {
+
+            return new FallbackChildAccessors(type);
+        }
+
+    }
+
+}
@@ -18,7 +18,11 @@
 
 package com.quartercode.jtimber.api.internal;
 
+import java.util.Iterator;
 import java.util.List;
+import com.quartercode.jtimber.api.node.DefaultParentAware;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
 import com.quartercode.jtimber.api.node.wrapper.Wrapper;
 
 /**
@@ -44,8 +48,10 @@ public class RHConstFunctions {
 
         if (child != null) {
             if (child instanceof Wrapper) {
-                for (Object actualChild : ((Wrapper) child).getActualChildren()) {
-                    addActualChildrenToList(list, actualChild);
+                // Iterate without letting the wrapper copy its actual children into a new list
+                Iterator<Object> actualChildren = ((Wrapper) child).getActualChildIterator();
+                while (actualChildren.hasNext()) {
+                    addActualChildrenToList(list, actualChildren.next());
                 }
             } else {
                 list.add(child);
@@ -58,6 +64,7 @@ public class RHConstFunctions {
      * If the child object is {@code null}, {@code 0} is returned.
      * If the child object is any other object that a {@link Wrapper}, {@code 1} is returned.
      * If the child object is a wrapper, the actual children are resolved (as described in {@link #addActualChildrenToList(List, Object)}) and their count is returned.
+     * However, if the wrapper is {@link Wrapper#isFlat() flat}, its {@link Wrapper#getActualChildCount() actual child count} is returned without resolving anything.
      * 
      * @param child The child which represents the returned amount of actual children.
      * @return The amount of actual children represented by the given child object.
@@ -67,10 +74,18 @@ public class RHConstFunctions {
         if (child == null) {
             return 0;
         } else if (child instanceof Wrapper) {
+            Wrapper wrapper = (Wrapper) child;
+
+            // If the actual children neither contain null nor wrappers, each of them counts as exactly one child
+            if (wrapper.isFlat()) {
+                return wrapper.getActualChildCount();
+            }
+
             int count = 0;
 
-            for (Object actualChild : ((Wrapper) child).getActualChildren()) {
-                count += countActualChildren(actualChild);
+            Iterator<Object> actualChildren = wrapper.getActualChildIterator();
+            while (actualChildren.hasNext()) {
+                count += countActualChildren(actualChildren.next());
             }
 
             return count;
@@ -79,6 +94,27 @@ public class RHConstFunctions {
         }
     }
 
+    // ----- Parents -----
+
+    /**
+     * Adds the given parent {@link Node} to the given child object without verifying the parent type if possible.
+     * This function is only called for fields whose parent type compatibility has been proven at compile time.
+     * If the child object is a {@link DefaultParentAware}, its {@link DefaultParentAware#addParentUnchecked(Node) unchecked add method} is used.
+     * If it is any other {@link ParentAware} object, the regular (checked) {@link ParentAware#addParent(Node)} method is called.
+     * If the child object isn't parent-aware at all (or {@code null}), nothing happens.
+     * 
+     * @param child The child object the given parent should be added to.
+     * @param parent The parent node which should be added to the given child object.
+     */
+    public static void addParentUnchecked(Object child, Node<?> parent) {
+
+        if (child instanceof DefaultParentAware) {
+            ((DefaultParentAware<?>) child).addParentUnchecked(parent);
+        } else if (child instanceof ParentAware) {
+            ((ParentAware<?>) child).addParent(parent);
+        }
+    }
+
     private RHConstFunctions() {
 
     }
@@ -0,0 +1,102 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.internal;
+
+/**
+ * A tree event recorder receives events about expensive tree operations from the {@link TreeEvents} facade and forwards them to some kind of event system
+ * (e.g. Java Flight Recorder).
+ * Implementations are looked up using the {@link java.util.ServiceLoader} mechanism; only the first found implementation is used.<br>
+ * <br>
+ * Each event is recorded in two steps: The {@code begin} method is called before the operation starts and returns a token, which is passed to the
+ * {@code commit} method after the operation has finished. If an event type is disabled, its {@code begin} method should return {@code null}.
+ * In that case, the {@code commit} method is not called at all.
+ * 
+ * @see TreeEvents
+ */
+public interface TreeEventRecorder {
+
+    /**
+     * Starts recording a wrapper parent fan-out event, which is caused by adding or removing a parent to/from a wrapper.
+     * 
+     * @return The event token, or {@code null} if such events are disabled.
+     */
+    public Object beginWrapperFanOut();
+
+    /**
+     * Finishes recording a wrapper parent fan-out event.
+     * 
+     * @param token The token returned by {@link #beginWrapperFanOut()}. Never {@code null}.
+     * @param wrapperClass The class of the wrapper whose parents have been changed.
+     * @param adding Whether a parent has been added ({@code true}) or removed ({@code false}).
+     * @param elementCount The amount of wrapped elements the parent change has been propagated to.
+     */
+    public void commitWrapperFanOut(Object token, Class<?> wrapperClass, boolean adding, int elementCount);
+
+    /**
+     * Starts recording a wrapper bulk operation event, which is caused by operations like {@code addAll()} or {@code clear()}.
+     * 
+     * @return The event token, or {@code null} if such events are disabled.
+     */
+    public Object beginWrapperBulkOperation();
+
+    /**
+     * Finishes recording a wrapper bulk operation event.
+     * 
+     * @param token The token returned by {@link #beginWrapperBulkOperation()}. Never {@code null}.
+     * @param wrapperClass The class of the wrapper which has executed the operation.
+     * @param operation The name of the operation (e.g. {@code "addAll"}).
+     * @param elementCount The amount of elements processed by the operation.
+     */
+    public void commitWrapperBulkOperation(Object token, Class<?> wrapperClass, String operation, int elementCount);
+
+    /**
+     * Starts recording a children materialization event, which is caused by calling the {@code getChildren()} method of a node.
+     * 
+     * @return The event token, or {@code null} if such events are disabled.
+     */
+    public Object beginGetChildren();
+
+    /**
+     * Finishes recording a children materialization event.
+     * Implementations might decide to only commit the event if the amount of children exceeds some threshold.
+     * 
+     * @param token The token returned by {@link #beginGetChildren()}. Never {@code null}.
+     * @param nodeClass The class of the node whose children have been materialized.
+     * @param childCount The amount of materialized children.
+     */
+    public void commitGetChildren(Object token, Class<?> nodeClass, int childCount);
+
+    /**
+     * Starts recording an unmarshal parent restoration event, which is caused by the generated {@code afterUnmarshal()} method of a node.
+     * 
+     * @return The event token, or {@code null} if such events are disabled.
+     */
+    public Object beginAfterUnmarshal();
+
+    /**
+     * Finishes recording an unmarshal parent restoration event.
+     * 
+     * @param token The token returned by {@link #beginAfterUnmarshal()}. Never {@code null}.
+     * @param nodeClass The class of the node whose children have received the node as a parent.
+     * @param scannedFieldCount The amount of fields whose values have been checked for parent-aware objects.
+     *        Only the parent-aware objects among those values have received the node as a parent.
+     */
+    public void commitAfterUnmarshal(Object token, Class<?> nodeClass, int scannedFieldCount);
+
+}
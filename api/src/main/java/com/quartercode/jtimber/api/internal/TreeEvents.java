@@ -0,0 +1,166 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.internal;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * This internal class is the facade through which JTimber reports expensive tree operations to the installed {@link TreeEventRecorder}.
+ * It is used by the wrappers as well as by the code injected by the runtime hook.
+ * If no recorder is installed (e.g. because the JFR module is not on the classpath), all methods return immediately.
+ * Since the recorder is stored in a constant, the JIT compiler is able to remove the calls entirely in that case.<br>
+ * <br>
+ * Each event is recorded by calling a {@code begin} method before the operation and passing the returned token to the corresponding {@code commit} method
+ * afterwards. A {@code null} token means that the event is disabled.
+ * 
+ * @see TreeEventRecorder
+ */
+public class TreeEvents {
+
+    private static final TreeEventRecorder RECORDER = loadRecorder();
+
+    private static TreeEventRecorder loadRecorder() {
+
+        try {
+            Iterator<TreeEventRecorder> recorders = ServiceLoader.load(TreeEventRecorder.class, TreeEvents.class.getClassLoader()).iterator();
+            return recorders.hasNext() ? recorders.next() : null;
+        } catch (ServiceConfigurationError | LinkageError e) {
+            // The recorder cannot be used (e.g. because it requires a newer JVM); events are just not recorded
+            return null;
+        }
+    }
+
+    // ----- Wrappers -----
+
+    /**
+     * Starts recording a wrapper parent fan-out event, which is caused by adding or removing a parent to/from a wrapper.
+     * 
+     * @return The event token, or {@code null} if the event is disabled.
+     */
+    public static Object beginWrapperFanOut() {
+
+        return RECORDER == null ? null : RECORDER.beginWrapperFanOut();
+    }
+
+    /**
+     * Finishes recording a wrapper parent fan-out event.
+     * 
+     * @param token The token returned by {@link #beginWrapperFanOut()}.
+     * @param wrapper The wrapper whose parents have been changed.
+     * @param adding Whether a parent has been added ({@code true}) or removed ({@code false}).
+     * @param elementCount The amount of wrapped elements the parent change has been propagated to.
+     */
+    public static void commitWrapperFanOut(Object token, Wrapper wrapper, boolean adding, int elementCount) {
+
+        if (token != null) {
+            RECORDER.commitWrapperFanOut(token, wrapper.getClass(), adding, elementCount);
+        }
+    }
+
+    /**
+     * Starts recording a wrapper bulk operation event, which is caused by operations like {@code addAll()} or {@code clear()}.
+     * 
+     * @return The event token, or {@code null} if the event is disabled.
+     */
+    public static Object beginWrapperBulkOperation() {
+
+        return RECORDER == null ? null : RECORDER.beginWrapperBulkOperation();
+    }
+
+    /**
+     * Finishes recording a wrapper bulk operation event.
+     * 
+     * @param token The token returned by {@link #beginWrapperBulkOperation()}.
+     * @param wrapper The wrapper which has executed the operation.
+     * @param operation The name of the operation (e.g. {@code "addAll"}).
+     * @param elementCount The amount of elements processed by the operation.
+     */
+    public static void commitWrapperBulkOperation(Object token, Wrapper wrapper, String operation, int elementCount) {
+
+        if (token != null) {
+            RECORDER.commitWrapperBulkOperation(token, wrapper.getClass(), operation, elementCount);
+        }
+    }
+
+    // ----- Nodes -----
+
+    /**
+     * Starts recording a children materialization event. This method is called by the child accessors generated by the runtime hook.
+     * Since the generated child accessors of a node class call the ones of its node superclass, the event is only started for the outermost call,
+     * which is the one where the given declaring class is the actual class of the node.
+     * The nested calls don't create any event.
+     * 
+     * @param node The node whose children are materialized.
+     * @param declaringClass The class which declares the calling child accessor.
+     * @return The event token, or {@code null} if the event is disabled or the call is not the outermost one.
+     */
+    public static Object beginGetChildren(Object node, Class<?> declaringClass) {
+
+        return RECORDER == null || node.getClass() != declaringClass ? null : RECORDER.beginGetChildren();
+    }
+
+    /**
+     * Finishes recording a children materialization event. This method is called by the child accessors generated by the runtime hook.
+     * 
+     * @param children The materialized children. The order of parameters is chosen for maximum efficiency.
+     * @param token The token returned by {@link #beginGetChildren(Object, Class)}.
+     * @param node The node whose children have been materialized.
+     * @param declaringClass The class which declares the calling child accessor.
+     */
+    public static void commitGetChildren(List<Object> children, Object token, Object node, Class<?> declaringClass) {
+
+        if (token != null) {
+            RECORDER.commitGetChildren(token, declaringClass, children.size());
+        }
+    }
+
+    /**
+     * Starts recording an unmarshal parent restoration event. This method is called by the {@code afterUnmarshal()} method generated by the runtime hook.
+     * 
+     * @return The event token, or {@code null} if the event is disabled.
+     */
+    public static Object beginAfterUnmarshal() {
+
+        return RECORDER == null ? null : RECORDER.beginAfterUnmarshal();
+    }
+
+    /**
+     * Finishes recording an unmarshal parent restoration event. This method is called by the {@code afterUnmarshal()} method generated by the runtime hook.
+     * 
+     * @param token The token returned by {@link #beginAfterUnmarshal()}.
+     * @param node The node whose field values have received the node as a parent.
+     * @param scannedFieldCount The amount of fields whose values have been checked for parent-aware objects.
+     *        Only the parent-aware objects among those values have received the node as a parent.
+     */
+    public static void commitAfterUnmarshal(Object token, Object node, int scannedFieldCount) {
+
+        if (token != null) {
+            RECORDER.commitAfterUnmarshal(token, node.getClass(), scannedFieldCount);
+        }
+    }
+
+    private TreeEvents() {
+
+    }
+
+}
@@ -19,11 +19,13 @@
 package com.quartercode.jtimber.api.node;
 
 import java.util.List;
+import com.quartercode.jtimber.api.internal.FallbackChildAccessors;
 
 /**
  * The default implementation of the {@link Node} interface.
  * The child accessors are overridden for each implementation of {@link Node} (not only DefaultNode) at runtime.
- * Therefore, this class just provides empty dummy methods which do nothing (because they will be removed at runtime).
+ * Therefore, this class just provides fallback methods which are only used if the runtime hook is not available (see {@link FallbackChildAccessors}).
+ * In that case, parents can still be tracked by writing fields through {@link TrackedField}s.
  * For the implementation of {@link ParentAware} functionality, it just extends the {@link DefaultParentAware} implementation.
  * 
  * @param <P> The type of {@link Node}s that are able to be parents of this node.
@@ -36,19 +38,19 @@ import java.util.List;
 public class DefaultNode<P extends Node<?>> extends DefaultParentAware<P> implements Node<P> {
 
     /*
-     * The following two methods are just dummies and will be overridden at runtime.
+     * The following two methods are just fallbacks and will be overridden at runtime.
      */
 
     @Override
     public List<Object> getChildren() {
 
-        return null;
+        return FallbackChildAccessors.get(getClass()).getChildren(this);
     }
 
     @Override
     public int getChildCount() {
 
-        return 0;
+        return FallbackChildAccessors.get(getClass()).getChildCount(this);
     }
 
 }
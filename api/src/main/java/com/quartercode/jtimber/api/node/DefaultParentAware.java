@@ -19,13 +19,19 @@
 package com.quartercode.jtimber.api.node;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
 import net.jodah.typetools.TypeResolver;
 
 /**
  * The default implementation of the {@link ParentAware} interface.
- * It stores the parent collection using an {@link ArrayList}, held in a {@code transient} field.
+ * It stores the parent collection using an {@link ArrayList}, held in a {@code transient} field.<br>
+ * <br>
+ * Apart from the directly stored parents, the parent-aware object can inherit the parents of {@link #addContainer(ParentAware) containers}.
+ * Containers are wrappers with {@link ParentPropagation#LAZY lazy parent propagation}.
+ * Their parents are not stored by the parent-aware object; instead, they are retrieved from the containers whenever the parents are requested.
  * 
  * @param <P> The type of {@link Node}s that are able to be parents of this parent-aware object.
  *        Note that all parents are verified against this type at runtime.
@@ -35,34 +41,140 @@ import net.jodah.typetools.TypeResolver;
  */
 public class DefaultParentAware<P extends Node<?>> implements ParentAware<P> {
 
-    private final transient List<P> parents             = new ArrayList<>();
-    private final transient List<P> parentsUnmodifiable = Collections.unmodifiableList(parents);
+    private final transient ArrayList<P>        parents             = new ArrayList<>();
+    private final transient List<P>             parentsUnmodifiable = Collections.unmodifiableList(parents);
 
+    // Only created once the first container is added
+    private transient ArrayList<ParentAware<?>> containers;
+
+    /**
+     * {@inheritDoc}
+     * If the parent-aware object has {@link #addContainer(ParentAware) containers}, the parents of those containers are appended to the directly stored parents.
+     * In that case, a new list is assembled on each call.
+     */
     @Override
+    @SuppressWarnings ("unchecked")
     public List<P> getParents() {
 
-        return parentsUnmodifiable;
+        if (containers == null || containers.isEmpty()) {
+            return parentsUnmodifiable;
+        }
+
+        List<P> allParents = new ArrayList<>(getParentCount());
+        allParents.addAll(parents);
+        for (ParentAware<?> container : containers) {
+            // The parent types have been verified when the container has been added or has gained the parents
+            allParents.addAll((List<P>) container.getParents());
+        }
+        return Collections.unmodifiableList(allParents);
     }
 
     @Override
     public int getParentCount() {
 
-        return parents.size();
+        int count = parents.size();
+
+        if (containers != null) {
+            for (ParentAware<?> container : containers) {
+                count += container.getParentCount();
+            }
+        }
+
+        return count;
     }
 
-    @SuppressWarnings ("unchecked")
     @Override
     public void addParent(Node<?> parent) {
 
         if (parent != null) {
-            Class<?> allowedParentClass = TypeResolver.resolveRawArgument(ParentAware.class, getClass());
-            boolean allowedParent = allowedParentClass.isAssignableFrom(parent.getClass());
-
-            if (allowedParent) {
-                // This unchecked cast cannot be avoided; however, the check above should have filtered out any disallowed parent
-                parents.add((P) parent);
-            } else {
-                throw new IllegalParentTypeException(this, parent, "Nodes of type '" + parent.getClass().getName() + "' are not allowed to reference parent-aware objects of type '" + getClass().getName() + "'");
+            checkParentType(getAllowedParentClass(), parent);
+            addParentUnchecked(parent);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * This implementation resolves the allowed parent type only once and verifies all given nodes before any of them is added.
+     * Afterwards, it calls {@link #addParentsUnchecked(Collection)}.
+     * 
+     * @throws IllegalParentTypeException One of the given nodes is not allowed as a parent. In that case, no node is added.
+     */
+    @Override
+    public void addParents(Collection<? extends Node<?>> parents) {
+
+        if (!parents.isEmpty()) {
+            Class<?> allowedParentClass = getAllowedParentClass();
+            for (Node<?> parent : parents) {
+                if (parent != null) {
+                    checkParentType(allowedParentClass, parent);
+                }
+            }
+
+            addParentsUnchecked(parents);
+        }
+    }
+
+    /**
+     * <b>Internal</b> method which returns the raw type of the {@link Node}s that are allowed to be parents of this parent-aware object.
+     * It is resolved from the generic type parameter {@code <P>}.
+     * Wrappers use it in order to verify the parents they gain against the elements which inherit their parents {@link #addContainer(ParentAware) lazily}.
+     * 
+     * @return The allowed parent type.
+     */
+    public Class<?> getAllowedParentClass() {
+
+        return TypeResolver.resolveRawArgument(ParentAware.class, getClass());
+    }
+
+    private void checkParentType(Class<?> allowedParentClass, Node<?> parent) {
+
+        if (!allowedParentClass.isAssignableFrom(parent.getClass())) {
+            throw new IllegalParentTypeException(this, parent, "Nodes of type '" + parent.getClass().getName() + "' are not allowed to reference parent-aware objects of type '" + getClass().getName() + "'");
+        }
+    }
+
+    /**
+     * <b>Internal</b> method for adding a parent {@link Node} to the {@link #getParents() parents list} <b>without</b> verifying it against the generic type parameter {@code <P>}.
+     * Apart from that missing check, this method behaves exactly like {@link #addParent(Node)}.
+     * It is used by the runtime hook for fields whose parent type compatibility has already been proven at compile time.
+     * <b>Don't call this method if you don't have a reason to do it!</b><br>
+     * <br>
+     * Note that {@link #addParent(Node)} calls this method after it has checked the parent type.
+     * Therefore, subclasses which need to react to new parents should override this method instead of {@link #addParent(Node)}.
+     * 
+     * @param parent The parent node to add to the parents list.
+     *        If this is {@code null}, nothing happens.
+     */
+    @SuppressWarnings ("unchecked")
+    public void addParentUnchecked(Node<?> parent) {
+
+        if (parent != null) {
+            // This unchecked cast cannot be avoided; however, the caller must make sure that the parent is allowed
+            parents.add((P) parent);
+        }
+    }
+
+    /**
+     * <b>Internal</b> method for adding multiple parent {@link Node}s to the {@link #getParents() parents list} <b>without</b> verifying them against the generic type parameter {@code <P>}.
+     * Apart from that missing check, this method behaves exactly like {@link #addParents(Collection)}.
+     * The parents list is only grown once.
+     * <b>Don't call this method if you don't have a reason to do it!</b><br>
+     * <br>
+     * Note that this method doesn't call {@link #addParentUnchecked(Node)}.
+     * Therefore, subclasses which override that method in order to react to new parents must override this method as well.
+     * 
+     * @param parents The parent nodes to add to the parents list.
+     *        {@code null} elements are ignored.
+     */
+    @SuppressWarnings ("unchecked")
+    public void addParentsUnchecked(Collection<? extends Node<?>> parents) {
+
+        this.parents.ensureCapacity(this.parents.size() + parents.size());
+
+        for (Node<?> parent : parents) {
+            if (parent != null) {
+                // This unchecked cast cannot be avoided; however, the caller must make sure that the parents are allowed
+                this.parents.add((P) parent);
             }
         }
     }
@@ -73,4 +185,106 @@ public class DefaultParentAware<P extends Node<?>> implements ParentAware<P> {
         parents.remove(parent);
     }
 
+    /**
+     * <b>Internal</b> method for adding a container whose parents should be inherited by this parent-aware object.
+     * A container is a wrapper with {@link ParentPropagation#LAZY lazy parent propagation} which contains this object.
+     * Instead of adding its parents to this object, it just registers itself; afterwards, all its parents are returned by {@link #getParents()}.
+     * If a container contains this object multiple times, it must be added multiple times.
+     * <b>Don't call this method if you don't have a reason to do it!</b><br>
+     * <br>
+     * The current parents of the container are verified against the generic type parameter {@code <P>}.
+     * Parents the container gains afterwards must be verified by the container itself (see {@link #getAllowedParentClass()}).
+     * 
+     * @param container The container which should be added.
+     * @return Whether the container has been added. If this is {@code false}, the caller must add the parents of the container directly.
+     * @throws IllegalParentTypeException One of the current parents of the container is not allowed as a parent. In that case, the container is not added.
+     */
+    public boolean addContainer(ParentAware<?> container) {
+
+        List<? extends Node<?>> containerParents = container.getParents();
+        if (!containerParents.isEmpty()) {
+            Class<?> allowedParentClass = getAllowedParentClass();
+            for (Node<?> parent : containerParents) {
+                checkParentType(allowedParentClass, parent);
+            }
+        }
+
+        if (containers == null) {
+            containers = new ArrayList<>(1);
+        }
+        containers.add(container);
+        return true;
+    }
+
+    /**
+     * <b>Internal</b> method for removing a container which has been added with {@link #addContainer(ParentAware)}.
+     * Containers are compared by identity. If the container has been added multiple times, it is only removed once.
+     * <b>Don't call this method if you don't have a reason to do it!</b>
+     * 
+     * @param container The container which should be removed.
+     * @return Whether the container has been removed. If this is {@code false}, the container has never been added and the caller must remove its parents directly.
+     */
+    public boolean removeContainer(ParentAware<?> container) {
+
+        int index = indexOfContainer(container);
+
+        if (index < 0) {
+            return false;
+        } else {
+            containers.remove(index);
+            return true;
+        }
+    }
+
+    /**
+     * <b>Internal</b> method which returns whether the given container has been added with {@link #addContainer(ParentAware)} and hasn't been removed since.
+     * Containers are compared by identity.
+     * 
+     * @param container The container which should be checked.
+     * @return Whether the container is currently added.
+     */
+    public boolean hasContainer(ParentAware<?> container) {
+
+        return indexOfContainer(container) >= 0;
+    }
+
+    /**
+     * Removes all {@link #addContainer(ParentAware) containers} and stores their current parents directly instead.
+     * Afterwards, parents the former containers gain or lose are no longer reflected by {@link #getParents()}.
+     * Therefore, the caller must make sure that the former containers pass such changes on to this object from now on.
+     * The parents are stored without calling any of the {@code addParent} methods.
+     * 
+     * @return The removed containers. Containers which have been added multiple times are contained multiple times.
+     */
+    @SuppressWarnings ("unchecked")
+    protected List<ParentAware<?>> inlineContainers() {
+
+        if (containers == null || containers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<ParentAware<?>> inlinedContainers = containers;
+        containers = null;
+
+        for (ParentAware<?> container : inlinedContainers) {
+            // The parent types have been verified when the container has been added or has gained the parents
+            parents.addAll((List<P>) container.getParents());
+        }
+
+        return inlinedContainers;
+    }
+
+    private int indexOfContainer(ParentAware<?> container) {
+
+        if (containers != null) {
+            for (int index = 0; index < containers.size(); index++) {
+                if (containers.get(index) == container) {
+                    return index;
+                }
+            }
+        }
+
+        return -1;
+    }
+
 }
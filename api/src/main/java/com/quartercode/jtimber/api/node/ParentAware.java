@@ -18,6 +18,7 @@
 
 package com.quartercode.jtimber.api.node;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -83,4 +84,40 @@ public interface ParentAware<P extends Node<?>> {
      */
     public void removeParent(Node<?> parent);
 
+    /**
+     * <b>Internal</b> method for adding multiple parent {@link Node}s to the {@link #getParents() parents list} at once.
+     * The result must be the same as calling {@link #addParent(Node)} for each given node.
+     * However, implementations can use this method to verify the parent types and grow the parents list only once.
+     * It is used by wrappers in order to pass all their parents to a new element with a single call.
+     * <b>Don't call this method if you don't have a reason to do it!</b><br>
+     * <br>
+     * By default, this method calls {@link #addParent(Node)} for each given node.
+     * 
+     * @param parents The parent nodes to add to the parents list.
+     *        {@code null} elements should be ignored.
+     */
+    public default void addParents(Collection<? extends Node<?>> parents) {
+
+        for (Node<?> parent : parents) {
+            addParent(parent);
+        }
+    }
+
+    /**
+     * <b>Internal</b> method for removing multiple parent {@link Node}s from the {@link #getParents() parents list} at once.
+     * The result must be the same as calling {@link #removeParent(Node)} for each given node.
+     * <b>Don't call this method if you don't have a reason to do it!</b><br>
+     * <br>
+     * By default, this method calls {@link #removeParent(Node)} for each given node.
+     * 
+     * @param parents The parent nodes to remove from the parents list.
+     *        {@code null} elements should be ignored.
+     */
+    public default void removeParents(Collection<? extends Node<?>> parents) {
+
+        for (Node<?> parent : parents) {
+            removeParent(parent);
+        }
+    }
+
 }
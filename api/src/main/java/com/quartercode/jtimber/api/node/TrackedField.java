@@ -0,0 +1,165 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A tracked field provides explicit parent watchers for a single field of a {@link Node} class.
+ * Writes performed through the {@link #set(Node, Object)} method update the parents of the old and the new field value exactly like
+ * the parent watchers inserted by the runtime hook do.
+ * Therefore, tracked fields can be used to track parents in environments where neither the javaagent nor any other kind of bytecode weaving is available.
+ * Since the write itself is performed outside of the node class, tracked fields also work if the runtime hook is present.<br>
+ * <br>
+ * A tracked field should be created once per field and stored in a constant.
+ * The field is accessed through {@link MethodHandle}s which are created on construction; no reflection is used afterwards.
+ * For example:
+ * 
+ * <pre>
+ * private static final TrackedField&lt;MyNode, Child&gt; CHILD = TrackedField.of(MyNode.class, &quot;child&quot;);
+ * 
+ * private Child child;
+ * 
+ * public void setChild(Child child) {
+ * 
+ *     CHILD.set(this, child);
+ * }
+ * </pre>
+ * 
+ * Note that direct writes to the field are not tracked if the runtime hook isn't present.
+ * 
+ * @param <N> The type of the node class which declares the field.
+ * @param <V> The type of the values which are stored in the field.
+ */
+public class TrackedField<N extends Node<?>, V> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String            name;
+    private final MethodHandle      getter;
+    private final MethodHandle      setter;
+
+    /**
+     * Creates a new tracked field for the non-static field with the given name, which is declared by the given node class.
+     * 
+     * @param <N> The type of the node class which declares the field.
+     * @param <V> The type of the values which are stored in the field.
+     * @param nodeClass The node class which declares the field.
+     * @param fieldName The name of the field.
+     * @return The tracked field.
+     * @throws IllegalArgumentException The field doesn't exist or is static, final or inaccessible.
+     */
+    public static <N extends Node<?>, V> TrackedField<N, V> of(Class<N> nodeClass, String fieldName) {
+
+        Field field;
+        try {
+            field = nodeClass.getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Node class '" + nodeClass.getName() + "' doesn't declare a field '" + fieldName + "'", e);
+        }
+
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+            throw new IllegalArgumentException("Field '" + fieldName + "' of node class '" + nodeClass.getName() + "' must be neither static nor final");
+        }
+
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new TrackedField<>(fieldName, lookup.unreflectGetter(field).asType(GETTER_TYPE), lookup.unreflectSetter(field).asType(SETTER_TYPE));
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new IllegalArgumentException("Cannot access field '" + fieldName + "' of node class '" + nodeClass.getName() + "'", e);
+        }
+    }
+
+    private TrackedField(String name, MethodHandle getter, MethodHandle setter) {
+
+        this.name = name;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Returns the name of the tracked field.
+     * 
+     * @return The field name.
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Returns the value which is currently stored in the tracked field of the given node.
+     * 
+     * @param node The node whose field value should be returned.
+     * @return The current field value.
+     */
+    @SuppressWarnings ("unchecked")
+    public V get(N node) {
+
+        try {
+            Object value = getter.invokeExact((Object) node);
+            return (V) value;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Field getters never throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stores the given value in the tracked field of the given node and updates the parents of the old and the new value.
+     * The node is removed from the parents of the old value (if it is parent-aware) and added to the parents of the new value (if it is parent-aware).
+     * 
+     * @param node The node whose field value should be changed.
+     * @param value The new field value.
+     * @throws IllegalParentTypeException The node is not an allowed parent of the new value.
+     *         In that case, the field is not changed.
+     */
+    public void set(N node, V value) {
+
+        Object oldValue = get(node);
+
+        // Add the parent first since it might be rejected; in that case, nothing must have been changed
+        if (value instanceof ParentAware) {
+            ((ParentAware<?>) value).addParent(node);
+        }
+
+        try {
+            setter.invokeExact((Object) node, (Object) value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Field setters never throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+
+        if (oldValue instanceof ParentAware) {
+            ((ParentAware<?>) oldValue).removeParent(node);
+        }
+    }
+
+}
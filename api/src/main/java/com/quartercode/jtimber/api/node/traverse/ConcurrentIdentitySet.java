@@ -0,0 +1,58 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.traverse;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/*
+ * A thread-safe set which compares its elements by identity.
+ * The elements are distributed over a fixed amount of identity sets by their identity hash codes.
+ * Each of those stripes is guarded by its own lock so that parallel traversals rarely contend.
+ */
+class ConcurrentIdentitySet {
+
+    private static final int    STRIPES = 64;
+
+    private final Set<Object>[] stripes;
+
+    @SuppressWarnings ("unchecked")
+    ConcurrentIdentitySet() {
+
+        stripes = new Set[STRIPES];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            stripes[stripe] = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        }
+    }
+
+    /*
+     * Adds the given object to the set and returns whether it hasn't been contained before.
+     */
+    boolean add(Object object) {
+
+        int hash = System.identityHashCode(object);
+        Set<Object> stripe = stripes[ (hash ^ hash >>> 16) & (STRIPES - 1)];
+
+        synchronized (stripe) {
+            return stripe.add(object);
+        }
+    }
+
+}
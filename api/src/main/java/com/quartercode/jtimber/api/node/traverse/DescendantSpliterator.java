@@ -0,0 +1,169 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.traverse;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Spliterator} which traverses all {@link Node}s that are reachable from a root node through the {@link Node#getChildren() children} of the nodes.
+ * Since the children lists resolve {@link Wrapper}s, the contents of wrappers are traversed as well. Children which are no nodes are skipped.
+ * The traversal doesn't use recursion; therefore, arbitrarily deep trees can be traversed.<br>
+ * <br>
+ * Each node is only returned once, even if it is referenced by multiple nodes (shared subtrees) or by one of its own descendants (cycles).
+ * For that purpose, the spliterator remembers all visited nodes by identity.<br>
+ * <br>
+ * The spliterator can be split at each node which has more than one node child, including the elements of wrappers.
+ * Therefore, parallel streams are able to distribute wide trees over all available processors.
+ * The order in which the nodes are returned is undefined.
+ * Note that the traversed tree must not be modified during the traversal.
+ * 
+ * @see NodeStreams
+ */
+public class DescendantSpliterator implements Spliterator<Node<?>> {
+
+    /*
+     * The maximum amount of nodes which trySplit() expands in order to find a node with multiple children.
+     * Longer chains of single children are not split.
+     */
+    private static final int            MAX_SPLIT_EXPANSIONS = 1024;
+
+    private final ConcurrentIdentitySet visited;
+
+    // Nodes whose children have already been pushed to the pending stack, but which haven't been returned yet
+    private final ArrayDeque<Node<?>>   expanded;
+    // Nodes which have neither been expanded nor returned yet
+    private final ArrayDeque<Node<?>>   pending;
+
+    private long                        estimatedSize;
+
+    /**
+     * Creates a new descendant spliterator which traverses all descendants of the given root node.
+     * 
+     * @param root The root node whose descendants should be traversed.
+     * @param includeRoot Whether the root node itself should be returned as well.
+     */
+    public DescendantSpliterator(Node<?> root, boolean includeRoot) {
+
+        this(new ConcurrentIdentitySet(), Long.MAX_VALUE);
+
+        visited.add(root);
+        if (includeRoot) {
+            pending.add(root);
+        } else {
+            pushChildren(root);
+        }
+    }
+
+    private DescendantSpliterator(ConcurrentIdentitySet visited, long estimatedSize) {
+
+        this.visited = visited;
+        this.estimatedSize = estimatedSize;
+
+        expanded = new ArrayDeque<>();
+        pending = new ArrayDeque<>();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Node<?>> action) {
+
+        Node<?> node = expanded.pollLast();
+
+        if (node == null) {
+            node = pending.pollLast();
+            if (node == null) {
+                return false;
+            }
+            pushChildren(node);
+        }
+
+        action.accept(node);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Node<?>> action) {
+
+        Node<?> node;
+        while ( (node = expanded.pollLast()) != null) {
+            action.accept(node);
+        }
+
+        while ( (node = pending.pollLast()) != null) {
+            pushChildren(node);
+            action.accept(node);
+        }
+    }
+
+    @Override
+    public Spliterator<Node<?>> trySplit() {
+
+        // If there is only one pending node, expand it (and its single child, etc.) until there are multiple pending nodes
+        for (int expansion = 0; pending.size() == 1 && expansion < MAX_SPLIT_EXPANSIONS; expansion++) {
+            Node<?> node = pending.pollLast();
+            pushChildren(node);
+            expanded.add(node);
+        }
+
+        int pendingCount = pending.size();
+        if (pendingCount < 2) {
+            return null;
+        }
+
+        estimatedSize >>>= 1;
+        DescendantSpliterator prefix = new DescendantSpliterator(visited, estimatedSize);
+
+        // Hand off the bottom half of the pending stack since the nodes at the bottom are usually the roots of the largest subtrees
+        for (int counter = pendingCount / 2; counter > 0; counter--) {
+            prefix.pending.add(pending.pollFirst());
+        }
+
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+
+        return NONNULL | DISTINCT;
+    }
+
+    private void pushChildren(Node<?> node) {
+
+        List<Object> children = node.getChildren();
+
+        for (int index = children.size() - 1; index >= 0; index--) {
+            Object child = children.get(index);
+
+            if (child instanceof Node && visited.add((Node<?>) child)) {
+                pending.add((Node<?>) child);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.traverse;
+
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import com.quartercode.jtimber.api.node.Node;
+
+/**
+ * This utility class provides {@link Stream}s over the descendants of {@link Node}s.
+ * All streams are backed by a {@link DescendantSpliterator}; see that class for details on the traversal.
+ * For example, the following code counts all nodes of a tree on all available processors:
+ * 
+ * <pre>
+ * long count = NodeStreams.descendantsAndSelf(root).parallel().count();
+ * </pre>
+ * 
+ * @see DescendantSpliterator
+ */
+public class NodeStreams {
+
+    /**
+     * Returns a sequential stream over all descendants of the given root node.
+     * The root node itself is not included. Each descendant is only included once.
+     * Call {@link Stream#parallel()} in order to traverse the tree in parallel.
+     * 
+     * @param root The root node whose descendants should be streamed.
+     * @return A stream over the descendants of the root node.
+     */
+    public static Stream<Node<?>> descendants(Node<?> root) {
+
+        return StreamSupport.stream(new DescendantSpliterator(root, false), false);
+    }
+
+    /**
+     * Returns a sequential stream over the given root node and all its descendants.
+     * Each node is only included once.
+     * Call {@link Stream#parallel()} in order to traverse the tree in parallel.
+     * 
+     * @param root The root node which should be streamed along with its descendants.
+     * @return A stream over the root node and its descendants.
+     */
+    public static Stream<Node<?>> descendantsAndSelf(Node<?> root) {
+
+        return StreamSupport.stream(new DescendantSpliterator(root, true), false);
+    }
+
+    private NodeStreams() {
+
+    }
+
+}
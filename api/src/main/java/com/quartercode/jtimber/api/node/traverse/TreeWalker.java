@@ -0,0 +1,406 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.traverse;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A tree walker visits a root {@link Node} and all nodes that are reachable from it through the {@link Node#getChildren() children} of the nodes.
+ * Since the children lists resolve {@link Wrapper}s, the contents of wrappers are walked as well. Children which are no nodes are skipped.
+ * The walker doesn't use recursion; instead, it keeps the pending nodes in an explicit stack or queue, depending on the {@link Order}.
+ * Therefore, arbitrarily deep trees can be walked.<br>
+ * <br>
+ * Each node is only visited once, even if it is referenced by multiple nodes (shared subtrees) or by one of its own descendants (cycles).
+ * Just like the {@link DescendantSpliterator}, the walker remembers all visited nodes by identity.
+ * A node which is reachable through multiple paths is visited at the depth of the first path the walk follows to it.
+ * In breadth-first order, that is the minimum depth, which is the length of the shortest path from the root node.
+ * In the depth-first orders, it is the depth of the first path in depth-first order, which might be longer.
+ * All orders walk the tree in a single pass and retrieve the children list of each expanded node only once.<br>
+ * <br>
+ * The walk can be restricted using a {@link #setMaxDepth(int) maximum depth} and a {@link #setPruner(Pruner) pruner}, which decides whether the children of a node should be walked.
+ * Both restrictions are applied to the depth at which a node is visited.
+ * Therefore, if nodes are reachable through multiple paths, the set of visited nodes might depend on the order.
+ * A tree walker should be reused for multiple walks since the internal buffers and the visited set keep their capacity between walks.
+ * Tree walkers are not thread-safe.
+ * For example:
+ * 
+ * <pre>
+ * TreeWalker walker = new TreeWalker(TreeWalker.Order.PRE_ORDER);
+ * walker.setMaxDepth(3);
+ * walker.walk(root, (node, depth) -&gt; System.out.println(depth + &quot;: &quot; + node));
+ * </pre>
+ * 
+ * @see DescendantSpliterator
+ */
+public class TreeWalker {
+
+    private static final int   INITIAL_CAPACITY = 64;
+
+    private final Order        order;
+    private int                maxDepth         = Integer.MAX_VALUE;
+    private Pruner             pruner;
+
+    // A ring buffer which is used as stack (depth-first orders) or as queue (breadth-first order); the depth of each node is recorded when it is pushed
+    private Node<?>[]          nodes            = new Node<?>[INITIAL_CAPACITY];
+    private int[]              depths           = new int[INITIAL_CAPACITY];
+    private boolean[]          expanded         = new boolean[INITIAL_CAPACITY];
+    private int                head;
+    private int                size;
+
+    // Contains the visited nodes (depth-first orders) or the discovered nodes (breadth-first order) by identity
+    private final Set<Node<?>> visited          = Collections.newSetFromMap(new IdentityHashMap<Node<?>, Boolean>());
+    private boolean            walking;
+
+    /**
+     * Creates a new tree walker which visits the nodes in the given {@link Order}.
+     * 
+     * @param order The order in which the nodes should be visited.
+     */
+    public TreeWalker(Order order) {
+
+        this.order = order;
+    }
+
+    /**
+     * Returns the {@link Order} in which the tree walker visits the nodes.
+     * 
+     * @return The walk order.
+     */
+    public Order getOrder() {
+
+        return order;
+    }
+
+    /**
+     * Returns the maximum depth of the nodes which are visited by the tree walker.
+     * The root node has the depth {@code 0}, its children have the depth {@code 1}, etc.
+     * By default, the depth is not limited ({@link Integer#MAX_VALUE}).
+     * 
+     * @return The maximum depth.
+     */
+    public int getMaxDepth() {
+
+        return maxDepth;
+    }
+
+    /**
+     * Changes the maximum depth of the nodes which are visited by the tree walker.
+     * The root node has the depth {@code 0}, its children have the depth {@code 1}, etc.
+     * 
+     * @param maxDepth The new maximum depth. Must not be negative.
+     * @throws IllegalArgumentException The given maximum depth is negative.
+     */
+    public void setMaxDepth(int maxDepth) {
+
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth must not be negative: " + maxDepth);
+        }
+
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the {@link Pruner} which decides whether the children of a node should be walked.
+     * By default, no pruner is set and all children are walked.
+     * 
+     * @return The pruner, or {@code null} if no pruner is set.
+     */
+    public Pruner getPruner() {
+
+        return pruner;
+    }
+
+    /**
+     * Changes the {@link Pruner} which decides whether the children of a node should be walked.
+     * 
+     * @param pruner The new pruner. May be {@code null} in order to walk all children.
+     */
+    public void setPruner(Pruner pruner) {
+
+        this.pruner = pruner;
+    }
+
+    /**
+     * Walks the tree below the given root node and calls the given {@link Visitor} for the root node and each reachable node.
+     * 
+     * @param root The root node where the walk starts.
+     * @param visitor The visitor which is called for each visited node.
+     * @return The amount of visited nodes.
+     * @throws IllegalStateException The method is called while the tree walker is already walking (e.g. from within the visitor).
+     */
+    public long walk(Node<?> root, Visitor visitor) {
+
+        if (walking) {
+            throw new IllegalStateException("Tree walker is already walking");
+        }
+
+        walking = true;
+        try {
+            switch (order) {
+                case PRE_ORDER:
+                    return walkPreOrder(root, visitor);
+                case POST_ORDER:
+                    return walkPostOrder(root, visitor);
+                default:
+                    return walkBreadthFirst(root, visitor);
+            }
+        } finally {
+            // Release the references to the walked nodes, but keep the capacity of the buffers
+            while (size > 0) {
+                pollLast();
+            }
+            head = 0;
+            visited.clear();
+            walking = false;
+        }
+    }
+
+    private long walkPreOrder(Node<?> root, Visitor visitor) {
+
+        long count = 0;
+        push(root, 0);
+
+        while (size > 0) {
+            int depth = depths[index(size - 1)];
+            Node<?> node = pollLast();
+
+            // A node might have been pushed by multiple parents before it has been visited
+            if (visited.add(node)) {
+                // The pruner is called before the visitor in all orders
+                boolean descend = isDescending(node, depth);
+
+                visitor.visit(node, depth);
+                count++;
+
+                if (descend) {
+                    pushChildren(node, depth);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private long walkPostOrder(Node<?> root, Visitor visitor) {
+
+        long count = 0;
+        push(root, 0);
+
+        while (size > 0) {
+            int last = index(size - 1);
+            Node<?> node = nodes[last];
+            int depth = depths[last];
+
+            // On the first encounter, push the children on top of the node; on the second encounter, all children have been visited
+            if (!expanded[last]) {
+                if (visited.add(node)) {
+                    expanded[last] = true;
+
+                    if (isDescending(node, depth)) {
+                        pushChildren(node, depth);
+                    }
+                } else {
+                    // The node has already been expanded through another parent
+                    pollLast();
+                }
+            } else {
+                pollLast();
+                visitor.visit(node, depth);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private long walkBreadthFirst(Node<?> root, Visitor visitor) {
+
+        long count = 0;
+        visited.add(root);
+        push(root, 0);
+
+        while (size > 0) {
+            int depth = depths[head];
+            Node<?> node = pollFirst();
+
+            boolean descend = isDescending(node, depth);
+
+            visitor.visit(node, depth);
+            count++;
+
+            if (descend) {
+                List<Object> children = node.getChildren();
+                int childCount = children.size();
+
+                // Since each node is discovered through one of the shortest paths, it is visited at its minimum depth
+                for (int index = 0; index < childCount; index++) {
+                    Object child = children.get(index);
+
+                    if (child instanceof Node && visited.add((Node<?>) child)) {
+                        push((Node<?>) child, depth + 1);
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /*
+     * Returns whether the children of the given node, which is located at the given depth, should be walked.
+     */
+    private boolean isDescending(Node<?> node, int depth) {
+
+        return depth < maxDepth && (pruner == null || !pruner.prune(node, depth));
+    }
+
+    /*
+     * Pushes the unvisited node children of the given node, which is located at the given depth, to the end of the buffer.
+     * The children are pushed in reverse order so that the first child is popped first.
+     */
+    private void pushChildren(Node<?> node, int depth) {
+
+        List<Object> children = node.getChildren();
+
+        for (int index = children.size() - 1; index >= 0; index--) {
+            Object child = children.get(index);
+
+            if (child instanceof Node && !visited.contains(child)) {
+                push((Node<?>) child, depth + 1);
+            }
+        }
+    }
+
+    private int index(int offset) {
+
+        return (head + offset) & (nodes.length - 1);
+    }
+
+    private void push(Node<?> node, int depth) {
+
+        if (size == nodes.length) {
+            grow();
+        }
+
+        int index = index(size);
+        nodes[index] = node;
+        depths[index] = depth;
+        expanded[index] = false;
+        size++;
+    }
+
+    private Node<?> pollLast() {
+
+        int index = index(size - 1);
+        Node<?> node = nodes[index];
+        nodes[index] = null;
+        size--;
+        return node;
+    }
+
+    private Node<?> pollFirst() {
+
+        Node<?> node = nodes[head];
+        nodes[head] = null;
+        head = index(1);
+        size--;
+        return node;
+    }
+
+    private void grow() {
+
+        int capacity = nodes.length;
+        Node<?>[] newNodes = new Node<?>[capacity << 1];
+        int[] newDepths = new int[capacity << 1];
+        boolean[] newExpanded = new boolean[capacity << 1];
+
+        // Unwrap the ring buffer so that the head is located at index 0
+        for (int offset = 0; offset < size; offset++) {
+            int index = index(offset);
+            newNodes[offset] = nodes[index];
+            newDepths[offset] = depths[index];
+            newExpanded[offset] = expanded[index];
+        }
+
+        nodes = newNodes;
+        depths = newDepths;
+        expanded = newExpanded;
+        head = 0;
+    }
+
+    /**
+     * The orders in which a {@link TreeWalker} is able to visit the nodes of a tree.
+     */
+    public static enum Order {
+
+        /**
+         * Depth-first order which visits each node before its children.
+         */
+        PRE_ORDER,
+        /**
+         * Depth-first order which visits each node after its children.
+         */
+        POST_ORDER,
+        /**
+         * Level order which visits all nodes of one depth before the nodes of the next depth.
+         */
+        BREADTH_FIRST;
+
+    }
+
+    /**
+     * A visitor is called by a {@link TreeWalker} for each visited node.
+     */
+    public static interface Visitor {
+
+        /**
+         * Visits the given node.
+         * 
+         * @param node The visited node.
+         * @param depth The depth of the visited node. The root node has the depth {@code 0}.
+         */
+        public void visit(Node<?> node, int depth);
+
+    }
+
+    /**
+     * A pruner decides whether a {@link TreeWalker} should walk the children of a node.
+     * Note that the pruned node itself is still visited.
+     */
+    public static interface Pruner {
+
+        /**
+         * Returns whether the children of the given node should <b>not</b> be walked.
+         * This method is called once for each walked node whose depth is lower than the {@link TreeWalker#setMaxDepth(int) maximum depth}.
+         * It is always called right before the node is visited.
+         * 
+         * @param node The node whose children might be pruned.
+         * @param depth The depth of the node. The root node has the depth {@code 0}.
+         * @return Whether the children of the node should be skipped.
+         */
+        public boolean prune(Node<?> node, int depth);
+
+    }
+
+}
@@ -18,8 +18,17 @@
 
 package com.quartercode.jtimber.api.node.wrapper;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 import com.quartercode.jtimber.api.node.DefaultParentAware;
+import com.quartercode.jtimber.api.node.IllegalParentTypeException;
 import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
 import com.quartercode.jtimber.api.node.wrapper.collection.ArrayWrapper;
 import com.quartercode.jtimber.api.node.wrapper.collection.CollectionWrapper;
 import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
@@ -27,22 +36,121 @@ import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
 /**
  * An abstract base implementation of the {@link Wrapper} interface (see that interface for more information on what wrappers are).
  * Note that this class is just a base class and does nothing on its own (apart from delegating calls to {@link #hashCode()}, {@link #equals(Object)} and {@link #toString()}).
- * For any actual parent-caretaking functionality, you must use specific wrapper implementations like {@link ArrayWrapper}, {@link CollectionWrapper}, or {@link ListWrapper}.
+ * For any actual parent-caretaking functionality, you must use specific wrapper implementations like {@link ArrayWrapper}, {@link CollectionWrapper}, or {@link ListWrapper}.<br>
+ * <br>
+ * However, the abstract wrapper provides the {@link #attachElement(ParentAware)} and {@link #detachElement(ParentAware)} methods.
+ * Implementations use them in order to pass their parents on to their elements according to their {@link ParentPropagation parent propagation mode}.
+ * In lazy mode, each element is linked to the wrapper when it is inserted and unlinked when it is removed.
+ * Implementations also attach the elements which are already stored in the wrapped object when they are created.
+ * Moreover, wrappers with at least {@link #getParallelThreshold() a certain amount} of elements pass parent changes on to their elements in parallel.
  * 
  * @see Wrapper
  */
 public abstract class AbstractWrapper extends DefaultParentAware<Node<?>> implements Wrapper {
 
-    private final Object wrapped;
+    /**
+     * The name of the system property which defines the default {@link #getParallelThreshold() parallel threshold} of all wrappers.
+     */
+    public static final String      PARALLEL_THRESHOLD_PROPERTY = "jtimber.wrapper.parallelThreshold";
+
+    private static final int        DEFAULT_PARALLEL_THRESHOLD  = Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, 1 << 16);
+
+    private final Object            wrapped;
+    private final ParentPropagation parentPropagation;
+    private int                     parallelThreshold           = DEFAULT_PARALLEL_THRESHOLD;
+    // Null means that the common pool is used
+    private ForkJoinPool            parallelPool;
+
+    // The amount of elements which don't support lazy parent propagation and therefore have been attached eagerly in lazy mode
+    private int                     eagerElements;
+    // The allowed parent types of the lazily attached elements which don't accept all nodes as parents, mapped to the amounts of such elements
+    private Map<Class<?>, Integer>  restrictedParentClasses;
 
     /**
      * Creates a new abstract wrapper that wraps around the given object and only delegates calls to {@link #hashCode()}, {@link #equals(Object)} and {@link #toString()} to the wrapped object.
+     * The wrapper uses the {@link ParentPropagation#getDefault() default parent propagation mode}.
      * 
      * @param wrapped The object the new abstract wrapper wraps around.
      */
     protected AbstractWrapper(Object wrapped) {
 
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new abstract wrapper that wraps around the given object and only delegates calls to {@link #hashCode()}, {@link #equals(Object)} and {@link #toString()} to the wrapped object.
+     * The wrapper uses the given parent propagation mode.
+     * 
+     * @param wrapped The object the new abstract wrapper wraps around.
+     * @param parentPropagation The {@link ParentPropagation} mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    protected AbstractWrapper(Object wrapped, ParentPropagation parentPropagation) {
+
         this.wrapped = wrapped;
+        this.parentPropagation = parentPropagation;
+    }
+
+    /**
+     * Returns the {@link ParentPropagation} mode which defines how the parents of the wrapper are passed on to its elements.
+     * 
+     * @return The parent propagation mode.
+     */
+    public ParentPropagation getParentPropagation() {
+
+        return parentPropagation;
+    }
+
+    /**
+     * Returns the minimum amount of elements the wrapper must contain in order to pass a new parent (or a removed one) on to its elements in parallel.
+     * Parallel fan-out uses the {@link #getParallelPool() parallel pool}.
+     * It is only used if the wrapper is {@link #isFlat() flat} and the parallel pool has a parallelism greater than one.
+     * By default, the threshold is {@code 65536} unless the system property {@value #PARALLEL_THRESHOLD_PROPERTY} defines another value.
+     * 
+     * @return The parallel fan-out threshold.
+     */
+    public int getParallelThreshold() {
+
+        return parallelThreshold;
+    }
+
+    /**
+     * Changes the minimum amount of elements the wrapper must contain in order to pass a new parent (or a removed one) on to its elements in parallel.
+     * See {@link #getParallelThreshold()} for more details.
+     * {@link Integer#MAX_VALUE} effectively disables parallel fan-out.
+     * 
+     * @param parallelThreshold The new parallel fan-out threshold.
+     * @throws IllegalArgumentException The given threshold is negative.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Parallel threshold must not be negative (got " + parallelThreshold + ")");
+        }
+
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns the {@link ForkJoinPool} which is used to pass a new parent (or a removed one) on to the elements in parallel.
+     * By default, that is the {@link ForkJoinPool#commonPool() common pool}.
+     * Note that parallel fan-out is not used if the pool has a parallelism of one, which is the case for the common pool on single-core machines.
+     * 
+     * @return The parallel fan-out pool.
+     */
+    public ForkJoinPool getParallelPool() {
+
+        return parallelPool == null ? ForkJoinPool.commonPool() : parallelPool;
+    }
+
+    /**
+     * Changes the {@link ForkJoinPool} which is used to pass a new parent (or a removed one) on to the elements in parallel.
+     * See {@link #getParallelPool()} for more details.
+     * 
+     * @param parallelPool The new parallel fan-out pool. {@code null} resets the pool to the common pool.
+     */
+    public void setParallelPool(ForkJoinPool parallelPool) {
+
+        this.parallelPool = parallelPool;
     }
 
     @Override
@@ -51,6 +159,215 @@ public abstract class AbstractWrapper extends DefaultParentAware<Node<?>> implem
         return wrapped;
     }
 
+    /**
+     * {@inheritDoc}
+     * Since wrappers react to new parents by overriding {@link #addParentUnchecked(Node)}, this implementation calls that method for each given node.
+     */
+    @Override
+    public void addParentsUnchecked(Collection<? extends Node<?>> parents) {
+
+        for (Node<?> parent : parents) {
+            addParentUnchecked(parent);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * In {@link ParentPropagation#LAZY lazy} mode, the new parent is verified against all elements which inherit the parents of the wrapper lazily.
+     * 
+     * @throws IllegalParentTypeException The new parent is not allowed as a parent of one of the lazily attached elements.
+     *         In that case, the parent is not added.
+     */
+    @Override
+    public void addParentUnchecked(Node<?> parent) {
+
+        if (parent != null && parentPropagation == ParentPropagation.LAZY) {
+            checkRestrictedParentClasses(parent);
+        }
+
+        super.addParentUnchecked(parent);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A wrapper only accepts a container if it uses {@link ParentPropagation#LAZY lazy parent propagation} and all its elements accept any parent lazily as well.
+     * Otherwise, it needs to be notified of each new parent in order to pass it on to its elements or to verify it against them.
+     */
+    @Override
+    public boolean addContainer(ParentAware<?> container) {
+
+        return parentPropagation == ParentPropagation.LAZY && !requiresDirectParents() && super.addContainer(container);
+    }
+
+    // ----- Element Methods -----
+
+    /**
+     * Passes the parents of this wrapper on to the given new element.
+     * In {@link ParentPropagation#LAZY lazy} mode, the wrapper is {@link DefaultParentAware#addContainer(ParentAware) added as a container} to the element if possible.
+     * Otherwise, all parents of the wrapper are added to the element with a single {@link ParentAware#addParents(java.util.Collection)} call.
+     * Note that lazy wrappers are linked to their elements even while they don't have any parents.
+     * Therefore, an element references the wrapper until it is {@link #detachElement(ParentAware) removed} from the wrapper.
+     * 
+     * @param element The element that is added to the wrapper. Must not be {@code null}.
+     */
+    protected void attachElement(ParentAware<?> element) {
+
+        if (parentPropagation == ParentPropagation.LAZY) {
+            if (element instanceof DefaultParentAware && ((DefaultParentAware<?>) element).addContainer(this)) {
+                Class<?> allowedParentClass = ((DefaultParentAware<?>) element).getAllowedParentClass();
+                if (allowedParentClass != Node.class) {
+                    if (restrictedParentClasses == null) {
+                        restrictedParentClasses = new HashMap<>();
+                    }
+                    restrictedParentClasses.merge(allowedParentClass, 1, Integer::sum);
+                    inlineContainersIfRequired();
+                }
+                return;
+            }
+
+            eagerElements++;
+            inlineContainersIfRequired();
+        }
+
+        element.addParents(getParents());
+    }
+
+    /**
+     * Takes the parents of this wrapper away from the given element which is removed from the wrapper.
+     * This method reverts {@link #attachElement(ParentAware)}.
+     * 
+     * @param element The element that is removed from the wrapper. Must not be {@code null}.
+     */
+    protected void detachElement(ParentAware<?> element) {
+
+        if (parentPropagation == ParentPropagation.LAZY) {
+            if (element instanceof DefaultParentAware && ((DefaultParentAware<?>) element).removeContainer(this)) {
+                Class<?> allowedParentClass = ((DefaultParentAware<?>) element).getAllowedParentClass();
+                if (allowedParentClass != Node.class) {
+                    restrictedParentClasses.computeIfPresent(allowedParentClass, (key, count) -> count == 1 ? null : count - 1);
+                }
+                return;
+            }
+            if (eagerElements > 0) {
+                eagerElements--;
+            }
+        }
+
+        element.removeParents(getParents());
+    }
+
+    /*
+     * Returns whether the wrapper must be notified of each new parent because some elements must receive it eagerly or must verify it.
+     */
+    private boolean requiresDirectParents() {
+
+        return eagerElements > 0 || restrictedParentClasses != null && !restrictedParentClasses.isEmpty();
+    }
+
+    /*
+     * Once the wrapper requires direct parents, it can no longer inherit the parents of its containers lazily.
+     * Therefore, it stores their parents directly and the containers pass parent changes on to the wrapper eagerly from now on.
+     */
+    private void inlineContainersIfRequired() {
+
+        if (requiresDirectParents()) {
+            for (ParentAware<?> container : inlineContainers()) {
+                if (container instanceof AbstractWrapper) {
+                    AbstractWrapper containerWrapper = (AbstractWrapper) container;
+                    containerWrapper.eagerElements++;
+                    containerWrapper.inlineContainersIfRequired();
+                }
+            }
+        }
+    }
+
+    private void checkRestrictedParentClasses(Node<?> parent) {
+
+        if (restrictedParentClasses != null) {
+            for (Entry<Class<?>, Integer> entry : restrictedParentClasses.entrySet()) {
+                if (!entry.getKey().isInstance(parent)) {
+                    throw new IllegalParentTypeException(this, parent, "Nodes of type '" + parent.getClass().getName() + "' are not allowed to reference wrappers containing elements which only allow parents of type '"
+                            + entry.getKey().getName() + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a new parent of the wrapper (or a removed one) must be passed on to any of the elements.
+     * That is always the case in {@link ParentPropagation#EAGER eager} mode.
+     * In {@link ParentPropagation#LAZY lazy} mode, it is only the case if some attached elements don't support lazy propagation.
+     * If this method returns {@code false}, adding or removing a parent takes constant time.
+     * 
+     * @return Whether parent changes must be passed on to the elements.
+     */
+    protected boolean requiresFanOut() {
+
+        return parentPropagation == ParentPropagation.EAGER || eagerElements > 0;
+    }
+
+    /**
+     * Returns whether a new parent of the wrapper (or a removed one) must be passed on to the given element.
+     * That is not the case if the element inherits the parents of this wrapper {@link DefaultParentAware#addContainer(ParentAware) as a container}.
+     * 
+     * @param element The element which might receive the parent change.
+     * @return Whether the parent change must be passed on to the given element.
+     */
+    protected boolean requiresFanOut(Object element) {
+
+        return element != null && ! (element instanceof DefaultParentAware && ((DefaultParentAware<?>) element).hasContainer(this));
+    }
+
+    /**
+     * Returns whether a parent change should be passed on to the given amount of elements in parallel using {@link #fanOutInParallel(Stream, Node, boolean)}.
+     * That is the case if the amount reaches the {@link #getParallelThreshold() parallel threshold}, the wrapper is {@link #isFlat() flat}
+     * and the {@link #getParallelPool() parallel pool} has a parallelism greater than one.
+     * Nested wrappers are excluded because they might share elements with each other.
+     * 
+     * @param elementCount The amount of elements the parent change would be passed on to.
+     * @return Whether the parent change should be passed on in parallel.
+     */
+    protected boolean isParallelFanOut(int elementCount) {
+
+        return elementCount >= parallelThreshold && getParallelPool().getParallelism() > 1 && isFlat();
+    }
+
+    /**
+     * Passes a new parent (or a removed one) on to the given elements in parallel using the {@link #getParallelPool() parallel pool}.
+     * Elements which don't {@link #requiresFanOut(Object) require the parent change} are skipped.
+     * Since the parents of each element are stored independently, distinct elements can be updated concurrently.
+     * In order to avoid that an element which is contained multiple times is updated by multiple threads at once, the occurrences of each element are counted first.
+     * Afterwards, each distinct element receives the parent change once per occurrence from a single thread; no locks are used.
+     * 
+     * @param elements The elements which should receive the parent change.
+     * @param parent The parent which is added to or removed from the elements.
+     * @param adding Whether the parent should be added ({@code true}) or removed ({@code false}).
+     */
+    protected void fanOutInParallel(Stream<? extends ParentAware<?>> elements, Node<?> parent, boolean adding) {
+
+        Map<ParentAware<?>, Integer> occurrences = new IdentityHashMap<>();
+        elements.filter(this::requiresFanOut).forEach(element -> occurrences.merge(element, 1, Integer::sum));
+
+        Runnable fanOut = () -> occurrences.entrySet().parallelStream().forEach(entry -> {
+            ParentAware<?> element = entry.getKey();
+            for (int occurrence = entry.getValue(); occurrence > 0; occurrence--) {
+                if (adding) {
+                    element.addParent(parent);
+                } else {
+                    element.removeParent(parent);
+                }
+            }
+        });
+
+        // Parallel streams use the pool of the worker thread they are started from; the common pool is also used by all other threads
+        ForkJoinPool pool = getParallelPool();
+        if (pool == ForkJoinPool.commonPool()) {
+            fanOut.run();
+        } else {
+            pool.submit(fanOut).join();
+        }
+    }
+
     @Override
     public int hashCode() {
 
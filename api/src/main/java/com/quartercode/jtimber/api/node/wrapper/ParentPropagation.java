@@ -0,0 +1,101 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.quartercode.jtimber.api.node.DefaultParentAware;
+import com.quartercode.jtimber.api.node.ParentAware;
+
+/**
+ * The parent propagation mode defines how a {@link Wrapper} passes its parents on to the {@link ParentAware} elements it contains.
+ * In both modes, the {@link ParentAware#getParents() parents} of an element are the same (apart from their order).
+ * However, the modes differ in the costs of the different operations.
+ * 
+ * @see AbstractWrapper#getParentPropagation()
+ */
+public enum ParentPropagation {
+
+    /**
+     * The wrapper adds each of its parents to each element and removes them again when the wrapper loses the parent or the element is removed.
+     * Therefore, adding a parent to the wrapper or removing a parent from it takes time proportional to the amount of elements.
+     * In return, {@link ParentAware#getParents()} just returns a stored list.
+     * This is the default mode.
+     */
+    EAGER,
+    /**
+     * The wrapper only registers itself as a container of each element when the element is inserted (see {@link DefaultParentAware#addContainer(ParentAware)})
+     * and unregisters itself when the element is removed.
+     * The elements derive the parents they inherit from the wrapper on demand.
+     * Therefore, adding a parent to the wrapper or removing a parent from it takes constant time, regardless of the amount of elements.
+     * That includes the first and the last parent; attaching a node which holds a huge lazy wrapper to a tree (or detaching it) doesn't touch the elements.
+     * In return, {@link ParentAware#getParents()} on an element has to assemble a new list from the element's containers.<br>
+     * <br>
+     * Only elements which extend {@link DefaultParentAware} support lazy propagation; other elements are still updated eagerly.
+     * Each new parent of the wrapper is verified against the allowed parent types of its lazily updated elements.
+     * A lazy wrapper only inherits the parents of an enclosing lazy wrapper lazily as long as all its own elements support lazy propagation and accept any parent.
+     * As soon as that isn't the case anymore, the enclosing wrapper passes its parents on to it eagerly.<br>
+     * <br>
+     * Note that each element references the wrapper as long as it is contained by the wrapper, even if the wrapper doesn't have any parents.
+     * Therefore, an element which is still reachable keeps a dropped wrapper (and its other elements) alive unless it is removed from the wrapper first.
+     */
+    LAZY;
+
+    /**
+     * The name of the system property which defines the {@link #getDefault() default parent propagation mode}.
+     * Its value must be the name of one of the modes (e.g. {@code LAZY}).
+     */
+    public static final String             PROPERTY = "jtimber.wrapper.parentPropagation";
+
+    private static final Logger            LOGGER   = LoggerFactory.getLogger(ParentPropagation.class);
+
+    private static final ParentPropagation DEFAULT  = readDefault();
+
+    /*
+     * An invalid property value must not break the initialization of this class, which is required by all wrappers.
+     */
+    private static ParentPropagation readDefault() {
+
+        String value = System.getProperty(PROPERTY);
+        if (value == null) {
+            return EAGER;
+        }
+
+        try {
+            return ParentPropagation.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown parent propagation mode '{}' in system property '{}'; falling back to {}", value, PROPERTY, EAGER);
+            return EAGER;
+        }
+    }
+
+    /**
+     * Returns the parent propagation mode which is used by wrappers that are created without an explicit mode.
+     * That includes the wrappers which are created after JAXB unmarshalling (see {@link SubstituteWithWrapper}).
+     * The default mode is {@link #EAGER} unless the system property {@value #PROPERTY} defines another mode.
+     * If the property contains an unknown mode, a warning is logged and {@link #EAGER} is used.
+     * 
+     * @return The default parent propagation mode.
+     */
+    public static ParentPropagation getDefault() {
+
+        return DEFAULT;
+    }
+
+}
@@ -19,12 +19,15 @@
 package com.quartercode.jtimber.api.node.wrapper;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import com.quartercode.jtimber.api.node.Node;
 import com.quartercode.jtimber.api.node.ParentAware;
 import com.quartercode.jtimber.api.node.wrapper.collection.ArrayWrapper;
 import com.quartercode.jtimber.api.node.wrapper.collection.CollectionWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.GrowableArrayWrapper;
 import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.MapWrapper;
 
 /**
  * A wrapper allows a {@link ParentAware} object to know its parents, although the two levels are separated by another object, e.g. a {@link Collection}.
@@ -45,7 +48,9 @@ import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
  * @see AbstractWrapper
  * @see ArrayWrapper
  * @see CollectionWrapper
+ * @see GrowableArrayWrapper
  * @see ListWrapper
+ * @see MapWrapper
  */
 public interface Wrapper extends ParentAware<Node<?>> {
 
@@ -72,6 +77,50 @@ public interface Wrapper extends ParentAware<Node<?>> {
      */
     public List<Object> getActualChildren();
 
+    /**
+     * Returns an {@link Iterator} over the objects represented by the wrapper (the {@link #getActualChildren() actual children}).
+     * In contrast to {@link #getActualChildren()}, implementations should create the iterator without copying the objects into a new list.
+     * Just like the list, the iterator doesn't resolve nested wrappers.<br>
+     * <br>
+     * By default, this method returns the iterator of the {@link #getActualChildren() actual children list}.
+     * 
+     * @return An iterator over the objects represented by the wrapper.
+     */
+    public default Iterator<Object> getActualChildIterator() {
+
+        return getActualChildren().iterator();
+    }
+
+    /**
+     * Returns the amount of objects represented by the wrapper.
+     * The result must be the same as the {@link List#size() size} of the {@link #getActualChildren() actual children list}.
+     * Implementations should calculate the amount without copying the objects into a new list.<br>
+     * <br>
+     * By default, this method returns the size of the {@link #getActualChildren() actual children list}.
+     * 
+     * @return The amount of objects represented by the wrapper.
+     */
+    public default int getActualChildCount() {
+
+        return getActualChildren().size();
+    }
+
+    /**
+     * Returns whether none of the objects represented by the wrapper is {@code null} or another wrapper.
+     * In that case, the actual children don't need to be resolved any further, and the {@link #getActualChildCount() actual child count}
+     * is the final amount of children the wrapper contributes to its parents.
+     * That allows to count the children of a node without iterating over the contents of its wrappers.<br>
+     * <br>
+     * Implementations may return {@code false} if they don't know the answer without iterating over the actual children.
+     * By default, this method always returns {@code false}.
+     * 
+     * @return Whether the actual children neither contain {@code null} nor wrappers.
+     */
+    public default boolean isFlat() {
+
+        return false;
+    }
+
     /**
      * Returns the {@link Object#hashCode() hash code} of the wrapped object.
      * 
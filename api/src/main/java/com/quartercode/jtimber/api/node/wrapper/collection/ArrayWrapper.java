@@ -19,11 +19,14 @@
 package com.quartercode.jtimber.api.node.wrapper.collection;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import javax.xml.bind.annotation.XmlTransient;
+import com.quartercode.jtimber.api.internal.TreeEvents;
 import com.quartercode.jtimber.api.node.Node;
 import com.quartercode.jtimber.api.node.ParentAware;
 import com.quartercode.jtimber.api.node.wrapper.AbstractWrapper;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
 import com.quartercode.jtimber.api.node.wrapper.Wrapper;
 
 /**
@@ -31,16 +34,24 @@ import com.quartercode.jtimber.api.node.wrapper.Wrapper;
  * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
  * <br>
  * <b>Important note:</b> This wrapper doesn't support JAXB persistence (yet).
- * If you need that feature, use collections and the {@link CollectionWrapper} (or subclasses for lists etc.) instead.
+ * If you need that feature, use collections and the {@link CollectionWrapper} (or subclasses for lists etc.) instead.<br>
+ * <br>
+ * The constructors copy the given array so that later modifications of the array can't bypass the wrapper.
+ * In order to avoid that copy, the {@link #adopt(ParentAware[])} factory methods hand the array over to the wrapper without copying it.
+ * If an array needs to grow, use the {@link GrowableArrayWrapper} instead.
  * 
  * @param <E> The type of elements in the wrapped one-dimensional array.
  * @see Wrapper
+ * @see GrowableArrayWrapper
  */
 @XmlTransient
 public class ArrayWrapper<E extends ParentAware<?>> extends AbstractWrapper {
 
     private final E[] wrapped;
 
+    // The amount of elements which are null or wrappers; -1 if the elements haven't been counted yet
+    private int       irregularElements = -1;
+
     /**
      * Creates a new array {@link Wrapper} that wraps around the given one-dimensional array.
      * 
@@ -48,9 +59,64 @@ public class ArrayWrapper<E extends ParentAware<?>> extends AbstractWrapper {
      */
     public ArrayWrapper(E[] wrapped) {
 
-        super(wrapped);
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new array {@link Wrapper} that wraps around the given one-dimensional array and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The one-dimensional array the new array wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public ArrayWrapper(E[] wrapped, ParentPropagation parentPropagation) {
+
+        this(wrapped.clone(), parentPropagation, null);
+    }
+
+    /*
+     * The dummy argument distinguishes this constructor, which doesn't copy the array, from the public one.
+     */
+    private ArrayWrapper(E[] wrapped, ParentPropagation parentPropagation, Void adopted) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+
+        // Lazily propagating wrappers must register themselves as containers of the elements which are already stored in the array
+        if (parentPropagation == ParentPropagation.LAZY) {
+            for (E element : this.wrapped) {
+                if (element != null) {
+                    attachElement(element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new array {@link Wrapper} that takes ownership of the given one-dimensional array instead of copying it.
+     * The caller must not modify the array afterwards since such modifications would bypass the wrapper.
+     * 
+     * @param <E> The type of elements in the one-dimensional array.
+     * @param array The one-dimensional array the new array wrapper takes over.
+     * @return The new array wrapper.
+     */
+    public static <E extends ParentAware<?>> ArrayWrapper<E> adopt(E[] array) {
+
+        return adopt(array, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new array {@link Wrapper} that takes ownership of the given one-dimensional array instead of copying it and uses the given {@link ParentPropagation} mode.
+     * The caller must not modify the array afterwards since such modifications would bypass the wrapper.
+     * 
+     * @param <E> The type of elements in the one-dimensional array.
+     * @param array The one-dimensional array the new array wrapper takes over.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     * @return The new array wrapper.
+     */
+    public static <E extends ParentAware<?>> ArrayWrapper<E> adopt(E[] array, ParentPropagation parentPropagation) {
 
-        this.wrapped = wrapped.clone();
+        return new ArrayWrapper<>(array, parentPropagation, null);
     }
 
     // ----- Wrapper Methods -----
@@ -61,30 +127,81 @@ public class ArrayWrapper<E extends ParentAware<?>> extends AbstractWrapper {
         return Arrays.asList((Object[]) wrapped);
     }
 
+    @Override
+    public int getActualChildCount() {
+
+        return wrapped.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The array is only iterated on the first call; afterwards, the amount of {@code null} and wrapper elements is updated on each {@link #set(int, ParentAware)} call.
+     */
+    @Override
+    public boolean isFlat() {
+
+        if (irregularElements < 0) {
+            int count = 0;
+            for (E element : wrapped) {
+                if (isIrregular(element)) {
+                    count++;
+                }
+            }
+            irregularElements = count;
+        }
+
+        return irregularElements == 0;
+    }
+
+    private static boolean isIrregular(Object element) {
+
+        return element == null || element instanceof Wrapper;
+    }
+
     // ----- ParentAware Overrides -----
 
     @Override
-    public void addParent(Node<?> parent) {
+    public void addParentUnchecked(Node<?> parent) {
 
-        super.addParent(parent);
+        Object event = TreeEvents.beginWrapperFanOut();
 
-        for (E element : wrapped) {
-            if (element != null) {
-                element.addParent(parent);
+        super.addParentUnchecked(parent);
+
+        if (requiresFanOut()) {
+            if (isParallelFanOut(wrapped.length)) {
+                fanOutInParallel(Arrays.stream(wrapped), parent, true);
+            } else {
+                for (E element : wrapped) {
+                    if (requiresFanOut(element)) {
+                        element.addParent(parent);
+                    }
+                }
             }
         }
+
+        TreeEvents.commitWrapperFanOut(event, this, true, wrapped.length);
     }
 
     @Override
     public void removeParent(Node<?> parent) {
 
+        Object event = TreeEvents.beginWrapperFanOut();
+
         super.removeParent(parent);
 
-        for (E element : wrapped) {
-            if (element != null) {
-                element.removeParent(parent);
+        if (requiresFanOut()) {
+            if (isParallelFanOut(wrapped.length)) {
+                fanOutInParallel(Arrays.stream(wrapped), parent, false);
+            } else {
+                for (E element : wrapped) {
+                    if (requiresFanOut(element)) {
+                        element.removeParent(parent);
+                    }
+                }
             }
         }
+
+        TreeEvents.commitWrapperFanOut(event, this, false, wrapped.length);
     }
 
     // ----- Custom Methods -----
@@ -121,17 +238,113 @@ public class ArrayWrapper<E extends ParentAware<?>> extends AbstractWrapper {
         E oldValue = wrapped[index];
 
         // Change the parents of the affected elements
-        for (Node<?> parent : getParents()) {
-            if (oldValue != null) {
-                oldValue.removeParent(parent);
+        if (oldValue != null) {
+            detachElement(oldValue);
+        }
+        if (value != null) {
+            attachElement(value);
+        }
+
+        wrapped[index] = value;
+
+        if (irregularElements >= 0) {
+            irregularElements += (isIrregular(value) ? 1 : 0) - (isIrregular(oldValue) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Stores the given element at all indices from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) inside the one-dimensional array.
+     * The parents of all replaced elements and of the new element are adjusted in one pass each.
+     * 
+     * @param fromIndex The first index at which the element should be stored.
+     * @param toIndex The index after the last index at which the element should be stored.
+     * @param value The element which should be stored in the given range.
+     * @throws IllegalArgumentException The first index is greater than the second one.
+     * @throws ArrayIndexOutOfBoundsException One of the indices is out of range.
+     */
+    public void fill(int fromIndex, int toIndex, E value) {
+
+        // Validate the range before any parents are changed
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("From index (" + fromIndex + ") is greater than to index (" + toIndex + ")");
+        } else if (fromIndex < 0 || toIndex > wrapped.length) {
+            throw new ArrayIndexOutOfBoundsException("Range from " + fromIndex + " to " + toIndex + " is out of the bounds of an array with length " + wrapped.length);
+        }
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        detachRange(fromIndex, toIndex);
+        Arrays.fill(wrapped, fromIndex, toIndex, value);
+        attachRange(fromIndex, toIndex);
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "fill", toIndex - fromIndex);
+    }
+
+    /**
+     * Copies the given amount of elements from the given source array into the one-dimensional array, starting at the given positions.
+     * This method works like {@link System#arraycopy(Object, int, Object, int, int)}.
+     * The parents of all replaced elements and of the copied elements are adjusted in one pass each.
+     * 
+     * @param src The source array the elements should be copied from.
+     * @param srcPos The index of the first element inside the source array which should be copied.
+     * @param destPos The index inside the one-dimensional array at which the first element should be stored.
+     * @param length The amount of elements which should be copied.
+     * @throws IndexOutOfBoundsException Copying would access an index outside the bounds of one of the arrays.
+     */
+    public void copyFrom(E[] src, int srcPos, int destPos, int length) {
+
+        // Validate the ranges before any parents are changed
+        if (length < 0 || srcPos < 0 || destPos < 0 || srcPos > src.length - length || destPos > wrapped.length - length) {
+            throw new ArrayIndexOutOfBoundsException("Cannot copy " + length + " elements from index " + srcPos + " of an array with length " + src.length + " to index " + destPos
+                    + " of an array with length " + wrapped.length);
+        }
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        detachRange(destPos, destPos + length);
+        System.arraycopy(src, srcPos, wrapped, destPos, length);
+        attachRange(destPos, destPos + length);
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "copyFrom", length);
+    }
+
+    private void detachRange(int fromIndex, int toIndex) {
+
+        for (int index = fromIndex; index < toIndex; index++) {
+            E element = wrapped[index];
+
+            if (element != null) {
+                detachElement(element);
+            }
+            if (irregularElements > 0 && isIrregular(element)) {
+                irregularElements--;
             }
+        }
+    }
+
+    private void attachRange(int fromIndex, int toIndex) {
+
+        for (int index = fromIndex; index < toIndex; index++) {
+            E element = wrapped[index];
 
-            if (value != null) {
-                value.addParent(parent);
+            if (element != null) {
+                attachElement(element);
+            }
+            if (irregularElements >= 0 && isIrregular(element)) {
+                irregularElements++;
             }
         }
+    }
 
-        wrapped[index] = value;
+    /**
+     * Returns an unmodifiable {@link List} view of the one-dimensional array.
+     * Changes made through the wrapper are visible in the view; however, the array is not copied.
+     * 
+     * @return A read-only list view of the wrapped array.
+     */
+    public List<E> asList() {
+
+        return Collections.unmodifiableList(Arrays.asList(wrapped));
     }
 
     /**
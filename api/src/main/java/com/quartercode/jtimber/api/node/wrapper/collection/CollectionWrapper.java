@@ -19,12 +19,16 @@
 package com.quartercode.jtimber.api.node.wrapper.collection;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
+import com.quartercode.jtimber.api.internal.TreeEvents;
 import com.quartercode.jtimber.api.node.Node;
 import com.quartercode.jtimber.api.node.ParentAware;
 import com.quartercode.jtimber.api.node.wrapper.AbstractWrapper;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
 import com.quartercode.jtimber.api.node.wrapper.Wrapper;
 
 /**
@@ -40,7 +44,11 @@ import com.quartercode.jtimber.api.node.wrapper.Wrapper;
  */
 public class CollectionWrapper<E extends ParentAware<?>> extends AbstractWrapper implements Collection<E> {
 
-    private final Collection<E> wrapped;
+    private final Collection<E>        wrapped;
+    private final CollectionWrapper<?> owner;
+
+    // The amount of elements which are null or wrappers; -1 if the elements haven't been counted yet
+    private int                        irregularElements = -1;
 
     /**
      * Creates a new {@link Collection} {@link Wrapper} that wraps around the given collection.
@@ -49,9 +57,58 @@ public class CollectionWrapper<E extends ParentAware<?>> extends AbstractWrapper
      */
     public CollectionWrapper(Collection<E> wrapped) {
 
-        super(wrapped);
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link Collection} {@link Wrapper} that wraps around the given collection and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The collection the new collection wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public CollectionWrapper(Collection<E> wrapped, ParentPropagation parentPropagation) {
+
+        super(wrapped, parentPropagation);
 
         this.wrapped = wrapped;
+        owner = this;
+
+        // Lazily propagating wrappers must register themselves as containers of the elements which are already stored in the collection
+        if (parentPropagation == ParentPropagation.LAZY) {
+            for (E element : wrapped) {
+                if (element != null) {
+                    attachElement(element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new {@link Collection} {@link Wrapper} that wraps around the given view of a collection which is wrapped by the given owner wrapper.
+     * All elements added to or removed from the view are reported to the owner, which adjusts their parents.
+     * Therefore, they receive the parents of the owner instead of the parents of the new wrapper.
+     * The new wrapper uses the {@link ParentPropagation} mode of the owner.
+     * 
+     * @param wrapped The collection view the new collection wrapper wraps around.
+     * @param owner The collection wrapper which wraps the collection the view is backed by.
+     */
+    protected CollectionWrapper(Collection<E> wrapped, CollectionWrapper<?> owner) {
+
+        super(wrapped, owner.getParentPropagation());
+
+        this.wrapped = wrapped;
+        this.owner = owner;
+    }
+
+    /**
+     * Returns the collection wrapper which adjusts the parents of the elements of this wrapper.
+     * Usually, that is this wrapper itself; however, views of other collection wrappers return the wrapper they have been created by.
+     * 
+     * @return The owner of this wrapper.
+     */
+    protected CollectionWrapper<?> getOwner() {
+
+        return owner;
     }
 
     // ----- Wrapper Methods -----
@@ -63,61 +120,130 @@ public class CollectionWrapper<E extends ParentAware<?>> extends AbstractWrapper
         return (List<Object>) (List<?>) (wrapped instanceof List ? wrapped : new ArrayList<>(wrapped));
     }
 
+    @Override
+    @SuppressWarnings ("unchecked")
+    public Iterator<Object> getActualChildIterator() {
+
+        return (Iterator<Object>) (Iterator<?>) wrapped.iterator();
+    }
+
+    @Override
+    public int getActualChildCount() {
+
+        return wrapped.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The collection is only iterated on the first call; afterwards, the amount of {@code null} and wrapper elements is updated on each modification.
+     * Note that modifications which bypass the wrapper are not considered.
+     */
+    @Override
+    public boolean isFlat() {
+
+        if (irregularElements < 0) {
+            int count = 0;
+            for (E element : wrapped) {
+                if (isIrregular(element)) {
+                    count++;
+                }
+            }
+            irregularElements = count;
+        }
+
+        return irregularElements == 0;
+    }
+
+    private static boolean isIrregular(Object element) {
+
+        return element == null || element instanceof Wrapper;
+    }
+
     // ----- ParentAware Overrides -----
 
     @Override
-    public void addParent(Node<?> parent) {
+    public void addParentUnchecked(Node<?> parent) {
 
-        super.addParent(parent);
+        Object event = TreeEvents.beginWrapperFanOut();
 
-        for (E element : wrapped) {
-            if (element != null) {
-                element.addParent(parent);
+        super.addParentUnchecked(parent);
+
+        if (requiresFanOut()) {
+            if (isParallelFanOut(wrapped.size())) {
+                fanOutInParallel(wrapped.stream(), parent, true);
+            } else {
+                for (E element : wrapped) {
+                    if (requiresFanOut(element)) {
+                        element.addParent(parent);
+                    }
+                }
             }
         }
+
+        TreeEvents.commitWrapperFanOut(event, this, true, wrapped.size());
     }
 
     @Override
     public void removeParent(Node<?> parent) {
 
+        Object event = TreeEvents.beginWrapperFanOut();
+
         super.removeParent(parent);
 
-        for (E element : wrapped) {
-            if (element != null) {
-                element.removeParent(parent);
+        if (requiresFanOut()) {
+            if (isParallelFanOut(wrapped.size())) {
+                fanOutInParallel(wrapped.stream(), parent, false);
+            } else {
+                for (E element : wrapped) {
+                    if (requiresFanOut(element)) {
+                        element.removeParent(parent);
+                    }
+                }
             }
         }
+
+        TreeEvents.commitWrapperFanOut(event, this, false, wrapped.size());
     }
 
     // ----- Event Methods -----
 
     /**
      * Internal method that should be called whenever a {@link ParentAware} object is added to the wrapped {@link Collection}.
-     * It adjusts the parents of that new element by adding the parents of this wrapper.
+     * It passes the parents of this wrapper on to the new element (see {@link #attachElement(ParentAware)}).
+     * If this wrapper is a view, the call is forwarded to the {@link #getOwner() owner} instead.
      * 
      * @param element The element that is added to the underlying collection.
      */
     protected void addElement(ParentAware<?> element) {
 
-        if (element != null) {
-            for (Node<?> parent : getParents()) {
-                element.addParent(parent);
-            }
+        if (irregularElements >= 0 && isIrregular(element)) {
+            irregularElements++;
+        }
+
+        if (owner != this) {
+            owner.addElement(element);
+        } else if (element != null) {
+            attachElement(element);
         }
     }
 
     /**
      * Internal method that should be called whenever a {@link ParentAware} object is removed from the wrapped {@link Collection}.
-     * It adjusts the parents of that element by removing the parents of this wrapper.
+     * It takes the parents of this wrapper away from the removed element (see {@link #detachElement(ParentAware)}).
+     * If this wrapper is a view, the call is forwarded to the {@link #getOwner() owner} instead.
      * 
      * @param element The element that is removed from the underlying collection.
      */
     protected void removeElement(ParentAware<?> element) {
 
-        if (element != null) {
-            for (Node<?> parent : getParents()) {
-                element.removeParent(parent);
-            }
+        if (irregularElements > 0 && isIrregular(element)) {
+            irregularElements--;
+        }
+
+        if (owner != this) {
+            owner.removeElement(element);
+        } else if (element != null) {
+            detachElement(element);
         }
     }
 
@@ -146,7 +272,7 @@ public class CollectionWrapper<E extends ParentAware<?>> extends AbstractWrapper
 
         boolean modified = wrapped.remove(o);
 
-        if (modified && o instanceof ParentAware) {
+        if (modified && (o == null || o instanceof ParentAware)) {
             removeElement((ParentAware<?>) o);
         }
 
@@ -156,43 +282,98 @@ public class CollectionWrapper<E extends ParentAware<?>> extends AbstractWrapper
     @Override
     public boolean addAll(Collection<? extends E> c) {
 
-        boolean modified = false;
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        // Copy the added elements once in case the given collection is backed by the wrapped one
+        @SuppressWarnings ("unchecked")
+        List<E> addedElements = (List<E>) (List<?>) Arrays.asList(c.toArray());
+        boolean modified;
+
+        if (wrapped instanceof List) {
+            // Lists add all elements; therefore, they can be added with a single operation
+            modified = wrapped.addAll(addedElements);
 
-        for (E addedElement : c) {
-            if (add(addedElement)) {
-                modified = true;
+            // If the addition was successful (no exception has been thrown), change the parents of the added elements
+            for (E addedElement : addedElements) {
+                addElement(addedElement);
+            }
+        } else {
+            // Other collections might reject some elements, which must not receive any parents
+            modified = false;
+
+            for (E addedElement : addedElements) {
+                if (wrapped.add(addedElement)) {
+                    addElement(addedElement);
+                    modified = true;
+                }
             }
         }
 
+        TreeEvents.commitWrapperBulkOperation(event, this, "addAll", addedElements.size());
         return modified;
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
 
-        boolean modified = false;
+        Object event = TreeEvents.beginWrapperBulkOperation();
+        int initialSize = wrapped.size();
 
-        for (Object removedElement : c) {
-            if (remove(removedElement)) {
-                modified = true;
-            }
-        }
+        boolean modified = removeMatching(element -> c.contains(element));
 
+        TreeEvents.commitWrapperBulkOperation(event, this, "removeAll", initialSize);
         return modified;
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
 
-        boolean modified = false;
+        Object event = TreeEvents.beginWrapperBulkOperation();
+        int initialSize = wrapped.size();
+
+        boolean modified = removeMatching(element -> !c.contains(element));
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "retainAll", initialSize);
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc}
+     * All matching elements are removed from the wrapped collection with a single {@link Collection#removeIf(Predicate)} call.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+        int initialSize = wrapped.size();
 
-        Iterator<E> it = iterator();
-        while (it.hasNext()) {
-            if (!c.contains(it.next())) {
-                // This change is observed by the iterator wrapper
-                it.remove();
-                modified = true;
+        boolean modified = removeMatching(filter);
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "removeIf", initialSize);
+        return modified;
+    }
+
+    /*
+     * Removes all elements which match the given filter from the wrapped collection with a single removeIf() call.
+     * For lists like ArrayList, that call takes linear time instead of shifting the remaining elements on each removal.
+     * Afterwards, the parents of all removed elements are adjusted.
+     */
+    private boolean removeMatching(Predicate<? super E> filter) {
+
+        List<E> removedElements = new ArrayList<>();
+
+        boolean modified = wrapped.removeIf(element -> {
+            if (filter.test(element)) {
+                removedElements.add(element);
+                return true;
+            } else {
+                return false;
             }
+        });
+
+        // If the removal was successful (no exception has been thrown), change the parents of the removed elements
+        for (E removedElement : removedElements) {
+            removeElement(removedElement);
         }
 
         return modified;
@@ -201,11 +382,16 @@ public class CollectionWrapper<E extends ParentAware<?>> extends AbstractWrapper
     @Override
     public void clear() {
 
+        Object event = TreeEvents.beginWrapperBulkOperation();
+        int initialSize = wrapped.size();
+
         for (E element : wrapped) {
             removeElement(element);
         }
 
         wrapped.clear();
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "clear", initialSize);
     }
 
     // ----- Basic Delegates -----
@@ -0,0 +1,313 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import com.quartercode.jtimber.api.internal.TreeEvents;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A thread-safe {@link ListWrapper} around a {@link CopyOnWriteArrayList}.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * All modifications of the list and of the parents of the wrapper lock the wrapper itself.
+ * Therefore, each modification of the list is atomic together with the resulting parent changes of the affected elements.
+ * Read operations don't lock the wrapper; they read the current copy of the wrapped list.
+ * That also applies to iterators, which iterate over a snapshot of the list and don't support modifications.
+ * For the same reason, {@link #subList(int, int) sub lists} are read-only.<br>
+ * <br>
+ * Note that the parents of the elements are not protected on their own.
+ * They are only changed while the wrapper is locked; however, reading them through {@link ParentAware#getParents()} doesn't lock anything.
+ * Therefore, threads which read the parents of an element while other threads modify the wrapper must lock the wrapper as well.
+ * That doesn't suffice if the element is also contained by other wrappers or nodes which are modified concurrently.
+ * In that case, the application must synchronize all of those modifications itself.
+ * 
+ * @param <E> The type of elements in the wrapped list.
+ * @see CopyOnWriteArrayList
+ * @see ListWrapper
+ */
+public class ConcurrentListWrapper<E extends ParentAware<?>> extends ListWrapper<E> {
+
+    private final CopyOnWriteArrayList<E> wrapped;
+
+    /**
+     * Creates a new concurrent {@link List} {@link Wrapper} that wraps around a new empty {@link CopyOnWriteArrayList}.
+     */
+    public ConcurrentListWrapper() {
+
+        this(new CopyOnWriteArrayList<E>());
+    }
+
+    /**
+     * Creates a new concurrent {@link List} {@link Wrapper} that wraps around the given {@link CopyOnWriteArrayList}.
+     * 
+     * @param wrapped The copy-on-write list the new concurrent list wrapper wraps around.
+     */
+    public ConcurrentListWrapper(CopyOnWriteArrayList<E> wrapped) {
+
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new concurrent {@link List} {@link Wrapper} that wraps around the given {@link CopyOnWriteArrayList} and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The copy-on-write list the new concurrent list wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public ConcurrentListWrapper(CopyOnWriteArrayList<E> wrapped, ParentPropagation parentPropagation) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- ParentAware Overrides -----
+
+    /**
+     * {@inheritDoc}
+     * Since the parents might be changed concurrently, this method returns an unmodifiable snapshot of them.
+     */
+    @Override
+    public synchronized List<Node<?>> getParents() {
+
+        return Collections.unmodifiableList(new ArrayList<>(super.getParents()));
+    }
+
+    @Override
+    public synchronized int getParentCount() {
+
+        return super.getParentCount();
+    }
+
+    @Override
+    public synchronized void addParentUnchecked(Node<?> parent) {
+
+        super.addParentUnchecked(parent);
+    }
+
+    @Override
+    public synchronized void removeParent(Node<?> parent) {
+
+        super.removeParent(parent);
+    }
+
+    @Override
+    public synchronized boolean addContainer(ParentAware<?> container) {
+
+        return super.addContainer(container);
+    }
+
+    @Override
+    public synchronized boolean removeContainer(ParentAware<?> container) {
+
+        return super.removeContainer(container);
+    }
+
+    @Override
+    public synchronized boolean hasContainer(ParentAware<?> container) {
+
+        return super.hasContainer(container);
+    }
+
+    @Override
+    public synchronized boolean isFlat() {
+
+        return super.isFlat();
+    }
+
+    // ----- Collection Overrides -----
+
+    @Override
+    public synchronized boolean add(E e) {
+
+        return super.add(e);
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+
+        return super.remove(o);
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends E> c) {
+
+        return super.addAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeAll(Collection<?> c) {
+
+        return super.removeAll(c);
+    }
+
+    @Override
+    public synchronized boolean retainAll(Collection<?> c) {
+
+        return super.retainAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super E> filter) {
+
+        return super.removeIf(filter);
+    }
+
+    @Override
+    public synchronized void clear() {
+
+        super.clear();
+    }
+
+    // ----- List Overrides -----
+
+    @Override
+    public synchronized boolean addAll(int index, Collection<? extends E> c) {
+
+        return super.addAll(index, c);
+    }
+
+    @Override
+    public synchronized E set(int index, E element) {
+
+        return super.set(index, element);
+    }
+
+    @Override
+    public synchronized void add(int index, E element) {
+
+        super.add(index, element);
+    }
+
+    @Override
+    public synchronized E remove(int index) {
+
+        return super.remove(index);
+    }
+
+    @Override
+    public synchronized void sort(Comparator<? super E> c) {
+
+        super.sort(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Since the iterators of the wrapped list don't support modifications, the replacement is applied with a single {@link CopyOnWriteArrayList#replaceAll(UnaryOperator)} call.
+     */
+    @Override
+    public synchronized void replaceAll(UnaryOperator<E> operator) {
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        List<E> removedElements = new ArrayList<>();
+        List<E> addedElements = new ArrayList<>();
+
+        wrapped.replaceAll(element -> {
+            E replacement = operator.apply(element);
+            if (replacement != element) {
+                removedElements.add(element);
+                addedElements.add(replacement);
+            }
+            return replacement;
+        });
+
+        // If the replacement was successful (no exception has been thrown), change the parents of the affected elements
+        for (E removedElement : removedElements) {
+            removeElement(removedElement);
+        }
+        for (E addedElement : addedElements) {
+            addElement(addedElement);
+        }
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "replaceAll", wrapped.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Instead of copying the wrapped list on each moved element, the reordered array is built once and written back with a single bulk write.
+     */
+    @Override
+    public synchronized void reverse() {
+
+        Object[] elements = wrapped.toArray();
+        Collections.reverse(Arrays.asList(elements));
+        writeReordered(elements);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Instead of copying the wrapped list on each moved element, the reordered array is built once and written back with a single bulk write.
+     */
+    @Override
+    public synchronized void rotate(int distance) {
+
+        Object[] elements = wrapped.toArray();
+        Collections.rotate(Arrays.asList(elements), distance);
+        writeReordered(elements);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Instead of copying the wrapped list twice, the reordered array is built once and written back with a single bulk write.
+     * Therefore, readers never see one of the swapped elements twice.
+     */
+    @Override
+    public synchronized void swap(int i, int j) {
+
+        Object[] elements = wrapped.toArray();
+        Collections.swap(Arrays.asList(elements), i, j);
+        writeReordered(elements);
+    }
+
+    /*
+     * Replaces the contents of the wrapped list with the given reordering of its current elements.
+     * The copy-on-write list only copies its array once during a replaceAll() call.
+     * Since all modifications lock the wrapper, the list still contains exactly the elements which have been reordered.
+     */
+    @SuppressWarnings ("unchecked")
+    private void writeReordered(Object[] elements) {
+
+        Iterator<Object> reordered = Arrays.asList(elements).iterator();
+        wrapped.replaceAll(element -> (E) reordered.next());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Since modifications of the view couldn't be synchronized with the wrapper, the returned view is read-only.
+     */
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+
+        return Collections.unmodifiableList(wrapped.subList(fromIndex, toIndex));
+    }
+
+}
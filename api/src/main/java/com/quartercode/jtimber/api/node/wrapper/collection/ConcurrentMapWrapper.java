@@ -0,0 +1,295 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A thread-safe {@link MapWrapper} around a {@link ConcurrentMap}.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * All modifications of the map and of the parents of the wrapper lock the wrapper itself.
+ * Therefore, each modification of the map is atomic together with the resulting parent changes of the affected elements.
+ * That includes the atomic operations of the concurrent map interface ({@link #putIfAbsent(Object, ParentAware) putIfAbsent()}, {@link #replace(Object, ParentAware) replace()}
+ * etc.) as well as {@link #compute(Object, BiFunction) compute()} and {@link #merge(Object, ParentAware, BiFunction) merge()}.
+ * Read operations don't lock the wrapper; they directly access the wrapped concurrent map.<br>
+ * <br>
+ * Since modifications through the {@link #keySet() key set}, {@link #values() values} and {@link #entrySet() entry set} views couldn't be synchronized with the wrapper,
+ * those views are read-only. Their iterators are weakly consistent, like the ones of the wrapped map.
+ * Also note that the parents of the values (and tracked keys) are not protected on their own.
+ * Since they are only changed while the wrapper is locked, a thread which reads the parents of such an element must lock the wrapper in order to get a consistent result.
+ * If the element is also contained by other wrappers or nodes which are modified concurrently, the application must synchronize those modifications itself.
+ * 
+ * @param <K> The type of keys in the wrapped map.
+ * @param <V> The type of values in the wrapped map.
+ * @see ConcurrentMap
+ * @see MapWrapper
+ */
+public class ConcurrentMapWrapper<K, V extends ParentAware<?>> extends MapWrapper<K, V> implements ConcurrentMap<K, V> {
+
+    private final ConcurrentMap<K, V> wrapped;
+
+    /**
+     * Creates a new concurrent {@link Map} {@link Wrapper} that wraps around a new empty {@link ConcurrentHashMap}.
+     * Only the parents of the values are tracked.
+     */
+    public ConcurrentMapWrapper() {
+
+        this(new ConcurrentHashMap<K, V>());
+    }
+
+    /**
+     * Creates a new concurrent {@link Map} {@link Wrapper} that wraps around the given concurrent map.
+     * Only the parents of the values are tracked.
+     * 
+     * @param wrapped The concurrent map the new concurrent map wrapper wraps around.
+     */
+    public ConcurrentMapWrapper(ConcurrentMap<K, V> wrapped) {
+
+        this(wrapped, false);
+    }
+
+    /**
+     * Creates a new concurrent {@link Map} {@link Wrapper} that wraps around the given concurrent map.
+     * See {@link MapWrapper#MapWrapper(Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The concurrent map the new concurrent map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     */
+    public ConcurrentMapWrapper(ConcurrentMap<K, V> wrapped, boolean trackingKeys) {
+
+        this(wrapped, trackingKeys, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new concurrent {@link Map} {@link Wrapper} that wraps around the given concurrent map and uses the given {@link ParentPropagation} mode.
+     * See {@link MapWrapper#MapWrapper(Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The concurrent map the new concurrent map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public ConcurrentMapWrapper(ConcurrentMap<K, V> wrapped, boolean trackingKeys, ParentPropagation parentPropagation) {
+
+        super(wrapped, trackingKeys, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- ParentAware Overrides -----
+
+    /**
+     * {@inheritDoc}
+     * Since the parents might be changed concurrently, this method returns an unmodifiable snapshot of them.
+     */
+    @Override
+    public synchronized List<Node<?>> getParents() {
+
+        return Collections.unmodifiableList(new ArrayList<>(super.getParents()));
+    }
+
+    @Override
+    public synchronized int getParentCount() {
+
+        return super.getParentCount();
+    }
+
+    @Override
+    public synchronized void addParentUnchecked(Node<?> parent) {
+
+        super.addParentUnchecked(parent);
+    }
+
+    @Override
+    public synchronized void removeParent(Node<?> parent) {
+
+        super.removeParent(parent);
+    }
+
+    @Override
+    public synchronized boolean addContainer(ParentAware<?> container) {
+
+        return super.addContainer(container);
+    }
+
+    @Override
+    public synchronized boolean removeContainer(ParentAware<?> container) {
+
+        return super.removeContainer(container);
+    }
+
+    @Override
+    public synchronized boolean hasContainer(ParentAware<?> container) {
+
+        return super.hasContainer(container);
+    }
+
+    // ----- Map Overrides -----
+
+    @Override
+    public synchronized V put(K key, V value) {
+
+        return super.put(key, value);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+
+        return super.remove(key);
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends K, ? extends V> m) {
+
+        super.putAll(m);
+    }
+
+    @Override
+    public synchronized void clear() {
+
+        super.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned view is read-only.
+     */
+    @Override
+    public Set<K> keySet() {
+
+        return Collections.unmodifiableMap(wrapped).keySet();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned view is read-only.
+     */
+    @Override
+    public Collection<V> values() {
+
+        return Collections.unmodifiableMap(wrapped).values();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned view is read-only.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+
+        return Collections.unmodifiableMap(wrapped).entrySet();
+    }
+
+    // ----- ConcurrentMap Overrides -----
+
+    @Override
+    public synchronized V putIfAbsent(K key, V value) {
+
+        V old = wrapped.putIfAbsent(key, value);
+
+        // If the value has been put, change the parents of the new elements
+        if (old == null) {
+            addElement(value);
+            addKey(key);
+        }
+
+        return old;
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+
+        // Since all modifications lock the wrapper, the stored value can't change between the check and the removal
+        V current = wrapped.get(key);
+        if (current == null || !current.equals(value)) {
+            return false;
+        }
+
+        remove(key);
+        return true;
+    }
+
+    @Override
+    public synchronized V replace(K key, V value) {
+
+        return wrapped.containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public synchronized boolean replace(K key, V oldValue, V newValue) {
+
+        // Since all modifications lock the wrapper, the stored value can't change between the check and the replacement
+        V current = wrapped.get(key);
+        if (current == null || !current.equals(oldValue)) {
+            return false;
+        }
+
+        put(key, newValue);
+        return true;
+    }
+
+    /*
+     * The following default methods are implemented by the concurrent map interface using the methods above.
+     * Locking the wrapper makes them atomic as well.
+     */
+
+    @Override
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+
+        return ConcurrentMap.super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+
+        return ConcurrentMap.super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+
+        return ConcurrentMap.super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+
+        return ConcurrentMap.super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+
+        ConcurrentMap.super.replaceAll(function);
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A thread-safe {@link CollectionWrapper} around a concurrent {@link Set}, like the ones created by {@link ConcurrentHashMap#newKeySet()}.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * All modifications of the set and of the parents of the wrapper lock the wrapper itself.
+ * Therefore, each modification of the set is atomic together with the resulting parent changes of the affected elements.
+ * Read operations don't lock the wrapper; they directly access the wrapped set, which must be thread-safe on its own.
+ * Iterators iterate over a snapshot of the set; their {@link Iterator#remove() remove} method removes the current element from the wrapper.<br>
+ * <br>
+ * Note that the parents of the elements are not protected on their own.
+ * Since they are only changed while the wrapper is locked, a thread which reads the parents of an element must lock the wrapper in order to get a consistent result.
+ * If the element is also contained by other wrappers or nodes which are modified concurrently, the application must synchronize those modifications itself.
+ * 
+ * @param <E> The type of elements in the wrapped set.
+ * @see ConcurrentHashMap#newKeySet()
+ * @see CollectionWrapper
+ */
+public class ConcurrentSetWrapper<E extends ParentAware<?>> extends CollectionWrapper<E> implements Set<E> {
+
+    private final Set<E> wrapped;
+
+    /**
+     * Creates a new concurrent {@link Set} {@link Wrapper} that wraps around a new empty set created by {@link ConcurrentHashMap#newKeySet()}.
+     */
+    public ConcurrentSetWrapper() {
+
+        this(ConcurrentHashMap.<E> newKeySet());
+    }
+
+    /**
+     * Creates a new concurrent {@link Set} {@link Wrapper} that wraps around the given thread-safe set.
+     * 
+     * @param wrapped The thread-safe set the new concurrent set wrapper wraps around.
+     */
+    public ConcurrentSetWrapper(Set<E> wrapped) {
+
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new concurrent {@link Set} {@link Wrapper} that wraps around the given thread-safe set and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The thread-safe set the new concurrent set wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public ConcurrentSetWrapper(Set<E> wrapped, ParentPropagation parentPropagation) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- ParentAware Overrides -----
+
+    /**
+     * {@inheritDoc}
+     * Since the parents might be changed concurrently, this method returns an unmodifiable snapshot of them.
+     */
+    @Override
+    public synchronized List<Node<?>> getParents() {
+
+        return Collections.unmodifiableList(new ArrayList<>(super.getParents()));
+    }
+
+    @Override
+    public synchronized int getParentCount() {
+
+        return super.getParentCount();
+    }
+
+    @Override
+    public synchronized void addParentUnchecked(Node<?> parent) {
+
+        super.addParentUnchecked(parent);
+    }
+
+    @Override
+    public synchronized void removeParent(Node<?> parent) {
+
+        super.removeParent(parent);
+    }
+
+    @Override
+    public synchronized boolean addContainer(ParentAware<?> container) {
+
+        return super.addContainer(container);
+    }
+
+    @Override
+    public synchronized boolean removeContainer(ParentAware<?> container) {
+
+        return super.removeContainer(container);
+    }
+
+    @Override
+    public synchronized boolean hasContainer(ParentAware<?> container) {
+
+        return super.hasContainer(container);
+    }
+
+    @Override
+    public synchronized boolean isFlat() {
+
+        return super.isFlat();
+    }
+
+    // ----- Collection Overrides -----
+
+    /**
+     * {@inheritDoc}
+     * The returned iterator iterates over a snapshot of the set.
+     */
+    @Override
+    public Iterator<E> iterator() {
+
+        return new SnapshotIteratorWrapper(new ArrayList<>(wrapped).iterator());
+    }
+
+    @Override
+    public synchronized boolean add(E e) {
+
+        return super.add(e);
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+
+        return super.remove(o);
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends E> c) {
+
+        return super.addAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeAll(Collection<?> c) {
+
+        return super.removeAll(c);
+    }
+
+    @Override
+    public synchronized boolean retainAll(Collection<?> c) {
+
+        return super.retainAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super E> filter) {
+
+        return super.removeIf(filter);
+    }
+
+    @Override
+    public synchronized void clear() {
+
+        super.clear();
+    }
+
+    /*
+     * An iterator wrapper around an iterator over a snapshot of the set.
+     * Removing an element removes it from the actual set through the wrapper.
+     */
+    private class SnapshotIteratorWrapper extends IteratorWrapper {
+
+        private SnapshotIteratorWrapper(Iterator<E> snapshot) {
+
+            super(snapshot);
+        }
+
+        @Override
+        public void remove() {
+
+            if (currentElement == null) {
+                throw new IllegalStateException("No element to remove");
+            }
+
+            ConcurrentSetWrapper.this.remove(currentElement);
+            currentElement = null;
+        }
+
+    }
+
+}
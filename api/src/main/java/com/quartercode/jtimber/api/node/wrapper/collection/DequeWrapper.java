@@ -0,0 +1,231 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.Deque;
+import java.util.Iterator;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.SubstituteWithWrapper;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Wrapper} around any class that implements the {@link Deque} interface.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * Note that this wrapper also implements the deque interface in order to allow it being used like any other deque.
+ * All head and tail operations are directly delegated to the wrapped deque and adjust the parents of the affected element afterwards.
+ * Therefore, they are as fast as they are on the wrapped deque (constant time for an {@link java.util.ArrayDeque}).
+ * Fields of type {@code Deque} can be annotated with {@link SubstituteWithWrapper @SubstituteWithWrapper(DequeWrapper.class)}.
+ * 
+ * @param <E> The type of elements in the wrapped deque.
+ * @see Deque
+ * @see Wrapper
+ * @see QueueWrapper
+ */
+public class DequeWrapper<E extends ParentAware<?>> extends QueueWrapper<E> implements Deque<E> {
+
+    private final Deque<E> wrapped;
+
+    /**
+     * Creates a new {@link Deque} {@link Wrapper} that wraps around the given deque.
+     * 
+     * @param wrapped The deque the new deque wrapper wraps around.
+     */
+    public DequeWrapper(Deque<E> wrapped) {
+
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link Deque} {@link Wrapper} that wraps around the given deque and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The deque the new deque wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public DequeWrapper(Deque<E> wrapped, ParentPropagation parentPropagation) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- Overrides -----
+
+    @Override
+    public void addFirst(E e) {
+
+        wrapped.addFirst(e);
+
+        // If the addition was successful (no exception has been thrown), change the parents of the added element
+        addElement(e);
+    }
+
+    @Override
+    public void addLast(E e) {
+
+        wrapped.addLast(e);
+
+        // If the addition was successful (no exception has been thrown), change the parents of the added element
+        addElement(e);
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+
+        boolean modified = wrapped.offerFirst(e);
+
+        if (modified) {
+            addElement(e);
+        }
+
+        return modified;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+
+        boolean modified = wrapped.offerLast(e);
+
+        if (modified) {
+            addElement(e);
+        }
+
+        return modified;
+    }
+
+    @Override
+    public E removeFirst() {
+
+        E first = wrapped.removeFirst();
+
+        // If the removal was successful (no exception has been thrown), change the parents of the removed element
+        removeElement(first);
+
+        return first;
+    }
+
+    @Override
+    public E removeLast() {
+
+        E last = wrapped.removeLast();
+
+        // If the removal was successful (no exception has been thrown), change the parents of the removed element
+        removeElement(last);
+
+        return last;
+    }
+
+    @Override
+    public E pollFirst() {
+
+        // Some deques allow null elements, so the returned value can't tell whether an element has been removed
+        boolean empty = wrapped.isEmpty();
+        E first = wrapped.pollFirst();
+
+        if (!empty) {
+            removeElement(first);
+        }
+
+        return first;
+    }
+
+    @Override
+    public E pollLast() {
+
+        // Some deques allow null elements, so the returned value can't tell whether an element has been removed
+        boolean empty = wrapped.isEmpty();
+        E last = wrapped.pollLast();
+
+        if (!empty) {
+            removeElement(last);
+        }
+
+        return last;
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+
+        boolean modified = wrapped.removeFirstOccurrence(o);
+
+        if (modified && (o == null || o instanceof ParentAware)) {
+            removeElement((ParentAware<?>) o);
+        }
+
+        return modified;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+
+        boolean modified = wrapped.removeLastOccurrence(o);
+
+        if (modified && (o == null || o instanceof ParentAware)) {
+            removeElement((ParentAware<?>) o);
+        }
+
+        return modified;
+    }
+
+    @Override
+    public void push(E e) {
+
+        addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+
+        return removeFirst();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+
+        return new IteratorWrapper(wrapped.descendingIterator());
+    }
+
+    // ----- Basic Delegates -----
+
+    @Override
+    public E getFirst() {
+
+        return wrapped.getFirst();
+    }
+
+    @Override
+    public E getLast() {
+
+        return wrapped.getLast();
+    }
+
+    @Override
+    public E peekFirst() {
+
+        return wrapped.peekFirst();
+    }
+
+    @Override
+    public E peekLast() {
+
+        return wrapped.peekLast();
+    }
+
+}
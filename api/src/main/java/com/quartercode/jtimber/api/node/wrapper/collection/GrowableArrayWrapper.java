@@ -0,0 +1,425 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.xml.bind.annotation.XmlTransient;
+import com.quartercode.jtimber.api.internal.TreeEvents;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.AbstractWrapper;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Wrapper} around a one-dimensional array which grows automatically when elements are appended.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * In contrast to the {@link ArrayWrapper}, the growable array wrapper has a size which might be smaller than the length of the internal array.
+ * Appending an element takes amortized constant time since the internal array grows by half of its length whenever it is full.
+ * The unused slots of the internal array are never exposed as children.<br>
+ * <br>
+ * <b>Important note:</b> This wrapper doesn't support JAXB persistence (yet).
+ * If you need that feature, use collections and the {@link CollectionWrapper} (or subclasses for lists etc.) instead.
+ * 
+ * @param <E> The type of elements in the wrapped one-dimensional array.
+ * @see Wrapper
+ * @see ArrayWrapper
+ */
+@XmlTransient
+public class GrowableArrayWrapper<E extends ParentAware<?>> extends AbstractWrapper {
+
+    private static final int DEFAULT_CAPACITY  = 10;
+
+    private Object[]         elements;
+    private int              size;
+
+    // The amount of elements which are null or wrappers; -1 if the elements haven't been counted yet
+    private int              irregularElements = -1;
+
+    /**
+     * Creates a new empty growable array {@link Wrapper} with a default initial capacity.
+     */
+    public GrowableArrayWrapper() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty growable array {@link Wrapper} with the given initial capacity.
+     * 
+     * @param initialCapacity The length of the initial internal array.
+     * @throws IllegalArgumentException The initial capacity is negative.
+     */
+    public GrowableArrayWrapper(int initialCapacity) {
+
+        this(initialCapacity, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new empty growable array {@link Wrapper} with the given initial capacity which uses the given {@link ParentPropagation} mode.
+     * 
+     * @param initialCapacity The length of the initial internal array.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     * @throws IllegalArgumentException The initial capacity is negative.
+     */
+    public GrowableArrayWrapper(int initialCapacity, ParentPropagation parentPropagation) {
+
+        this(createArray(initialCapacity), parentPropagation);
+    }
+
+    private GrowableArrayWrapper(Object[] elements, ParentPropagation parentPropagation) {
+
+        // The wrapped object is only used for hashCode(), equals() and toString(), which are overridden
+        super(elements, parentPropagation);
+
+        this.elements = elements;
+    }
+
+    private static Object[] createArray(int initialCapacity) {
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative (got " + initialCapacity + ")");
+        }
+
+        return new Object[initialCapacity];
+    }
+
+    // ----- Wrapper Methods -----
+
+    /**
+     * {@inheritDoc}
+     * Since the internal array might be replaced when it grows, this method returns a {@link #asList() list view} of the used part of the array instead.
+     */
+    @Override
+    public Object getInternallyWrapped() {
+
+        return asList();
+    }
+
+    @Override
+    public List<Object> getActualChildren() {
+
+        return Arrays.asList(elements).subList(0, size);
+    }
+
+    @Override
+    public int getActualChildCount() {
+
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The array is only iterated on the first call; afterwards, the amount of {@code null} and wrapper elements is updated on each modification.
+     */
+    @Override
+    public boolean isFlat() {
+
+        if (irregularElements < 0) {
+            int count = 0;
+            for (int index = 0; index < size; index++) {
+                if (isIrregular(elements[index])) {
+                    count++;
+                }
+            }
+            irregularElements = count;
+        }
+
+        return irregularElements == 0;
+    }
+
+    private static boolean isIrregular(Object element) {
+
+        return element == null || element instanceof Wrapper;
+    }
+
+    // ----- ParentAware Overrides -----
+
+    @Override
+    public void addParentUnchecked(Node<?> parent) {
+
+        Object event = TreeEvents.beginWrapperFanOut();
+
+        super.addParentUnchecked(parent);
+
+        if (requiresFanOut()) {
+            if (isParallelFanOut(size)) {
+                fanOutInParallel(stream(), parent, true);
+            } else {
+                for (int index = 0; index < size; index++) {
+                    E element = elementAt(index);
+                    if (requiresFanOut(element)) {
+                        element.addParent(parent);
+                    }
+                }
+            }
+        }
+
+        TreeEvents.commitWrapperFanOut(event, this, true, size);
+    }
+
+    @Override
+    public void removeParent(Node<?> parent) {
+
+        Object event = TreeEvents.beginWrapperFanOut();
+
+        super.removeParent(parent);
+
+        if (requiresFanOut()) {
+            if (isParallelFanOut(size)) {
+                fanOutInParallel(stream(), parent, false);
+            } else {
+                for (int index = 0; index < size; index++) {
+                    E element = elementAt(index);
+                    if (requiresFanOut(element)) {
+                        element.removeParent(parent);
+                    }
+                }
+            }
+        }
+
+        TreeEvents.commitWrapperFanOut(event, this, false, size);
+    }
+
+    // ----- Custom Methods -----
+
+    /**
+     * Returns the amount of elements which are stored in the growable array.
+     * Note that the internal array might be longer.
+     * 
+     * @return The size of the growable array.
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Returns the element which is stored at the given index inside the growable array.
+     * 
+     * @param index The index at which the element for return is stored.
+     * @return The element which is stored at the given index.
+     * @throws IndexOutOfBoundsException The index is not smaller than the {@link #size()}.
+     */
+    public E get(int index) {
+
+        checkIndex(index);
+        return elementAt(index);
+    }
+
+    /**
+     * Sets the element which should be stored at the given (already used) index inside the growable array.
+     * 
+     * @param index The index at which the element should be stored.
+     * @param value The element which should be stored at the given index.
+     * @throws IndexOutOfBoundsException The index is not smaller than the {@link #size()}.
+     */
+    public void set(int index, E value) {
+
+        checkIndex(index);
+        E oldValue = elementAt(index);
+
+        // Change the parents of the affected elements
+        if (oldValue != null) {
+            detachElement(oldValue);
+        }
+        if (value != null) {
+            attachElement(value);
+        }
+
+        elements[index] = value;
+
+        if (irregularElements >= 0) {
+            irregularElements += (isIrregular(value) ? 1 : 0) - (isIrregular(oldValue) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Appends the given element to the end of the growable array.
+     * If the internal array is full, it grows by half of its length.
+     * 
+     * @param value The element which should be appended.
+     */
+    public void add(E value) {
+
+        ensureCapacity(size + 1);
+
+        if (value != null) {
+            attachElement(value);
+        }
+
+        elements[size++] = value;
+
+        if (irregularElements >= 0 && isIrregular(value)) {
+            irregularElements++;
+        }
+    }
+
+    /**
+     * Removes the last element of the growable array and returns it.
+     * 
+     * @return The removed element.
+     * @throws IndexOutOfBoundsException The growable array is empty.
+     */
+    public E removeLast() {
+
+        checkIndex(size - 1);
+        E value = elementAt(size - 1);
+
+        if (value != null) {
+            detachElement(value);
+        }
+
+        elements[--size] = null;
+
+        if (irregularElements > 0 && isIrregular(value)) {
+            irregularElements--;
+        }
+
+        return value;
+    }
+
+    /**
+     * Removes all elements from the growable array.
+     * The length of the internal array is not changed.
+     */
+    public void clear() {
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+        int initialSize = size;
+
+        for (int index = 0; index < size; index++) {
+            E element = elementAt(index);
+            if (element != null) {
+                detachElement(element);
+            }
+        }
+
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        irregularElements = 0;
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "clear", initialSize);
+    }
+
+    /**
+     * Grows the internal array if necessary so that it can store at least the given amount of elements without growing again.
+     * 
+     * @param minCapacity The minimum length of the internal array.
+     */
+    public void ensureCapacity(int minCapacity) {
+
+        if (minCapacity > elements.length) {
+            int newCapacity = Math.max(elements.length + (elements.length >> 1), minCapacity);
+            elements = Arrays.copyOf(elements, newCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the internal array so that its length equals the {@link #size()} of the growable array.
+     */
+    public void trimToSize() {
+
+        if (size < elements.length) {
+            elements = Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable {@link List} view of the used part of the growable array.
+     * The view reflects changes of existing elements; however, elements which are appended later on might not be visible.
+     * 
+     * @return A read-only list view of the growable array.
+     */
+    @SuppressWarnings ("unchecked")
+    public List<E> asList() {
+
+        return Collections.unmodifiableList((List<E>) (List<?>) Arrays.asList(elements).subList(0, size));
+    }
+
+    /**
+     * Copies the elements of the growable array into the given array if it is large enough; otherwise, a new array of the same type is allocated.
+     * This method works like {@link java.util.Collection#toArray(Object[])}.
+     * 
+     * @param <T> The component type of the returned array.
+     * @param array The array into which the elements should be copied.
+     * @return An array containing all elements of the growable array.
+     */
+    @SuppressWarnings ("unchecked")
+    public <T> T[] toArray(T[] array) {
+
+        if (array.length < size) {
+            return (T[]) Arrays.copyOf(elements, size, array.getClass());
+        }
+
+        System.arraycopy(elements, 0, array, 0, size);
+        if (array.length > size) {
+            array[size] = null;
+        }
+        return array;
+    }
+
+    @SuppressWarnings ("unchecked")
+    private E elementAt(int index) {
+
+        return (E) elements[index];
+    }
+
+    @SuppressWarnings ("unchecked")
+    private Stream<E> stream() {
+
+        return (Stream<E>) (Stream<?>) Arrays.stream(elements, 0, size);
+    }
+
+    private void checkIndex(int index) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of the bounds of a growable array with size " + size);
+        }
+    }
+
+    // ----- Object Overrides -----
+
+    /*
+     * The abstract wrapper delegates the following methods to the initial internal array, which might have been replaced in the meantime.
+     */
+
+    @Override
+    public int hashCode() {
+
+        return asList().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        return asList().equals(obj instanceof Wrapper ? ((Wrapper) obj).getInternallyWrapped() : obj);
+    }
+
+    @Override
+    public String toString() {
+
+        return asList().toString();
+    }
+
+}
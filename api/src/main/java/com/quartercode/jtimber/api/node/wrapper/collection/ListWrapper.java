@@ -18,10 +18,16 @@
 
 package com.quartercode.jtimber.api.node.wrapper.collection;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.function.UnaryOperator;
+import com.quartercode.jtimber.api.internal.TreeEvents;
 import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
 import com.quartercode.jtimber.api.node.wrapper.Wrapper;
 
 /**
@@ -29,7 +35,12 @@ import com.quartercode.jtimber.api.node.wrapper.Wrapper;
  * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
  * <br>
  * Note that this wrapper also implements the list interface in order to allow it being used like any other list.
- * Also note that the wrapper extends the {@link CollectionWrapper} in order to inherit its functionality.
+ * Also note that the wrapper extends the {@link CollectionWrapper} in order to inherit its functionality.<br>
+ * <br>
+ * Operations which only reorder the elements, like {@link #sort(Comparator)}, {@link #reverse()}, {@link #rotate(int)} and {@link #swap(int, int)},
+ * are directly delegated to the wrapped list because they don't change any parents.
+ * Note that {@link Collections#reverse(List)}, {@link Collections#rotate(List, int)}, {@link Collections#swap(List, int, int)} and {@link Collections#shuffle(List)}
+ * replace the elements one by one and therefore adjust the parents of each moved element twice.
  * 
  * @param <E> The type of elements in the wrapped list.
  * @see List
@@ -47,7 +58,32 @@ public class ListWrapper<E extends ParentAware<?>> extends CollectionWrapper<E>
      */
     public ListWrapper(List<E> wrapped) {
 
-        super(wrapped);
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link List} {@link Wrapper} that wraps around the given list and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The list the new list wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public ListWrapper(List<E> wrapped, ParentPropagation parentPropagation) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    /**
+     * Creates a new {@link List} {@link Wrapper} that wraps around the given view of a list which is wrapped by the given owner wrapper.
+     * See {@link CollectionWrapper#CollectionWrapper(Collection, CollectionWrapper)} for more details on views.
+     * 
+     * @param wrapped The list view the new list wrapper wraps around.
+     * @param owner The list wrapper which wraps the list the view is backed by.
+     */
+    protected ListWrapper(List<E> wrapped, ListWrapper<?> owner) {
+
+        super(wrapped, owner);
 
         this.wrapped = wrapped;
     }
@@ -65,12 +101,20 @@ public class ListWrapper<E extends ParentAware<?>> extends CollectionWrapper<E>
     @Override
     public boolean addAll(int index, Collection<? extends E> c) {
 
-        for (E element : c) {
-            add(index, element);
-            index++;
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        // Insert all elements with a single operation so that the following elements are only shifted once
+        @SuppressWarnings ("unchecked")
+        List<E> addedElements = (List<E>) (List<?>) Arrays.asList(c.toArray());
+        boolean modified = wrapped.addAll(index, addedElements);
+
+        // If the addition was successful (no exception has been thrown), change the parents of the added elements
+        for (E addedElement : addedElements) {
+            addElement(addedElement);
         }
 
-        return !c.isEmpty();
+        TreeEvents.commitWrapperBulkOperation(event, this, "addAllAtIndex", addedElements.size());
+        return modified;
     }
 
     @Override
@@ -79,12 +123,86 @@ public class ListWrapper<E extends ParentAware<?>> extends CollectionWrapper<E>
         E old = wrapped.set(index, element);
 
         // If the setting was successful (no exception has been thrown), change the parents of the affected elements
-        removeElement(old);
-        addElement(element);
+        // If the element has just been set again, its parents stay the same
+        if (old != element) {
+            removeElement(old);
+            addElement(element);
+        }
 
         return old;
     }
 
+    /**
+     * {@inheritDoc}
+     * The sorting is directly delegated to the wrapped list since it doesn't change any parents.
+     */
+    @Override
+    public void sort(Comparator<? super E> c) {
+
+        wrapped.sort(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The parents are only adjusted for elements which are actually replaced by different objects.
+     */
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        ListIterator<E> iterator = wrapped.listIterator();
+        while (iterator.hasNext()) {
+            E old = iterator.next();
+            E element = operator.apply(old);
+
+            if (old != element) {
+                iterator.set(element);
+
+                // If the setting was successful (no exception has been thrown), change the parents of the affected elements
+                removeElement(old);
+                addElement(element);
+            }
+        }
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "replaceAll", wrapped.size());
+    }
+
+    // ----- Reordering Methods -----
+
+    /**
+     * Reverses the order of the elements in the wrapped list using {@link Collections#reverse(List)}.
+     * Since the reordering doesn't change any parents, it is directly applied to the wrapped list.
+     */
+    public void reverse() {
+
+        Collections.reverse(wrapped);
+    }
+
+    /**
+     * Rotates the elements in the wrapped list by the given distance using {@link Collections#rotate(List, int)}.
+     * Since the reordering doesn't change any parents, it is directly applied to the wrapped list.
+     * 
+     * @param distance The distance to rotate the list. May be zero, negative, or greater than the size of the list.
+     */
+    public void rotate(int distance) {
+
+        Collections.rotate(wrapped, distance);
+    }
+
+    /**
+     * Swaps the elements at the given positions in the wrapped list using {@link Collections#swap(List, int, int)}.
+     * Since the reordering doesn't change any parents, it is directly applied to the wrapped list.
+     * 
+     * @param i The index of one element to be swapped.
+     * @param j The index of the other element to be swapped.
+     * @throws IndexOutOfBoundsException One of the indices is out of range.
+     */
+    public void swap(int i, int j) {
+
+        Collections.swap(wrapped, i, j);
+    }
+
     @Override
     public void add(int index, E element) {
 
@@ -117,10 +235,16 @@ public class ListWrapper<E extends ParentAware<?>> extends CollectionWrapper<E>
         return new ListIteratorWrapper(wrapped.listIterator(index));
     }
 
+    /**
+     * {@inheritDoc}
+     * The returned view is a list wrapper itself, which reports all added and removed elements to this wrapper.
+     * Therefore, the elements of the view always have the parents of this wrapper.
+     * Range operations like {@code subList(from, to).clear()} are applied to the wrapped list with a single call.
+     */
     @Override
     public List<E> subList(int fromIndex, int toIndex) {
 
-        throw new UnsupportedOperationException("Sub lists of list wrappers are not supported yet");
+        return new ListWrapper<>(wrapped.subList(fromIndex, toIndex), this);
     }
 
     // ----- Basic Delegates -----
@@ -196,8 +320,12 @@ public class ListWrapper<E extends ParentAware<?>> extends CollectionWrapper<E>
             wrapped.set(e);
 
             // If the setting was successful (no exception has been thrown), change the parents of the affected elements
-            removeElement(currentElement);
-            addElement(e);
+            // If the element has just been set again, its parents stay the same
+            if (currentElement != e) {
+                removeElement(currentElement);
+                addElement(e);
+                currentElement = e;
+            }
         }
 
         @Override
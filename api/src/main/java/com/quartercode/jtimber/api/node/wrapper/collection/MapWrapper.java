@@ -0,0 +1,812 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+import com.quartercode.jtimber.api.internal.TreeEvents;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.AbstractWrapper;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Wrapper} around any class that implements the {@link Map} interface.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * The wrapper tracks the parents of all {@link ParentAware} values of the wrapped map.
+ * Optionally, the parents of parent-aware keys can be tracked as well (see {@link #MapWrapper(Map, boolean)}).
+ * All ways of modifying the map are covered, including the {@link #keySet() key set}, {@link #values() values} and {@link #entrySet() entry set} views,
+ * their iterators and {@link Entry#setValue(Object) entry value changes}.
+ * The default methods of the map interface ({@link #compute(Object, java.util.function.BiFunction) compute()}, {@link #merge(Object, Object, java.util.function.BiFunction) merge()},
+ * {@link #putIfAbsent(Object, Object) putIfAbsent()} etc.) are not overridden; they modify the map through the tracked methods of this wrapper.<br>
+ * <br>
+ * Note that this wrapper also implements the map interface in order to allow it being used like any other map.
+ * Keyed lookups are directly delegated to the wrapped map and therefore are as fast as they are on the wrapped map.
+ * 
+ * @param <K> The type of keys in the wrapped map.
+ * @param <V> The type of values in the wrapped map.
+ * @see Map
+ * @see Wrapper
+ * @see SortedMapWrapper
+ * @see NavigableMapWrapper
+ */
+public class MapWrapper<K, V extends ParentAware<?>> extends AbstractWrapper implements Map<K, V> {
+
+    // Whether instances of a key class are only equal to themselves; in that case, a lookup key is always the stored key instance
+    private static final ClassValue<Boolean> IDENTITY_EQUALITY = new IdentityEqualityClassValue();
+
+    private final Map<K, V>                  wrapped;
+    private final boolean                    trackingKeys;
+    private final MapWrapper<?, ?>           owner;
+
+    /**
+     * Creates a new {@link Map} {@link Wrapper} that wraps around the given map.
+     * Only the parents of the values are tracked.
+     * 
+     * @param wrapped The map the new map wrapper wraps around.
+     */
+    public MapWrapper(Map<K, V> wrapped) {
+
+        this(wrapped, false);
+    }
+
+    /**
+     * Creates a new {@link Map} {@link Wrapper} that wraps around the given map.
+     * If key tracking is enabled, the parents of {@link ParentAware} keys are tracked along with the parents of the values.
+     * In that case, the keys are also returned by {@link #getActualChildren()}.<br>
+     * <br>
+     * Note that keys which are passed to removal methods like {@link #remove(Object)} might only be equal to the stored keys.
+     * In that case, the parents of the stored key instances are adjusted.
+     * For keys which override {@link Object#equals(Object)}, that requires a search through all keys unless the wrapped map is a {@link SortedMap}.
+     * 
+     * @param wrapped The map the new map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     */
+    public MapWrapper(Map<K, V> wrapped, boolean trackingKeys) {
+
+        this(wrapped, trackingKeys, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link Map} {@link Wrapper} that wraps around the given map and uses the given {@link ParentPropagation} mode.
+     * See {@link #MapWrapper(Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The map the new map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public MapWrapper(Map<K, V> wrapped, boolean trackingKeys, ParentPropagation parentPropagation) {
+
+        this(wrapped, trackingKeys, parentPropagation, null);
+    }
+
+    /**
+     * Creates a new {@link Map} {@link Wrapper} that wraps around the given view of a map which is wrapped by the given owner wrapper.
+     * All elements added to the view receive the parents of the owner instead of the parents of the new wrapper.
+     * The new wrapper uses the {@link ParentPropagation} mode of the owner.
+     * 
+     * @param wrapped The map view the new map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param owner The map wrapper whose parents are used for the elements of the view.
+     */
+    protected MapWrapper(Map<K, V> wrapped, boolean trackingKeys, MapWrapper<?, ?> owner) {
+
+        this(wrapped, trackingKeys, owner.getParentPropagation(), owner);
+    }
+
+    private MapWrapper(Map<K, V> wrapped, boolean trackingKeys, ParentPropagation parentPropagation, MapWrapper<?, ?> owner) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+        this.trackingKeys = trackingKeys;
+        this.owner = owner == null ? this : owner;
+
+        // Lazily propagating wrappers must register themselves as containers of the elements which are already stored in the map
+        if (owner == null && parentPropagation == ParentPropagation.LAZY) {
+            for (Entry<K, V> entry : wrapped.entrySet()) {
+                addElement(entry.getValue());
+                addKey(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Returns whether the wrapper tracks the parents of {@link ParentAware} keys along with the parents of the values.
+     * 
+     * @return Whether key tracking is enabled.
+     */
+    public boolean isTrackingKeys() {
+
+        return trackingKeys;
+    }
+
+    /**
+     * Returns the map wrapper whose parents are used for the elements of this wrapper.
+     * That is the wrapper itself unless it wraps around a view of a map which is wrapped by another wrapper.
+     * 
+     * @return The owner wrapper.
+     */
+    protected MapWrapper<?, ?> getOwner() {
+
+        return owner;
+    }
+
+    // ----- Wrapper Methods -----
+
+    /**
+     * {@inheritDoc}
+     * The returned list is a read-only view of the values (and keys, if key tracking is enabled) of the wrapped map; no elements are copied.
+     * It should only be iterated since its {@link List#get(int)} method has to iterate over the map.
+     */
+    @Override
+    public List<Object> getActualChildren() {
+
+        return new ActualChildrenList();
+    }
+
+    @Override
+    public Iterator<Object> getActualChildIterator() {
+
+        return new ActualChildIterator();
+    }
+
+    @Override
+    public int getActualChildCount() {
+
+        return trackingKeys ? wrapped.size() * 2 : wrapped.size();
+    }
+
+    // ----- ParentAware Overrides -----
+
+    @Override
+    public void addParentUnchecked(Node<?> parent) {
+
+        Object event = TreeEvents.beginWrapperFanOut();
+
+        super.addParentUnchecked(parent);
+
+        if (requiresFanOut()) {
+            for (Entry<K, V> entry : wrapped.entrySet()) {
+                V value = entry.getValue();
+                if (requiresFanOut(value)) {
+                    value.addParent(parent);
+                }
+
+                if (trackingKeys && entry.getKey() instanceof ParentAware && requiresFanOut(entry.getKey())) {
+                    ((ParentAware<?>) entry.getKey()).addParent(parent);
+                }
+            }
+        }
+
+        TreeEvents.commitWrapperFanOut(event, this, true, wrapped.size());
+    }
+
+    @Override
+    public void removeParent(Node<?> parent) {
+
+        Object event = TreeEvents.beginWrapperFanOut();
+
+        super.removeParent(parent);
+
+        if (requiresFanOut()) {
+            for (Entry<K, V> entry : wrapped.entrySet()) {
+                V value = entry.getValue();
+                if (requiresFanOut(value)) {
+                    value.removeParent(parent);
+                }
+
+                if (trackingKeys && entry.getKey() instanceof ParentAware && requiresFanOut(entry.getKey())) {
+                    ((ParentAware<?>) entry.getKey()).removeParent(parent);
+                }
+            }
+        }
+
+        TreeEvents.commitWrapperFanOut(event, this, false, wrapped.size());
+    }
+
+    // ----- Event Methods -----
+
+    /**
+     * Internal method that should be called whenever an object is added to the wrapped {@link Map} as a value.
+     * If the object is {@link ParentAware}, it passes the parents of the owner wrapper on to it (see {@link #attachElement(ParentAware)}).
+     * 
+     * @param element The value that is added to the underlying map.
+     */
+    protected void addElement(Object element) {
+
+        if (element instanceof ParentAware) {
+            owner.attachElement((ParentAware<?>) element);
+        }
+    }
+
+    /**
+     * Internal method that should be called whenever an object is removed from the wrapped {@link Map} as a value.
+     * If the object is {@link ParentAware}, it takes the parents of the owner wrapper away from it (see {@link #detachElement(ParentAware)}).
+     * 
+     * @param element The value that is removed from the underlying map.
+     */
+    protected void removeElement(Object element) {
+
+        if (element instanceof ParentAware) {
+            owner.detachElement((ParentAware<?>) element);
+        }
+    }
+
+    /**
+     * Internal method that should be called whenever a new key is added to the wrapped {@link Map}.
+     * If key tracking is enabled, it calls {@link #addElement(Object)} with the key.
+     * 
+     * @param key The key that is added to the underlying map.
+     */
+    protected void addKey(Object key) {
+
+        if (trackingKeys) {
+            addElement(key);
+        }
+    }
+
+    /**
+     * Internal method that should be called whenever a key is removed from the wrapped {@link Map}.
+     * If key tracking is enabled, it calls {@link #removeElement(Object)} with the key.
+     * 
+     * @param key The key that is removed from the underlying map.
+     */
+    protected void removeKey(Object key) {
+
+        if (trackingKeys) {
+            removeElement(key);
+        }
+    }
+
+    // ----- Map Overrides -----
+
+    @Override
+    public V put(K key, V value) {
+
+        // Only check whether the key is new if that information is actually required
+        boolean newKey = trackingKeys && !wrapped.containsKey(key);
+
+        V old = wrapped.put(key, value);
+
+        // If the putting was successful (no exception has been thrown), change the parents of the affected elements
+        if (old != value) {
+            removeElement(old);
+            addElement(value);
+        }
+        if (newKey) {
+            addKey(key);
+        }
+
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+
+        if (trackingKeys) {
+            if (!wrapped.containsKey(key)) {
+                return null;
+            }
+
+            // Detach the key instance which is actually stored since the given key might only be equal to it
+            Object storedKey = getStoredKey(key);
+
+            V old = wrapped.remove(key);
+            removeElement(old);
+            removeKey(storedKey);
+            return old;
+        } else {
+            V old = wrapped.remove(key);
+            removeElement(old);
+            return old;
+        }
+    }
+
+    /*
+     * Returns the instance of the given key which is stored in the wrapped map; the map must contain the key.
+     */
+    @SuppressWarnings ("unchecked")
+    private Object getStoredKey(Object key) {
+
+        if (wrapped instanceof SortedMap) {
+            // Sorted maps compare keys using their comparator; the first key of the tail map is the one which is equal to the given key
+            return ((SortedMap<Object, V>) wrapped).tailMap(key).firstKey();
+        } else if (key == null || wrapped instanceof IdentityHashMap || IDENTITY_EQUALITY.get(key.getClass())) {
+            return key;
+        }
+
+        for (K storedKey : wrapped.keySet()) {
+            if (key.equals(storedKey)) {
+                return storedKey;
+            }
+        }
+        return key;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "putAll", m.size());
+    }
+
+    @Override
+    public void clear() {
+
+        Object event = TreeEvents.beginWrapperBulkOperation();
+        int initialSize = wrapped.size();
+
+        for (Entry<K, V> entry : wrapped.entrySet()) {
+            removeElement(entry.getValue());
+            removeKey(entry.getKey());
+        }
+
+        wrapped.clear();
+
+        TreeEvents.commitWrapperBulkOperation(event, this, "clear", initialSize);
+    }
+
+    @Override
+    public Set<K> keySet() {
+
+        return new KeySetWrapper();
+    }
+
+    @Override
+    public Collection<V> values() {
+
+        return new ValuesWrapper();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+
+        return new EntrySetWrapper();
+    }
+
+    // ----- Basic Delegates -----
+
+    @Override
+    public int size() {
+
+        return wrapped.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+
+        return wrapped.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+
+        return wrapped.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+
+        return wrapped.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+
+        return wrapped.get(key);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+
+        return wrapped.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+
+        wrapped.forEach(action);
+    }
+
+    /*
+     * The read-only list returned by getActualChildren().
+     * It directly iterates over the wrapped map instead of copying its values.
+     */
+    private class ActualChildrenList extends AbstractList<Object> {
+
+        @Override
+        public int size() {
+
+            return getActualChildCount();
+        }
+
+        @Override
+        public Object get(int index) {
+
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            Iterator<Object> iterator = iterator();
+            for (int counter = 0; counter < index; counter++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+
+            return new ActualChildIterator();
+        }
+
+    }
+
+    /*
+     * Determines for each key class whether it inherits equals() from the object class.
+     */
+    private static class IdentityEqualityClassValue extends ClassValue<Boolean> {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() == Object.class;
+            } catch (NoSuchMethodException e) {
+                // Cannot happen since every class inherits equals()
+                throw new IllegalStateException(e);
+            }
+        }
+
+    }
+
+    /*
+     * The read-only iterator returned by getActualChildIterator().
+     * Without key tracking, only the values are returned; otherwise, the key of each entry is returned before its value.
+     */
+    private class ActualChildIterator implements Iterator<Object> {
+
+        private final Iterator<Entry<K, V>> entries = wrapped.entrySet().iterator();
+        private Entry<K, V>                 currentEntry;
+
+        @Override
+        public boolean hasNext() {
+
+            return currentEntry != null || entries.hasNext();
+        }
+
+        @Override
+        public Object next() {
+
+            if (currentEntry != null) {
+                Object value = currentEntry.getValue();
+                currentEntry = null;
+                return value;
+            } else if (!entries.hasNext()) {
+                throw new NoSuchElementException();
+            } else if (trackingKeys) {
+                currentEntry = entries.next();
+                return currentEntry.getKey();
+            } else {
+                return entries.next().getValue();
+            }
+        }
+
+    }
+
+    /**
+     * An internal {@link Iterator} implementation that wraps around an iterator over the entries of the wrapped map and adjusts the parents of removed entries.
+     * The iterator returns objects which are derived from the entries using the {@link #extract(Entry)} method.
+     * 
+     * @param <T> The type of the objects returned by the iterator.
+     * @see MapWrapper
+     */
+    protected abstract class EntryIteratorWrapper<T> implements Iterator<T> {
+
+        private final Iterator<Entry<K, V>> wrapped;
+
+        /**
+         * The most recent entry whose derived object has been provided to the user of the {@link Iterator}.
+         */
+        protected Entry<K, V>               currentEntry;
+
+        /**
+         * Creates a new entry iterator wrapper that wraps around the given {@link Iterator} over map entries.
+         * 
+         * @param wrapped The entry iterator the new entry iterator wrapper wraps around.
+         */
+        protected EntryIteratorWrapper(Iterator<Entry<K, V>> wrapped) {
+
+            this.wrapped = wrapped;
+        }
+
+        /**
+         * Derives the object which is returned by the iterator from the given map entry.
+         * 
+         * @param entry The map entry the returned object should be derived from.
+         * @return The object derived from the entry.
+         */
+        protected abstract T extract(Entry<K, V> entry);
+
+        @Override
+        public boolean hasNext() {
+
+            return wrapped.hasNext();
+        }
+
+        @Override
+        public T next() {
+
+            currentEntry = wrapped.next();
+            return extract(currentEntry);
+        }
+
+        @Override
+        public void remove() {
+
+            if (currentEntry == null) {
+                throw new IllegalStateException("No element to remove");
+            }
+
+            // Some entries are invalidated by the removal; therefore, the key and the value are retrieved beforehand
+            K key = currentEntry.getKey();
+            V value = currentEntry.getValue();
+
+            wrapped.remove();
+            currentEntry = null;
+
+            // If the removal was successful (no exception has been thrown), change the parents of the removed elements
+            removeElement(value);
+            removeKey(key);
+        }
+
+    }
+
+    /**
+     * An internal {@link Entry} implementation that wraps around a real map entry and adjusts the parents of changed values.
+     * 
+     * @see MapWrapper
+     */
+    protected class EntryWrapper implements Entry<K, V> {
+
+        private final Entry<K, V> wrapped;
+
+        /**
+         * Creates a new entry wrapper that wraps around the given map {@link Entry}.
+         * 
+         * @param wrapped The map entry the new entry wrapper wraps around.
+         */
+        protected EntryWrapper(Entry<K, V> wrapped) {
+
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public K getKey() {
+
+            return wrapped.getKey();
+        }
+
+        @Override
+        public V getValue() {
+
+            return wrapped.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+
+            V old = wrapped.setValue(value);
+
+            // If the setting was successful (no exception has been thrown), change the parents of the affected elements
+            if (old != value) {
+                removeElement(old);
+                addElement(value);
+            }
+
+            return old;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return wrapped.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return wrapped.equals(obj);
+        }
+
+        @Override
+        public String toString() {
+
+            return wrapped.toString();
+        }
+
+    }
+
+    /**
+     * An internal {@link Set} implementation that provides the {@link #keySet() key set} view of the wrapped map and adjusts the parents of removed entries.
+     * 
+     * @see MapWrapper
+     */
+    protected class KeySetWrapper extends AbstractSet<K> {
+
+        /**
+         * Creates a new key set wrapper for the wrapped map.
+         */
+        protected KeySetWrapper() {
+
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+
+            return new EntryIteratorWrapper<K>(wrapped.entrySet().iterator()) {
+
+                @Override
+                protected K extract(Entry<K, V> entry) {
+
+                    return entry.getKey();
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+
+            return wrapped.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+
+            return wrapped.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+
+            if (wrapped.containsKey(o)) {
+                MapWrapper.this.remove(o);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void clear() {
+
+            MapWrapper.this.clear();
+        }
+
+    }
+
+    /*
+     * The collection returned by values().
+     */
+    private class ValuesWrapper extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+
+            return new EntryIteratorWrapper<V>(wrapped.entrySet().iterator()) {
+
+                @Override
+                protected V extract(Entry<K, V> entry) {
+
+                    return entry.getValue();
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+
+            return wrapped.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+
+            return wrapped.containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+
+            MapWrapper.this.clear();
+        }
+
+    }
+
+    /*
+     * The set returned by entrySet().
+     */
+    private class EntrySetWrapper extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+
+            return new EntryIteratorWrapper<Entry<K, V>>(wrapped.entrySet().iterator()) {
+
+                @Override
+                protected Entry<K, V> extract(Entry<K, V> entry) {
+
+                    return new EntryWrapper(entry);
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+
+            return wrapped.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+
+            return wrapped.entrySet().contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+
+            if (wrapped.entrySet().contains(o)) {
+                MapWrapper.this.remove( ((Entry<?, ?>) o).getKey());
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void clear() {
+
+            MapWrapper.this.clear();
+        }
+
+    }
+
+}
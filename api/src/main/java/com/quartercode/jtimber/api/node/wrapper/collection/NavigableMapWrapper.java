@@ -0,0 +1,379 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedSet;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Wrapper} around any class that implements the {@link NavigableMap} interface.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * Note that this wrapper also implements the navigable map interface in order to allow it being used like any other navigable map.
+ * Also note that the wrapper extends the {@link SortedMapWrapper} in order to inherit its functionality.
+ * All views (sub maps, the descending map and the navigable key sets) are wrapped as well; elements added through them receive the parents of this wrapper.
+ * The entries returned by navigation methods like {@link #firstEntry()} are wrapped so that {@link Entry#setValue(Object)} is tracked if it is supported.
+ * 
+ * @param <K> The type of keys in the wrapped navigable map.
+ * @param <V> The type of values in the wrapped navigable map.
+ * @see NavigableMap
+ * @see Wrapper
+ * @see SortedMapWrapper
+ */
+public class NavigableMapWrapper<K, V extends ParentAware<?>> extends SortedMapWrapper<K, V> implements NavigableMap<K, V> {
+
+    private final NavigableMap<K, V> wrapped;
+
+    /**
+     * Creates a new {@link NavigableMap} {@link Wrapper} that wraps around the given navigable map.
+     * Only the parents of the values are tracked.
+     * 
+     * @param wrapped The navigable map the new navigable map wrapper wraps around.
+     */
+    public NavigableMapWrapper(NavigableMap<K, V> wrapped) {
+
+        this(wrapped, false);
+    }
+
+    /**
+     * Creates a new {@link NavigableMap} {@link Wrapper} that wraps around the given navigable map.
+     * See {@link MapWrapper#MapWrapper(java.util.Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The navigable map the new navigable map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     */
+    public NavigableMapWrapper(NavigableMap<K, V> wrapped, boolean trackingKeys) {
+
+        this(wrapped, trackingKeys, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link NavigableMap} {@link Wrapper} that wraps around the given navigable map and uses the given {@link ParentPropagation} mode.
+     * See {@link MapWrapper#MapWrapper(java.util.Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The navigable map the new navigable map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public NavigableMapWrapper(NavigableMap<K, V> wrapped, boolean trackingKeys, ParentPropagation parentPropagation) {
+
+        super(wrapped, trackingKeys, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    /**
+     * Creates a new {@link NavigableMap} {@link Wrapper} that wraps around the given view of a navigable map which is wrapped by the given owner wrapper.
+     * See {@link MapWrapper#MapWrapper(java.util.Map, boolean, MapWrapper)} for more details on views.
+     * 
+     * @param wrapped The navigable map view the new navigable map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param owner The map wrapper whose parents are used for the elements of the view.
+     */
+    protected NavigableMapWrapper(NavigableMap<K, V> wrapped, boolean trackingKeys, MapWrapper<?, ?> owner) {
+
+        super(wrapped, trackingKeys, owner);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- Overrides -----
+
+    @Override
+    public Entry<K, V> pollFirstEntry() {
+
+        return removedEntry(wrapped.pollFirstEntry());
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry() {
+
+        return removedEntry(wrapped.pollLastEntry());
+    }
+
+    private Entry<K, V> removedEntry(Entry<K, V> entry) {
+
+        // If the polling was successful (no exception has been thrown), change the parents of the removed elements
+        if (entry != null) {
+            removeElement(entry.getValue());
+            removeKey(entry.getKey());
+        }
+
+        return entry;
+    }
+
+    // ----- Views -----
+
+    @Override
+    public Set<K> keySet() {
+
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+
+        return new NavigableKeySetWrapper();
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+
+        return descendingMap().navigableKeySet();
+    }
+
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+
+        return new NavigableMapWrapper<>(wrapped.descendingMap(), isTrackingKeys(), getOwner());
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+
+        return new NavigableMapWrapper<>(wrapped.subMap(fromKey, fromInclusive, toKey, toInclusive), isTrackingKeys(), getOwner());
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+
+        return new NavigableMapWrapper<>(wrapped.headMap(toKey, inclusive), isTrackingKeys(), getOwner());
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+
+        return new NavigableMapWrapper<>(wrapped.tailMap(fromKey, inclusive), isTrackingKeys(), getOwner());
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, K toKey) {
+
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey) {
+
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey) {
+
+        return tailMap(fromKey, true);
+    }
+
+    // ----- Basic Delegates -----
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) {
+
+        return wrapEntry(wrapped.lowerEntry(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+
+        return wrapped.lowerKey(key);
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) {
+
+        return wrapEntry(wrapped.floorEntry(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+
+        return wrapped.floorKey(key);
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) {
+
+        return wrapEntry(wrapped.ceilingEntry(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+
+        return wrapped.ceilingKey(key);
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) {
+
+        return wrapEntry(wrapped.higherEntry(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+
+        return wrapped.higherKey(key);
+    }
+
+    @Override
+    public Entry<K, V> firstEntry() {
+
+        return wrapEntry(wrapped.firstEntry());
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+
+        return wrapEntry(wrapped.lastEntry());
+    }
+
+    private Entry<K, V> wrapEntry(Entry<K, V> entry) {
+
+        return entry == null ? null : new EntryWrapper(entry);
+    }
+
+    /**
+     * An internal {@link NavigableSet} implementation that provides the {@link #navigableKeySet() navigable key set} view of the wrapped map.
+     * It extends the {@link MapWrapper.KeySetWrapper} in order to inherit its basic functionality.
+     * All sub sets are backed by wrapped sub maps.
+     * 
+     * @see NavigableMapWrapper
+     */
+    protected class NavigableKeySetWrapper extends KeySetWrapper implements NavigableSet<K> {
+
+        /**
+         * Creates a new navigable key set wrapper for the wrapped navigable map.
+         */
+        protected NavigableKeySetWrapper() {
+
+        }
+
+        @Override
+        public K pollFirst() {
+
+            Entry<K, V> entry = pollFirstEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public K pollLast() {
+
+            Entry<K, V> entry = pollLastEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public NavigableSet<K> descendingSet() {
+
+            return descendingMap().navigableKeySet();
+        }
+
+        @Override
+        public Iterator<K> descendingIterator() {
+
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+
+            return subMap(fromElement, fromInclusive, toElement, toInclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+
+            return headMap(toElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+
+            return tailMap(fromElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public SortedSet<K> subSet(K fromElement, K toElement) {
+
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> headSet(K toElement) {
+
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> tailSet(K fromElement) {
+
+            return tailSet(fromElement, true);
+        }
+
+        @Override
+        public K lower(K e) {
+
+            return lowerKey(e);
+        }
+
+        @Override
+        public K floor(K e) {
+
+            return floorKey(e);
+        }
+
+        @Override
+        public K ceiling(K e) {
+
+            return ceilingKey(e);
+        }
+
+        @Override
+        public K higher(K e) {
+
+            return higherKey(e);
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+
+            return NavigableMapWrapper.this.comparator();
+        }
+
+        @Override
+        public K first() {
+
+            return firstKey();
+        }
+
+        @Override
+        public K last() {
+
+            return lastKey();
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.Queue;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.SubstituteWithWrapper;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Wrapper} around any class that implements the {@link Queue} interface.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * Note that this wrapper also implements the queue interface in order to allow it being used like any other queue.
+ * All head operations are directly delegated to the wrapped queue and adjust the parents of the affected element afterwards.
+ * Therefore, they are as fast as they are on the wrapped queue.
+ * Fields of type {@code Queue} can be annotated with {@link SubstituteWithWrapper @SubstituteWithWrapper(QueueWrapper.class)}.
+ * 
+ * @param <E> The type of elements in the wrapped queue.
+ * @see Queue
+ * @see Wrapper
+ * @see DequeWrapper
+ */
+public class QueueWrapper<E extends ParentAware<?>> extends CollectionWrapper<E> implements Queue<E> {
+
+    private final Queue<E> wrapped;
+
+    /**
+     * Creates a new {@link Queue} {@link Wrapper} that wraps around the given queue.
+     * 
+     * @param wrapped The queue the new queue wrapper wraps around.
+     */
+    public QueueWrapper(Queue<E> wrapped) {
+
+        this(wrapped, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link Queue} {@link Wrapper} that wraps around the given queue and uses the given {@link ParentPropagation} mode.
+     * 
+     * @param wrapped The queue the new queue wrapper wraps around.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public QueueWrapper(Queue<E> wrapped, ParentPropagation parentPropagation) {
+
+        super(wrapped, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- Overrides -----
+
+    @Override
+    public boolean offer(E e) {
+
+        boolean modified = wrapped.offer(e);
+
+        if (modified) {
+            addElement(e);
+        }
+
+        return modified;
+    }
+
+    @Override
+    public E remove() {
+
+        E head = wrapped.remove();
+
+        // If the removal was successful (no exception has been thrown), change the parents of the removed element
+        removeElement(head);
+
+        return head;
+    }
+
+    @Override
+    public E poll() {
+
+        // Some queues allow null elements, so the returned value can't tell whether an element has been removed
+        boolean empty = wrapped.isEmpty();
+        E head = wrapped.poll();
+
+        if (!empty) {
+            removeElement(head);
+        }
+
+        return head;
+    }
+
+    // ----- Basic Delegates -----
+
+    @Override
+    public E element() {
+
+        return wrapped.element();
+    }
+
+    @Override
+    public E peek() {
+
+        return wrapped.peek();
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.node.wrapper.collection;
+
+import java.util.Comparator;
+import java.util.SortedMap;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.Wrapper;
+
+/**
+ * A {@link Wrapper} around any class that implements the {@link SortedMap} interface.
+ * See {@link Wrapper} for more details on what wrappers are and what they are used for.<br>
+ * <br>
+ * Note that this wrapper also implements the sorted map interface in order to allow it being used like any other sorted map.
+ * Also note that the wrapper extends the {@link MapWrapper} in order to inherit its functionality.
+ * The sub map views returned by {@link #subMap(Object, Object)}, {@link #headMap(Object)} and {@link #tailMap(Object)} are wrapped as well;
+ * elements added through them receive the parents of this wrapper.
+ * 
+ * @param <K> The type of keys in the wrapped sorted map.
+ * @param <V> The type of values in the wrapped sorted map.
+ * @see SortedMap
+ * @see Wrapper
+ * @see MapWrapper
+ */
+public class SortedMapWrapper<K, V extends ParentAware<?>> extends MapWrapper<K, V> implements SortedMap<K, V> {
+
+    private final SortedMap<K, V> wrapped;
+
+    /**
+     * Creates a new {@link SortedMap} {@link Wrapper} that wraps around the given sorted map.
+     * Only the parents of the values are tracked.
+     * 
+     * @param wrapped The sorted map the new sorted map wrapper wraps around.
+     */
+    public SortedMapWrapper(SortedMap<K, V> wrapped) {
+
+        this(wrapped, false);
+    }
+
+    /**
+     * Creates a new {@link SortedMap} {@link Wrapper} that wraps around the given sorted map.
+     * See {@link MapWrapper#MapWrapper(java.util.Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The sorted map the new sorted map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     */
+    public SortedMapWrapper(SortedMap<K, V> wrapped, boolean trackingKeys) {
+
+        this(wrapped, trackingKeys, ParentPropagation.getDefault());
+    }
+
+    /**
+     * Creates a new {@link SortedMap} {@link Wrapper} that wraps around the given sorted map and uses the given {@link ParentPropagation} mode.
+     * See {@link MapWrapper#MapWrapper(java.util.Map, boolean)} for more details on key tracking.
+     * 
+     * @param wrapped The sorted map the new sorted map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param parentPropagation The parent propagation mode which defines how the parents of the wrapper are passed on to its elements.
+     */
+    public SortedMapWrapper(SortedMap<K, V> wrapped, boolean trackingKeys, ParentPropagation parentPropagation) {
+
+        super(wrapped, trackingKeys, parentPropagation);
+
+        this.wrapped = wrapped;
+    }
+
+    /**
+     * Creates a new {@link SortedMap} {@link Wrapper} that wraps around the given view of a sorted map which is wrapped by the given owner wrapper.
+     * See {@link MapWrapper#MapWrapper(java.util.Map, boolean, MapWrapper)} for more details on views.
+     * 
+     * @param wrapped The sorted map view the new sorted map wrapper wraps around.
+     * @param trackingKeys Whether the parents of parent-aware keys should be tracked.
+     * @param owner The map wrapper whose parents are used for the elements of the view.
+     */
+    protected SortedMapWrapper(SortedMap<K, V> wrapped, boolean trackingKeys, MapWrapper<?, ?> owner) {
+
+        super(wrapped, trackingKeys, owner);
+
+        this.wrapped = wrapped;
+    }
+
+    // ----- Views -----
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+
+        return new SortedMapWrapper<>(wrapped.subMap(fromKey, toKey), isTrackingKeys(), getOwner());
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+
+        return new SortedMapWrapper<>(wrapped.headMap(toKey), isTrackingKeys(), getOwner());
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+
+        return new SortedMapWrapper<>(wrapped.tailMap(fromKey), isTrackingKeys(), getOwner());
+    }
+
+    // ----- Basic Delegates -----
+
+    @Override
+    public Comparator<? super K> comparator() {
+
+        return wrapped.comparator();
+    }
+
+    @Override
+    public K firstKey() {
+
+        return wrapped.firstKey();
+    }
+
+    @Override
+    public K lastKey() {
+
+        return wrapped.lastKey();
+    }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.profile;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.quartercode.jtimber.api.internal.RHConstFunctions;
+import com.quartercode.jtimber.api.node.IllegalParentTypeException;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+
+/**
+ * The barrier profiler counts the work done by the parent watchers (also called "barriers") of single node fields.
+ * It is used when the runtime hook is started with the {@code profile} option.
+ * In that mode, each parent watcher is replaced by a call to {@link #write(Object, Object, Node, boolean, int, String)}, which performs the parent watcher
+ * logic and records the following counters for the written field:
+ * 
+ * <ul>
+ * <li>The amount of parents added to new field values.</li>
+ * <li>The amount of parents removed from old field values.</li>
+ * <li>The amount of writes which stored the value that was already stored in the field.</li>
+ * <li>The amount of writes which have been rejected because the node isn't an allowed parent of the new value.</li>
+ * </ul>
+ * 
+ * In order to keep the overhead low, only one of {@link #getSampleRate()} writes is counted on average.
+ * The sample rate is read from the {@link #SAMPLE_RATE_PROPERTY} system property, which is set by the runtime hook.
+ * If the property isn't set, the {@link #DEFAULT_SAMPLE_RATE} is used.
+ * Moreover, the counters are striped across threads and never locked.<br>
+ * <br>
+ * The collected counters can be retrieved using {@link #getFieldProfiles()} or {@link #dump()}.
+ * Moreover, the profiler can be published as an MXBean under the {@link #OBJECT_NAME} using {@link #register()}.
+ * The runtime hook does that if it is started with the {@code jmx} option.
+ * 
+ * @see FieldProfile
+ * @see BarrierProfilerMXBean
+ */
+public class BarrierProfiler {
+
+    /**
+     * The JMX object name under which the barrier profiler is published.
+     */
+    public static final String                         OBJECT_NAME          = "com.quartercode.jtimber:type=BarrierProfiler";
+
+    /**
+     * The name of the system property which contains the sample rate of the profiler.
+     */
+    public static final String                         SAMPLE_RATE_PROPERTY = "jtimber.profiler.sampleRate";
+
+    /**
+     * The sample rate of the profiler if the {@link #SAMPLE_RATE_PROPERTY} system property isn't set.
+     */
+    public static final int                            DEFAULT_SAMPLE_RATE  = 16;
+
+    private static final Logger                        LOGGER               = LoggerFactory.getLogger(BarrierProfiler.class);
+
+    private static final int                           ADD                  = 0;
+    private static final int                           REMOVE               = 1;
+    private static final int                           SAME_VALUE           = 2;
+    private static final int                           ILLEGAL_TYPE         = 3;
+    private static final int                           COUNTERS             = 4;
+
+    private static final int                           SEGMENT_SHIFT        = 8;
+    private static final int                           SEGMENT_SIZE         = 1 << SEGMENT_SHIFT;
+    private static final int                           MAX_SEGMENTS         = 1 << 12;
+
+    private static final int                           STRIPES              = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    private static final int                           SAMPLE_RATE          = Math.max(Integer.getInteger(SAMPLE_RATE_PROPERTY, DEFAULT_SAMPLE_RATE), 1);
+
+    // The field ids are assigned densely by the runtime hook; therefore, the segments are allocated on demand
+    private static final AtomicReferenceArray<Segment> SEGMENTS             = new AtomicReferenceArray<>(MAX_SEGMENTS);
+
+    /**
+     * Publishes the profiler as an MXBean on the platform MBean server under the {@link #OBJECT_NAME}.
+     * If that fails, an error is logged; the profiler is still available through the static methods.
+     */
+    public static void register() {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBeanImpl(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            LOGGER.error("Cannot register JTimber barrier profiler MXBean '{}'", OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * <b>Internal</b> method which is called by the profiled parent watchers inserted by the runtime hook.
+     * It removes the given parent node from the old field value, adds it to the new field value and records the sampled counters for the given field.
+     * <b>Don't call this method if you don't have a reason to do it!</b>
+     * 
+     * @param newValue The value which is about to be written into the field.
+     * @param oldValue The value which is currently stored in the field.
+     * @param parent The node which contains the field.
+     * @param checked Whether the parent type should be checked when adding the parent to the new value.
+     * @param fieldId The id the runtime hook has assigned to the field.
+     * @param fieldKey The key of the field (format: {@code internalClassName#fieldName}).
+     * @throws IllegalParentTypeException The node is not an allowed parent of the new value.
+     */
+    public static void write(Object newValue, Object oldValue, Node<?> parent, boolean checked, int fieldId, String fieldKey) {
+
+        Segment segment = null;
+        if (SAMPLE_RATE == 1 || ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            segment = getSegment(fieldId, fieldKey);
+        }
+
+        if (segment != null && newValue == oldValue) {
+            segment.increment(fieldId, SAME_VALUE);
+        }
+
+        if (oldValue instanceof ParentAware) {
+            ((ParentAware<?>) oldValue).removeParent(parent);
+
+            if (segment != null) {
+                segment.increment(fieldId, REMOVE);
+            }
+        }
+
+        if (newValue instanceof ParentAware) {
+            try {
+                if (checked) {
+                    ((ParentAware<?>) newValue).addParent(parent);
+                } else {
+                    RHConstFunctions.addParentUnchecked(newValue, parent);
+                }
+            } catch (IllegalParentTypeException e) {
+                if (segment != null) {
+                    segment.increment(fieldId, ILLEGAL_TYPE);
+                }
+
+                throw e;
+            }
+
+            if (segment != null) {
+                segment.increment(fieldId, ADD);
+            }
+        }
+    }
+
+    /*
+     * Returns the segment which contains the counters of the given field and allocates it if necessary.
+     * If the field id is too large, null is returned and the write isn't counted.
+     */
+    private static Segment getSegment(int fieldId, String fieldKey) {
+
+        int segmentIndex = fieldId >>> SEGMENT_SHIFT;
+        if (segmentIndex >= MAX_SEGMENTS) {
+            return null;
+        }
+
+        Segment segment = SEGMENTS.get(segmentIndex);
+        if (segment == null) {
+            SEGMENTS.compareAndSet(segmentIndex, null, new Segment());
+            segment = SEGMENTS.get(segmentIndex);
+        }
+
+        segment.registerFieldKey(fieldId, fieldKey);
+        return segment;
+    }
+
+    /**
+     * Returns the sample rate of the profiler. On average, one of that many parent watcher executions is counted.
+     * 
+     * @return The sample rate.
+     */
+    public static int getSampleRate() {
+
+        return SAMPLE_RATE;
+    }
+
+    /**
+     * Returns snapshots of the sampled counters of all fields for which at least one parent watcher execution has been sampled.
+     * The fields which cause the most parent operations are listed first.
+     * 
+     * @return The profiles of all profiled fields.
+     */
+    public static List<FieldProfile> getFieldProfiles() {
+
+        List<FieldProfile> profiles = new ArrayList<>();
+
+        for (int segmentIndex = 0; segmentIndex < MAX_SEGMENTS; segmentIndex++) {
+            Segment segment = SEGMENTS.get(segmentIndex);
+
+            if (segment != null) {
+                for (int localId = 0; localId < SEGMENT_SIZE; localId++) {
+                    FieldProfile profile = segment.getProfile(localId);
+
+                    if (profile != null) {
+                        profiles.add(profile);
+                    }
+                }
+            }
+        }
+
+        Collections.sort(profiles, new Comparator<FieldProfile>() {
+
+            @Override
+            public int compare(FieldProfile profile1, FieldProfile profile2) {
+
+                return Long.compare(profile2.getParentOperations(), profile1.getParentOperations());
+            }
+
+        });
+
+        return profiles;
+    }
+
+    /**
+     * Returns a human-readable table of the sampled counters of all profiled fields.
+     * The fields which cause the most parent operations are listed first.
+     * 
+     * @return The profiler dump.
+     */
+    public static String dump() {
+
+        StringBuilder dump = new StringBuilder();
+        dump.append(String.format("JTimber barrier profile (sample rate 1/%d)%n", SAMPLE_RATE));
+        dump.append(String.format("%12s %12s %12s %12s  %s%n", "adds", "removes", "same-value", "illegal-type", "field"));
+
+        for (FieldProfile profile : getFieldProfiles()) {
+            dump.append(String.format("%12d %12d %12d %12d  %s%n", profile.getAdds(), profile.getRemoves(), profile.getSameValueWrites(), profile.getIllegalTypeRejections(), profile.getFieldKey()));
+        }
+
+        return dump.toString();
+    }
+
+    /**
+     * Resets the counters of all profiled fields.
+     * Writes which are recorded concurrently might be lost partially.
+     */
+    public static void reset() {
+
+        for (int segmentIndex = 0; segmentIndex < MAX_SEGMENTS; segmentIndex++) {
+            Segment segment = SEGMENTS.get(segmentIndex);
+
+            if (segment != null) {
+                segment.reset();
+            }
+        }
+    }
+
+    private BarrierProfiler() {
+
+    }
+
+    /*
+     * A segment contains the counters of SEGMENT_SIZE consecutive field ids.
+     * Each thread increments the counters of one of the stripes, which are far enough apart to not share cache lines.
+     */
+    private static class Segment {
+
+        private final AtomicReferenceArray<String> fieldKeys = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        private final AtomicLongArray              counters  = new AtomicLongArray(STRIPES * SEGMENT_SIZE * COUNTERS);
+
+        private void registerFieldKey(int fieldId, String fieldKey) {
+
+            int localId = fieldId & SEGMENT_SIZE - 1;
+            if (fieldKeys.get(localId) == null) {
+                fieldKeys.set(localId, fieldKey);
+            }
+        }
+
+        private void increment(int fieldId, int counter) {
+
+            int stripe = (int) Thread.currentThread().getId() & STRIPES - 1;
+            counters.incrementAndGet( (stripe * SEGMENT_SIZE + (fieldId & SEGMENT_SIZE - 1)) * COUNTERS + counter);
+        }
+
+        private FieldProfile getProfile(int localId) {
+
+            String fieldKey = fieldKeys.get(localId);
+            if (fieldKey == null) {
+                return null;
+            }
+
+            long[] sums = new long[COUNTERS];
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                for (int counter = 0; counter < COUNTERS; counter++) {
+                    sums[counter] += counters.get( (stripe * SEGMENT_SIZE + localId) * COUNTERS + counter);
+                }
+            }
+
+            return new FieldProfile(fieldKey, sums[ADD], sums[REMOVE], sums[SAME_VALUE], sums[ILLEGAL_TYPE]);
+        }
+
+        private void reset() {
+
+            for (int index = 0; index < counters.length(); index++) {
+                counters.set(index, 0);
+            }
+        }
+
+    }
+
+    /*
+     * The MXBean which exposes the profiler via JMX.
+     */
+    private static class MXBeanImpl implements BarrierProfilerMXBean {
+
+        @Override
+        public int getSampleRate() {
+
+            return BarrierProfiler.getSampleRate();
+        }
+
+        @Override
+        public int getProfiledFieldCount() {
+
+            return getFieldProfiles().size();
+        }
+
+        @Override
+        public String dump() {
+
+            return BarrierProfiler.dump();
+        }
+
+        @Override
+        public void reset() {
+
+            BarrierProfiler.reset();
+        }
+
+    }
+
+}
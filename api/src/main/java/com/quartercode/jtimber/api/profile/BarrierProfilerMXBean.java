@@ -0,0 +1,55 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.profile;
+
+/**
+ * The management interface of the {@link BarrierProfiler}, which is published via JMX by {@link BarrierProfiler#register()}.
+ * 
+ * @see BarrierProfiler
+ */
+public interface BarrierProfilerMXBean {
+
+    /**
+     * Returns the sample rate of the profiler. On average, one of that many parent watcher executions is counted.
+     * 
+     * @return The sample rate.
+     */
+    public int getSampleRate();
+
+    /**
+     * Returns the amount of fields for which at least one parent watcher execution has been sampled.
+     * 
+     * @return The amount of profiled fields.
+     */
+    public int getProfiledFieldCount();
+
+    /**
+     * Returns a human-readable table of the sampled counters of all profiled fields.
+     * The fields which cause the most parent operations are listed first.
+     * 
+     * @return The profiler dump.
+     */
+    public String dump();
+
+    /**
+     * Resets the counters of all profiled fields.
+     */
+    public void reset();
+
+}
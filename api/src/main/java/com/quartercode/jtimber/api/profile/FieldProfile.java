@@ -0,0 +1,121 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.profile;
+
+/**
+ * An immutable snapshot of the {@link BarrierProfiler} counters of a single node field.
+ * All counts are sampled; the estimated real counts can be calculated by multiplying them with the {@link BarrierProfiler#getSampleRate() sample rate}.
+ * 
+ * @see BarrierProfiler#getFieldProfiles()
+ */
+public class FieldProfile {
+
+    private final String fieldKey;
+    private final long   adds;
+    private final long   removes;
+    private final long   sameValueWrites;
+    private final long   illegalTypeRejections;
+
+    /**
+     * Creates a new field profile.
+     * 
+     * @param fieldKey The key of the profiled field (format: {@code internalClassName#fieldName}).
+     * @param adds The sampled amount of parents which have been added to new field values.
+     * @param removes The sampled amount of parents which have been removed from old field values.
+     * @param sameValueWrites The sampled amount of writes which stored the value that was already stored in the field.
+     * @param illegalTypeRejections The sampled amount of writes which have been rejected because the node isn't an allowed parent of the new value.
+     */
+    public FieldProfile(String fieldKey, long adds, long removes, long sameValueWrites, long illegalTypeRejections) {
+
+        this.fieldKey = fieldKey;
+        this.adds = adds;
+        this.removes = removes;
+        this.sameValueWrites = sameValueWrites;
+        this.illegalTypeRejections = illegalTypeRejections;
+    }
+
+    /**
+     * Returns the key of the profiled field. It has the format {@code internalClassName#fieldName}.
+     * 
+     * @return The field key.
+     */
+    public String getFieldKey() {
+
+        return fieldKey;
+    }
+
+    /**
+     * Returns the sampled amount of parents which have been added to new field values.
+     * 
+     * @return The sampled add count.
+     */
+    public long getAdds() {
+
+        return adds;
+    }
+
+    /**
+     * Returns the sampled amount of parents which have been removed from old field values.
+     * 
+     * @return The sampled remove count.
+     */
+    public long getRemoves() {
+
+        return removes;
+    }
+
+    /**
+     * Returns the sampled amount of writes which stored the value that was already stored in the field.
+     * Such writes unnecessarily remove and re-add the same parent.
+     * 
+     * @return The sampled same-value write count.
+     */
+    public long getSameValueWrites() {
+
+        return sameValueWrites;
+    }
+
+    /**
+     * Returns the sampled amount of writes which have been rejected because the node isn't an allowed parent of the new value.
+     * 
+     * @return The sampled illegal type rejection count.
+     */
+    public long getIllegalTypeRejections() {
+
+        return illegalTypeRejections;
+    }
+
+    /**
+     * Returns the sum of all sampled parent operations (adds and removes) caused by the field.
+     * It can be used for finding the fields which cause the most parent tracking work.
+     * 
+     * @return The sampled amount of parent operations.
+     */
+    public long getParentOperations() {
+
+        return adds + removes;
+    }
+
+    @Override
+    public String toString() {
+
+        return fieldKey + " [adds=" + adds + ", removes=" + removes + ", sameValueWrites=" + sameValueWrites + ", illegalTypeRejections=" + illegalTypeRejections + "]";
+    }
+
+}
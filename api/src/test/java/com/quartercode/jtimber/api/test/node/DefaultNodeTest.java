@@ -0,0 +1,109 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.collection.CollectionWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+
+public class DefaultNodeTest {
+
+    // These tests run without the runtime hook; therefore, the fallback child accessors are used
+
+    private final Node<?> elem1 = new DefaultNode<>();
+    private final Node<?> elem2 = new DefaultNode<>();
+
+    @Test
+    public void testGetChildren() {
+
+        Node2 node = new Node2();
+        node.child1 = new DefaultNode<>();
+        node.child3 = "string";
+        node.children = new ListWrapper<>(Arrays.<Node<?>> asList(elem1, elem2));
+
+        assertArrayEquals("Children of the node", new Object[] { node.child1, 0, "string", elem1, elem2 }, node.getChildren().toArray());
+    }
+
+    @Test
+    public void testGetChildCount() {
+
+        Node2 node = new Node2();
+        node.child1 = new DefaultNode<>();
+        node.children = new ListWrapper<>(Arrays.<Node<?>> asList(elem1, elem2));
+
+        // The primitive field always counts as a child
+        assertEquals("Amount of children of the node", 4, node.getChildCount());
+    }
+
+    @Test
+    public void testGetChildrenWithNestedWrappers() {
+
+        Node3 node = new Node3();
+        node.set = new CollectionWrapper<ParentAware<?>>(new HashSet<ParentAware<?>>());
+        node.set.add(elem1);
+        node.set.add(new ListWrapper<>(Arrays.<Node<?>> asList(elem2, null)));
+
+        assertEquals("Children of the node", new HashSet<>(Arrays.asList(elem1, elem2)), new HashSet<>(node.getChildren()));
+        assertEquals("Amount of children of the node", 2, node.getChildCount());
+
+        node.set.clear();
+        node.set.add(elem1);
+        node.set.add(elem2);
+        assertEquals("Amount of children of the node without nested wrappers", 2, node.getChildCount());
+    }
+
+    @Test
+    public void testGetChildrenWithoutFields() {
+
+        Node<?> node = new DefaultNode<>();
+
+        assertArrayEquals("Children of a node without fields", new Object[0], node.getChildren().toArray());
+        assertEquals("Amount of children of a node without fields", 0, node.getChildCount());
+    }
+
+    private static class Node1 extends DefaultNode<Node<?>> {
+
+        static Object staticField = "static";
+
+        Node<?>       child1;
+        int           child2;
+
+    }
+
+    private static class Node2 extends Node1 {
+
+        Object               child3;
+        ListWrapper<Node<?>> children;
+
+    }
+
+    private static class Node3 extends DefaultNode<Node<?>> {
+
+        CollectionWrapper<ParentAware<?>> set;
+
+    }
+
+}
@@ -20,6 +20,10 @@ package com.quartercode.jtimber.api.test.node;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.Arrays;
 import org.junit.Test;
 import com.quartercode.jtimber.api.node.DefaultNode;
 import com.quartercode.jtimber.api.node.DefaultParentAware;
@@ -50,6 +54,100 @@ public class DefaultParentAwareTest {
         pa.addParent(new Node2()); // Expect exception
     }
 
+    @Test
+    public void testAddDisallowedParentUnchecked() {
+
+        PA2 pa = new PA2();
+
+        Node2 node2 = new Node2();
+        pa.addParentUnchecked(node2); // Expect no exception
+
+        assertArrayEquals("Parents of the parent-aware object after a disallowed node has been added without check", new Node[] { node2 }, pa.getParents().toArray());
+    }
+
+    @Test
+    public void testAddParents() {
+
+        PA2 pa = new PA2();
+
+        Node1 node1 = new Node1();
+        Node1 node2 = new Node1();
+        pa.addParents(Arrays.asList(node1, null, node2));
+
+        assertArrayEquals("Parents of the parent-aware object after multiple nodes have been added", new Node[] { node1, node2 }, pa.getParents().toArray());
+    }
+
+    @Test
+    public void testAddDisallowedParents() {
+
+        PA2 pa = new PA2();
+
+        try {
+            pa.addParents(Arrays.asList(new Node1(), new Node2()));
+            fail("Disallowed parent has been added without exception");
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+
+        assertEquals("Amount of parents after a disallowed node has been added among other nodes", 0, pa.getParentCount());
+    }
+
+    @Test
+    public void testRemoveParents() {
+
+        PA1 pa = new PA1();
+
+        Node1 node1 = new Node1();
+        Node1 node2 = new Node1();
+        pa.addParents(Arrays.asList(node1, node2, node1));
+        pa.removeParents(Arrays.asList(node1, node2));
+
+        assertArrayEquals("Parents of the parent-aware object after multiple nodes have been removed", new Node[] { node1 }, pa.getParents().toArray());
+    }
+
+    @Test
+    public void testAddContainer() {
+
+        PA1 pa = new PA1();
+        PA1 container = new PA1();
+
+        Node1 node1 = new Node1();
+        Node1 node2 = new Node1();
+        pa.addParent(node1);
+        container.addParent(node2);
+
+        assertTrue("Container has been added", pa.addContainer(container));
+        assertTrue("Parent-aware object has the container", pa.hasContainer(container));
+        assertArrayEquals("Parents of the parent-aware object after a container has been added", new Node[] { node1, node2 }, pa.getParents().toArray());
+
+        Node1 node3 = new Node1();
+        container.addParent(node3);
+        assertArrayEquals("Parents of the parent-aware object after the container has gained a parent", new Node[] { node1, node2, node3 }, pa.getParents().toArray());
+        assertEquals("Amount of parents after the container has gained a parent", 3, pa.getParentCount());
+
+        assertTrue("Container has been removed", pa.removeContainer(container));
+        assertFalse("Parent-aware object has the container after removal", pa.hasContainer(container));
+        assertFalse("Container has been removed twice", pa.removeContainer(container));
+        assertArrayEquals("Parents of the parent-aware object after the container has been removed", new Node[] { node1 }, pa.getParents().toArray());
+    }
+
+    @Test
+    public void testAddContainerWithDisallowedParent() {
+
+        PA2 pa = new PA2();
+        PA1 container = new PA1();
+        container.addParent(new Node2());
+
+        try {
+            pa.addContainer(container);
+            fail("Container with a disallowed parent has been added");
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+
+        assertFalse("Parent-aware object has the container with a disallowed parent", pa.hasContainer(container));
+    }
+
     @Test
     public void testRemoveNullParent() {
 
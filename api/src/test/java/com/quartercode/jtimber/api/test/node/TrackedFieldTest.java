@@ -0,0 +1,126 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.DefaultParentAware;
+import com.quartercode.jtimber.api.node.IllegalParentTypeException;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.TrackedField;
+
+public class TrackedFieldTest {
+
+    private static final TrackedField<Node1, PA1> CHILD = TrackedField.of(Node1.class, "child");
+
+    @Test
+    public void testSet() {
+
+        Node1 node = new Node1();
+        PA1 child1 = new PA1();
+        PA1 child2 = new PA1();
+
+        CHILD.set(node, child1);
+        assertEquals("Field value after first write", child1, CHILD.get(node));
+        assertArrayEquals("Parents of child 1 after first write", new Node[] { node }, child1.getParents().toArray());
+
+        CHILD.set(node, child2);
+        assertEquals("Field value after second write", child2, CHILD.get(node));
+        assertArrayEquals("Parents of child 1 after second write", new Node[0], child1.getParents().toArray());
+        assertArrayEquals("Parents of child 2 after second write", new Node[] { node }, child2.getParents().toArray());
+
+        CHILD.set(node, null);
+        assertEquals("Field value after third write", null, CHILD.get(node));
+        assertArrayEquals("Parents of child 2 after third write", new Node[0], child2.getParents().toArray());
+    }
+
+    @Test
+    public void testSetDisallowedParent() {
+
+        Node2 node = new Node2();
+        PA2 child = new PA2();
+        TrackedField<Node2, PA2> field = TrackedField.of(Node2.class, "child");
+
+        try {
+            field.set(node, child);
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+
+        assertEquals("Field value after disallowed write", null, field.get(node));
+    }
+
+    @Test
+    public void testSetDisallowedParentKeepsOldValue() {
+
+        Node2 node = new Node2();
+        PA1 oldChild = new PA1();
+        TrackedField<Node2, DefaultParentAware<?>> field = TrackedField.of(Node2.class, "anyChild");
+        field.set(node, oldChild);
+
+        try {
+            field.set(node, new PA2());
+            fail("Disallowed parent has been accepted");
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+
+        assertEquals("Field value after disallowed write", oldChild, field.get(node));
+        assertArrayEquals("Parents of the old value after disallowed write", new Node[] { node }, oldChild.getParents().toArray());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testOfUnknownField() {
+
+        TrackedField.of(Node1.class, "unknown");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testOfFinalField() {
+
+        TrackedField.of(Node1.class, "finalChild");
+    }
+
+    private static class PA1 extends DefaultParentAware<Node<?>> {
+
+    }
+
+    private static class PA2 extends DefaultParentAware<Node1> {
+
+    }
+
+    private static class Node1 extends DefaultNode<Node<?>> {
+
+        private final PA1 finalChild = new PA1();
+
+        private PA1       child;
+
+    }
+
+    private static class Node2 extends DefaultNode<Node<?>> {
+
+        private PA2                   child;
+        private DefaultParentAware<?> anyChild;
+
+    }
+
+}
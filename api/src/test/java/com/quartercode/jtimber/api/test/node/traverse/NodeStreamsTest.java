@@ -0,0 +1,225 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.traverse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.traverse.DescendantSpliterator;
+import com.quartercode.jtimber.api.node.traverse.NodeStreams;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+
+public class NodeStreamsTest {
+
+    // These tests run without the runtime hook; therefore, the fallback child accessors are used and no parents are tracked
+
+    @Test
+    public void testDescendants() {
+
+        TestNode root = new TestNode();
+        root.child = new TestNode();
+        root.children.add(new TestNode());
+        root.children.add(new TestNode());
+        ((TestNode) root.children.get(0)).child = new TestNode();
+
+        List<Node<?>> descendants = NodeStreams.descendants(root).collect(Collectors.<Node<?>> toList());
+        assertEquals("Amount of descendants", 4, descendants.size());
+        assertFalse("Descendants contain the root node", descendants.contains(root));
+        assertTrue("Descendants contain a wrapper element", descendants.contains(root.children.get(1)));
+    }
+
+    @Test
+    public void testDescendantsAndSelf() {
+
+        TestNode root = new TestNode();
+        root.child = new TestNode();
+
+        List<Node<?>> nodes = NodeStreams.descendantsAndSelf(root).collect(Collectors.<Node<?>> toList());
+        assertEquals("Amount of nodes", 2, nodes.size());
+        assertTrue("Nodes contain the root node", nodes.contains(root));
+    }
+
+    @Test
+    public void testDescendantsSkipNonNodes() {
+
+        TestNode root = new TestNode();
+        root.value = "string";
+        root.child = new TestNode();
+
+        assertEquals("Amount of descendants", 1, NodeStreams.descendants(root).count());
+    }
+
+    @Test
+    public void testDescendantsSharedSubtree() {
+
+        TestNode root = new TestNode();
+        TestNode shared = new TestNode();
+        shared.child = new TestNode();
+        root.child = shared;
+        root.children.add(shared);
+        root.children.add(new TestNode(shared));
+
+        // root.child, root.children[1], shared.child
+        assertEquals("Amount of descendants", 3, NodeStreams.descendants(root).count());
+    }
+
+    @Test
+    public void testDescendantsSingleParents() {
+
+        TestNode root = new TestNode();
+        TestNode child = new TestNode();
+        TestNode shared = new TestNode();
+        root.child = child;
+        root.children.add(shared);
+        child.child = shared;
+
+        // Simulate the parents the runtime hook would track
+        child.addParent(root);
+        shared.addParent(root);
+        shared.addParent(child);
+
+        assertEquals("Amount of descendants", 2, NodeStreams.descendants(root).count());
+    }
+
+    @Test
+    public void testDescendantsCycle() {
+
+        TestNode root = new TestNode();
+        TestNode node1 = new TestNode();
+        TestNode node2 = new TestNode(node1);
+        node1.child = node2;
+        root.child = node1;
+        node2.children.add(root);
+
+        assertEquals("Amount of descendants", 2, NodeStreams.descendants(root).count());
+    }
+
+    @Test
+    public void testDescendantsTrackedCycle() {
+
+        TestNode node1 = new TestNode();
+        TestNode node2 = new TestNode(node1);
+        node1.child = node2;
+
+        // Simulate the parents the runtime hook would track; each node has the other one as its only parent
+        node1.addParent(node2);
+        node2.addParent(node1);
+
+        assertEquals("Amount of nodes", 2, NodeStreams.descendantsAndSelf(node1).limit(10).count());
+        assertEquals("Amount of nodes (parallel)", 2, NodeStreams.descendantsAndSelf(node1).parallel().limit(10).count());
+    }
+
+    @Test
+    public void testDescendantsDeepChain() {
+
+        TestNode root = new TestNode();
+        TestNode current = root;
+        for (int depth = 0; depth < 100_000; depth++) {
+            current.child = new TestNode();
+            current = (TestNode) current.child;
+        }
+
+        assertEquals("Amount of descendants", 100_000, NodeStreams.descendants(root).count());
+        assertEquals("Amount of descendants (parallel)", 100_000, NodeStreams.descendants(root).parallel().count());
+    }
+
+    @Test
+    public void testDescendantsParallel() {
+
+        TestNode root = createTree(4, 8);
+        TestNode shared = new TestNode();
+        ((TestNode) root.children.get(0)).children.add(shared);
+        ((TestNode) root.children.get(7)).children.add(shared);
+
+        Set<Node<?>> sequential = toIdentitySet(NodeStreams.descendantsAndSelf(root).collect(Collectors.<Node<?>> toList()));
+        List<Node<?>> parallel = NodeStreams.descendantsAndSelf(root).parallel().collect(Collectors.<Node<?>> toList());
+
+        // 1 + 8 + 64 + 512 + 4096 tree nodes and the shared node
+        assertEquals("Amount of nodes (sequential)", 4682, sequential.size());
+        assertEquals("Amount of nodes (parallel)", 4682, parallel.size());
+        assertEquals("Nodes (parallel)", sequential, toIdentitySet(parallel));
+    }
+
+    @Test
+    public void testTrySplit() {
+
+        TestNode root = new TestNode();
+        TestNode chain = new TestNode();
+        root.child = chain;
+        chain.child = new TestNode();
+        chain.children.add(new TestNode());
+        chain.children.add(new TestNode());
+
+        Spliterator<Node<?>> suffix = new DescendantSpliterator(root, true);
+        Spliterator<Node<?>> prefix = suffix.trySplit();
+        assertTrue("Spliterator has been split at the first node with multiple children", prefix != null);
+
+        List<Node<?>> nodes = new ArrayList<>();
+        prefix.forEachRemaining(nodes::add);
+        suffix.forEachRemaining(nodes::add);
+        assertEquals("Amount of nodes", 5, toIdentitySet(nodes).size());
+        assertEquals("Amount of returned nodes", 5, nodes.size());
+    }
+
+    private TestNode createTree(int depth, int width) {
+
+        TestNode node = new TestNode();
+        if (depth > 0) {
+            for (int index = 0; index < width; index++) {
+                node.children.add(createTree(depth - 1, width));
+            }
+        }
+        return node;
+    }
+
+    private Set<Node<?>> toIdentitySet(List<Node<?>> nodes) {
+
+        Set<Node<?>> set = Collections.newSetFromMap(new IdentityHashMap<Node<?>, Boolean>());
+        set.addAll(nodes);
+        return set;
+    }
+
+    private static class TestNode extends DefaultNode<Node<?>> {
+
+        Object               value;
+        Node<?>              child;
+        ListWrapper<Node<?>> children = new ListWrapper<>(new ArrayList<Node<?>>());
+
+        private TestNode() {
+
+        }
+
+        private TestNode(Node<?> child) {
+
+            this.child = child;
+        }
+
+    }
+
+}
@@ -0,0 +1,343 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.traverse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.traverse.TreeWalker;
+import com.quartercode.jtimber.api.node.traverse.TreeWalker.Order;
+import com.quartercode.jtimber.api.node.traverse.TreeWalker.Visitor;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+
+public class TreeWalkerTest {
+
+    // These tests run without the runtime hook; therefore, the fallback child accessors are used and no parents are tracked
+
+    private final List<String> visited = new ArrayList<>();
+    private final Visitor      visitor = (node, depth) -> visited.add( ((TestNode) node).name + depth);
+
+    /*
+     * r
+     * +- a
+     * |  +- c
+     * |  +- d
+     * +- b
+     *    +- e
+     */
+    private TestNode createTree() {
+
+        TestNode root = new TestNode("r");
+        TestNode a = new TestNode("a");
+        TestNode b = new TestNode("b");
+        root.child = a;
+        root.children.add(b);
+        a.children.add(new TestNode("c"));
+        a.children.add(new TestNode("d"));
+        b.child = new TestNode("e");
+        return root;
+    }
+
+    @Test
+    public void testWalkPreOrder() {
+
+        assertEquals("Amount of visited nodes", 6, new TreeWalker(Order.PRE_ORDER).walk(createTree(), visitor));
+        assertEquals("Visited nodes", Arrays.asList("r0", "a1", "c2", "d2", "b1", "e2"), visited);
+    }
+
+    @Test
+    public void testWalkPostOrder() {
+
+        assertEquals("Amount of visited nodes", 6, new TreeWalker(Order.POST_ORDER).walk(createTree(), visitor));
+        assertEquals("Visited nodes", Arrays.asList("c2", "d2", "a1", "e2", "b1", "r0"), visited);
+    }
+
+    @Test
+    public void testWalkBreadthFirst() {
+
+        assertEquals("Amount of visited nodes", 6, new TreeWalker(Order.BREADTH_FIRST).walk(createTree(), visitor));
+        assertEquals("Visited nodes", Arrays.asList("r0", "a1", "b1", "c2", "d2", "e2"), visited);
+    }
+
+    @Test
+    public void testWalkMaxDepth() {
+
+        TreeWalker walker = new TreeWalker(Order.PRE_ORDER);
+        walker.setMaxDepth(1);
+        walker.walk(createTree(), visitor);
+
+        assertEquals("Visited nodes", Arrays.asList("r0", "a1", "b1"), visited);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testSetMaxDepthNegative() {
+
+        new TreeWalker(Order.PRE_ORDER).setMaxDepth(-1);
+    }
+
+    @Test
+    public void testWalkPruner() {
+
+        TreeWalker walker = new TreeWalker(Order.POST_ORDER);
+        walker.setPruner(new TreeWalker.Pruner() {
+
+            @Override
+            public boolean prune(Node<?> node, int depth) {
+
+                return ((TestNode) node).name.equals("a");
+            }
+
+        });
+        walker.walk(createTree(), visitor);
+
+        assertEquals("Visited nodes", Arrays.asList("a1", "e2", "b1", "r0"), visited);
+    }
+
+    @Test
+    public void testWalkSharedSubtree() {
+
+        TestNode root = new TestNode("r");
+        TestNode shared = new TestNode("s");
+        shared.child = new TestNode("c");
+        root.child = shared;
+        root.children.add(new TestNode("a", shared));
+        root.children.add(shared);
+
+        new TreeWalker(Order.BREADTH_FIRST).walk(root, visitor);
+        assertEquals("Visited nodes", Arrays.asList("r0", "s1", "a1", "c2"), visited);
+    }
+
+    @Test
+    public void testWalkCycle() {
+
+        TestNode root = new TestNode("r");
+        TestNode a = new TestNode("a");
+        root.child = a;
+        a.child = new TestNode("b", root);
+
+        new TreeWalker(Order.POST_ORDER).walk(root, visitor);
+        assertEquals("Visited nodes", Arrays.asList("b2", "a1", "r0"), visited);
+    }
+
+    @Test
+    public void testWalkTrackedCycle() {
+
+        TestNode a = new TestNode("a");
+        TestNode b = new TestNode("b", a);
+        a.child = b;
+
+        // Simulate the parents the runtime hook would track; each node has the other one as its only parent
+        a.addParent(b);
+        b.addParent(a);
+
+        for (Order order : Order.values()) {
+            assertEquals("Amount of visited nodes (" + order + ")", 2, new TreeWalker(order).walk(a, visitor));
+        }
+    }
+
+    /*
+     * r
+     * +- a
+     * |  +- b
+     * |     +- s
+     * +- c
+     *    +- s
+     *       +- t
+     */
+    private TestNode createMaxDepthDag() {
+
+        TestNode root = new TestNode("r");
+        TestNode s = new TestNode("s", new TestNode("t"));
+        root.child = new TestNode("a", new TestNode("b", s));
+        root.children.add(new TestNode("c", s));
+        return root;
+    }
+
+    @Test
+    public void testWalkDagMaxDepthPreOrder() {
+
+        TreeWalker walker = new TreeWalker(Order.PRE_ORDER);
+        walker.setMaxDepth(3);
+        walker.walk(createMaxDepthDag(), visitor);
+
+        // The depth-first orders reach s through b first; therefore, s is visited at depth 3 and t is beyond the maximum depth
+        assertEquals("Visited nodes", Arrays.asList("r0", "a1", "b2", "s3", "c1"), visited);
+    }
+
+    @Test
+    public void testWalkDagMaxDepthPostOrder() {
+
+        TreeWalker walker = new TreeWalker(Order.POST_ORDER);
+        walker.setMaxDepth(3);
+        walker.walk(createMaxDepthDag(), visitor);
+
+        assertEquals("Visited nodes", Arrays.asList("s3", "b2", "a1", "c1", "r0"), visited);
+    }
+
+    @Test
+    public void testWalkDagMaxDepthBreadthFirst() {
+
+        TreeWalker walker = new TreeWalker(Order.BREADTH_FIRST);
+        walker.setMaxDepth(3);
+        walker.walk(createMaxDepthDag(), visitor);
+
+        assertEquals("Visited nodes", Arrays.asList("r0", "a1", "c1", "b2", "s2", "t3"), visited);
+    }
+
+    @Test
+    public void testWalkDagPostOrder() {
+
+        // r -> {a, s}, a -> s, s -> t
+        TestNode root = new TestNode("r");
+        TestNode s = new TestNode("s", new TestNode("t"));
+        root.child = new TestNode("a", s);
+        root.children.add(s);
+
+        new TreeWalker(Order.POST_ORDER).walk(root, visitor);
+        assertEquals("Visited nodes", Arrays.asList("t3", "s2", "a1", "r0"), visited);
+    }
+
+    @Test
+    public void testWalkGetChildrenOnce() {
+
+        for (Order order : Order.values()) {
+            // r -> {a, s}, a -> {s, r}, s -> t
+            TestNode root = new TestNode("r");
+            TestNode s = new TestNode("s", new TestNode("t"));
+            TestNode a = new TestNode("a", s);
+            a.children.add(root);
+            root.child = a;
+            root.children.add(s);
+
+            new TreeWalker(order).walk(root, visitor);
+
+            for (TestNode node : Arrays.asList(root, a, s, (TestNode) s.child)) {
+                assertEquals("Children list retrievals of " + node.name + " (" + order + ")", 1, node.getChildrenCalls);
+            }
+        }
+    }
+
+    @Test
+    public void testWalkPrunerBeforeVisit() {
+
+        for (Order order : Order.values()) {
+            final List<String> events = new ArrayList<>();
+
+            TreeWalker walker = new TreeWalker(order);
+            walker.setPruner(new TreeWalker.Pruner() {
+
+                @Override
+                public boolean prune(Node<?> node, int depth) {
+
+                    events.add("prune " + ((TestNode) node).name);
+                    return false;
+                }
+
+            });
+            walker.walk(createTree(), (node, depth) -> events.add("visit " + ((TestNode) node).name));
+
+            for (String name : Arrays.asList("r", "a", "b", "c", "d", "e")) {
+                int pruneIndex = events.indexOf("prune " + name);
+                assertTrue("Pruner called for " + name + " (" + order + ")", pruneIndex >= 0);
+                assertEquals("Pruner called once for " + name + " (" + order + ")", pruneIndex, events.lastIndexOf("prune " + name));
+                assertTrue("Pruner called before visit of " + name + " (" + order + ")", pruneIndex < events.indexOf("visit " + name));
+            }
+        }
+    }
+
+    @Test
+    public void testWalkDeepChain() {
+
+        TestNode root = new TestNode("r");
+        TestNode current = root;
+        for (int depth = 0; depth < 100_000; depth++) {
+            current.child = new TestNode("n");
+            current = (TestNode) current.child;
+        }
+
+        for (Order order : Order.values()) {
+            assertEquals("Amount of visited nodes (" + order + ")", 100_001, new TreeWalker(order).walk(root, visitor));
+        }
+    }
+
+    @Test
+    public void testWalkReuse() {
+
+        TreeWalker walker = new TreeWalker(Order.BREADTH_FIRST);
+
+        // The first walk grows the internal buffers
+        TestNode wide = new TestNode("w");
+        for (int index = 0; index < 1000; index++) {
+            wide.children.add(new TestNode("n"));
+        }
+        assertEquals("Amount of visited nodes (first walk)", 1001, walker.walk(wide, visitor));
+
+        visited.clear();
+        assertEquals("Amount of visited nodes (second walk)", 6, walker.walk(createTree(), visitor));
+        assertEquals("Visited nodes (second walk)", Arrays.asList("r0", "a1", "b1", "c2", "d2", "e2"), visited);
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testWalkReentrant() {
+
+        final TreeWalker walker = new TreeWalker(Order.PRE_ORDER);
+        walker.walk(createTree(), new Visitor() {
+
+            @Override
+            public void visit(Node<?> node, int depth) {
+
+                walker.walk(node, visitor);
+            }
+
+        });
+    }
+
+    private static class TestNode extends DefaultNode<Node<?>> {
+
+        final String         name;
+        Node<?>              child;
+        ListWrapper<Node<?>> children = new ListWrapper<>(new ArrayList<Node<?>>());
+        int                  getChildrenCalls;
+
+        private TestNode(String name) {
+
+            this.name = name;
+        }
+
+        private TestNode(String name, Node<?> child) {
+
+            this.name = name;
+            this.child = child;
+        }
+
+        @Override
+        public List<Object> getChildren() {
+
+            getChildrenCalls++;
+            return super.getChildren();
+        }
+
+    }
+
+}
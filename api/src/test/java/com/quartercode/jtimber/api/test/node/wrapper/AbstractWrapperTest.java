@@ -20,6 +20,7 @@ package com.quartercode.jtimber.api.test.node.wrapper;
 
 import static org.junit.Assert.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import com.quartercode.jtimber.api.node.wrapper.AbstractWrapper;
 
@@ -68,6 +69,27 @@ public class AbstractWrapperTest {
         assertEquals("String representation of wrapper", object.toString(), wrapper.toString());
     }
 
+    @Test (expected = IllegalArgumentException.class)
+    public void testSetNegativeParallelThreshold() {
+
+        new TestWrapper(new Object()).setParallelThreshold(-1);
+    }
+
+    @Test
+    public void testParallelPool() {
+
+        AbstractWrapper wrapper = new TestWrapper(new Object());
+        assertSame("Default parallel pool", ForkJoinPool.commonPool(), wrapper.getParallelPool());
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        wrapper.setParallelPool(pool);
+        assertSame("Parallel pool after it has been changed", pool, wrapper.getParallelPool());
+
+        wrapper.setParallelPool(null);
+        assertSame("Parallel pool after it has been reset", ForkJoinPool.commonPool(), wrapper.getParallelPool());
+        pool.shutdown();
+    }
+
     private static class TestWrapper extends AbstractWrapper {
 
         protected TestWrapper(Object wrapped) {
@@ -19,11 +19,24 @@
 package com.quartercode.jtimber.api.test.node.wrapper.collection;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import org.junit.Before;
 import org.junit.Test;
 import com.quartercode.jtimber.api.node.DefaultNode;
 import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
 import com.quartercode.jtimber.api.node.wrapper.collection.ArrayWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
 
 public class ArrayWrapperTest {
 
@@ -86,6 +99,165 @@ public class ArrayWrapperTest {
         assertArrayEquals("Parents of element 3 after modifications", new Node[] { parent1, parent2 }, elem3.getParents().toArray());
     }
 
+    @Test
+    public void testIsFlat() {
+
+        assertEquals("Actual child count", 2, wrapper.getActualChildCount());
+        assertFalse("Wrapper with null elements is flat", wrapper.isFlat());
+
+        wrapper.set(0, elem1);
+        wrapper.set(1, elem2);
+        assertTrue("Wrapper without null elements is flat", wrapper.isFlat());
+
+        ArrayWrapper<ParentAware<?>> outerWrapper = new ArrayWrapper<>(new ParentAware<?>[] { elem1 });
+        assertTrue("Wrapper without nested wrappers is flat", outerWrapper.isFlat());
+        outerWrapper.set(0, new ListWrapper<>(new ArrayList<Node<?>>()));
+        assertFalse("Wrapper with nested wrappers is flat", outerWrapper.isFlat());
+    }
+
     // Basic delegates are not tested!
 
+    @Test
+    public void testLazyParentPropagation() {
+
+        ArrayWrapper<Node<?>> lazyWrapper = new ArrayWrapper<>(new Node<?>[] { elem1, null }, ParentPropagation.LAZY);
+        lazyWrapper.addParent(parent1);
+        assertArrayEquals("Parents of initial element 1", new Node[] { parent1 }, elem1.getParents().toArray());
+
+        lazyWrapper.set(1, elem2);
+        lazyWrapper.addParent(parent2);
+        assertArrayEquals("Parents of element 2 after addition of a parent", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+
+        lazyWrapper.set(0, elem3);
+        assertEquals("Amount of parents of element 1 after it has been replaced", 0, elem1.getParentCount());
+        assertArrayEquals("Parents of element 3 after it has replaced element 1", new Node[] { parent1, parent2 }, elem3.getParents().toArray());
+    }
+
+    @Test
+    public void testParallelFanOut() {
+
+        ThreadRecordingNode[] elements = new ThreadRecordingNode[1000];
+        for (int index = 0; index < elements.length; index++) {
+            elements[index] = new ThreadRecordingNode();
+        }
+
+        // Use a dedicated pool so that the parallel path is taken regardless of the amount of available cores
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ArrayWrapper<ThreadRecordingNode> parallelWrapper = new ArrayWrapper<>(elements);
+            parallelWrapper.setParallelThreshold(0);
+            parallelWrapper.setParallelPool(pool);
+
+            parallelWrapper.addParent(parent1);
+            parallelWrapper.addParent(parent2);
+            parallelWrapper.removeParent(parent1);
+            for (ThreadRecordingNode element : elements) {
+                assertArrayEquals("Parents of an element after parallel fan-out", new Node[] { parent2 }, element.getParents().toArray());
+                assertFannedOutBy(pool, element);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testAdopt() {
+
+        Node<?>[] array = new Node<?>[] { elem1, null };
+        ArrayWrapper<Node<?>> adoptingWrapper = ArrayWrapper.adopt(array);
+        adoptingWrapper.addParent(parent1);
+
+        adoptingWrapper.set(1, elem2);
+        assertSame("Element set through the adopting wrapper in the adopted array", elem2, array[1]);
+        assertArrayEquals("Parents of element 1 in the adopted array", new Node[] { parent1 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 in the adopted array", new Node[] { parent1 }, elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testAsList() {
+
+        wrapper.set(0, elem1);
+
+        List<Node<?>> view = wrapper.asList();
+        assertEquals("List view elements", Arrays.asList(elem1, null), view);
+
+        wrapper.set(1, elem2);
+        assertEquals("List view elements after modification", Arrays.asList(elem1, elem2), view);
+    }
+
+    @Test (expected = UnsupportedOperationException.class)
+    public void testAsListReadOnly() {
+
+        wrapper.asList().set(0, elem1);
+    }
+
+    @Test
+    public void testFill() {
+
+        ArrayWrapper<Node<?>> largeWrapper = new ArrayWrapper<>(new Node<?>[] { elem1, elem1, elem2, null });
+        largeWrapper.addParent(parent1);
+
+        largeWrapper.fill(1, 4, elem3);
+        assertArrayEquals("Array after fill", new Node[] { elem1, elem3, elem3, elem3 }, largeWrapper.cloneArray());
+        assertArrayEquals("Parents of the partially replaced element 1", new Node[] { parent1 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of the replaced element 2", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of the filled element 3", new Node[] { parent1, parent1, parent1 }, elem3.getParents().toArray());
+        assertTrue("Array without null elements after fill is flat", largeWrapper.isFlat());
+    }
+
+    @Test
+    public void testFillInvalidRange() {
+
+        wrapper.set(0, elem1);
+
+        try {
+            wrapper.fill(0, 3, elem2);
+            fail("Fill with an invalid range succeeded");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Expected
+        }
+
+        assertArrayEquals("Parents of element 1 after fill with an invalid range", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after fill with an invalid range", new Node[0], elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testCopyFrom() {
+
+        ArrayWrapper<Node<?>> largeWrapper = new ArrayWrapper<>(new Node<?>[] { elem1, elem2, null });
+        largeWrapper.addParent(parent1);
+
+        largeWrapper.copyFrom(new Node<?>[] { elem3, elem3, elem1 }, 1, 1, 2);
+        assertArrayEquals("Array after copy", new Node[] { elem1, elem3, elem1 }, largeWrapper.cloneArray());
+        assertArrayEquals("Parents of element 1", new Node[] { parent1, parent1 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of the replaced element 2", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of the copied element 3", new Node[] { parent1 }, elem3.getParents().toArray());
+    }
+
+    private static void assertFannedOutBy(ForkJoinPool pool, ThreadRecordingNode element) {
+
+        Thread thread = element.lastThread;
+        assertTrue("Element has been updated by a worker of the parallel pool", thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool);
+    }
+
+    private static class ThreadRecordingNode extends DefaultNode<Node<?>> {
+
+        private volatile Thread lastThread;
+
+        @Override
+        public void addParent(Node<?> parent) {
+
+            lastThread = Thread.currentThread();
+            super.addParent(parent);
+        }
+
+        @Override
+        public void removeParent(Node<?> parent) {
+
+            lastThread = Thread.currentThread();
+            super.removeParent(parent);
+        }
+
+    }
+
 }
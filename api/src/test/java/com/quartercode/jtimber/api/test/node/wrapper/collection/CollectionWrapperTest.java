@@ -22,11 +22,20 @@ import static org.junit.Assert.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
 import org.junit.Before;
 import org.junit.Test;
 import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.DefaultParentAware;
+import com.quartercode.jtimber.api.node.IllegalParentTypeException;
 import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ParentAware;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
 import com.quartercode.jtimber.api.node.wrapper.collection.CollectionWrapper;
 
 public class CollectionWrapperTest {
@@ -148,6 +157,35 @@ public class CollectionWrapperTest {
         assertArrayEquals("Parents of element 3 after modifications", new Node[0], elem3.getParents().toArray());
     }
 
+    @Test
+    public void testAddAllNestedWrapper() {
+
+        CollectionWrapper<ParentAware<?>> outerWrapper = new CollectionWrapper<ParentAware<?>>(new ArrayList<ParentAware<?>>());
+        outerWrapper.addParent(parent1);
+        outerWrapper.addParent(parent2);
+
+        CollectionWrapper<Node<?>> innerWrapper = new CollectionWrapper<>(new ArrayList<Node<?>>());
+        innerWrapper.add(elem1);
+        outerWrapper.addAll(Arrays.asList(innerWrapper, elem2));
+
+        assertArrayEquals("Parents of the nested wrapper element after modifications", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after modifications", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testRemoveAllDuplicates() {
+
+        wrapper.add(elem1);
+        wrapper.add(elem2);
+        wrapper.add(elem1);
+        wrapper.removeAll(Arrays.asList(elem1));
+
+        assertArrayEquals("Collection elements after modifications", new Node[] { elem2 }, collection.toArray());
+
+        assertArrayEquals("Parents of element 1 after modifications", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after modifications", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+    }
+
     @Test
     public void testRetainAll() {
 
@@ -176,6 +214,340 @@ public class CollectionWrapperTest {
         assertArrayEquals("Parents of element 2 after modifications", new Node[0], elem2.getParents().toArray());
     }
 
+    @Test
+    public void testGetActualChildIterator() {
+
+        CollectionWrapper<Node<?>> setWrapper = new CollectionWrapper<>(new HashSet<>(Arrays.asList(elem1, elem2)));
+
+        Iterator<Object> iterator = setWrapper.getActualChildIterator();
+        Collection<Object> actualChildren = new HashSet<>();
+        while (iterator.hasNext()) {
+            actualChildren.add(iterator.next());
+        }
+
+        assertEquals("Actual children", new HashSet<>(Arrays.asList(elem1, elem2)), actualChildren);
+        assertEquals("Actual child count", 2, setWrapper.getActualChildCount());
+    }
+
+    @Test
+    public void testIsFlat() {
+
+        wrapper.add(elem1);
+        assertTrue("Wrapper without null elements is flat", wrapper.isFlat());
+
+        wrapper.add(null);
+        assertFalse("Wrapper with a null element is flat", wrapper.isFlat());
+
+        wrapper.remove(null);
+        assertTrue("Wrapper after removal of the null element is flat", wrapper.isFlat());
+
+        CollectionWrapper<ParentAware<?>> outerWrapper = new CollectionWrapper<ParentAware<?>>(new ArrayList<ParentAware<?>>());
+        outerWrapper.add(wrapper);
+        assertFalse("Wrapper with a nested wrapper is flat", outerWrapper.isFlat());
+
+        Iterator<ParentAware<?>> iterator = outerWrapper.iterator();
+        iterator.next();
+        iterator.remove();
+        assertTrue("Wrapper after removal of the nested wrapper is flat", outerWrapper.isFlat());
+    }
+
+    @Test
+    public void testLazyParentPropagation() {
+
+        Collection<Node<?>> lazyCollection = new ArrayList<>(Arrays.asList(elem1));
+        CollectionWrapper<Node<?>> lazyWrapper = new CollectionWrapper<>(lazyCollection, ParentPropagation.LAZY);
+        lazyWrapper.addParent(parent1);
+        lazyWrapper.add(elem2);
+
+        assertEquals("Parents of initial element 1", Arrays.asList(parent1), elem1.getParents());
+        assertEquals("Parents of added element 2", Arrays.asList(parent1), elem2.getParents());
+
+        Node<?> parent3 = new DefaultNode<>();
+        lazyWrapper.addParent(parent3);
+        assertEquals("Parents of element 2 after addition of a parent", Arrays.asList(parent1, parent3), elem2.getParents());
+
+        lazyWrapper.removeParent(parent1);
+        assertEquals("Parents of element 1 after removal of a parent", Arrays.asList(parent3), elem1.getParents());
+
+        lazyWrapper.remove(elem1);
+        assertEquals("Parents of element 1 after its removal", 0, elem1.getParentCount());
+        assertEquals("Parents of element 2 after removal of element 1", Arrays.asList(parent3), elem2.getParents());
+    }
+
+    @Test
+    public void testLazyParentPropagationNested() {
+
+        CollectionWrapper<Node<?>> innerWrapper = new CollectionWrapper<>(new ArrayList<Node<?>>(), ParentPropagation.LAZY);
+        CollectionWrapper<ParentAware<?>> outerWrapper = new CollectionWrapper<ParentAware<?>>(new ArrayList<ParentAware<?>>(), ParentPropagation.LAZY);
+        innerWrapper.add(elem1);
+        outerWrapper.add(innerWrapper);
+
+        outerWrapper.addParent(parent1);
+        assertEquals("Parents of the nested element", Arrays.asList(parent1), elem1.getParents());
+
+        outerWrapper.remove(innerWrapper);
+        assertEquals("Parents of the nested element after removal of the inner wrapper", 0, elem1.getParentCount());
+    }
+
+    @Test
+    public void testLazyParentPropagationDuplicates() {
+
+        CollectionWrapper<Node<?>> lazyWrapper = new CollectionWrapper<>(new ArrayList<Node<?>>(), ParentPropagation.LAZY);
+        lazyWrapper.addParent(parent1);
+        lazyWrapper.add(elem1);
+        lazyWrapper.add(elem1);
+        assertEquals("Parents of the element which is contained twice", Arrays.asList(parent1, parent1), elem1.getParents());
+
+        lazyWrapper.remove(elem1);
+        assertEquals("Parents of the element after one removal", Arrays.asList(parent1), elem1.getParents());
+    }
+
+    @Test
+    public void testLazyParentPropagationNestedEagerElement() {
+
+        CollectionWrapper<ParentAware<?>> innerWrapper = new CollectionWrapper<>(new ArrayList<ParentAware<?>>(), ParentPropagation.LAZY);
+        CollectionWrapper<ParentAware<?>> outerWrapper = new CollectionWrapper<>(new ArrayList<ParentAware<?>>(), ParentPropagation.LAZY);
+        outerWrapper.addParent(parent1);
+        outerWrapper.add(innerWrapper);
+
+        // The element doesn't support lazy propagation; therefore, the inner wrapper must receive the parents of the outer wrapper eagerly from now on
+        PlainParentAware element = new PlainParentAware();
+        innerWrapper.add(element);
+        assertEquals("Parents of the eager element", Arrays.asList(parent1), element.getParents());
+
+        outerWrapper.addParent(parent2);
+        assertEquals("Parents of the eager element after addition of a parent to the outer wrapper", Arrays.asList(parent1, parent2), element.getParents());
+
+        outerWrapper.removeParent(parent1);
+        assertEquals("Parents of the eager element after removal of a parent from the outer wrapper", Arrays.asList(parent2), element.getParents());
+
+        outerWrapper.remove(innerWrapper);
+        assertEquals("Parents of the eager element after removal of the inner wrapper", 0, element.getParentCount());
+    }
+
+    @Test
+    public void testLazyParentPropagationRestrictedElement() {
+
+        CollectionWrapper<ParentAware<?>> lazyWrapper = new CollectionWrapper<>(new ArrayList<ParentAware<?>>(), ParentPropagation.LAZY);
+        RestrictedNode element = new RestrictedNode();
+        lazyWrapper.add(element);
+
+        AllowedParent allowedParent = new AllowedParent();
+        lazyWrapper.addParent(allowedParent);
+        assertEquals("Parents of the restricted element", Arrays.asList(allowedParent), element.getParents());
+
+        try {
+            lazyWrapper.addParent(parent1);
+            fail("Disallowed parent of a lazily attached element has been added to the wrapper");
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+        assertEquals("Parents of the wrapper after a disallowed parent has been rejected", Arrays.asList(allowedParent), lazyWrapper.getParents());
+        assertEquals("Parents of the restricted element after a disallowed parent has been rejected", Arrays.asList(allowedParent), element.getParents());
+
+        // Once the restricted element has been removed, any parent is allowed again
+        lazyWrapper.remove(element);
+        lazyWrapper.addParent(parent1);
+    }
+
+    @Test
+    public void testLazyParentPropagationRestrictedElementNested() {
+
+        CollectionWrapper<ParentAware<?>> innerWrapper = new CollectionWrapper<>(new ArrayList<ParentAware<?>>(), ParentPropagation.LAZY);
+        CollectionWrapper<ParentAware<?>> outerWrapper = new CollectionWrapper<>(new ArrayList<ParentAware<?>>(), ParentPropagation.LAZY);
+        innerWrapper.add(new RestrictedNode());
+        outerWrapper.add(innerWrapper);
+        outerWrapper.addParent(new AllowedParent());
+
+        try {
+            outerWrapper.addParent(parent1);
+            fail("Disallowed parent of a nested lazily attached element has been added to the outer wrapper");
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testLazyParentPropagationLinkOnInsertion() {
+
+        CollectionWrapper<Node<?>> lazyWrapper = new CollectionWrapper<>(new ArrayList<>(Arrays.asList(elem1)), ParentPropagation.LAZY);
+        lazyWrapper.add(elem2);
+        assertTrue("Initial element has the wrapper without parents as container", ((DefaultParentAware<?>) elem1).hasContainer(lazyWrapper));
+        assertTrue("Added element has the wrapper without parents as container", ((DefaultParentAware<?>) elem2).hasContainer(lazyWrapper));
+
+        lazyWrapper.addParent(parent1);
+        lazyWrapper.removeParent(parent1);
+        assertTrue("Element has the wrapper as container after the last parent has been removed", ((DefaultParentAware<?>) elem1).hasContainer(lazyWrapper));
+        assertEquals("Parents of the element after the last parent has been removed", 0, elem1.getParentCount());
+
+        lazyWrapper.addParent(parent2);
+        assertEquals("Parents of the initial element after a parent has been added again", Arrays.asList(parent2), elem1.getParents());
+
+        lazyWrapper.remove(elem2);
+        assertFalse("Removed element has the wrapper as container", ((DefaultParentAware<?>) elem2).hasContainer(lazyWrapper));
+    }
+
+    @Test
+    public void testLazyParentPropagationFirstAndLastParentConstant() {
+
+        IterationCountingList<Node<?>> elements = new IterationCountingList<>();
+        for (int index = 0; index < 1000; index++) {
+            elements.add(new DefaultNode<>());
+        }
+        CollectionWrapper<Node<?>> lazyWrapper = new CollectionWrapper<>(elements, ParentPropagation.LAZY);
+        elements.iterations = 0;
+
+        // Attaching the wrapper to a tree and detaching it again must not touch the elements
+        lazyWrapper.addParent(parent1);
+        lazyWrapper.removeParent(parent1);
+        assertEquals("Iterations over the elements while the first parent was added and the last one was removed", 0, elements.iterations);
+
+        lazyWrapper.addParent(parent2);
+        assertEquals("Parents of an element", Arrays.asList(parent2), elements.get(0).getParents());
+    }
+
+    @Test
+    public void testParallelFanOut() {
+
+        List<ThreadRecordingNode> elements = new ArrayList<>();
+        for (int index = 0; index < 1000; index++) {
+            elements.add(new ThreadRecordingNode());
+        }
+        // Add the first element a second time
+        elements.add(elements.get(0));
+
+        // Use a dedicated pool so that the parallel path is taken regardless of the amount of available cores
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CollectionWrapper<ThreadRecordingNode> parallelWrapper = new CollectionWrapper<>(elements);
+            parallelWrapper.setParallelThreshold(0);
+            parallelWrapper.setParallelPool(pool);
+
+            parallelWrapper.addParent(parent1);
+            parallelWrapper.addParent(parent2);
+            for (ThreadRecordingNode element : elements.subList(1, elements.size() - 1)) {
+                assertEquals("Parents of an element after parallel addition of parents", Arrays.asList(parent1, parent2), element.getParents());
+                assertFannedOutBy(pool, element);
+            }
+            assertEquals("Parents of the duplicate element after parallel addition of parents", Arrays.asList(parent1, parent1, parent2, parent2), elements.get(0).getParents());
+
+            parallelWrapper.removeParent(parent1);
+            for (ThreadRecordingNode element : elements.subList(1, elements.size() - 1)) {
+                assertEquals("Parents of an element after parallel removal of a parent", Arrays.asList(parent2), element.getParents());
+                assertFannedOutBy(pool, element);
+            }
+            assertEquals("Parents of the duplicate element after parallel removal of a parent", Arrays.asList(parent2, parent2), elements.get(0).getParents());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelFanOutSingleThreadedPool() {
+
+        List<ThreadRecordingNode> elements = Arrays.asList(new ThreadRecordingNode(), new ThreadRecordingNode());
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            CollectionWrapper<ThreadRecordingNode> parallelWrapper = new CollectionWrapper<>(elements);
+            parallelWrapper.setParallelThreshold(0);
+            parallelWrapper.setParallelPool(pool);
+
+            // A pool with a parallelism of one would not speed anything up; therefore, the sequential path is taken
+            parallelWrapper.addParent(parent1);
+            for (ThreadRecordingNode element : elements) {
+                assertSame("Thread which has updated an element", Thread.currentThread(), element.lastThread);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     // Basic delegates are not tested!
 
+    private static class PlainParentAware implements ParentAware<Node<?>> {
+
+        private final List<Node<?>> parents = new ArrayList<>();
+
+        @Override
+        public List<Node<?>> getParents() {
+
+            return parents;
+        }
+
+        @Override
+        public int getParentCount() {
+
+            return parents.size();
+        }
+
+        @Override
+        public void addParent(Node<?> parent) {
+
+            parents.add(parent);
+        }
+
+        @Override
+        public void removeParent(Node<?> parent) {
+
+            parents.remove(parent);
+        }
+
+    }
+
+    private static void assertFannedOutBy(ForkJoinPool pool, ThreadRecordingNode element) {
+
+        Thread thread = element.lastThread;
+        assertTrue("Element has been updated by a worker of the parallel pool", thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool);
+    }
+
+    private static class ThreadRecordingNode extends DefaultNode<Node<?>> {
+
+        private volatile Thread lastThread;
+
+        @Override
+        public void addParent(Node<?> parent) {
+
+            lastThread = Thread.currentThread();
+            super.addParent(parent);
+        }
+
+        @Override
+        public void removeParent(Node<?> parent) {
+
+            lastThread = Thread.currentThread();
+            super.removeParent(parent);
+        }
+
+    }
+
+    @SuppressWarnings ("serial")
+    private static class IterationCountingList<E> extends ArrayList<E> {
+
+        private int iterations;
+
+        @Override
+        public Iterator<E> iterator() {
+
+            iterations++;
+            return super.iterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super E> action) {
+
+            iterations++;
+            super.forEach(action);
+        }
+
+    }
+
+    private static class AllowedParent extends DefaultNode<Node<?>> {
+
+    }
+
+    private static class RestrictedNode extends DefaultNode<AllowedParent> {
+
+    }
+
 }
@@ -0,0 +1,203 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.ConcurrentListWrapper;
+
+public class ConcurrentListWrapperTest {
+
+    private static final int                     THREADS           = 4;
+    private static final int                     ELEMENTS_PER_TASK = 500;
+
+    private final Node<?>                        parent1           = new DefaultNode<>();
+    private final Node<?>                        parent2           = new DefaultNode<>();
+
+    private final CopyOnWriteArrayList<Node<?>>  list              = new CopyOnWriteArrayList<>();
+    private final ConcurrentListWrapper<Node<?>> wrapper           = new ConcurrentListWrapper<>(list);
+
+    private final Node<?>                        elem1             = new DefaultNode<>();
+    private final Node<?>                        elem2             = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Node<?>>>> futures = new ArrayList<>();
+
+        try {
+            for (int task = 0; task < THREADS; task++) {
+                futures.add(executor.submit(() -> {
+                    List<Node<?>> added = new ArrayList<>();
+                    for (int index = 0; index < ELEMENTS_PER_TASK; index++) {
+                        Node<?> element = new DefaultNode<>();
+                        wrapper.add(element);
+                        added.add(element);
+                    }
+                    return added;
+                }));
+            }
+            // Add a parent while the elements are added
+            wrapper.addParent(parent2);
+
+            for (Future<List<Node<?>>> future : futures) {
+                for (Node<?> element : future.get(30, TimeUnit.SECONDS)) {
+                    assertEquals("Parents of a concurrently added element", Arrays.asList(parent1, parent2), element.getParents());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("Size after concurrent additions", THREADS * ELEMENTS_PER_TASK, wrapper.size());
+    }
+
+    @Test
+    public void testSnapshotIterator() {
+
+        wrapper.add(elem1);
+
+        Iterator<Node<?>> iterator = wrapper.iterator();
+        wrapper.add(elem2);
+
+        assertSame("First element of the snapshot", elem1, iterator.next());
+        assertFalse("Snapshot contains the element added after its creation", iterator.hasNext());
+    }
+
+    @Test
+    public void testReplaceAll() {
+
+        wrapper.addAll(Arrays.asList(elem1, elem1));
+        wrapper.replaceAll(element -> elem2);
+
+        assertEquals("List elements after replacement", Arrays.asList(elem2, elem2), list);
+        assertEquals("Parents of the replaced element", 0, elem1.getParentCount());
+        assertEquals("Parents of the new element", Arrays.asList(parent1, parent1), elem2.getParents());
+    }
+
+    @Test
+    public void testReorderSingleWrite() {
+
+        WriteCountingList<Node<?>> countingList = new WriteCountingList<>();
+        ConcurrentListWrapper<Node<?>> countingWrapper = new ConcurrentListWrapper<>(countingList);
+        Node<?> elem3 = new DefaultNode<>();
+        countingWrapper.addAll(Arrays.asList(elem1, elem2, elem3));
+        countingWrapper.addParent(parent1);
+        countingList.writes = 0;
+
+        countingWrapper.reverse();
+        assertEquals("List elements after reversal", Arrays.asList(elem3, elem2, elem1), countingList);
+        countingWrapper.rotate(1);
+        assertEquals("List elements after rotation", Arrays.asList(elem1, elem3, elem2), countingList);
+        countingWrapper.swap(0, 2);
+        assertEquals("List elements after swap", Arrays.asList(elem2, elem3, elem1), countingList);
+
+        assertEquals("Writes to the wrapped list (one per reordering)", 3, countingList.writes);
+        for (Node<?> element : countingList) {
+            assertEquals("Parents of a reordered element", Arrays.asList(parent1), element.getParents());
+        }
+    }
+
+    @Test
+    public void testConcurrentElementParentReads() throws Exception {
+
+        wrapper.add(elem1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int iteration = 0; iteration < ELEMENTS_PER_TASK * 10; iteration++) {
+                    wrapper.addParent(parent2);
+                    wrapper.removeParent(parent2);
+                }
+            });
+
+            // The parents of an element are only consistent while the wrapper is locked
+            while (!writer.isDone()) {
+                List<Node<?>> parents;
+                synchronized (wrapper) {
+                    parents = new ArrayList<>(elem1.getParents());
+                }
+                assertTrue("Parents of an element read during concurrent modifications: " + parents, parents.equals(Arrays.asList(parent1)) || parents.equals(Arrays.asList(parent1, parent2)));
+            }
+            writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("Parents of the element after concurrent modifications", Arrays.asList(parent1), elem1.getParents());
+    }
+
+    @Test (expected = UnsupportedOperationException.class)
+    public void testSubListReadOnly() {
+
+        wrapper.add(elem1);
+        wrapper.subList(0, 1).clear();
+    }
+
+    @SuppressWarnings ("serial")
+    private static class WriteCountingList<E> extends CopyOnWriteArrayList<E> {
+
+        private int writes;
+
+        @Override
+        public E set(int index, E element) {
+
+            writes++;
+            return super.set(index, element);
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<E> operator) {
+
+            writes++;
+            super.replaceAll(operator);
+        }
+
+        @Override
+        public void sort(Comparator<? super E> c) {
+
+            writes++;
+            super.sort(c);
+        }
+
+    }
+
+}
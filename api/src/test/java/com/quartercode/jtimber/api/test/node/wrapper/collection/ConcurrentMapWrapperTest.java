@@ -0,0 +1,127 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.ConcurrentMapWrapper;
+
+public class ConcurrentMapWrapperTest {
+
+    private static final int                             THREADS = 4;
+    private static final int                             KEYS    = 200;
+
+    private final Node<?>                                parent1 = new DefaultNode<>();
+
+    private final ConcurrentMapWrapper<Integer, Node<?>> wrapper = new ConcurrentMapWrapper<>();
+
+    private final Node<?>                                elem1   = new DefaultNode<>();
+    private final Node<?>                                elem2   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsent() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Node<?>>>> futures = new ArrayList<>();
+
+        try {
+            for (int task = 0; task < THREADS; task++) {
+                futures.add(executor.submit(() -> {
+                    List<Node<?>> rejected = new ArrayList<>();
+                    for (int key = 0; key < KEYS; key++) {
+                        Node<?> element = new DefaultNode<>();
+                        if (wrapper.putIfAbsent(key, element) != null) {
+                            rejected.add(element);
+                        }
+                    }
+                    return rejected;
+                }));
+            }
+
+            int rejectedCount = 0;
+            for (Future<List<Node<?>>> future : futures) {
+                for (Node<?> element : future.get(30, TimeUnit.SECONDS)) {
+                    assertEquals("Parents of a rejected element", 0, element.getParentCount());
+                    rejectedCount++;
+                }
+            }
+            assertEquals("Amount of rejected elements", (THREADS - 1) * KEYS, rejectedCount);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Node<?> element : wrapper.values()) {
+            assertEquals("Parents of a stored element", Arrays.asList(parent1), element.getParents());
+        }
+    }
+
+    @Test
+    public void testAtomicOperations() {
+
+        wrapper.put(1, elem1);
+
+        assertFalse("Replaced although the old value didn't match", wrapper.replace(1, elem2, elem2));
+        assertTrue("Not replaced although the old value matched", wrapper.replace(1, elem1, elem2));
+        assertEquals("Parents of the replaced element", 0, elem1.getParentCount());
+        assertEquals("Parents of the new element", Arrays.asList(parent1), elem2.getParents());
+
+        assertFalse("Removed although the value didn't match", wrapper.remove(1, elem1));
+        assertTrue("Not removed although the value matched", wrapper.remove(1, elem2));
+        assertEquals("Parents of the removed element", 0, elem2.getParentCount());
+    }
+
+    @Test
+    public void testCompute() {
+
+        wrapper.computeIfAbsent(1, key -> elem1);
+        assertEquals("Parents of the computed element", Arrays.asList(parent1), elem1.getParents());
+
+        wrapper.compute(1, (key, value) -> elem2);
+        assertEquals("Parents of the element replaced by compute", 0, elem1.getParentCount());
+        assertEquals("Parents of the element computed as replacement", Arrays.asList(parent1), elem2.getParents());
+
+        wrapper.computeIfPresent(1, (key, value) -> null);
+        assertEquals("Parents of the element removed by compute", 0, elem2.getParentCount());
+        assertTrue("Map is empty after compute has removed the only element", wrapper.isEmpty());
+    }
+
+    @Test (expected = UnsupportedOperationException.class)
+    public void testValuesReadOnly() {
+
+        wrapper.put(1, elem1);
+        wrapper.values().clear();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.ConcurrentSetWrapper;
+
+public class ConcurrentSetWrapperTest {
+
+    private static final int                    THREADS           = 4;
+    private static final int                    ELEMENTS_PER_TASK = 500;
+
+    private final Node<?>                       parent1           = new DefaultNode<>();
+
+    private final ConcurrentSetWrapper<Node<?>> wrapper           = new ConcurrentSetWrapper<>();
+
+    private final Node<?>                       elem1             = new DefaultNode<>();
+    private final Node<?>                       elem2             = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+    }
+
+    @Test
+    public void testConcurrentAddRemove() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Node<?>>>> futures = new ArrayList<>();
+
+        try {
+            for (int task = 0; task < THREADS; task++) {
+                futures.add(executor.submit(() -> {
+                    List<Node<?>> removed = new ArrayList<>();
+                    for (int index = 0; index < ELEMENTS_PER_TASK; index++) {
+                        Node<?> element = new DefaultNode<>();
+                        wrapper.add(element);
+                        if (index % 2 == 0) {
+                            wrapper.remove(element);
+                            removed.add(element);
+                        }
+                    }
+                    return removed;
+                }));
+            }
+
+            for (Future<List<Node<?>>> future : futures) {
+                for (Node<?> element : future.get(30, TimeUnit.SECONDS)) {
+                    assertEquals("Parents of a concurrently removed element", 0, element.getParentCount());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("Size after concurrent modifications", THREADS * ELEMENTS_PER_TASK / 2, wrapper.size());
+        for (Node<?> element : wrapper) {
+            assertEquals("Parents of a remaining element", Arrays.asList(parent1), element.getParents());
+        }
+    }
+
+    @Test
+    public void testSnapshotIteratorRemove() {
+
+        wrapper.add(elem1);
+
+        Iterator<Node<?>> iterator = wrapper.iterator();
+        wrapper.add(elem2);
+
+        assertSame("Element of the snapshot", elem1, iterator.next());
+        assertFalse("Snapshot contains the element added after its creation", iterator.hasNext());
+
+        iterator.remove();
+        assertFalse("Set contains the element removed through the snapshot iterator", wrapper.contains(elem1));
+        assertEquals("Parents of the element removed through the snapshot iterator", 0, elem1.getParentCount());
+        assertTrue("Set contains the element added after the snapshot", wrapper.contains(elem2));
+    }
+
+}
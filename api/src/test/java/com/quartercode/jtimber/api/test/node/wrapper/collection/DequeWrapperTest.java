@@ -0,0 +1,125 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.DequeWrapper;
+
+public class DequeWrapperTest {
+
+    private final Node<?>               parent1 = new DefaultNode<>();
+    private final Node<?>               parent2 = new DefaultNode<>();
+
+    private final Deque<Node<?>>        deque   = new ArrayDeque<>();
+    private final DequeWrapper<Node<?>> wrapper = new DequeWrapper<>(deque);
+
+    private final Node<?>               elem1   = new DefaultNode<>();
+    private final Node<?>               elem2   = new DefaultNode<>();
+    private final Node<?>               elem3   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+        wrapper.addParent(parent2);
+    }
+
+    @Test
+    public void testAddFirstLast() {
+
+        wrapper.addFirst(elem2);
+        wrapper.addLast(elem3);
+        wrapper.offerFirst(elem1);
+
+        assertArrayEquals("Deque elements after additions", new Node[] { elem1, elem2, elem3 }, deque.toArray());
+        for (Node<?> element : deque) {
+            assertArrayEquals("Parents of an added element", new Node[] { parent1, parent2 }, element.getParents().toArray());
+        }
+    }
+
+    @Test
+    public void testRemoveFirstLast() {
+
+        wrapper.addLast(elem1);
+        wrapper.addLast(elem2);
+        wrapper.addLast(elem3);
+
+        assertSame("Removed first element", elem1, wrapper.removeFirst());
+        assertSame("Polled last element", elem3, wrapper.pollLast());
+
+        assertArrayEquals("Parents of the removed first element", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of the polled last element", new Node[0], elem3.getParents().toArray());
+        assertArrayEquals("Parents of the remaining element", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+
+        assertSame("Removed last element", elem2, wrapper.removeLast());
+        assertNull("Polled first element of the empty deque", wrapper.pollFirst());
+        assertArrayEquals("Parents of the removed last element", new Node[0], elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testPushPop() {
+
+        wrapper.push(elem1);
+        wrapper.push(elem2);
+
+        assertSame("Popped element", elem2, wrapper.pop());
+        assertArrayEquals("Parents of the popped element", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of the remaining element", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+    }
+
+    @Test
+    public void testRemoveOccurrence() {
+
+        wrapper.addLast(elem1);
+        wrapper.addLast(elem2);
+        wrapper.addLast(elem1);
+
+        assertTrue("Last occurrence has not been removed", wrapper.removeLastOccurrence(elem1));
+        assertArrayEquals("Deque elements after removal of the last occurrence", new Node[] { elem1, elem2 }, deque.toArray());
+        assertArrayEquals("Parents of the element after removal of one occurrence", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+
+        assertTrue("First occurrence has not been removed", wrapper.removeFirstOccurrence(elem1));
+        assertFalse("Missing occurrence has been removed", wrapper.removeFirstOccurrence(elem3));
+        assertArrayEquals("Parents of the element after removal of all occurrences", new Node[0], elem1.getParents().toArray());
+    }
+
+    @Test
+    public void testDescendingIterator() {
+
+        wrapper.addLast(elem1);
+        wrapper.addLast(elem2);
+
+        Iterator<Node<?>> iterator = wrapper.descendingIterator();
+        assertSame("First element of the descending iterator", elem2, iterator.next());
+        iterator.remove();
+
+        assertArrayEquals("Deque elements after removal through the descending iterator", new Node[] { elem1 }, deque.toArray());
+        assertArrayEquals("Parents of the element removed through the descending iterator", new Node[0], elem2.getParents().toArray());
+    }
+
+    // Basic delegates are not tested!
+
+}
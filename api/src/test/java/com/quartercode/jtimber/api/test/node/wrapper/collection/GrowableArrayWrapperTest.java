@@ -0,0 +1,127 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.GrowableArrayWrapper;
+
+public class GrowableArrayWrapperTest {
+
+    private final Node<?>                       parent1 = new DefaultNode<>();
+    private final Node<?>                       parent2 = new DefaultNode<>();
+
+    private final GrowableArrayWrapper<Node<?>> wrapper = new GrowableArrayWrapper<>(1);
+
+    private final Node<?>                       elem1   = new DefaultNode<>();
+    private final Node<?>                       elem2   = new DefaultNode<>();
+    private final Node<?>                       elem3   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+    }
+
+    @Test
+    public void testAdd() {
+
+        wrapper.add(elem1);
+        wrapper.add(elem2);
+        wrapper.add(elem3);
+
+        assertEquals("Size after three elements have been appended", 3, wrapper.size());
+        assertEquals("Elements after three elements have been appended", Arrays.asList(elem1, elem2, elem3), wrapper.asList());
+        assertEquals("Actual children after three elements have been appended", Arrays.asList(elem1, elem2, elem3), wrapper.getActualChildren());
+        assertArrayEquals("Parents of element 3", new Node[] { parent1 }, elem3.getParents().toArray());
+    }
+
+    @Test
+    public void testAddParent() {
+
+        wrapper.add(elem1);
+        wrapper.add(elem2);
+
+        wrapper.addParent(parent2);
+        assertArrayEquals("Parents of element 1 after addition of a second parent", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after addition of a second parent", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+
+        wrapper.removeParent(parent1);
+        assertArrayEquals("Parents of element 1 after removal of a parent", new Node[] { parent2 }, elem1.getParents().toArray());
+    }
+
+    @Test
+    public void testSet() {
+
+        wrapper.add(elem1);
+        wrapper.set(0, elem2);
+
+        assertEquals("Element after it has been set", elem2, wrapper.get(0));
+        assertArrayEquals("Parents of the replaced element", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of the new element", new Node[] { parent1 }, elem2.getParents().toArray());
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testSetUnusedIndex() {
+
+        wrapper.ensureCapacity(10);
+        wrapper.set(5, elem1);
+    }
+
+    @Test
+    public void testRemoveLast() {
+
+        wrapper.add(elem1);
+        wrapper.add(elem2);
+
+        assertSame("Removed last element", elem2, wrapper.removeLast());
+        assertEquals("Size after the last element has been removed", 1, wrapper.size());
+        assertArrayEquals("Parents of the removed element", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of the remaining element", new Node[] { parent1 }, elem1.getParents().toArray());
+    }
+
+    @Test
+    public void testClear() {
+
+        wrapper.add(elem1);
+        wrapper.add(null);
+        assertFalse("Wrapper with a null element is flat", wrapper.isFlat());
+
+        wrapper.clear();
+        assertEquals("Size after clear", 0, wrapper.size());
+        assertArrayEquals("Parents of element 1 after clear", new Node[0], elem1.getParents().toArray());
+        assertTrue("Wrapper after clear is flat", wrapper.isFlat());
+    }
+
+    @Test
+    public void testToArray() {
+
+        wrapper.add(elem1);
+        wrapper.add(elem2);
+        wrapper.trimToSize();
+
+        assertArrayEquals("Elements copied into a new array", new Node[] { elem1, elem2 }, wrapper.toArray(new Node<?>[0]));
+        assertTrue("Wrapper isn't equal to a list of its elements", wrapper.equals(Arrays.asList(elem1, elem2)));
+    }
+
+}
@@ -157,12 +157,151 @@ public class ListWrapperTest {
 
     // listIterator(int) with starting index is not tested because it is really similar to listIterator()
 
-    @Test (expected = UnsupportedOperationException.class)
+    @Test
     public void testSubList() {
 
-        wrapper.subList(0, 0);
+        Node<?> elem4 = new DefaultNode<>();
+        wrapper.addAll(Arrays.asList(elem1, elem2, elem3));
+
+        List<Node<?>> subList = wrapper.subList(1, 3);
+        assertArrayEquals("Sub list elements", new Node[] { elem2, elem3 }, subList.toArray());
+
+        subList.add(elem4);
+        assertArrayEquals("List elements after addition to the sub list", new Node[] { elem1, elem2, elem3, elem4 }, list.toArray());
+        assertArrayEquals("Parents of the element added to the sub list", new Node[] { parent1, parent2 }, elem4.getParents().toArray());
+
+        subList.set(0, elem1);
+        assertArrayEquals("Parents of the element replaced in the sub list", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of the element set in the sub list", new Node[] { parent1, parent2, parent1, parent2 }, elem1.getParents().toArray());
+
+        subList.clear();
+        assertArrayEquals("List elements after the sub list has been cleared", new Node[] { elem1 }, list.toArray());
+        assertArrayEquals("Parents of element 1 after the sub list has been cleared", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 3 after the sub list has been cleared", new Node[0], elem3.getParents().toArray());
+        assertArrayEquals("Parents of element 4 after the sub list has been cleared", new Node[0], elem4.getParents().toArray());
+    }
+
+    @Test
+    public void testNestedSubList() {
+
+        wrapper.addAll(Arrays.asList(elem1, elem2, elem3));
+
+        List<Node<?>> subList = wrapper.subList(0, 3).subList(1, 2);
+        assertArrayEquals("Nested sub list elements", new Node[] { elem2 }, subList.toArray());
+
+        subList.addAll(Arrays.asList(elem1, elem3));
+        assertArrayEquals("List elements after addition to the nested sub list", new Node[] { elem1, elem2, elem1, elem3, elem3 }, list.toArray());
+        assertArrayEquals("Parents of element 3 after addition to the nested sub list", new Node[] { parent1, parent2, parent1, parent2 }, elem3.getParents().toArray());
+
+        subList.removeIf(element -> element == elem3);
+        assertArrayEquals("List elements after removal from the nested sub list", new Node[] { elem1, elem2, elem1, elem3 }, list.toArray());
+        assertArrayEquals("Parents of element 3 after removal from the nested sub list", new Node[] { parent1, parent2 }, elem3.getParents().toArray());
+    }
+
+    @Test
+    public void testSort() {
+
+        CountingNode node1 = new CountingNode(3);
+        CountingNode node2 = new CountingNode(1);
+        CountingNode node3 = new CountingNode(2);
+        wrapper.addAll(Arrays.asList(node1, node2, node3));
+
+        wrapper.sort((a, b) -> Integer.compare( ((CountingNode) a).key, ((CountingNode) b).key));
+        assertArrayEquals("List elements after sorting", new Node[] { node2, node3, node1 }, list.toArray());
+
+        for (CountingNode node : Arrays.asList(node1, node2, node3)) {
+            assertArrayEquals("Parents of an element after sorting", new Node[] { parent1, parent2 }, node.getParents().toArray());
+            assertEquals("Amount of parent removals caused by sorting", 0, node.removals);
+        }
+    }
+
+    @Test
+    public void testReorderingMethods() {
+
+        CountingNode node1 = new CountingNode(1);
+        CountingNode node2 = new CountingNode(2);
+        CountingNode node3 = new CountingNode(3);
+        wrapper.addAll(Arrays.asList(node1, node2, node3));
+
+        wrapper.reverse();
+        assertArrayEquals("List elements after reversal", new Node[] { node3, node2, node1 }, list.toArray());
+
+        wrapper.rotate(1);
+        assertArrayEquals("List elements after rotation", new Node[] { node1, node3, node2 }, list.toArray());
+
+        wrapper.swap(0, 2);
+        assertArrayEquals("List elements after swap", new Node[] { node2, node3, node1 }, list.toArray());
+
+        for (CountingNode node : Arrays.asList(node1, node2, node3)) {
+            assertArrayEquals("Parents of an element after reordering", new Node[] { parent1, parent2 }, node.getParents().toArray());
+            assertEquals("Amount of parent removals caused by reordering", 0, node.removals);
+        }
+    }
+
+    @Test
+    public void testReplaceAll() {
+
+        CountingNode node1 = new CountingNode(1);
+        CountingNode node2 = new CountingNode(2);
+        wrapper.addAll(Arrays.asList(node1, node2));
+
+        wrapper.replaceAll(element -> element == node2 ? elem3 : element);
+        assertArrayEquals("List elements after replacement", new Node[] { node1, elem3 }, list.toArray());
+
+        assertEquals("Amount of parent removals of the unchanged element", 0, node1.removals);
+        assertArrayEquals("Parents of the unchanged element", new Node[] { parent1, parent2 }, node1.getParents().toArray());
+        assertArrayEquals("Parents of the replaced element", new Node[0], node2.getParents().toArray());
+        assertArrayEquals("Parents of the new element", new Node[] { parent1, parent2 }, elem3.getParents().toArray());
+    }
+
+    @Test
+    public void testRemoveIf() {
+
+        wrapper.addAll(Arrays.asList(elem1, elem2, elem3, elem2));
+
+        assertTrue("Wrapper modified by removeIf", wrapper.removeIf(element -> element == elem2));
+        assertArrayEquals("List elements after removeIf", new Node[] { elem1, elem3 }, list.toArray());
+
+        assertArrayEquals("Parents of the retained element", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of the removed element", new Node[0], elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testListIteratorSetSameElement() {
+
+        CountingNode node1 = new CountingNode(1);
+        wrapper.add(node1);
+
+        ListIterator<Node<?>> iterator = wrapper.listIterator();
+        iterator.next();
+        iterator.set(node1);
+        assertEquals("Amount of parent removals caused by setting the same element", 0, node1.removals);
+
+        iterator.set(elem1);
+        iterator.remove();
+        assertArrayEquals("Parents of the element after it has been replaced", new Node[0], node1.getParents().toArray());
+        assertArrayEquals("Parents of the replacing element after it has been removed", new Node[0], elem1.getParents().toArray());
     }
 
     // Basic delegates and methods covered by CollectionWraper are not tested!
 
+    private static class CountingNode extends DefaultNode<Node<?>> {
+
+        private final int key;
+        private int       removals;
+
+        private CountingNode(int key) {
+
+            this.key = key;
+        }
+
+        @Override
+        public void removeParent(Node<?> parent) {
+
+            removals++;
+            super.removeParent(parent);
+        }
+
+    }
+
 }
@@ -0,0 +1,378 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.ParentPropagation;
+import com.quartercode.jtimber.api.node.wrapper.collection.MapWrapper;
+
+public class MapWrapperTest {
+
+    private final Node<?>                     parent1 = new DefaultNode<>();
+    private final Node<?>                     parent2 = new DefaultNode<>();
+
+    private final Map<String, Node<?>>        map     = new LinkedHashMap<>();
+    private final MapWrapper<String, Node<?>> wrapper = new MapWrapper<>(map);
+
+    private final Node<?>                     elem1   = new DefaultNode<>();
+    private final Node<?>                     elem2   = new DefaultNode<>();
+    private final Node<?>                     elem3   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+        wrapper.addParent(parent2);
+    }
+
+    private void assertParents(String message, Node<?> element, Node<?>... parents) {
+
+        assertArrayEquals("Parents of " + message, parents, element.getParents().toArray());
+    }
+
+    @Test
+    public void testAddParent() {
+
+        wrapper.put("1", elem1);
+        assertParents("element 1 before addition of a third parent", elem1, parent1, parent2);
+
+        Node<?> parent3 = new DefaultNode<>();
+        wrapper.addParent(parent3);
+        assertParents("element 1 after addition of a third parent", elem1, parent1, parent2, parent3);
+    }
+
+    @Test
+    public void testRemoveParent() {
+
+        wrapper.put("1", elem1);
+        wrapper.removeParent(parent2);
+
+        assertParents("element 1 after removal of a parent", elem1, parent1);
+    }
+
+    @Test
+    public void testGetActualChildren() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+
+        assertEquals("Actual children", Arrays.asList(elem1, elem2), wrapper.getActualChildren());
+        assertEquals("Second actual child", elem2, wrapper.getActualChildren().get(1));
+    }
+
+    @Test
+    public void testPut() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+        wrapper.put("1", elem3);
+
+        assertEquals("Map entries after modifications", createMap("1", elem3, "2", elem2), map);
+
+        assertParents("element 1 after modifications", elem1);
+        assertParents("element 2 after modifications", elem2, parent1, parent2);
+        assertParents("element 3 after modifications", elem3, parent1, parent2);
+    }
+
+    @Test
+    public void testPutSameValue() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("1", elem1);
+
+        assertParents("element 1 after modifications", elem1, parent1, parent2);
+    }
+
+    @Test
+    public void testRemove() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+        wrapper.remove("2");
+        wrapper.remove("3");
+
+        assertEquals("Map entries after modifications", createMap("1", elem1), map);
+
+        assertParents("element 1 after modifications", elem1, parent1, parent2);
+        assertParents("element 2 after modifications", elem2);
+    }
+
+    @Test
+    public void testPutAll() {
+
+        wrapper.putAll(createMap("1", elem1, "2", elem2));
+
+        assertEquals("Map entries after modifications", createMap("1", elem1, "2", elem2), map);
+
+        assertParents("element 1 after modifications", elem1, parent1, parent2);
+        assertParents("element 2 after modifications", elem2, parent1, parent2);
+    }
+
+    @Test
+    public void testClear() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+        wrapper.clear();
+
+        assertTrue("Map is empty after modifications", map.isEmpty());
+
+        assertParents("element 1 after modifications", elem1);
+        assertParents("element 2 after modifications", elem2);
+    }
+
+    @Test
+    public void testDefaultMethods() {
+
+        wrapper.put("1", elem1);
+        wrapper.putIfAbsent("1", elem2);
+        wrapper.computeIfAbsent("2", key -> elem2);
+        wrapper.compute("1", (key, value) -> null);
+        wrapper.merge("2", elem3, (oldValue, value) -> value);
+
+        assertEquals("Map entries after modifications", createMap("2", elem3), map);
+
+        assertParents("element 1 after modifications", elem1);
+        assertParents("element 2 after modifications", elem2);
+        assertParents("element 3 after modifications", elem3, parent1, parent2);
+
+        wrapper.replaceAll((key, value) -> elem1);
+
+        assertParents("element 1 after replacement", elem1, parent1, parent2);
+        assertParents("element 3 after replacement", elem3);
+    }
+
+    @Test
+    public void testKeySet() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+        wrapper.put("3", elem3);
+
+        wrapper.keySet().remove("1");
+        wrapper.keySet().retainAll(Collections.singleton("3"));
+
+        assertEquals("Map entries after modifications", createMap("3", elem3), map);
+
+        assertParents("element 1 after modifications", elem1);
+        assertParents("element 2 after modifications", elem2);
+        assertParents("element 3 after modifications", elem3, parent1, parent2);
+    }
+
+    @Test
+    public void testValues() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+        wrapper.values().remove(elem1);
+
+        Iterator<Node<?>> iterator = wrapper.values().iterator();
+        assertEquals(elem2, iterator.next());
+        iterator.remove();
+
+        assertTrue("Map is empty after modifications", map.isEmpty());
+
+        assertParents("element 1 after modifications", elem1);
+        assertParents("element 2 after modifications", elem2);
+    }
+
+    @Test
+    public void testEntrySet() {
+
+        wrapper.put("1", elem1);
+        wrapper.put("2", elem2);
+
+        Iterator<Entry<String, Node<?>>> iterator = wrapper.entrySet().iterator();
+        iterator.next().setValue(elem3);
+        iterator.next();
+        iterator.remove();
+
+        assertEquals("Map entries after modifications", createMap("1", elem3), map);
+
+        assertParents("element 1 after modifications", elem1);
+        assertParents("element 2 after modifications", elem2);
+        assertParents("element 3 after modifications", elem3, parent1, parent2);
+    }
+
+    @Test
+    public void testTrackingKeys() {
+
+        Map<Node<?>, Node<?>> keyMap = new LinkedHashMap<>();
+        MapWrapper<Node<?>, Node<?>> keyWrapper = new MapWrapper<>(keyMap, true);
+        keyWrapper.addParent(parent1);
+
+        keyWrapper.put(elem1, elem2);
+        keyWrapper.put(elem1, elem2);
+        assertEquals("Actual children", Arrays.asList(elem1, elem2), keyWrapper.getActualChildren());
+        assertParents("key after put", elem1, parent1);
+        assertParents("value after put", elem2, parent1);
+
+        keyWrapper.addParent(parent2);
+        assertParents("key after addition of a parent", elem1, parent1, parent2);
+
+        keyWrapper.remove(elem1);
+        keyWrapper.remove(elem3);
+        assertParents("key after removal", elem1);
+        assertParents("value after removal", elem2);
+    }
+
+    @Test
+    public void testTrackingEqualKeys() {
+
+        Map<EqualNode, Node<?>> keyMap = new LinkedHashMap<>();
+        MapWrapper<EqualNode, Node<?>> keyWrapper = new MapWrapper<>(keyMap, true);
+        keyWrapper.addParent(parent1);
+
+        EqualNode key1 = new EqualNode("1");
+        EqualNode key2 = new EqualNode("2");
+        EqualNode key3 = new EqualNode("3");
+        keyWrapper.put(key1, elem1);
+        keyWrapper.put(key2, elem2);
+        keyWrapper.put(key3, elem3);
+
+        // The lookup keys are only equal to the stored keys
+        EqualNode lookupKey1 = new EqualNode("1");
+        keyWrapper.remove(lookupKey1);
+        assertParents("stored key 1 after removal", key1);
+        assertParents("lookup key 1 after removal", lookupKey1);
+
+        keyWrapper.keySet().remove(new EqualNode("2"));
+        assertParents("stored key 2 after removal through the key set", key2);
+
+        keyWrapper.entrySet().remove(new SimpleEntry<>(new EqualNode("3"), elem3));
+        assertParents("stored key 3 after removal through the entry set", key3);
+        assertParents("value 3 after removal through the entry set", elem3);
+    }
+
+    @Test
+    public void testTrackingEqualKeysSorted() {
+
+        Map<EqualNode, Node<?>> keyMap = new TreeMap<>();
+        MapWrapper<EqualNode, Node<?>> keyWrapper = new MapWrapper<>(keyMap, true);
+        keyWrapper.addParent(parent1);
+
+        EqualNode key = new EqualNode("1");
+        keyWrapper.put(key, elem1);
+        keyWrapper.put(new EqualNode("2"), elem2);
+
+        keyWrapper.remove(new EqualNode("1"));
+        assertParents("stored key after removal", key);
+        assertEquals("Remaining keys", Arrays.asList(new EqualNode("2")), new ArrayList<>(keyMap.keySet()));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testIteratorRemoveBeforeNext() {
+
+        wrapper.put("1", elem1);
+        wrapper.keySet().iterator().remove();
+    }
+
+    @Test
+    public void testIteratorRemoveTwice() {
+
+        wrapper.put("1", elem1);
+        Iterator<Node<?>> iterator = wrapper.values().iterator();
+        iterator.next();
+        iterator.remove();
+
+        try {
+            iterator.remove();
+            fail("Second removal of the same element didn't throw an IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        assertParents("element 1 after removal", elem1);
+    }
+
+    @Test
+    public void testLazyParentPropagation() {
+
+        MapWrapper<Node<?>, Node<?>> lazyWrapper = new MapWrapper<>(new LinkedHashMap<Node<?>, Node<?>>(Collections.singletonMap(elem1, elem2)), true, ParentPropagation.LAZY);
+        lazyWrapper.addParent(parent1);
+        assertParents("initial key", elem1, parent1);
+        assertParents("initial value", elem2, parent1);
+
+        lazyWrapper.put(elem2, elem3);
+        lazyWrapper.addParent(parent2);
+        assertParents("value 2 after addition of a parent", elem3, parent1, parent2);
+        assertParents("key 2 after addition of a parent", elem2, parent1, parent2, parent1, parent2);
+
+        lazyWrapper.values().remove(elem3);
+        assertParents("value 2 after removal through the values view", elem3);
+        assertParents("key 2 after removal through the values view", elem2, parent1, parent2);
+
+        lazyWrapper.clear();
+        assertParents("key 1 after clear", elem1);
+        assertParents("value 1 after clear", elem2);
+    }
+
+    private static Map<String, Node<?>> createMap(Object... keysAndValues) {
+
+        Map<String, Node<?>> map = new LinkedHashMap<>();
+        for (int index = 0; index < keysAndValues.length; index += 2) {
+            map.put((String) keysAndValues[index], (Node<?>) keysAndValues[index + 1]);
+        }
+        return map;
+    }
+
+    // Basic delegates are not tested!
+
+    private static class EqualNode extends DefaultNode<Node<?>> implements Comparable<EqualNode> {
+
+        private final String id;
+
+        private EqualNode(String id) {
+
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(EqualNode o) {
+
+            return id.compareTo(o.id);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return obj instanceof EqualNode && id.equals( ((EqualNode) obj).id);
+        }
+
+    }
+
+}
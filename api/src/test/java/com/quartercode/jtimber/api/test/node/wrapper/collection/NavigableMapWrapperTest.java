@@ -0,0 +1,129 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.NavigableMapWrapper;
+
+public class NavigableMapWrapperTest {
+
+    private final Node<?>                              parent1 = new DefaultNode<>();
+    private final Node<?>                              parent2 = new DefaultNode<>();
+
+    private final NavigableMap<String, Node<?>>        map     = new TreeMap<>();
+    private final NavigableMapWrapper<String, Node<?>> wrapper = new NavigableMapWrapper<>(map);
+
+    private final Node<?>                              elem1   = new DefaultNode<>();
+    private final Node<?>                              elem2   = new DefaultNode<>();
+    private final Node<?>                              elem3   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+        wrapper.addParent(parent2);
+
+        wrapper.put("a", elem1);
+        wrapper.put("b", elem2);
+        wrapper.put("c", elem3);
+    }
+
+    @Test
+    public void testPollEntries() {
+
+        assertEquals("Polled first entry", elem1, wrapper.pollFirstEntry().getValue());
+        assertEquals("Polled last entry", elem3, wrapper.pollLastEntry().getValue());
+
+        assertArrayEquals("Map keys after modifications", new String[] { "b" }, map.keySet().toArray());
+
+        assertArrayEquals("Parents of element 1 after modifications", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after modifications", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+        assertArrayEquals("Parents of element 3 after modifications", new Node[0], elem3.getParents().toArray());
+    }
+
+    @Test
+    public void testDescendingMap() {
+
+        NavigableMap<String, Node<?>> descendingMap = wrapper.descendingMap();
+        assertEquals("First key of the descending map", "c", descendingMap.firstKey());
+
+        descendingMap.pollFirstEntry();
+        Node<?> elem4 = new DefaultNode<>();
+        descendingMap.put("d", elem4);
+
+        assertArrayEquals("Map keys after modifications", new String[] { "a", "b", "d" }, map.keySet().toArray());
+
+        assertArrayEquals("Parents of element 3 after modifications", new Node[0], elem3.getParents().toArray());
+        assertArrayEquals("Parents of element 4 after modifications", new Node[] { parent1, parent2 }, elem4.getParents().toArray());
+    }
+
+    @Test
+    public void testNavigableKeySet() {
+
+        NavigableSet<String> keySet = wrapper.navigableKeySet();
+        assertEquals("Polled first key", "a", keySet.pollFirst());
+        keySet.headSet("c").clear();
+
+        Iterator<String> descendingIterator = keySet.descendingIterator();
+        assertEquals("First key of the descending iterator", "c", descendingIterator.next());
+        descendingIterator.remove();
+
+        assertTrue("Map is empty after modifications", map.isEmpty());
+
+        assertArrayEquals("Parents of element 1 after modifications", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after modifications", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of element 3 after modifications", new Node[0], elem3.getParents().toArray());
+    }
+
+    @Test
+    public void testSubMap() {
+
+        NavigableMap<String, Node<?>> subMap = wrapper.subMap("a", false, "c", true);
+        subMap.remove("a");
+        subMap.remove("b");
+
+        assertArrayEquals("Map keys after modifications", new String[] { "a", "c" }, map.keySet().toArray());
+
+        assertArrayEquals("Parents of element 1 after modifications", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after modifications", new Node[0], elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testTailMapEntrySetValue() {
+
+        Node<?> elem4 = new DefaultNode<>();
+        wrapper.tailMap("b", true).entrySet().iterator().next().setValue(elem4);
+
+        assertEquals("Value of key b after modifications", elem4, map.get("b"));
+
+        assertArrayEquals("Parents of element 2 after modifications", new Node[0], elem2.getParents().toArray());
+        assertArrayEquals("Parents of element 4 after modifications", new Node[] { parent1, parent2 }, elem4.getParents().toArray());
+    }
+
+    // Basic delegates are not tested!
+
+}
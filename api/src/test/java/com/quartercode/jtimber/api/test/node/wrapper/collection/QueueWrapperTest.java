@@ -0,0 +1,90 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.LinkedList;
+import java.util.Queue;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.QueueWrapper;
+
+public class QueueWrapperTest {
+
+    private final Node<?>               parent1 = new DefaultNode<>();
+    private final Node<?>               parent2 = new DefaultNode<>();
+
+    private final Queue<Node<?>>        queue   = new LinkedList<>();
+    private final QueueWrapper<Node<?>> wrapper = new QueueWrapper<>(queue);
+
+    private final Node<?>               elem1   = new DefaultNode<>();
+    private final Node<?>               elem2   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+        wrapper.addParent(parent2);
+    }
+
+    @Test
+    public void testOffer() {
+
+        assertTrue("Element has not been offered", wrapper.offer(elem1));
+
+        assertArrayEquals("Queue elements after offer", new Node[] { elem1 }, queue.toArray());
+        assertArrayEquals("Parents of the offered element", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+    }
+
+    @Test
+    public void testRemove() {
+
+        wrapper.offer(elem1);
+        wrapper.offer(elem2);
+
+        assertSame("Removed head", elem1, wrapper.remove());
+        assertArrayEquals("Parents of the removed head", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of the remaining element", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testPoll() {
+
+        wrapper.offer(elem1);
+
+        assertSame("Polled head", elem1, wrapper.poll());
+        assertArrayEquals("Parents of the polled head", new Node[0], elem1.getParents().toArray());
+        assertNull("Polled head of the empty queue", wrapper.poll());
+    }
+
+    @Test
+    public void testPollNull() {
+
+        wrapper.offer(null);
+        assertFalse("Queue with a null element is flat", wrapper.isFlat());
+
+        assertNull("Polled null head", wrapper.poll());
+        assertTrue("Queue after the null element has been polled is flat", wrapper.isFlat());
+    }
+
+    // Basic delegates are not tested!
+
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.node.wrapper.collection;
+
+import static org.junit.Assert.*;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.SortedMapWrapper;
+
+public class SortedMapWrapperTest {
+
+    private final Node<?>                           parent1 = new DefaultNode<>();
+    private final Node<?>                           parent2 = new DefaultNode<>();
+
+    private final SortedMap<String, Node<?>>        map     = new TreeMap<>();
+    private final SortedMapWrapper<String, Node<?>> wrapper = new SortedMapWrapper<>(map);
+
+    private final Node<?>                           elem1   = new DefaultNode<>();
+    private final Node<?>                           elem2   = new DefaultNode<>();
+    private final Node<?>                           elem3   = new DefaultNode<>();
+
+    @Before
+    public void setUp() {
+
+        wrapper.addParent(parent1);
+        wrapper.addParent(parent2);
+    }
+
+    @Test
+    public void testSubMap() {
+
+        wrapper.put("a", elem1);
+
+        SortedMap<String, Node<?>> subMap = wrapper.subMap("b", "d");
+        subMap.put("b", elem2);
+        subMap.put("c", elem3);
+        subMap.remove("c");
+
+        assertArrayEquals("Map keys after modifications", new String[] { "a", "b" }, map.keySet().toArray());
+
+        assertArrayEquals("Parents of element 2 after modifications", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+        assertArrayEquals("Parents of element 3 after modifications", new Node[0], elem3.getParents().toArray());
+        assertTrue("Sub map view has no own parents", ((SortedMapWrapper<?, ?>) subMap).getParents().isEmpty());
+    }
+
+    @Test
+    public void testHeadMap() {
+
+        wrapper.put("a", elem1);
+        wrapper.put("b", elem2);
+        wrapper.headMap("b").clear();
+
+        assertArrayEquals("Map keys after modifications", new String[] { "b" }, map.keySet().toArray());
+
+        assertArrayEquals("Parents of element 1 after modifications", new Node[0], elem1.getParents().toArray());
+        assertArrayEquals("Parents of element 2 after modifications", new Node[] { parent1, parent2 }, elem2.getParents().toArray());
+    }
+
+    @Test
+    public void testTailMap() {
+
+        wrapper.tailMap("b").put("c", elem1);
+
+        assertArrayEquals("Map keys after modifications", new String[] { "c" }, map.keySet().toArray());
+
+        assertArrayEquals("Parents of element 1 after modifications", new Node[] { parent1, parent2 }, elem1.getParents().toArray());
+    }
+
+    // Basic delegates are not tested!
+
+}
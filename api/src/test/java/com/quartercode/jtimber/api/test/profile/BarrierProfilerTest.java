@@ -0,0 +1,122 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.api.test.profile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.DefaultParentAware;
+import com.quartercode.jtimber.api.node.IllegalParentTypeException;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.profile.BarrierProfiler;
+import com.quartercode.jtimber.api.profile.FieldProfile;
+
+public class BarrierProfilerTest {
+
+    static {
+        // Count every write; the constant is inlined, so the profiler isn't initialized before the property has been set
+        System.setProperty(BarrierProfiler.SAMPLE_RATE_PROPERTY, "1");
+    }
+
+    private final Node1 parent = new Node1();
+    private final PA1   child1 = new PA1();
+    private final PA1   child2 = new PA1();
+
+    @Before
+    public void setUp() {
+
+        BarrierProfiler.reset();
+    }
+
+    @Test
+    public void testWrite() {
+
+        BarrierProfiler.write(child1, null, parent, true, 0, "Node1#child");
+        BarrierProfiler.write(child2, child1, parent, true, 0, "Node1#child");
+        BarrierProfiler.write(child2, child2, parent, true, 0, "Node1#child");
+
+        assertArrayEquals("Parents of child 1 after writes", new Node[0], child1.getParents().toArray());
+        assertArrayEquals("Parents of child 2 after writes", new Node[] { parent }, child2.getParents().toArray());
+
+        FieldProfile profile = getProfile("Node1#child");
+        assertEquals("Sampled adds", 3, profile.getAdds());
+        assertEquals("Sampled removes", 2, profile.getRemoves());
+        assertEquals("Sampled same-value writes", 1, profile.getSameValueWrites());
+        assertEquals("Sampled illegal type rejections", 0, profile.getIllegalTypeRejections());
+    }
+
+    @Test
+    public void testWriteIllegalType() {
+
+        PA2 child = new PA2();
+
+        try {
+            BarrierProfiler.write(child, null, new Node2(), true, 1, "Node2#child");
+            fail("Illegal parent type has been accepted");
+        } catch (IllegalParentTypeException e) {
+            // Expected
+        }
+
+        assertEquals("Sampled illegal type rejections", 1, getProfile("Node2#child").getIllegalTypeRejections());
+
+        // Unchecked writes don't verify the parent type
+        BarrierProfiler.write(child, null, new Node2(), false, 1, "Node2#child");
+        assertEquals("Parent count after unchecked write", 1, child.getParentCount());
+    }
+
+    @Test
+    public void testDump() {
+
+        BarrierProfiler.write(child1, null, parent, true, 300, "Node1#otherChild");
+
+        assertTrue("Dump doesn't contain profiled field", BarrierProfiler.dump().contains("Node1#otherChild"));
+    }
+
+    private FieldProfile getProfile(String fieldKey) {
+
+        for (FieldProfile profile : BarrierProfiler.getFieldProfiles()) {
+            if (profile.getFieldKey().equals(fieldKey)) {
+                return profile;
+            }
+        }
+
+        throw new AssertionError("No profile for field '" + fieldKey + "'");
+    }
+
+    private static class PA1 extends DefaultParentAware<Node<?>> {
+
+    }
+
+    private static class PA2 extends DefaultParentAware<Node1> {
+
+    }
+
+    private static class Node1 extends DefaultNode<Node<?>> {
+
+    }
+
+    private static class Node2 extends DefaultNode<Node<?>> {
+
+    }
+
+}
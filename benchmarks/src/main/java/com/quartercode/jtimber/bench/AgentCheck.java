@@ -0,0 +1,49 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import com.quartercode.jtimber.bench.node.NarrowNode;
+
+/**
+ * A utility class which makes sure that the benchmarks actually measure the transformed node classes.
+ * Without the runtime hook, field writes wouldn't contain any parent watchers, which would make the results meaningless.
+ */
+public class AgentCheck {
+
+    /**
+     * Throws an {@link IllegalStateException} if the benchmark node classes have not been transformed by the runtime hook.
+     * This method should be called by the setup method of each benchmark.
+     * 
+     * @throws IllegalStateException The runtime hook is not attached to the current JVM.
+     */
+    public static void requireAgent() {
+
+        try {
+            // The runtime hook generates a "getChildren()" method in each node class
+            NarrowNode.class.getDeclaredMethod("getChildren");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The benchmark node classes have not been transformed; run the benchmarks with the JTimber agent attached (see BenchmarkRunner)", e);
+        }
+    }
+
+    private AgentCheck() {
+
+    }
+
+}
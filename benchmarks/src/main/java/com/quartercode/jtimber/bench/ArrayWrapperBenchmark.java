@@ -0,0 +1,112 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.quartercode.jtimber.api.node.wrapper.collection.ArrayWrapper;
+import com.quartercode.jtimber.bench.node.Leaf;
+
+/**
+ * Measures the operations of an {@link ArrayWrapper} with a varying length.
+ * The wrapper has one parent, so each replaced element needs to be updated.
+ * All benchmarks leave the array in its initial state.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (2)
+@State (Scope.Thread)
+public class ArrayWrapperBenchmark {
+
+    @Param ({ "10", "1000", "100000", "1000000" })
+    private int                size;
+
+    private ArrayWrapper<Leaf> wrapper;
+    private Leaf               newElement;
+    private Leaf               newParent;
+
+    @Setup
+    public void setup() {
+
+        AgentCheck.requireAgent();
+
+        Leaf[] elements = new Leaf[size];
+        for (int index = 0; index < size; index++) {
+            elements[index] = new Leaf();
+        }
+
+        wrapper = new ArrayWrapper<>(elements);
+        wrapper.addParent(new Leaf());
+
+        newElement = new Leaf();
+        newParent = new Leaf();
+    }
+
+    @Benchmark
+    public void setMiddle() {
+
+        int index = size / 2;
+        Leaf oldElement = wrapper.get(index);
+        wrapper.set(index, newElement);
+        wrapper.set(index, oldElement);
+    }
+
+    @Benchmark
+    public Leaf getMiddle() {
+
+        return wrapper.get(size / 2);
+    }
+
+    @Benchmark
+    public List<Object> getActualChildren() {
+
+        return wrapper.getActualChildren();
+    }
+
+    @Benchmark
+    public Leaf[] cloneArray() {
+
+        return wrapper.cloneArray();
+    }
+
+    /*
+     * Adds a second parent to the wrapper and removes it again; both operations are propagated to all elements.
+     */
+    @Benchmark
+    public void addRemoveParent() {
+
+        wrapper.addParent(newParent);
+        wrapper.removeParent(newParent);
+    }
+
+}
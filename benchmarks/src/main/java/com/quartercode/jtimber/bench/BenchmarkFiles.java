@@ -0,0 +1,93 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A utility class which locates the JAR files the benchmarks require.
+ * The build copies the agent JAR and the compiler hook JAR next to the benchmark JAR.
+ */
+public class BenchmarkFiles {
+
+    /**
+     * The name of the system property which contains the path to the agent JAR.
+     * If it is not set, the agent JAR {@code jtimber-runtime-hook.jar} next to the benchmark JAR is used.
+     */
+    public static final String  AGENT_PROPERTY          = "jtimber.bench.agent";
+
+    private static final String AGENT_FILE_NAME         = "jtimber-runtime-hook.jar";
+    private static final String COMPILER_HOOK_FILE_NAME = "jtimber-compiler-hook.jar";
+
+    /**
+     * Returns the location of the benchmark classes. Usually, that's the benchmark JAR.
+     * 
+     * @return The benchmark JAR.
+     */
+    public static Path getBenchmarkJar() {
+
+        try {
+            return Paths.get(BenchmarkFiles.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the benchmark JAR", e);
+        }
+    }
+
+    /**
+     * Returns the agent JAR, which contains the runtime hook.
+     * 
+     * @return The agent JAR.
+     * @throws IllegalStateException The agent JAR doesn't exist.
+     */
+    public static Path getAgentJar() {
+
+        String agentPath = System.getProperty(AGENT_PROPERTY);
+        Path agent = agentPath != null ? Paths.get(agentPath) : getBenchmarkJar().resolveSibling(AGENT_FILE_NAME);
+        return requireFile(agent, "Cannot find the JTimber agent JAR '" + agent + "'; set the system property '" + AGENT_PROPERTY + "' to its location");
+    }
+
+    /**
+     * Returns the compiler hook JAR, which contains the annotation processor that creates the node index.
+     * 
+     * @return The compiler hook JAR.
+     * @throws IllegalStateException The compiler hook JAR doesn't exist.
+     */
+    public static Path getCompilerHookJar() {
+
+        Path compilerHook = getBenchmarkJar().resolveSibling(COMPILER_HOOK_FILE_NAME);
+        return requireFile(compilerHook, "Cannot find the JTimber compiler hook JAR '" + compilerHook + "'; build the benchmark module with 'mvn package -P benchmarks'");
+    }
+
+    private static Path requireFile(Path file, String message) {
+
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException(message);
+        }
+
+        return file.toAbsolutePath();
+    }
+
+    private BenchmarkFiles() {
+
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * The main class of the benchmark JAR. It runs the JMH benchmarks with the JTimber runtime hook attached to each forked JVM.
+ * All command line arguments are passed to JMH; therefore, all JMH options (like a benchmark filter regex) can be used.
+ * Moreover, the GC profiler is always enabled in order to record the allocation rate of the benchmarks.
+ * For example:
+ * 
+ * <pre>
+ * java -jar target/benchmarks.jar FieldWrite -p parentCount=1,1000
+ * </pre>
+ * 
+ * By default, the agent JAR {@code jtimber-runtime-hook.jar} is expected to be located next to the benchmark JAR (the build copies it there).
+ * A different agent JAR can be used by setting the system property {@link BenchmarkFiles#AGENT_PROPERTY}.
+ * Agent options (see the runtime hook) can be passed using the system property {@link #AGENT_ARGS_PROPERTY}.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * The name of the system property which contains the argument string that is passed to the agent.
+     */
+    public static final String AGENT_ARGS_PROPERTY = "jtimber.bench.agentArgs";
+
+    public static void main(String[] args) throws Exception {
+
+        List<String> jmhArgs = new ArrayList<>();
+        jmhArgs.add("-jvmArgsPrepend");
+        jmhArgs.add(getAgentArgument(""));
+        jmhArgs.add("-prof");
+        jmhArgs.add("gc");
+        jmhArgs.addAll(Arrays.asList(args));
+
+        Main.main(jmhArgs.toArray(new String[jmhArgs.size()]));
+    }
+
+    /**
+     * Returns the {@code -javaagent} JVM argument which attaches the runtime hook to the forked benchmark JVMs.
+     * The agent options are the ones from the system property {@link #AGENT_ARGS_PROPERTY}, followed by the given additional options.
+     * 
+     * @param additionalAgentArgs Additional agent options which should be passed to the agent. May be empty.
+     * @return The {@code -javaagent} JVM argument.
+     */
+    public static String getAgentArgument(String additionalAgentArgs) {
+
+        StringBuilder agentArgs = new StringBuilder(System.getProperty(AGENT_ARGS_PROPERTY, ""));
+        if (!additionalAgentArgs.isEmpty()) {
+            agentArgs.append(agentArgs.length() == 0 ? "" : ",").append(additionalAgentArgs);
+        }
+
+        return "-javaagent:" + BenchmarkFiles.getAgentJar() + (agentArgs.length() == 0 ? "" : "=" + agentArgs);
+    }
+
+    private BenchmarkRunner() {
+
+    }
+
+}
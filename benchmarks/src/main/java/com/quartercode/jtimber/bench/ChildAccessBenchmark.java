@@ -0,0 +1,84 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.quartercode.jtimber.bench.node.NarrowNode;
+import com.quartercode.jtimber.bench.node.WideNode;
+
+/**
+ * Measures the child accessors ({@code getChildren()} and {@code getChildCount()}) which the runtime hook generates for each node class.
+ * A narrow node with 2 child fields is compared with a wide node with 32 child fields.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (2)
+@State (Scope.Thread)
+public class ChildAccessBenchmark {
+
+    private NarrowNode narrowNode;
+    private WideNode   wideNode;
+
+    @Setup
+    public void setup() {
+
+        AgentCheck.requireAgent();
+
+        narrowNode = new NarrowNode();
+        wideNode = new WideNode();
+    }
+
+    @Benchmark
+    public List<Object> getChildrenNarrow() {
+
+        return narrowNode.getChildren();
+    }
+
+    @Benchmark
+    public int getChildCountNarrow() {
+
+        return narrowNode.getChildCount();
+    }
+
+    @Benchmark
+    public List<Object> getChildrenWide() {
+
+        return wideNode.getChildren();
+    }
+
+    @Benchmark
+    public int getChildCountWide() {
+
+        return wideNode.getChildCount();
+    }
+
+}
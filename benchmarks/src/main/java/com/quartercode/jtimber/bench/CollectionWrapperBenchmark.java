@@ -0,0 +1,119 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.quartercode.jtimber.api.node.wrapper.collection.CollectionWrapper;
+import com.quartercode.jtimber.bench.node.Leaf;
+
+/**
+ * Measures the operations of a {@link CollectionWrapper} around a {@link java.util.HashSet} with a varying amount of elements.
+ * The wrapper has one parent, so each added or removed element needs to be updated.
+ * All benchmarks leave the collection in its initial state.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (2)
+@State (Scope.Thread)
+public class CollectionWrapperBenchmark {
+
+    @Param ({ "10", "1000", "100000", "1000000" })
+    private int                     size;
+
+    private CollectionWrapper<Leaf> wrapper;
+    private Leaf                    someElement;
+    private Leaf                    newElement;
+    private Leaf                    newParent;
+
+    @Setup
+    public void setup() {
+
+        AgentCheck.requireAgent();
+
+        Set<Leaf> elements = new HashSet<>();
+        for (int index = 0; index < size; index++) {
+            elements.add(new Leaf());
+        }
+
+        wrapper = new CollectionWrapper<>(elements);
+        wrapper.addParent(new Leaf());
+
+        someElement = elements.iterator().next();
+        newElement = new Leaf();
+        newParent = new Leaf();
+    }
+
+    @Benchmark
+    public void addRemove() {
+
+        wrapper.add(newElement);
+        wrapper.remove(newElement);
+    }
+
+    @Benchmark
+    public boolean contains() {
+
+        return wrapper.contains(someElement);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+
+        for (Leaf element : wrapper) {
+            blackhole.consume(element);
+        }
+    }
+
+    /*
+     * The wrapped collection is no list, so it needs to be copied.
+     */
+    @Benchmark
+    public List<Object> getActualChildren() {
+
+        return wrapper.getActualChildren();
+    }
+
+    /*
+     * Adds a second parent to the wrapper and removes it again; both operations are propagated to all elements.
+     */
+    @Benchmark
+    public void addRemoveParent() {
+
+        wrapper.addParent(newParent);
+        wrapper.removeParent(newParent);
+    }
+
+}
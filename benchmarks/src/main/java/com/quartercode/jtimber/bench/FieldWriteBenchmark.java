@@ -0,0 +1,123 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.quartercode.jtimber.bench.node.Leaf;
+import com.quartercode.jtimber.bench.node.PlainHolder;
+import com.quartercode.jtimber.bench.node.WriterNode;
+
+/**
+ * Measures the cost of the parent watchers which the runtime hook inserts into the field writes of node classes.
+ * Writes of parent-aware and plain values are compared with the same writes into a class which isn't instrumented ({@link PlainHolder}).
+ * Each write either stores the value which is already present or a different one.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (2)
+@State (Scope.Thread)
+public class FieldWriteBenchmark {
+
+    private WriterNode  node;
+    private PlainHolder holder;
+
+    private Leaf        firstChild;
+    private Leaf        secondChild;
+    private String      firstName;
+    private String      secondName;
+    private boolean     flip;
+
+    @Setup
+    public void setup() {
+
+        AgentCheck.requireAgent();
+
+        node = new WriterNode();
+        holder = new PlainHolder();
+
+        firstChild = new Leaf();
+        secondChild = new Leaf();
+        firstName = "first";
+        secondName = "second";
+
+        node.setChild(firstChild);
+        node.setName(firstName);
+        holder.setChild(firstChild);
+        holder.setName(firstName);
+    }
+
+    @Benchmark
+    public void parentAwareSameValue() {
+
+        node.setChild(firstChild);
+    }
+
+    @Benchmark
+    public void parentAwareNewValue() {
+
+        flip = !flip;
+        node.setChild(flip ? secondChild : firstChild);
+    }
+
+    @Benchmark
+    public void plainSameValue() {
+
+        node.setName(firstName);
+    }
+
+    @Benchmark
+    public void plainNewValue() {
+
+        flip = !flip;
+        node.setName(flip ? secondName : firstName);
+    }
+
+    @Benchmark
+    public void baselineParentAwareSameValue() {
+
+        holder.setChild(firstChild);
+    }
+
+    @Benchmark
+    public void baselineParentAwareNewValue() {
+
+        flip = !flip;
+        holder.setChild(flip ? secondChild : firstChild);
+    }
+
+    @Benchmark
+    public void baselinePlainNewValue() {
+
+        flip = !flip;
+        holder.setName(flip ? secondName : firstName);
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.quartercode.jtimber.api.node.wrapper.collection.ArrayWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.CollectionWrapper;
+import com.quartercode.jtimber.bench.node.Leaf;
+
+/**
+ * Compares sequential and parallel parent fan-out of huge wrappers.
+ * The {@code threshold} parameter is the {@link com.quartercode.jtimber.api.node.wrapper.AbstractWrapper#getParallelThreshold() parallel threshold} of the wrappers;
+ * {@code 2147483647} disables parallel fan-out, while {@code 0} always uses it.
+ * The {@code parallelism} parameter is the parallelism of a dedicated {@link com.quartercode.jtimber.api.node.wrapper.AbstractWrapper#getParallelPool() parallel pool};
+ * {@code 0} uses the common pool, which doesn't fan out in parallel on single-core machines.
+ * The speedup depends on the amount of available cores; a dedicated pool with more threads than cores doesn't speed anything up.
+ * All benchmarks leave the wrappers in their initial state.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (2)
+@State (Scope.Thread)
+public class ParallelFanOutBenchmark {
+
+    @Param ({ "100000", "1000000", "4000000" })
+    private int                     size;
+
+    @Param ({ "2147483647", "0" })
+    private int                     threshold;
+
+    @Param ({ "0" })
+    private int                     parallelism;
+
+    private ForkJoinPool            pool;
+    private CollectionWrapper<Leaf> listWrapper;
+    private ArrayWrapper<Leaf>      arrayWrapper;
+    private Leaf                    newParent;
+
+    @Setup
+    public void setup() {
+
+        AgentCheck.requireAgent();
+
+        List<Leaf> elements = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            elements.add(new Leaf());
+        }
+
+        pool = parallelism == 0 ? null : new ForkJoinPool(parallelism);
+
+        listWrapper = new CollectionWrapper<>(elements);
+        listWrapper.setParallelThreshold(threshold);
+        listWrapper.setParallelPool(pool);
+        listWrapper.addParent(new Leaf());
+
+        arrayWrapper = new ArrayWrapper<>(elements.toArray(new Leaf[size]));
+        arrayWrapper.setParallelThreshold(threshold);
+        arrayWrapper.setParallelPool(pool);
+        arrayWrapper.addParent(new Leaf());
+
+        newParent = new Leaf();
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /*
+     * Adds a second parent to the list wrapper and removes it again; both operations are propagated to all elements.
+     */
+    @Benchmark
+    public void addRemoveParentList() {
+
+        listWrapper.addParent(newParent);
+        listWrapper.removeParent(newParent);
+    }
+
+    /*
+     * Adds a second parent to the array wrapper and removes it again; both operations are propagated to all elements.
+     */
+    @Benchmark
+    public void addRemoveParentArray() {
+
+        arrayWrapper.addParent(newParent);
+        arrayWrapper.removeParent(newParent);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.quartercode.jtimber.bench.node.Leaf;
+
+/**
+ * Measures {@code addParent()} and {@code removeParent()} of the default parent-aware implementation on objects which already have a varying amount of parents.
+ * Each benchmark adds and removes a parent, so the parent count stays constant.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (2)
+@State (Scope.Thread)
+public class ParentAwareBenchmark {
+
+    @Param ({ "1", "10", "100", "1000" })
+    private int    parentCount;
+
+    private Leaf   leaf;
+    private Leaf[] parents;
+    private Leaf   newParent;
+    private int    nextParent;
+
+    @Setup
+    public void setup() {
+
+        AgentCheck.requireAgent();
+
+        leaf = new Leaf();
+        parents = new Leaf[parentCount];
+        for (int index = 0; index < parentCount; index++) {
+            parents[index] = new Leaf();
+            leaf.addParent(parents[index]);
+        }
+
+        newParent = new Leaf();
+    }
+
+    /*
+     * Adds a new parent (with parent type check) and removes it again; the removal needs to search through all parents.
+     */
+    @Benchmark
+    public void addRemoveNewestParent() {
+
+        leaf.addParent(newParent);
+        leaf.removeParent(newParent);
+    }
+
+    /*
+     * Like addRemoveNewestParent(), but without the parent type check.
+     */
+    @Benchmark
+    public void addRemoveNewestParentUnchecked() {
+
+        leaf.addParentUnchecked(newParent);
+        leaf.removeParent(newParent);
+    }
+
+    /*
+     * Removes the oldest parent and adds it again; the removal needs to shift all other parents.
+     */
+    @Benchmark
+    public void removeAddOldestParent() {
+
+        Leaf parent = parents[nextParent];
+        leaf.removeParent(parent);
+        leaf.addParentUnchecked(parent);
+
+        // The re-added parent is now the newest one, so the next parent in the array is the oldest one
+        nextParent = (nextParent + 1) % parentCount;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.jaxb;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.SubstituteWithWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+
+/**
+ * The root node of the trees which are persisted by the {@link JAXBRoundTripBenchmark}.
+ * A catalog contains the top-level {@link Entry entries}.
+ */
+@XmlRootElement
+@XmlAccessorType (XmlAccessType.FIELD)
+public class Catalog extends DefaultNode<Node<?>> {
+
+    @XmlElement (name = "entry")
+    @SubstituteWithWrapper (ListWrapper.class)
+    private List<Entry> entries;
+
+    // JAXB constructor; the list is wrapped after unmarshalling
+    protected Catalog() {
+
+        entries = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new empty catalog.
+     * 
+     * @param tracked Whether the entry list should be wrapped into a {@link ListWrapper}.
+     *        That is only possible if the catalog class has been transformed by the runtime hook.
+     */
+    public Catalog(boolean tracked) {
+
+        entries = tracked ? new ListWrapper<>(new ArrayList<Entry>()) : new ArrayList<Entry>();
+    }
+
+    public List<Entry> getEntries() {
+
+        return entries;
+    }
+
+}
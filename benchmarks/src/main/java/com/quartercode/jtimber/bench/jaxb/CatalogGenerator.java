@@ -0,0 +1,89 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.jaxb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import com.quartercode.jtimber.api.node.ref.WeakPAReference;
+
+/**
+ * A utility class which generates {@link Catalog}s with a given amount of {@link Entry entries}.
+ * The entries are arranged breadth-first with a fixed fan-out. Some entries reference a random other entry through a {@link WeakPAReference}.
+ */
+public class CatalogGenerator {
+
+    /**
+     * Returns whether the catalog classes have been transformed by the runtime hook.
+     * If they have been excluded from the transformation, the generated catalogs don't use any wrappers.
+     * 
+     * @return Whether the catalog classes are transformed.
+     */
+    public static boolean isTracked() {
+
+        try {
+            // The runtime hook generates a "getChildren()" method in each node class
+            Entry.class.getDeclaredMethod("getChildren");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Generates a new catalog.
+     * 
+     * @param entryCount The total amount of entries in the catalog.
+     * @param fanOut The amount of entries in the catalog itself and the amount of sub-entries each entry has.
+     * @param linkRatio The probability with which an entry references another entry.
+     * @param seed The seed of the random generator which makes the random decisions; the same seed always results in the same catalog.
+     * @return The generated catalog.
+     */
+    public static Catalog generate(int entryCount, int fanOut, double linkRatio, long seed) {
+
+        boolean tracked = isTracked();
+        Random random = new Random(seed);
+
+        Catalog catalog = new Catalog(tracked);
+        List<Entry> entries = new ArrayList<>(entryCount);
+
+        for (int index = 0; index < entryCount; index++) {
+            Entry entry = new Entry("e" + index, "Entry " + index, tracked);
+
+            if (index < fanOut) {
+                catalog.getEntries().add(entry);
+            } else {
+                entries.get(index / fanOut - 1).getSubEntries().add(entry);
+            }
+
+            if (index > 0 && random.nextDouble() < linkRatio) {
+                entry.setLink(new WeakPAReference<>(entries.get(random.nextInt(index))));
+            }
+
+            entries.add(entry);
+        }
+
+        return catalog;
+    }
+
+    private CatalogGenerator() {
+
+    }
+
+}
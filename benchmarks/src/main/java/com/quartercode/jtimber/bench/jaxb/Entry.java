@@ -0,0 +1,101 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.jaxb;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlID;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.ref.WeakPAReference;
+import com.quartercode.jtimber.api.node.wrapper.SubstituteWithWrapper;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+
+/**
+ * An entry of a {@link Catalog}. Each entry can contain further sub-entries and can reference any other entry through a {@link WeakPAReference},
+ * which is persisted as an IDREF.
+ */
+@XmlAccessorType (XmlAccessType.FIELD)
+public class Entry extends DefaultNode<Node<?>> {
+
+    @XmlAttribute
+    @XmlID
+    private String                 id;
+
+    @XmlAttribute
+    private String                 name;
+
+    @XmlElement (name = "entry")
+    @SubstituteWithWrapper (ListWrapper.class)
+    private List<Entry>            subEntries;
+
+    @XmlElement
+    private WeakPAReference<Entry> link;
+
+    // JAXB constructor; the list is wrapped after unmarshalling
+    protected Entry() {
+
+        subEntries = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new entry without any sub-entries.
+     * 
+     * @param id The unique id of the new entry.
+     * @param name The name of the new entry.
+     * @param tracked Whether the sub-entry list should be wrapped into a {@link ListWrapper}.
+     *        That is only possible if the entry class has been transformed by the runtime hook.
+     */
+    public Entry(String id, String name, boolean tracked) {
+
+        this.id = id;
+        this.name = name;
+        subEntries = tracked ? new ListWrapper<>(new ArrayList<Entry>()) : new ArrayList<Entry>();
+    }
+
+    public String getId() {
+
+        return id;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public List<Entry> getSubEntries() {
+
+        return subEntries;
+    }
+
+    public WeakPAReference<Entry> getLink() {
+
+        return link;
+    }
+
+    public void setLink(WeakPAReference<Entry> link) {
+
+        this.link = link;
+    }
+
+}
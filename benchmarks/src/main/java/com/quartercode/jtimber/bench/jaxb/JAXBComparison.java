@@ -0,0 +1,109 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.jaxb;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.quartercode.jtimber.bench.BenchmarkRunner;
+
+/**
+ * Runs the {@link JAXBRoundTripBenchmark} twice: once with the catalog classes transformed by the runtime hook ("tracked") and once with them excluded
+ * from the transformation using the {@code exclude} agent option ("plain").
+ * Afterwards, a table with the throughput, the allocated bytes per operation and the share of time spent in JTimber-generated code
+ * ({@code (tracked - plain) / tracked}) is printed.<br>
+ * <br>
+ * All command line arguments are passed to JMH. For example, the following command only compares catalogs with 10k and 1M entries:
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar com.quartercode.jtimber.bench.jaxb.JAXBComparison -p entries=10000,1000000
+ * </pre>
+ */
+public class JAXBComparison {
+
+    private static final String EXCLUDE_AGENT_ARGS = "exclude=" + Catalog.class.getPackage().getName();
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        Map<String, RunResult> tracked = run(commandLine, "");
+        Map<String, RunResult> plain = run(commandLine, EXCLUDE_AGENT_ARGS);
+
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-12s %10s %12s %12s %9s %15s %15s %15s", "Operation", "Entries", "Tracked ms", "Plain ms", "JTimber", "Tracked ent/s",
+                "Tracked B/op", "Plain B/op"));
+
+        for (Map.Entry<String, RunResult> entry : tracked.entrySet()) {
+            RunResult trackedResult = entry.getValue();
+            RunResult plainResult = plain.get(entry.getKey());
+            if (plainResult == null) {
+                continue;
+            }
+
+            String operation = trackedResult.getParams().getBenchmark();
+            operation = operation.substring(operation.lastIndexOf('.') + 1);
+            int entries = Integer.parseInt(trackedResult.getParams().getParam("entries"));
+
+            double trackedMillis = trackedResult.getPrimaryResult().getScore();
+            double plainMillis = plainResult.getPrimaryResult().getScore();
+
+            System.out.println(String.format(Locale.ROOT, "%-12s %10d %12.1f %12.1f %8.1f%% %15.0f %15.0f %15.0f", operation, entries, trackedMillis, plainMillis,
+                    (trackedMillis - plainMillis) / trackedMillis * 100, entries / (trackedMillis / 1000), getAllocation(trackedResult), getAllocation(plainResult)));
+        }
+    }
+
+    /*
+     * Runs the round trip benchmark with the given additional agent arguments and returns the results by benchmark method and parameters.
+     */
+    private static Map<String, RunResult> run(CommandLineOptions commandLine, String agentArgs) throws RunnerException {
+
+        Options options = new OptionsBuilder().parent(commandLine).include(JAXBRoundTripBenchmark.class.getName()).jvmArgsPrepend(BenchmarkRunner.getAgentArgument(agentArgs))
+                .addProfiler(GCProfiler.class).build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, RunResult> resultMap = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            resultMap.put(result.getParams().getBenchmark() + " " + result.getParams().getParam("entries"), result);
+        }
+        return resultMap;
+    }
+
+    private static double getAllocation(RunResult result) {
+
+        Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+        return allocation == null ? Double.NaN : allocation.getScore();
+    }
+
+    private JAXBComparison() {
+
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+import com.quartercode.jtimber.bench.AgentCheck;
+
+/**
+ * Measures JAXB round trips of {@link Catalog}s with a varying amount of entries.
+ * Unmarshalling includes the generated {@code afterUnmarshal()} methods, which substitute the entry lists with {@link ListWrapper}s and restore all parents.
+ * Every tenth entry references another entry through a weak PA reference (IDREF).<br>
+ * <br>
+ * Since each operation processes a whole tree, single-shot times are measured.
+ * In order to determine the share of time spent in JTimber-generated code, the {@link JAXBComparison} runs this benchmark once with the catalog classes
+ * transformed by the runtime hook and once with them excluded from the transformation.
+ */
+@BenchmarkMode (Mode.SingleShotTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 3)
+@Measurement (iterations = 5)
+@Fork (1)
+@State (Scope.Benchmark)
+public class JAXBRoundTripBenchmark {
+
+    private static final int    FAN_OUT    = 8;
+    private static final double LINK_RATIO = 0.1;
+
+    @Param ({ "10000", "100000", "1000000", "5000000" })
+    private int                 entries;
+
+    private JAXBContext         context;
+    private Catalog             catalog;
+    private byte[]              xml;
+
+    @Setup
+    public void setup() throws JAXBException {
+
+        AgentCheck.requireAgent();
+
+        context = JAXBContext.newInstance(Catalog.class);
+        catalog = CatalogGenerator.generate(entries, FAN_OUT, LINK_RATIO, 42);
+        xml = marshal();
+
+        // Make sure that the generated afterUnmarshal() methods are actually executed
+        Catalog unmarshalled = unmarshal();
+        if (CatalogGenerator.isTracked() && unmarshalled.getEntries().get(0).getParentCount() != 1) {
+            throw new IllegalStateException("The parents of unmarshalled entries have not been restored");
+        }
+    }
+
+    @Benchmark
+    public byte[] marshal() throws JAXBException {
+
+        ByteArrayOutputStream output = xml == null ? new ByteArrayOutputStream() : new ByteArrayOutputStream(xml.length);
+        context.createMarshaller().marshal(catalog, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public Catalog unmarshal() throws JAXBException {
+
+        return (Catalog) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(xml));
+    }
+
+}
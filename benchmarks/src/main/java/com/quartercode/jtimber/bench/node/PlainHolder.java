@@ -0,0 +1,50 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.node;
+
+/**
+ * A class which has the same fields as the {@link WriterNode}, but isn't a node.
+ * Therefore, writes to its fields are not instrumented, which makes it the baseline for the field write benchmarks.
+ */
+public class PlainHolder {
+
+    private Leaf   child;
+    private String name;
+
+    public void setChild(Leaf child) {
+
+        this.child = child;
+    }
+
+    public Leaf getChild() {
+
+        return child;
+    }
+
+    public void setName(String name) {
+
+        this.name = name;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+}
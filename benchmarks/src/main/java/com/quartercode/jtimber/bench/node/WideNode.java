@@ -0,0 +1,62 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.node;
+
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+
+/**
+ * A node with 32 child fields.
+ */
+public class WideNode extends DefaultNode<Node<?>> {
+
+    private final Leaf child00 = new Leaf();
+    private final Leaf child01 = new Leaf();
+    private final Leaf child02 = new Leaf();
+    private final Leaf child03 = new Leaf();
+    private final Leaf child04 = new Leaf();
+    private final Leaf child05 = new Leaf();
+    private final Leaf child06 = new Leaf();
+    private final Leaf child07 = new Leaf();
+    private final Leaf child08 = new Leaf();
+    private final Leaf child09 = new Leaf();
+    private final Leaf child10 = new Leaf();
+    private final Leaf child11 = new Leaf();
+    private final Leaf child12 = new Leaf();
+    private final Leaf child13 = new Leaf();
+    private final Leaf child14 = new Leaf();
+    private final Leaf child15 = new Leaf();
+    private final Leaf child16 = new Leaf();
+    private final Leaf child17 = new Leaf();
+    private final Leaf child18 = new Leaf();
+    private final Leaf child19 = new Leaf();
+    private final Leaf child20 = new Leaf();
+    private final Leaf child21 = new Leaf();
+    private final Leaf child22 = new Leaf();
+    private final Leaf child23 = new Leaf();
+    private final Leaf child24 = new Leaf();
+    private final Leaf child25 = new Leaf();
+    private final Leaf child26 = new Leaf();
+    private final Leaf child27 = new Leaf();
+    private final Leaf child28 = new Leaf();
+    private final Leaf child29 = new Leaf();
+    private final Leaf child30 = new Leaf();
+    private final Leaf child31 = new Leaf();
+
+}
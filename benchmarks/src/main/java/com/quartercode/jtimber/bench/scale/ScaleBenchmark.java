@@ -0,0 +1,322 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.scale;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.bench.AgentCheck;
+import com.quartercode.jtimber.bench.scale.TreeGenerator.GeneratedTree;
+
+/**
+ * A macro benchmark which measures how JTimber behaves with large synthetic trees.
+ * For each requested tree size, the following values are measured:
+ * 
+ * <ul>
+ * <li>The time it takes to build the tree with the {@link TreeGenerator} (including all parent watchers and wrapper fan-outs).</li>
+ * <li>The time it takes to traverse the whole tree using the generated {@code getChildren()} accessors (the best of several runs).</li>
+ * <li>The throughput of reparenting operations, which swap field children between random nodes.</li>
+ * <li>The retained heap memory per node.</li>
+ * <li>The amount of garbage collections and the time spent in them, both during the build and in total.</li>
+ * </ul>
+ * 
+ * The results are printed and written into a CSV and a JSON file. The benchmark must be run with the runtime hook attached, for example:
+ * 
+ * <pre>
+ * java -javaagent:target/jtimber-runtime-hook.jar -Xmx32g -cp target/benchmarks.jar com.quartercode.jtimber.bench.scale.ScaleBenchmark sizes=10000,1000000,50000000 sharedRatio=0.1
+ * </pre>
+ * 
+ * All arguments are {@code key=value} options. The following options are available:
+ * 
+ * <ul>
+ * <li>{@code sizes}: The comma-separated amounts of tree nodes. The default is {@code 10000,100000,1000000,10000000,50000000}.
+ * Sizes which most likely don't fit into the maximum heap (estimated using the previous results) are skipped.</li>
+ * <li>{@code fanOut}, {@code maxDepth}, {@code sharedRatio}, {@code wrapperRatio}, {@code nodeClasses}, {@code seed}: The {@link TreeShape} parameters.
+ * The defaults are {@code 8}, {@code 0} (unlimited), {@code 0}, {@code 0.25}, {@code 4} and {@code 42}.</li>
+ * <li>{@code reparentOps}: The amount of reparenting operations. The default is {@code 1000000}.</li>
+ * <li>{@code traversals}: The amount of full traversals per tree. The default is {@code 3}.</li>
+ * <li>{@code out}: The path of the result files without extension. The default is {@code scale-results}.</li>
+ * </ul>
+ */
+public class ScaleBenchmark {
+
+    private static final int    WARMUP_NODES       = 10000;
+    private static final int    REPARENT_SAMPLE    = 100000;
+    private static final double HEAP_SAFETY_FACTOR = 1.5;
+
+    private List<Integer>       sizes              = Arrays.asList(10000, 100000, 1000000, 10000000, 50000000);
+    private int                 fanOut             = 8;
+    private int                 maxDepth;
+    private double              sharedRatio;
+    private double              wrapperRatio       = 0.25;
+    private int                 nodeClasses        = 4;
+    private long                seed               = 42;
+    private int                 reparentOps        = 1000000;
+    private int                 traversals         = 3;
+    private Path                out                = Paths.get("scale-results");
+
+    public static void main(String[] args) throws IOException {
+
+        AgentCheck.requireAgent();
+
+        ScaleBenchmark benchmark = new ScaleBenchmark();
+        benchmark.parseOptions(args);
+        benchmark.run();
+    }
+
+    private void parseOptions(String[] args) {
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Option '" + arg + "' doesn't have a value");
+            }
+
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+
+            switch (key) {
+                case "sizes":
+                    sizes = new ArrayList<>();
+                    for (String size : value.split(",")) {
+                        sizes.add(Integer.parseInt(size.trim()));
+                    }
+                    break;
+                case "fanOut":
+                    fanOut = Integer.parseInt(value);
+                    break;
+                case "maxDepth":
+                    maxDepth = Integer.parseInt(value);
+                    break;
+                case "sharedRatio":
+                    sharedRatio = Double.parseDouble(value);
+                    break;
+                case "wrapperRatio":
+                    wrapperRatio = Double.parseDouble(value);
+                    break;
+                case "nodeClasses":
+                    nodeClasses = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "reparentOps":
+                    reparentOps = Integer.parseInt(value);
+                    break;
+                case "traversals":
+                    traversals = Integer.parseInt(value);
+                    break;
+                case "out":
+                    out = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option '" + key + "'");
+            }
+        }
+    }
+
+    private void run() throws IOException {
+
+        TreeShape shape = new TreeShape(fanOut, maxDepth, sharedRatio, wrapperRatio, nodeClasses, seed);
+
+        // Warm up the JIT compiler with a small tree whose results are discarded
+        measure(shape, WARMUP_NODES);
+
+        List<ScaleResult> results = new ArrayList<>();
+        System.out.println(ScaleResult.CSV_HEADER);
+
+        for (int size : sizes) {
+            if (!results.isEmpty()) {
+                double estimatedBytes = results.get(results.size() - 1).bytesPerNode * size * HEAP_SAFETY_FACTOR;
+                if (estimatedBytes > Runtime.getRuntime().maxMemory()) {
+                    System.err.println("Skipping " + size + " nodes since the tree would most likely not fit into the heap (increase -Xmx)");
+                    continue;
+                }
+            }
+
+            ScaleResult result = measure(shape, size);
+            results.add(result);
+            System.out.println(result.toCsv());
+        }
+
+        writeResults(results);
+    }
+
+    private ScaleResult measure(TreeShape shape, int size) {
+
+        ScaleResult result = new ScaleResult();
+        result.requestedNodes = size;
+
+        long heapBefore = usedHeapAfterGc();
+        long[] gcBefore = gcStats();
+
+        // Build
+        long buildStart = System.nanoTime();
+        GeneratedTree tree = new TreeGenerator(shape).generate(size);
+        result.buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        long[] gcAfterBuild = gcStats();
+        result.buildGcCount = gcAfterBuild[0] - gcBefore[0];
+        result.buildGcMillis = gcAfterBuild[1] - gcBefore[1];
+        result.nodes = tree.getNodeCount();
+        result.sharedLinks = tree.getSharedLinks();
+        result.depth = tree.getDepth();
+
+        // Memory
+        result.bytesPerNode = (double) (usedHeapAfterGc() - heapBefore) / tree.getNodeCount();
+
+        // Traversal
+        result.traversalMillis = Double.MAX_VALUE;
+        for (int run = 0; run < traversals; run++) {
+            long traversalStart = System.nanoTime();
+            long visited = traverse(tree.getRoot(), null);
+            result.traversalMillis = Math.min(result.traversalMillis, (System.nanoTime() - traversalStart) / 1e6);
+
+            if (visited != tree.getNodeCount()) {
+                throw new IllegalStateException("Traversal visited " + visited + " nodes, but the tree has " + tree.getNodeCount() + " nodes");
+            }
+        }
+
+        // Reparenting; the nodes and slots are chosen before the measurement
+        ScaleNode[] sample = new ScaleNode[Math.min(REPARENT_SAMPLE, tree.getNodeCount())];
+        traverse(tree.getRoot(), sample);
+        Random random = new Random(shape.getSeed());
+        int[] operations = new int[reparentOps * 2];
+        for (int index = 0; index < operations.length; index++) {
+            operations[index] = random.nextInt(sample.length);
+        }
+
+        long reparentStart = System.nanoTime();
+        for (int operation = 0; operation < reparentOps; operation++) {
+            ScaleNode first = sample[operations[operation * 2]];
+            ScaleNode second = sample[operations[operation * 2 + 1]];
+            int slot = operation % ScaleNode.FIELD_SLOTS;
+
+            ScaleNode firstChild = first.getFieldChild(slot);
+            first.setFieldChild(slot, second.getFieldChild(slot));
+            second.setFieldChild(slot, firstChild);
+        }
+        result.reparentOpsPerSecond = reparentOps / ((System.nanoTime() - reparentStart) / 1e9);
+
+        long[] gcAfter = gcStats();
+        result.totalGcCount = gcAfter[0] - gcBefore[0];
+        result.totalGcMillis = gcAfter[1] - gcBefore[1];
+
+        return result;
+    }
+
+    /*
+     * Visits all nodes of the given tree depth-first and returns the amount of visited nodes.
+     * Only nodes with more than one parent can be reached twice; therefore, only those nodes are remembered.
+     * If a sample array is provided, it is filled with randomly chosen nodes (reservoir sampling).
+     */
+    private long traverse(ScaleNode root, ScaleNode[] sample) {
+
+        Set<Object> visitedShared = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Deque<Node<?>> stack = new ArrayDeque<>();
+        Random random = sample == null ? null : new Random(seed);
+        long visited = 0;
+
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<?> node = stack.pop();
+
+            if (sample != null) {
+                if (visited < sample.length) {
+                    sample[(int) visited] = (ScaleNode) node;
+                } else {
+                    long index = (long) (random.nextDouble() * (visited + 1));
+                    if (index < sample.length) {
+                        sample[(int) index] = (ScaleNode) node;
+                    }
+                }
+            }
+            visited++;
+
+            for (Object child : node.getChildren()) {
+                if (child instanceof Node) {
+                    Node<?> childNode = (Node<?>) child;
+                    if (childNode.getParentCount() <= 1 || visitedShared.add(childNode)) {
+                        stack.push(childNode);
+                    }
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    private static long usedHeapAfterGc() {
+
+        for (int run = 0; run < 3; run++) {
+            System.gc();
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /*
+     * Returns the total amount of garbage collections and the total time spent in them (in milliseconds) since the JVM has been started.
+     */
+    private static long[] gcStats() {
+
+        long[] stats = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            stats[0] += Math.max(gc.getCollectionCount(), 0);
+            stats[1] += Math.max(gc.getCollectionTime(), 0);
+        }
+        return stats;
+    }
+
+    private void writeResults(List<ScaleResult> results) throws IOException {
+
+        List<String> csv = new ArrayList<>();
+        csv.add(ScaleResult.CSV_HEADER);
+
+        StringBuilder json = new StringBuilder("[\n");
+        for (int index = 0; index < results.size(); index++) {
+            csv.add(results.get(index).toCsv());
+            json.append("  ").append(results.get(index).toJson()).append(index + 1 < results.size() ? ",\n" : "\n");
+        }
+        json.append("]\n");
+
+        Path csvFile = out.resolveSibling(out.getFileName() + ".csv");
+        Path jsonFile = out.resolveSibling(out.getFileName() + ".json");
+        Files.write(csvFile, csv, StandardCharsets.UTF_8);
+        Files.write(jsonFile, json.toString().getBytes(StandardCharsets.UTF_8));
+
+        System.out.println("Results written to '" + csvFile + "' and '" + jsonFile + "'");
+    }
+
+}
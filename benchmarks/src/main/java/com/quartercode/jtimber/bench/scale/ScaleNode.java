@@ -0,0 +1,263 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.scale;
+
+import java.util.ArrayList;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;
+
+/**
+ * The node class of the synthetic trees which are built by the {@link TreeGenerator}.
+ * Each scale node stores up to {@link #FIELD_SLOTS} children in plain fields and any amount of further children in a {@link ListWrapper}.
+ * The wrapper is only created when the first child is added to it.<br>
+ * <br>
+ * In order to simulate trees with many different node classes, there are {@link #TYPES} empty subclasses.
+ * They make the call sites of the generated child accessors polymorphic.
+ */
+public abstract class ScaleNode extends DefaultNode<Node<?>> {
+
+    /**
+     * The amount of children which can be stored in plain fields.
+     */
+    public static final int        FIELD_SLOTS = 4;
+
+    /**
+     * The amount of available scale node subclasses.
+     */
+    public static final int        TYPES       = 8;
+
+    private final int              id;
+
+    private ScaleNode              child0;
+    private ScaleNode              child1;
+    private ScaleNode              child2;
+    private ScaleNode              child3;
+    private ListWrapper<ScaleNode> children;
+
+    /**
+     * Creates a new scale node of the given type.
+     * 
+     * @param type The index of the scale node subclass which should be instantiated. Must be smaller than {@link #TYPES}.
+     * @param id The id of the new node.
+     * @return The new scale node.
+     */
+    public static ScaleNode create(int type, int id) {
+
+        switch (type) {
+            case 0:
+                return new Type0(id);
+            case 1:
+                return new Type1(id);
+            case 2:
+                return new Type2(id);
+            case 3:
+                return new Type3(id);
+            case 4:
+                return new Type4(id);
+            case 5:
+                return new Type5(id);
+            case 6:
+                return new Type6(id);
+            case 7:
+                return new Type7(id);
+            default:
+                throw new IllegalArgumentException("Unknown scale node type " + type);
+        }
+    }
+
+    /**
+     * Creates a new scale node.
+     * 
+     * @param id The id of the new node.
+     */
+    protected ScaleNode(int id) {
+
+        this.id = id;
+    }
+
+    /**
+     * Returns the id of the scale node, which is unique inside the tree the node was generated for.
+     * 
+     * @return The node id.
+     */
+    public int getId() {
+
+        return id;
+    }
+
+    /**
+     * Returns the child which is stored in the field with the given index.
+     * 
+     * @param slot The index of the field. Must be smaller than {@link #FIELD_SLOTS}.
+     * @return The child stored in the field, or {@code null}.
+     */
+    public ScaleNode getFieldChild(int slot) {
+
+        switch (slot) {
+            case 0:
+                return child0;
+            case 1:
+                return child1;
+            case 2:
+                return child2;
+            case 3:
+                return child3;
+            default:
+                throw new IndexOutOfBoundsException("Field slot " + slot);
+        }
+    }
+
+    /**
+     * Stores the given child in the field with the given index.
+     * 
+     * @param slot The index of the field. Must be smaller than {@link #FIELD_SLOTS}.
+     * @param child The child which should be stored in the field. May be {@code null}.
+     */
+    public void setFieldChild(int slot, ScaleNode child) {
+
+        switch (slot) {
+            case 0:
+                child0 = child;
+                break;
+            case 1:
+                child1 = child;
+                break;
+            case 2:
+                child2 = child;
+                break;
+            case 3:
+                child3 = child;
+                break;
+            default:
+                throw new IndexOutOfBoundsException("Field slot " + slot);
+        }
+    }
+
+    /**
+     * Adds the given child to the list wrapper. The wrapper is created if it doesn't exist yet.
+     * 
+     * @param child The child which should be added to the list wrapper.
+     */
+    public void addWrappedChild(ScaleNode child) {
+
+        if (children == null) {
+            children = new ListWrapper<>(new ArrayList<ScaleNode>());
+        }
+
+        children.add(child);
+    }
+
+    /**
+     * Scale node type 0.
+     */
+    public static class Type0 extends ScaleNode {
+
+        public Type0(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 1.
+     */
+    public static class Type1 extends ScaleNode {
+
+        public Type1(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 2.
+     */
+    public static class Type2 extends ScaleNode {
+
+        public Type2(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 3.
+     */
+    public static class Type3 extends ScaleNode {
+
+        public Type3(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 4.
+     */
+    public static class Type4 extends ScaleNode {
+
+        public Type4(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 5.
+     */
+    public static class Type5 extends ScaleNode {
+
+        public Type5(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 6.
+     */
+    public static class Type6 extends ScaleNode {
+
+        public Type6(int id) {
+
+            super(id);
+        }
+
+    }
+
+    /**
+     * Scale node type 7.
+     */
+    public static class Type7 extends ScaleNode {
+
+        public Type7(int id) {
+
+            super(id);
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.scale;
+
+import java.util.Locale;
+
+/**
+ * The measurements of one {@link ScaleBenchmark} run for a single tree size.
+ * Results can be formatted as CSV rows or JSON objects.
+ */
+public class ScaleResult {
+
+    /**
+     * The header row of the CSV format, which lists the names of all columns.
+     */
+    public static final String CSV_HEADER = "requestedNodes,nodes,sharedLinks,depth,buildMillis,traversalMillis,reparentOpsPerSecond,bytesPerNode,buildGcCount,buildGcMillis,totalGcCount,totalGcMillis";
+
+    int                        requestedNodes;
+    int                        nodes;
+    int                        sharedLinks;
+    int                        depth;
+    double                     buildMillis;
+    double                     traversalMillis;
+    double                     reparentOpsPerSecond;
+    double                     bytesPerNode;
+    long                       buildGcCount;
+    long                       buildGcMillis;
+    long                       totalGcCount;
+    long                       totalGcMillis;
+
+    /**
+     * Returns the result as a CSV row whose columns match the {@link #CSV_HEADER}.
+     * 
+     * @return The CSV row.
+     */
+    public String toCsv() {
+
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%.3f,%.3f,%.1f,%.1f,%d,%d,%d,%d", requestedNodes, nodes, sharedLinks, depth, buildMillis, traversalMillis, reparentOpsPerSecond, bytesPerNode,
+                buildGcCount, buildGcMillis, totalGcCount, totalGcMillis);
+    }
+
+    /**
+     * Returns the result as a JSON object whose keys are the column names of the {@link #CSV_HEADER}.
+     * 
+     * @return The JSON object.
+     */
+    public String toJson() {
+
+        String[] keys = CSV_HEADER.split(",");
+        String[] values = toCsv().split(",");
+
+        StringBuilder json = new StringBuilder("{");
+        for (int index = 0; index < keys.length; index++) {
+            json.append(index == 0 ? "" : ", ").append('"').append(keys[index]).append("\": ").append(values[index]);
+        }
+        return json.append('}').toString();
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.scale;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The tree generator builds synthetic trees of {@link ScaleNode}s with a given {@link TreeShape}.
+ * The tree is built breadth-first: each node which is taken from the queue receives {@link TreeShape#getFanOut()} children until the requested amount
+ * of nodes has been created.<br>
+ * <br>
+ * A shared subtree is created by adding a node which is still waiting in the queue as an additional child.
+ * Since all those nodes have been created after the current parent, they can never be one of its ancestors.
+ * Therefore, the generated graph is always acyclic.
+ */
+public class TreeGenerator {
+
+    private final TreeShape shape;
+
+    /**
+     * Creates a new tree generator.
+     * 
+     * @param shape The shape of the trees the generator builds.
+     */
+    public TreeGenerator(TreeShape shape) {
+
+        this.shape = shape;
+    }
+
+    /**
+     * Builds a new tree with the given amount of distinct nodes.
+     * If the maximum depth of the {@link TreeShape} is reached before, the tree has fewer nodes.
+     * 
+     * @param nodeCount The requested amount of distinct nodes.
+     * @return The generated tree.
+     */
+    public GeneratedTree generate(int nodeCount) {
+
+        Random random = new Random(shape.getSeed());
+
+        // All nodes in breadth-first order; the nodes after the head index form the queue
+        List<ScaleNode> nodes = new ArrayList<>(nodeCount);
+        List<Integer> depthStarts = new ArrayList<>();
+        int sharedLinks = 0;
+
+        ScaleNode root = createNode(random, 0);
+        nodes.add(root);
+        depthStarts.add(0);
+
+        for (int head = 0; head < nodes.size() && nodes.size() < nodeCount; head++) {
+            ScaleNode parent = nodes.get(head);
+
+            // Determine the depth of the parent using the recorded start indices of each depth
+            int depth = depthStarts.size() - 1;
+            while (depthStarts.get(depth) > head) {
+                depth--;
+            }
+
+            if (shape.getMaxDepth() != 0 && depth >= shape.getMaxDepth()) {
+                break;
+            }
+
+            boolean wrapped = random.nextDouble() < shape.getWrapperRatio();
+
+            for (int childIndex = 0; childIndex < shape.getFanOut() && nodes.size() < nodeCount; childIndex++) {
+                ScaleNode child;
+                if (nodes.size() > head + 1 && random.nextDouble() < shape.getSharedRatio()) {
+                    child = nodes.get(head + 1 + random.nextInt(nodes.size() - head - 1));
+                    sharedLinks++;
+                } else {
+                    if (depth + 1 == depthStarts.size()) {
+                        depthStarts.add(nodes.size());
+                    }
+
+                    child = createNode(random, nodes.size());
+                    nodes.add(child);
+                }
+
+                if (!wrapped && childIndex < ScaleNode.FIELD_SLOTS) {
+                    parent.setFieldChild(childIndex, child);
+                } else {
+                    parent.addWrappedChild(child);
+                }
+            }
+        }
+
+        return new GeneratedTree(root, nodes.size(), sharedLinks, depthStarts.size() - 1);
+    }
+
+    private ScaleNode createNode(Random random, int id) {
+
+        return ScaleNode.create(random.nextInt(shape.getNodeClasses()), id);
+    }
+
+    /**
+     * A tree which has been built by the {@link TreeGenerator}, along with some statistics about it.
+     */
+    public static class GeneratedTree {
+
+        private final ScaleNode root;
+        private final int       nodeCount;
+        private final int       sharedLinks;
+        private final int       depth;
+
+        private GeneratedTree(ScaleNode root, int nodeCount, int sharedLinks, int depth) {
+
+            this.root = root;
+            this.nodeCount = nodeCount;
+            this.sharedLinks = sharedLinks;
+            this.depth = depth;
+        }
+
+        public ScaleNode getRoot() {
+
+            return root;
+        }
+
+        /**
+         * Returns the amount of distinct nodes in the tree.
+         * 
+         * @return The node count.
+         */
+        public int getNodeCount() {
+
+            return nodeCount;
+        }
+
+        /**
+         * Returns the amount of child references which point to already existing subtrees.
+         * 
+         * @return The amount of shared subtree links.
+         */
+        public int getSharedLinks() {
+
+            return sharedLinks;
+        }
+
+        /**
+         * Returns the depth of the deepest node in the tree (the root has depth 0).
+         * 
+         * @return The tree depth.
+         */
+        public int getDepth() {
+
+            return depth;
+        }
+
+    }
+
+}
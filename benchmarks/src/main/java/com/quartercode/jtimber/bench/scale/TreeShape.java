@@ -0,0 +1,99 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.scale;
+
+/**
+ * The parameters which describe the shape of the synthetic trees built by the {@link TreeGenerator}.
+ * Tree shapes are immutable.
+ */
+public class TreeShape {
+
+    private final int    fanOut;
+    private final int    maxDepth;
+    private final double sharedRatio;
+    private final double wrapperRatio;
+    private final int    nodeClasses;
+    private final long   seed;
+
+    /**
+     * Creates a new tree shape.
+     * 
+     * @param fanOut The amount of children each inner node has.
+     * @param maxDepth The maximum depth of the tree (the root has depth 0). If this is {@code 0}, the depth is unlimited.
+     *        Note that a tree might not reach the requested amount of nodes if the depth is limited.
+     * @param sharedRatio The probability with which a child is an already existing subtree (which then has more than one parent) instead of a new node.
+     * @param wrapperRatio The probability with which an inner node stores all its children in its list wrapper instead of its fields.
+     *        Children which don't fit into the fields are always stored in the wrapper.
+     * @param nodeClasses The amount of different node classes the tree consists of (between 1 and {@link ScaleNode#TYPES}).
+     * @param seed The seed of the random generator which makes the random decisions; the same seed always results in the same tree.
+     * @throws IllegalArgumentException One of the parameters is out of range.
+     */
+    public TreeShape(int fanOut, int maxDepth, double sharedRatio, double wrapperRatio, int nodeClasses, long seed) {
+
+        if (fanOut < 1) {
+            throw new IllegalArgumentException("Fan-out must be positive");
+        } else if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth must not be negative");
+        } else if (sharedRatio < 0 || sharedRatio >= 1) {
+            throw new IllegalArgumentException("Shared subtree ratio must be in [0, 1)");
+        } else if (wrapperRatio < 0 || wrapperRatio > 1) {
+            throw new IllegalArgumentException("Wrapper ratio must be in [0, 1]");
+        } else if (nodeClasses < 1 || nodeClasses > ScaleNode.TYPES) {
+            throw new IllegalArgumentException("Node class count must be in [1, " + ScaleNode.TYPES + "]");
+        }
+
+        this.fanOut = fanOut;
+        this.maxDepth = maxDepth;
+        this.sharedRatio = sharedRatio;
+        this.wrapperRatio = wrapperRatio;
+        this.nodeClasses = nodeClasses;
+        this.seed = seed;
+    }
+
+    public int getFanOut() {
+
+        return fanOut;
+    }
+
+    public int getMaxDepth() {
+
+        return maxDepth;
+    }
+
+    public double getSharedRatio() {
+
+        return sharedRatio;
+    }
+
+    public double getWrapperRatio() {
+
+        return wrapperRatio;
+    }
+
+    public int getNodeClasses() {
+
+        return nodeClasses;
+    }
+
+    public long getSeed() {
+
+        return seed;
+    }
+
+}
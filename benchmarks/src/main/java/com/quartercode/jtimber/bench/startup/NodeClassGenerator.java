@@ -0,0 +1,267 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.startup;
+
+import java.io.IOException;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import com.quartercode.jtimber.bench.BenchmarkFiles;
+
+/**
+ * The node class generator creates the source code of many synthetic node classes, compiles them with the compiler hook and packages them into several JARs.
+ * The generated classes resemble real node classes: they have a varying amount of fields of different types, some of them extend other generated node classes,
+ * and some of them use wrappers and {@code @SubstituteWithWrapper} fields.<br>
+ * <br>
+ * The classes are distributed round-robin over the packages {@code gen.j0}, {@code gen.j1} etc. Each package is packaged into its own JAR.
+ * Moreover, the binary names of all generated classes are written into a class list file.
+ */
+public class NodeClassGenerator {
+
+    private static final String PROCESSOR = "com.quartercode.jtimber.ch.ap.TimberIndexerAP";
+
+    private final int           classCount;
+    private final int           jarCount;
+    private final int           fieldsPerClass;
+    private final long          seed;
+
+    /**
+     * Creates a new node class generator.
+     * 
+     * @param classCount The amount of node classes which should be generated.
+     * @param jarCount The amount of JARs the node classes should be distributed over.
+     * @param fieldsPerClass The average amount of fields each node class declares.
+     * @param seed The seed of the random generator which makes the random decisions; the same seed always results in the same classes.
+     */
+    public NodeClassGenerator(int classCount, int jarCount, int fieldsPerClass, long seed) {
+
+        if (classCount < 1 || jarCount < 1 || jarCount > classCount || fieldsPerClass < 0) {
+            throw new IllegalArgumentException("Invalid node class generator parameters");
+        }
+
+        this.classCount = classCount;
+        this.jarCount = jarCount;
+        this.fieldsPerClass = fieldsPerClass;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates, compiles and packages the node classes inside the given working directory.
+     * Existing contents of the directory are deleted first.
+     * 
+     * @param directory The working directory.
+     * @return The generated JARs.
+     * @throws IOException Something goes wrong while writing the files.
+     * @throws IllegalStateException No Java compiler is available or the compilation fails.
+     */
+    public List<Path> generate(Path directory) throws IOException {
+
+        deleteRecursively(directory);
+        Path sourceDirectory = Files.createDirectories(directory.resolve("src"));
+        Path classDirectory = Files.createDirectories(directory.resolve("classes"));
+
+        Random random = new Random(seed);
+        List<Path> sourceFiles = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+
+        for (int index = 0; index < classCount; index++) {
+            String packageName = getPackage(index);
+            Path sourceFile = Files.createDirectories(sourceDirectory.resolve(packageName.replace('.', '/'))).resolve("Node" + index + ".java");
+            Files.write(sourceFile, generateSource(index, random).getBytes(StandardCharsets.UTF_8));
+
+            sourceFiles.add(sourceFile);
+            classNames.add(packageName + ".Node" + index);
+        }
+
+        Files.write(getClassList(directory), classNames, StandardCharsets.UTF_8);
+
+        compile(sourceFiles, classDirectory);
+
+        List<Path> jars = new ArrayList<>();
+        Path jarDirectory = Files.createDirectories(directory.resolve("jars"));
+        for (int jar = 0; jar < jarCount; jar++) {
+            Path jarFile = jarDirectory.resolve("nodes-" + jar + ".jar");
+            packageJar(classDirectory, getPackage(jar), jarFile);
+            jars.add(jarFile);
+        }
+
+        return jars;
+    }
+
+    /**
+     * Returns the class list file inside the given working directory. It contains the binary names of all generated classes, one per line.
+     * 
+     * @param directory The working directory.
+     * @return The class list file.
+     */
+    public static Path getClassList(Path directory) {
+
+        return directory.resolve("classes.txt");
+    }
+
+    private String getPackage(int classIndex) {
+
+        return "gen.j" + classIndex % jarCount;
+    }
+
+    private String getClassName(int classIndex) {
+
+        return getPackage(classIndex) + ".Node" + classIndex;
+    }
+
+    private String generateSource(int index, Random random) {
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(getPackage(index)).append(";\n\n");
+        source.append("import java.util.ArrayList;\n");
+        source.append("import java.util.List;\n");
+        source.append("import com.quartercode.jtimber.api.node.DefaultNode;\n");
+        source.append("import com.quartercode.jtimber.api.node.Node;\n");
+        source.append("import com.quartercode.jtimber.api.node.wrapper.SubstituteWithWrapper;\n");
+        source.append("import com.quartercode.jtimber.api.node.wrapper.collection.ListWrapper;\n\n");
+
+        // Some classes extend a previously generated class of the same package
+        String superclass = index >= jarCount && random.nextDouble() < 0.2 ? getClassName(index - jarCount) : "DefaultNode<Node<?>>";
+        source.append("public class Node").append(index).append(" extends ").append(superclass).append(" {\n\n");
+
+        int fieldCount = fieldsPerClass / 2 + random.nextInt(fieldsPerClass + 1);
+        for (int field = 0; field < fieldCount; field++) {
+            double kind = random.nextDouble();
+            String other = getClassName(random.nextInt(classCount));
+
+            if (kind < 0.35) {
+                source.append("    private String field").append(field).append(" = \"value").append(field).append("\";\n");
+            } else if (kind < 0.55) {
+                source.append("    private int field").append(field).append(" = ").append(field).append(";\n");
+            } else if (kind < 0.85) {
+                source.append("    private ").append(other).append(" field").append(field).append(";\n");
+            } else if (kind < 0.95) {
+                source.append("    private ListWrapper<").append(other).append("> field").append(field).append(" = new ListWrapper<>(new ArrayList<").append(other).append(">());\n");
+            } else {
+                source.append("    @SubstituteWithWrapper (ListWrapper.class)\n");
+                source.append("    private List<").append(other).append("> field").append(field).append(" = new ArrayList<>();\n");
+            }
+        }
+
+        return source.append("\n}\n").toString();
+    }
+
+    private void compile(List<Path> sourceFiles, Path classDirectory) throws IOException {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available; run the benchmark with a JDK");
+        }
+
+        List<String> options = Arrays.asList("-d", classDirectory.toString(), "-classpath", BenchmarkFiles.getBenchmarkJar().toString(), "-processorpath",
+                BenchmarkFiles.getCompilerHookJar().toString(), "-processor", PROCESSOR, "-source", "1.8", "-target", "1.8", "-nowarn", "-Xlint:-options");
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            for (Path sourceFile : sourceFiles) {
+                files.add(sourceFile.toFile());
+            }
+
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            if (!compiler.getTask(null, fileManager, null, options, null, units).call()) {
+                throw new IllegalStateException("Compilation of the generated node classes failed");
+            }
+        }
+    }
+
+    /*
+     * Packages the classes of the given package and their index fragments into the given JAR.
+     */
+    private void packageJar(final Path classDirectory, final String packageName, Path jarFile) throws IOException {
+
+        final String classPrefix = packageName.replace('.', '/') + "/";
+        final String indexDirectory = "META-INF/jtimber/nodes/";
+        final String indexPrefix = indexDirectory + packageName + ".";
+
+        try (final JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            Files.walkFileTree(classDirectory, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+
+                    // Like regular JARs, the generated JARs contain directory entries; the agent requires them for finding the index
+                    String entryName = classDirectory.relativize(dir).toString().replace('\\', '/') + "/";
+                    if (!dir.equals(classDirectory) && (classPrefix.startsWith(entryName) || indexDirectory.startsWith(entryName))) {
+                        jar.putNextEntry(new JarEntry(entryName));
+                        jar.closeEntry();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+
+                    String entryName = classDirectory.relativize(file).toString().replace('\\', '/');
+                    if (entryName.startsWith(classPrefix) || entryName.startsWith(indexPrefix)) {
+                        jar.putNextEntry(new JarEntry(entryName));
+                        Files.copy(file, jar);
+                        jar.closeEntry();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+            });
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+}
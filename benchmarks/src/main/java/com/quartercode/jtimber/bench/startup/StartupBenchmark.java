@@ -0,0 +1,242 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.startup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import com.quartercode.jtimber.bench.BenchmarkFiles;
+
+/**
+ * A benchmark which measures the startup cost of the runtime hook with thousands of node classes spread over many JARs.
+ * First, the node classes are created by the {@link NodeClassGenerator}.
+ * Then, new JVMs running the {@link StartupProbe} are started repeatedly in three modes: without the agent, with the agent, and with the agent preloading all
+ * indexed node classes. The runs of the different modes are interleaved in order to spread out environmental noise.<br>
+ * <br>
+ * For each mode, the median of the following values is reported:
+ * 
+ * <ul>
+ * <li>The wall-clock time of the whole JVM process.</li>
+ * <li>The JVM uptime when the main method is entered (includes the agent startup, e.g. the index loading).</li>
+ * <li>The time it takes to load and instantiate all node classes ("first use"; includes the transformation unless the classes have been preloaded).</li>
+ * <li>The JVM uptime after the first use.</li>
+ * <li>The amount of transformed classes and the total transformation time, as reported by the agent's transformation metrics.</li>
+ * </ul>
+ * 
+ * The results are printed and written into a CSV and a JSON file. For example:
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar com.quartercode.jtimber.bench.startup.StartupBenchmark classes=5000 jars=50
+ * </pre>
+ * 
+ * All arguments are {@code key=value} options. The following options are available:
+ * 
+ * <ul>
+ * <li>{@code classes}: The amount of generated node classes. The default is {@code 5000}.</li>
+ * <li>{@code jars}: The amount of JARs the node classes are distributed over. The default is {@code 50}.</li>
+ * <li>{@code fields}: The average amount of fields per node class. The default is {@code 8}.</li>
+ * <li>{@code seed}: The seed for the node class generator. The default is {@code 42}.</li>
+ * <li>{@code runs}: The amount of JVM runs per mode. The default is {@code 5}.</li>
+ * <li>{@code agentArgs}: Additional agent options which are used in both agent modes. By default, no options are passed.</li>
+ * <li>{@code dir}: The working directory for the generated classes and JARs. The default is {@code startup-work}.</li>
+ * <li>{@code out}: The path of the result files without extension. The default is {@code startup-results}.</li>
+ * </ul>
+ */
+public class StartupBenchmark {
+
+    private static final String   CSV_HEADER = "mode,runs,processMillis,uptimeAtMainMillis,firstUseMillis,totalUptimeMillis,classesTransformed,transformMillis";
+    private static final String[] MODES      = { "none", "agent", "agent-preload" };
+
+    private int                   classes    = 5000;
+    private int                   jars       = 50;
+    private int                   fields     = 8;
+    private long                  seed       = 42;
+    private int                   runs       = 5;
+    private String                agentArgs  = "";
+    private Path                  directory  = Paths.get("startup-work");
+    private Path                  out        = Paths.get("startup-results");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        StartupBenchmark benchmark = new StartupBenchmark();
+        benchmark.parseOptions(args);
+        benchmark.run();
+    }
+
+    private void parseOptions(String[] args) {
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Option '" + arg + "' doesn't have a value");
+            }
+
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+
+            switch (key) {
+                case "classes":
+                    classes = Integer.parseInt(value);
+                    break;
+                case "jars":
+                    jars = Integer.parseInt(value);
+                    break;
+                case "fields":
+                    fields = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "runs":
+                    runs = Integer.parseInt(value);
+                    break;
+                case "agentArgs":
+                    agentArgs = value;
+                    break;
+                case "dir":
+                    directory = Paths.get(value);
+                    break;
+                case "out":
+                    out = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option '" + key + "'");
+            }
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+
+        System.out.println("Generating " + classes + " node classes in " + jars + " JARs");
+        List<Path> nodeJars = new NodeClassGenerator(classes, jars, fields, seed).generate(directory);
+
+        StringBuilder classpath = new StringBuilder(BenchmarkFiles.getBenchmarkJar().toString());
+        for (Path nodeJar : nodeJars) {
+            classpath.append(File.pathSeparator).append(nodeJar.toAbsolutePath());
+        }
+
+        // measurements[mode][value][run]
+        double[][][] measurements = new double[MODES.length][][];
+        for (int mode = 0; mode < MODES.length; mode++) {
+            measurements[mode] = new double[CSV_HEADER.split(",").length - 2][runs];
+        }
+
+        for (int run = 0; run < runs; run++) {
+            for (int mode = 0; mode < MODES.length; mode++) {
+                double[] values = runProbe(MODES[mode], classpath.toString());
+                for (int value = 0; value < values.length; value++) {
+                    measurements[mode][value][run] = values[value];
+                }
+            }
+            System.out.println("Finished run " + (run + 1) + "/" + runs);
+        }
+
+        List<String> csv = new ArrayList<>();
+        csv.add(CSV_HEADER);
+        StringBuilder json = new StringBuilder("[\n");
+        String[] keys = CSV_HEADER.split(",");
+
+        for (int mode = 0; mode < MODES.length; mode++) {
+            StringBuilder row = new StringBuilder(MODES[mode]).append(',').append(runs);
+            json.append("  {\"mode\": \"").append(MODES[mode]).append("\", \"runs\": ").append(runs);
+
+            for (int value = 0; value < measurements[mode].length; value++) {
+                String median = String.format(Locale.ROOT, "%.1f", median(measurements[mode][value]));
+                row.append(',').append(median);
+                json.append(", \"").append(keys[value + 2]).append("\": ").append(median);
+            }
+
+            csv.add(row.toString());
+            json.append(mode + 1 < MODES.length ? "},\n" : "}\n");
+        }
+        json.append("]\n");
+
+        for (String line : csv) {
+            System.out.println(line);
+        }
+
+        Path csvFile = out.resolveSibling(out.getFileName() + ".csv");
+        Path jsonFile = out.resolveSibling(out.getFileName() + ".json");
+        Files.write(csvFile, csv, StandardCharsets.UTF_8);
+        Files.write(jsonFile, json.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to '" + csvFile + "' and '" + jsonFile + "'");
+    }
+
+    /*
+     * Starts a new JVM which runs the startup probe in the given mode and returns its measurements (the process time followed by the values printed by the probe).
+     */
+    private double[] runProbe(String mode, String classpath) throws IOException, InterruptedException {
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+
+        if (!mode.equals("none")) {
+            // The probe reads the transformation metrics from their MBean, which is only published if the jmx option is enabled
+            String modeArgs = mode.equals("agent-preload") ? "jmx=true,preload=true" : "jmx=true";
+            String allArgs = agentArgs.isEmpty() ? modeArgs : agentArgs + "," + modeArgs;
+            command.add("-javaagent:" + BenchmarkFiles.getAgentJar() + "=" + allArgs);
+        }
+
+        command.addAll(Arrays.asList("-cp", classpath, StartupProbe.class.getName(), NodeClassGenerator.getClassList(directory).toAbsolutePath().toString()));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        String resultLine = null;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ( (line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+                if (line.startsWith(StartupProbe.RESULT_PREFIX)) {
+                    resultLine = line.substring(StartupProbe.RESULT_PREFIX.length());
+                }
+            }
+        }
+
+        int exitCode = process.waitFor();
+        double processMillis = (System.nanoTime() - start) / 1e6;
+
+        if (exitCode != 0 || resultLine == null) {
+            throw new IllegalStateException("Startup probe in mode '" + mode + "' failed with exit code " + exitCode + ":\n" + output);
+        }
+
+        String[] values = resultLine.split(" ");
+        return new double[] { processMillis, Double.parseDouble(values[0]), Double.parseDouble(values[1]), Double.parseDouble(values[2]), Double.parseDouble(values[3]),
+                Double.parseDouble(values[4]) };
+    }
+
+    private static double median(double[] values) {
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.bench.startup;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import com.quartercode.jtimber.api.node.Node;
+
+/**
+ * The main class of the JVMs which are started by the {@link StartupBenchmark}.
+ * It loads and instantiates all generated node classes (the "first use") and prints a single result line with its measurements.
+ * If the agent is attached, the transformation metrics are read from its MXBean.
+ */
+public class StartupProbe {
+
+    /**
+     * The prefix of the line which contains the measurements of the probe.
+     * The prefix is followed by the JVM uptime at the start of the main method, the time spent loading and instantiating the node classes,
+     * the JVM uptime after that, the amount of transformed classes and the total transformation time (all times in milliseconds).
+     * If the agent is not attached, the last two values are {@code -1}.
+     */
+    public static final String  RESULT_PREFIX      = "STARTUP RESULT ";
+
+    private static final String METRICS_MBEAN_NAME = "com.quartercode.jtimber:type=TransformationMetrics";
+
+    public static void main(String[] args) throws Exception {
+
+        long uptimeAtMain = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        List<String> classNames = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+
+        long firstUseStart = System.nanoTime();
+        int children = 0;
+        for (String className : classNames) {
+            Node<?> node = (Node<?>) Class.forName(className).getDeclaredConstructor().newInstance();
+            children += node.getChildCount();
+        }
+        double firstUseMillis = (System.nanoTime() - firstUseStart) / 1e6;
+
+        long totalUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        long transformed = -1;
+        double transformMillis = -1;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName metricsName = new ObjectName(METRICS_MBEAN_NAME);
+        if (server.isRegistered(metricsName)) {
+            try {
+                transformed = (Long) server.getAttribute(metricsName, "ClassesTransformed");
+                transformMillis = (Long) server.getAttribute(metricsName, "TransformTimeTotalMicros") / 1e3;
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot read the transformation metrics", e);
+            }
+        }
+
+        // The child count is printed in order to keep the JIT compiler from removing the child accessor calls
+        System.out.println(RESULT_PREFIX + uptimeAtMain + " " + firstUseMillis + " " + totalUptime + " " + transformed + " " + transformMillis + " " + children);
+    }
+
+    private StartupProbe() {
+
+    }
+
+}
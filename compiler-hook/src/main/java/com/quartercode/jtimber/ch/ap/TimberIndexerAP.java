@@ -32,8 +32,14 @@ import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -41,18 +47,27 @@ import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 
 /**
- * The job of this annotation processor is to create an index file containing the binary names of all classes which implement the "Node" interface.
- * That index is then written into an index file which is packaged alongside the class files for later use by the runtime hook.
+ * The job of this annotation processor is to create an index of all classes which implement the "Node" interface.
+ * For each node class, a separate index fragment named after the binary name of the class is written into the directory {@code META-INF/jtimber/nodes}.
+ * Those fragments are packaged alongside the class files and merged by the runtime hook at startup.<br>
+ * <br>
+ * Moreover, the processor tries to prove that the node classes are allowed parents of the objects stored in their parent-aware fields.
+ * The names of all fields for which that proof succeeds are written into the index fragment of the node class, which allows the runtime hook to skip
+ * the parent type check at runtime.
+ * If the processor can prove that a node class is never allowed to be a parent of the objects stored in one of its fields, it reports a compiler error.<br>
+ * <br>
+ * Because each fragment is written for one single class, the processor doesn't need to see all node classes at once.
+ * However, the processor inspects all root elements and resolves types which aren't declared in the processed sources (e.g. the allowed parent types of the fields).
+ * Therefore, it is registered as an "aggregating" (and not as an "isolating") incremental processor for Gradle.
  */
-@SupportedSourceVersion (SourceVersion.RELEASE_7)
+@SupportedSourceVersion (SourceVersion.RELEASE_8)
 @SupportedAnnotationTypes ("*")
 public class TimberIndexerAP extends AbstractProcessor {
 
-    private Elements           elementUtils;
-    private Types              typeUtils;
-    private TypeMirror         nodeTypeErasure;
-
-    private final List<String> nodeIndex = new ArrayList<>();
+    private Elements   elementUtils;
+    private Types      typeUtils;
+    private TypeMirror nodeTypeErasure;
+    private TypeMirror parentAwareTypeErasure;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
@@ -63,6 +78,7 @@ public class TimberIndexerAP extends AbstractProcessor {
         typeUtils = processingEnv.getTypeUtils();
 
         nodeTypeErasure = typeUtils.erasure(elementUtils.getTypeElement("com.quartercode.jtimber.api.node.Node").asType());
+        parentAwareTypeErasure = typeUtils.erasure(elementUtils.getTypeElement("com.quartercode.jtimber.api.node.ParentAware").asType());
     }
 
     @Override
@@ -71,16 +87,11 @@ public class TimberIndexerAP extends AbstractProcessor {
         // Index all required classes that can be found in the current root elements
         processElements(roundEnv.getRootElements());
 
-        // If the processing is over, generate the result index file
-        if (roundEnv.processingOver()) {
-            generateResults();
-        }
-
         return false;
     }
 
     /*
-     * Adds all node class elements from the given list to the node index collection.
+     * Writes an index fragment for each node class element from the given list.
      * Then invokes itself recursively with all nested elements it can find.
      */
     private void processElements(Collection<? extends Element> elements) {
@@ -91,8 +102,11 @@ public class TimberIndexerAP extends AbstractProcessor {
                 String binaryName = elementUtils.getBinaryName((TypeElement) element).toString();
 
                 if (typeUtils.isAssignable(typeUtils.erasure(element.asType()), nodeTypeErasure)) {
-                    // Add the node class to the node index
-                    nodeIndex.add(binaryName);
+                    // Check the parent type compatibility of all fields of the node class
+                    List<String> parentSafeFields = processFields((TypeElement) element);
+
+                    // Write the index fragment of the node class, which contains the names of all parent-safe fields
+                    writeListToFile("META-INF/jtimber/nodes/" + binaryName + ".index", parentSafeFields, element);
                 }
             }
 
@@ -101,19 +115,115 @@ public class TimberIndexerAP extends AbstractProcessor {
         }
     }
 
-    private void generateResults() {
+    /*
+     * Checks whether the given node class is an allowed parent of the objects which are stored in its non-static parent-aware fields.
+     * The names of all fields for which this can be proven are returned.
+     * If the opposite can be proven for a field, a compiler error is reported.
+     */
+    private List<String> processFields(TypeElement nodeClass) {
+
+        List<String> parentSafeFields = new ArrayList<>();
+        TypeMirror nodeClassErasure = typeUtils.erasure(nodeClass.asType());
+
+        for (VariableElement field : ElementFilter.fieldsIn(nodeClass.getEnclosedElements())) {
+            // Static fields are never watched by the runtime hook
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            // Retrieve the type of nodes which are allowed to be parents of the field values; skip the field if that type is unknown
+            TypeMirror allowedParentType = getAllowedParentType(field.asType());
+            if (allowedParentType == null) {
+                continue;
+            }
+
+            if (typeUtils.isAssignable(nodeClassErasure, typeUtils.erasure(allowedParentType))) {
+                parentSafeFields.add(field.getSimpleName().toString());
+            } else if (isProvablyIncompatible(nodeClass, allowedParentType)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Nodes of type '" + nodeClass.getQualifiedName() + "' are never allowed to reference parent-aware objects of type '"
+                        + field.asType() + "' (allowed parent type is '" + allowedParentType + "')", field);
+            }
+        }
+
+        return parentSafeFields;
+    }
+
+    /*
+     * Returns the type of nodes which are allowed to be parents of objects with the given type (the type argument of ParentAware).
+     * If the given type isn't parent-aware or that parent type cannot be determined statically, null is returned.
+     */
+    private TypeMirror getAllowedParentType(TypeMirror type) {
+
+        if (!typeUtils.isAssignable(typeUtils.erasure(type), parentAwareTypeErasure)) {
+            return null;
+        }
+
+        DeclaredType parentAwareType = findParentAwareSupertype(type);
+        if (parentAwareType == null || parentAwareType.getTypeArguments().isEmpty()) {
+            // The type is raw
+            return null;
+        }
+
+        TypeMirror typeArgument = parentAwareType.getTypeArguments().get(0);
+        if (typeArgument.getKind() == TypeKind.DECLARED) {
+            return typeArgument;
+        } else if (typeArgument.getKind() == TypeKind.WILDCARD) {
+            // "? super T" means that all parents of the type T are allowed; "? extends T" doesn't tell anything about the allowed parents
+            return ((WildcardType) typeArgument).getSuperBound();
+        } else {
+            // Type variables cannot be resolved statically
+            return null;
+        }
+    }
+
+    /*
+     * Searches the supertype hierarchy of the given type for the ParentAware interface and returns the parameterized version of that interface.
+     * Because the direct supertypes are used, the type arguments are properly substituted along the way.
+     */
+    private DeclaredType findParentAwareSupertype(TypeMirror type) {
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        if (typeUtils.isSameType(typeUtils.erasure(type), parentAwareTypeErasure)) {
+            return (DeclaredType) type;
+        }
+
+        for (TypeMirror supertype : typeUtils.directSupertypes(type)) {
+            DeclaredType result = findParentAwareSupertype(supertype);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        return null;
+    }
+
+    /*
+     * Returns true if no instance of the given node class (or any of its subclasses) can ever be an instance of the given allowed parent type.
+     */
+    private boolean isProvablyIncompatible(TypeElement nodeClass, TypeMirror allowedParentType) {
+
+        // A final node class cannot have any subclasses which might implement the allowed parent type
+        if (nodeClass.getModifiers().contains(Modifier.FINAL)) {
+            return true;
+        }
 
-        writeListToFile("META-INF/jtimber/nodes.index", nodeIndex);
+        // If the allowed parent type is a class which is no subclass of the node class, no object can ever be an instance of both classes
+        Element allowedParentElement = typeUtils.asElement(allowedParentType);
+        return allowedParentElement.getKind() == ElementKind.CLASS && !typeUtils.isAssignable(typeUtils.erasure(allowedParentType), typeUtils.erasure(nodeClass.asType()));
     }
 
     /*
      * Creates a new output file (which will be packaged alongside the class files) under the given resource path.
      * Then writes the contents of the given list into that file.
+     * The originating element is the element whose source file caused the creation of the output file; it is required for incremental compilation.
      */
-    private void writeListToFile(String filePath, List<String> list) {
+    private void writeListToFile(String filePath, List<String> list, Element originatingElement) {
 
         try {
-            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", filePath);
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", filePath, originatingElement);
 
             try (Writer writer = file.openWriter()) {
                 for (String element : list) {
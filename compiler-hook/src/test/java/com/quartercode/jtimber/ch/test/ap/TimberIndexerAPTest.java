@@ -0,0 +1,225 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.ch.test.ap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.ch.ap.TimberIndexerAP;
+
+public class TimberIndexerAPTest {
+
+    private static final String                       FRAGMENT_DIRECTORY = "META-INF/jtimber/nodes/";
+
+    @Rule
+    public final TemporaryFolder                      temporaryFolder    = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics        = new DiagnosticCollector<>();
+    private Path                                      outputDirectory;
+
+    @Test
+    public void testFragmentPerNodeClass() throws IOException {
+
+        assertCompiles("com.example.Node1", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "public class Node1 extends DefaultNode<Node<?>> { private DefaultNode<Node1> child; }");
+        assertCompiles("com.example.Node2", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "public class Node2 extends Node1 { }");
+
+        assertEquals("Fragment of node class 1", Arrays.asList("child"), readFragment("com.example.Node1"));
+        assertEquals("Fragment of node class 2", Arrays.<String> asList(), readFragment("com.example.Node2"));
+    }
+
+    @Test
+    public void testFragmentNestedNodeClass() throws IOException {
+
+        assertCompiles("com.example.Outer", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "public class Outer { public static class Inner extends DefaultNode<Node<?>> { } }");
+
+        assertTrue("Fragment of the nested node class is named after its binary name", Files.exists(getFragment("com.example.Outer$Inner")));
+        assertFalse("Fragment of the non-node outer class exists", Files.exists(getFragment("com.example.Outer")));
+    }
+
+    @Test
+    public void testNoFragmentForNonNodes() throws IOException {
+
+        assertCompiles("com.example.Types", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "public class Types { interface NodeInterface extends Node<Node<?>> { } enum NonNodeEnum { A } static class NonNode { } }");
+
+        assertFalse("Fragment directory exists although no node class has been compiled", Files.exists(outputDirectory.resolve(FRAGMENT_DIRECTORY)));
+    }
+
+    @Test
+    public void testProvenFields() throws IOException {
+
+        assertCompiles("com.example.Proven", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "public class Proven extends DefaultNode<Node<?>> {"
+                + "  private DefaultNode<Proven> exact; private DefaultNode<Node<?>> any; private DefaultNode<? super Proven> superBound;"
+                + "  private String noParentAware; private static DefaultNode<Proven> staticField;"
+                + "}"
+                + "final class FinalProven extends DefaultNode<Node<?>> { private DefaultNode<FinalProven> exact; }");
+
+        assertEquals("Parent-safe fields of the non-final node class", Arrays.asList("exact", "any", "superBound"), readFragment("com.example.Proven"));
+        assertEquals("Parent-safe fields of the final node class", Arrays.asList("exact"), readFragment("com.example.FinalProven"));
+    }
+
+    @Test
+    public void testUnprovableFields() throws IOException {
+
+        // A subclass of the non-final node class might implement the interface; the other types cannot be resolved statically
+        assertCompiles("com.example.Unprovable", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "interface OtherNodeInterface extends Node<Node<?>> { }"
+                + "public class Unprovable<T extends Node<?>> extends DefaultNode<Node<?>> {"
+                + "  private DefaultNode<OtherNodeInterface> otherInterface; private DefaultNode<? extends Unprovable<?>> extendsBound;"
+                + "  private DefaultNode<T> typeVariable; @SuppressWarnings (\"rawtypes\") private DefaultNode raw;"
+                + "}");
+
+        assertEquals("Parent-safe fields of the node class", Arrays.<String> asList(), readFragment("com.example.Unprovable"));
+    }
+
+    @Test
+    public void testIncompatibleFieldNonFinalClass() throws IOException {
+
+        // No subclass of the node class can ever be an instance of the unrelated node class
+        assertFalse("Compilation succeeded", compile("com.example.Incompatible", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "class OtherNode extends DefaultNode<Node<?>> { }"
+                + "public class Incompatible extends DefaultNode<Node<?>> { private DefaultNode<OtherNode> child; }"));
+
+        assertIncompatibilityError("com.example.Incompatible");
+    }
+
+    @Test
+    public void testIncompatibleFieldFinalClass() throws IOException {
+
+        // The final node class doesn't implement the interface and cannot have any subclasses which might do so
+        assertFalse("Compilation succeeded", compile("com.example.FinalIncompatible", "package com.example; import com.quartercode.jtimber.api.node.*;"
+                + "interface OtherNodeInterface extends Node<Node<?>> { }"
+                + "public final class FinalIncompatible extends DefaultNode<Node<?>> { private DefaultNode<OtherNodeInterface> child; }"));
+
+        assertIncompatibilityError("com.example.FinalIncompatible");
+    }
+
+    private void assertIncompatibilityError(String className) {
+
+        List<String> errors = getErrors();
+        assertEquals("Amount of errors", 1, errors.size());
+        assertTrue("Error doesn't mention the node class: " + errors.get(0), errors.get(0).contains("Nodes of type '" + className + "' are never allowed"));
+    }
+
+    private void assertCompiles(String className, String source) throws IOException {
+
+        assertTrue("Compilation of " + className + " failed: " + getErrors(), compile(className, source));
+    }
+
+    /*
+     * Compiles the given source with the indexer annotation processor into the output directory.
+     * All sources which are compiled by one test share the output directory, so they can reference each other.
+     */
+    private boolean compile(String className, String source) throws IOException {
+
+        if (outputDirectory == null) {
+            outputDirectory = temporaryFolder.newFolder().toPath();
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(outputDirectory.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Arrays.asList(getAPILocation(), outputDirectory.toFile()));
+
+            CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null, Arrays.asList(new SourceFile(className, source)));
+            task.setProcessors(Arrays.asList(new TimberIndexerAP()));
+            return task.call();
+        }
+    }
+
+    private File getAPILocation() {
+
+        try {
+            return new File(Node.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the API classes", e);
+        }
+    }
+
+    private List<String> getErrors() {
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private Path getFragment(String binaryName) {
+
+        return outputDirectory.resolve(FRAGMENT_DIRECTORY + binaryName + ".index");
+    }
+
+    private List<String> readFragment(String binaryName) throws IOException {
+
+        return Files.readAllLines(getFragment(binaryName), StandardCharsets.UTF_8);
+    }
+
+    /*
+     * A source file whose contents are stored in memory.
+     */
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String source;
+
+        private SourceFile(String className, String source) {
+
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+
+            return source;
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event which is recorded when the generated {@code afterUnmarshal()} method of a node restores the parents of its field values.
+ */
+@Name ("com.quartercode.jtimber.AfterUnmarshal")
+@Label ("Unmarshal Parent Restoration")
+@Category ("JTimber")
+@Description ("The parents of the field values of an unmarshalled node have been restored")
+class AfterUnmarshalEvent extends Event {
+
+    @Label ("Node Class")
+    Class<?> nodeClass;
+
+    @Label ("Scanned Field Count")
+    @Description ("The amount of fields whose values have been checked for parent-aware objects")
+    int      scannedFieldCount;
+
+}
@@ -0,0 +1,43 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event which is recorded when the children of a node are materialized by {@code getChildren()}.
+ * It is only committed if the amount of children reaches the threshold configured by {@link JFRTreeEventRecorder#CHILDREN_THRESHOLD_PROPERTY}.
+ */
+@Name ("com.quartercode.jtimber.GetChildren")
+@Label ("Node Children Materialization")
+@Category ("JTimber")
+@Description ("A large list of node children has been materialized")
+class GetChildrenEvent extends Event {
+
+    @Label ("Node Class")
+    Class<?> nodeClass;
+
+    @Label ("Child Count")
+    int      childCount;
+
+}
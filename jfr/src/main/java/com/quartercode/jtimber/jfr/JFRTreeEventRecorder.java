@@ -0,0 +1,148 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.jfr;
+
+import jdk.jfr.EventType;
+import com.quartercode.jtimber.api.internal.TreeEventRecorder;
+import com.quartercode.jtimber.api.internal.TreeEvents;
+
+/**
+ * The {@link TreeEventRecorder} which records the tree events reported through {@link TreeEvents} as Java Flight Recorder events.
+ * It is registered as a service; therefore, it is used automatically as soon as this module is on the classpath.<br>
+ * <br>
+ * If an event type is not enabled in the current recording, no event object is created at all.
+ * Children materialization events are only committed if at least {@link #CHILDREN_THRESHOLD_PROPERTY} children have been materialized (default is 1000).
+ */
+public class JFRTreeEventRecorder implements TreeEventRecorder {
+
+    /**
+     * The name of the system property which contains the minimum amount of children a children materialization event must have in order to be committed.
+     */
+    public static final String     CHILDREN_THRESHOLD_PROPERTY = "jtimber.jfr.childrenThreshold";
+
+    private static final int       CHILDREN_THRESHOLD          = Integer.getInteger(CHILDREN_THRESHOLD_PROPERTY, 1000);
+
+    private static final EventType WRAPPER_FAN_OUT             = EventType.getEventType(WrapperFanOutEvent.class);
+    private static final EventType WRAPPER_BULK_OPERATION      = EventType.getEventType(WrapperBulkOperationEvent.class);
+    private static final EventType GET_CHILDREN                = EventType.getEventType(GetChildrenEvent.class);
+    private static final EventType AFTER_UNMARSHAL             = EventType.getEventType(AfterUnmarshalEvent.class);
+
+    @Override
+    public Object beginWrapperFanOut() {
+
+        if (!WRAPPER_FAN_OUT.isEnabled()) {
+            return null;
+        }
+
+        WrapperFanOutEvent event = new WrapperFanOutEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitWrapperFanOut(Object token, Class<?> wrapperClass, boolean adding, int elementCount) {
+
+        WrapperFanOutEvent event = (WrapperFanOutEvent) token;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.wrapperClass = wrapperClass;
+            event.adding = adding;
+            event.elementCount = elementCount;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginWrapperBulkOperation() {
+
+        if (!WRAPPER_BULK_OPERATION.isEnabled()) {
+            return null;
+        }
+
+        WrapperBulkOperationEvent event = new WrapperBulkOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitWrapperBulkOperation(Object token, Class<?> wrapperClass, String operation, int elementCount) {
+
+        WrapperBulkOperationEvent event = (WrapperBulkOperationEvent) token;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.wrapperClass = wrapperClass;
+            event.operation = operation;
+            event.elementCount = elementCount;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginGetChildren() {
+
+        if (!GET_CHILDREN.isEnabled()) {
+            return null;
+        }
+
+        GetChildrenEvent event = new GetChildrenEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitGetChildren(Object token, Class<?> nodeClass, int childCount) {
+
+        GetChildrenEvent event = (GetChildrenEvent) token;
+        event.end();
+
+        if (childCount >= CHILDREN_THRESHOLD && event.shouldCommit()) {
+            event.nodeClass = nodeClass;
+            event.childCount = childCount;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginAfterUnmarshal() {
+
+        if (!AFTER_UNMARSHAL.isEnabled()) {
+            return null;
+        }
+
+        AfterUnmarshalEvent event = new AfterUnmarshalEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitAfterUnmarshal(Object token, Class<?> nodeClass, int scannedFieldCount) {
+
+        AfterUnmarshalEvent event = (AfterUnmarshalEvent) token;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.nodeClass = nodeClass;
+            event.scannedFieldCount = scannedFieldCount;
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event which is recorded when a parent is added to or removed from a wrapper.
+ * Such a parent change is propagated ("fanned out") to all wrapped elements.
+ */
+@Name ("com.quartercode.jtimber.WrapperFanOut")
+@Label ("Wrapper Parent Fan-Out")
+@Category ("JTimber")
+@Description ("A parent has been added to or removed from a wrapper and all its elements")
+class WrapperFanOutEvent extends Event {
+
+    @Label ("Wrapper Class")
+    Class<?> wrapperClass;
+
+    @Label ("Adding")
+    @Description ("Whether a parent has been added (true) or removed (false)")
+    boolean  adding;
+
+    @Label ("Element Count")
+    int      elementCount;
+
+}
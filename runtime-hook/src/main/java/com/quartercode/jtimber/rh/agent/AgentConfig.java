@@ -0,0 +1,373 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import com.quartercode.jtimber.rh.agent.asm.BarrierStrategy;
+import com.quartercode.jtimber.rh.agent.asm.NodeDetector;
+
+/**
+ * The configuration of the {@link TimberAgent}, which is parsed from the agent argument string.
+ * That string consists of {@code key=value} options which are separated by commas.
+ * Options which take a list of values separate the single values using colons.
+ * For example:
+ * 
+ * <pre>
+ * -javaagent:jtimber-runtime-hook.jar=include=com.example.tree:com.example.model,barriers=unchecked,jaxb=false
+ * </pre>
+ * 
+ * The following options are available:
+ * 
+ * <ul>
+ * <li>{@code include}: Package (or class) names; only node classes inside one of those packages (including subpackages) or with one of those names (including nested classes)
+ * are transformed. For example, {@code com.example} includes {@code com.example.Node} and {@code com.example.model.Node}, but not {@code com.examples.Node}.
+ * By default, all node classes are included.</li>
+ * <li>{@code exclude}: Package (or class) names; node classes which are matched by one of them in the same way are never transformed. Excludes take precedence over includes.</li>
+ * <li>{@code barriers}: The {@link BarrierStrategy} used by the inserted parent watchers ({@code checked}, {@code proven} or {@code unchecked}). The default is {@code proven}.</li>
+ * <li>{@code detect}: Whether classes which are not contained in the node index (e.g. classes from libraries which haven't been compiled with the compiler hook)
+ * should be recognized as nodes by their bytecode. See {@link NodeDetector} for more details. The default is {@code false}.</li>
+ * <li>{@code jaxb}: Whether the JAXB tweaks (the generated {@code afterUnmarshal()} method) should be added to node classes. The default is {@code true}.</li>
+ * <li>{@code verify}: Whether each transformed class should be checked for structural errors. If an error is found, the class is not transformed. The default is {@code false}.</li>
+ * <li>{@code diagnostics}: Whether details about each transformed class (like the transformation time) should be logged. The default is {@code false}.</li>
+ * <li>{@code dump}: A directory into which the bytecode of each transformed class is written. By default, nothing is dumped.</li>
+ * <li>{@code profile}: Whether the inserted parent watchers should record sampled counters for each written field using the barrier profiler of the API.
+ * The default is {@code false}.</li>
+ * <li>{@code profileSampleRate}: On average, the barrier profiler only counts one of that many parent watcher executions. The default is {@code 16}.</li>
+ * <li>{@code jmx}: Whether the {@link TransformationMetrics} (and the barrier profiler if the {@code profile} option is set) should be published as MBeans. The default is {@code false} since registering the MBean starts the platform MBean server
+ * while the agent is started, which breaks containers that install their own MBean server later on.</li>
+ * <li>{@code preload}: Whether all indexed node classes should be loaded (and therefore transformed) by background threads right after the agent has been started.
+ * The classes are loaded using the system class loader. See {@link NodeClassPreloader} for more details. The default is {@code false}.</li>
+ * <li>{@code preloadThreads}: The maximum amount of threads which preload node classes in parallel. The default is the amount of available processors.</li>
+ * </ul>
+ */
+public class AgentConfig {
+
+    /**
+     * The default sample rate of the barrier profiler, which is the same as the one the profiler of the API uses if no sample rate has been passed on.
+     */
+    public static final int    DEFAULT_PROFILE_SAMPLE_RATE = 16;
+
+    private final List<String> includes                    = new ArrayList<>();
+    private final List<String> excludes                    = new ArrayList<>();
+    private BarrierStrategy    barrierStrategy             = BarrierStrategy.PROVEN;
+    private boolean            detect;
+    private boolean            jaxbTweaks                  = true;
+    private boolean            verify;
+    private boolean            diagnostics;
+    private Path               dumpDirectory;
+    private boolean            profile;
+    private int                profileSampleRate           = DEFAULT_PROFILE_SAMPLE_RATE;
+    private boolean            jmx;
+    private boolean            preload;
+    private int                preloadThreads              = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Parses the given agent argument string and creates a new agent configuration out of it.
+     * See {@link AgentConfig} for the syntax of the string and the available options.
+     * 
+     * @param args The agent argument string which should be parsed.
+     *        If it is {@code null} or empty, the default configuration is returned.
+     * @return The parsed agent configuration.
+     * @throws IllegalArgumentException The argument string contains an unknown option or an invalid value.
+     */
+    public static AgentConfig parse(String args) {
+
+        AgentConfig config = new AgentConfig();
+
+        if (StringUtils.isBlank(args)) {
+            return config;
+        }
+
+        for (String option : StringUtils.split(args, ',')) {
+            String key = StringUtils.substringBefore(option, "=").trim();
+            String value = StringUtils.substringAfter(option, "=").trim();
+            Validate.isTrue(option.contains("=") && !value.isEmpty(), "JTimber agent option '%s' doesn't have a value", key);
+
+            switch (key) {
+                case "include":
+                    config.includes.addAll(parsePrefixes(value));
+                    break;
+                case "exclude":
+                    config.excludes.addAll(parsePrefixes(value));
+                    break;
+                case "barriers":
+                    try {
+                        config.barrierStrategy = BarrierStrategy.valueOf(value.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown JTimber barrier strategy '" + value + "'", e);
+                    }
+                    break;
+                case "detect":
+                    config.detect = parseBoolean(key, value);
+                    break;
+                case "jaxb":
+                    config.jaxbTweaks = parseBoolean(key, value);
+                    break;
+                case "verify":
+                    config.verify = parseBoolean(key, value);
+                    break;
+                case "diagnostics":
+                    config.diagnostics = parseBoolean(key, value);
+                    break;
+                case "dump":
+                    config.dumpDirectory = Paths.get(value);
+                    break;
+                case "profile":
+                    config.profile = parseBoolean(key, value);
+                    break;
+                case "profileSampleRate":
+                    config.profileSampleRate = parsePositiveInt(key, value);
+                    break;
+                case "jmx":
+                    config.jmx = parseBoolean(key, value);
+                    break;
+                case "preload":
+                    config.preload = parseBoolean(key, value);
+                    break;
+                case "preloadThreads":
+                    config.preloadThreads = parsePositiveInt(key, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown JTimber agent option '" + key + "'");
+            }
+        }
+
+        return config;
+    }
+
+    /*
+     * Converts the given colon-separated binary name prefixes into internal name prefixes.
+     */
+    private static List<String> parsePrefixes(String value) {
+
+        List<String> prefixes = new ArrayList<>();
+
+        for (String prefix : StringUtils.split(value, ':')) {
+            // Trailing separators (e.g. "com.example.") are removed since the prefixes are matched on package boundaries anyway
+            prefixes.add(StringUtils.stripEnd(prefix.trim().replace('.', '/'), "/"));
+        }
+
+        return prefixes;
+    }
+
+    private static boolean parseBoolean(String key, String value) {
+
+        Validate.isTrue(value.equals("true") || value.equals("false"), "JTimber agent option '%s' must be either 'true' or 'false'", key);
+        return Boolean.parseBoolean(value);
+    }
+
+    private static int parsePositiveInt(String key, String value) {
+
+        Validate.isTrue(StringUtils.isNumeric(value) && value.length() <= 9 && Integer.parseInt(value) > 0, "JTimber agent option '%s' must be a positive integer", key);
+        return Integer.parseInt(value);
+    }
+
+    private AgentConfig() {
+
+    }
+
+    /**
+     * Returns whether the class with the given internal name is included by the {@code include} and {@code exclude} options.
+     * Only included node classes should be transformed.
+     * 
+     * @param className The internal name of the class which should be checked.
+     * @return Whether the given class is included.
+     */
+    public boolean isIncluded(String className) {
+
+        for (String exclude : excludes) {
+            if (matches(className, exclude)) {
+                return false;
+            }
+        }
+
+        if (includes.isEmpty()) {
+            return true;
+        }
+
+        for (String include : includes) {
+            if (matches(className, include)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * Returns whether the given class is the class with the given name, one of its nested classes, or a class inside the package with the given name or one of its subpackages.
+     * Therefore, the prefix must end at a package or nested class boundary; "com/example" doesn't match "com/examples/Node".
+     */
+    private static boolean matches(String className, String prefix) {
+
+        if (!className.startsWith(prefix)) {
+            return false;
+        } else if (className.length() == prefix.length()) {
+            return true;
+        }
+
+        char next = className.charAt(prefix.length());
+        return next == '/' || next == '$';
+    }
+
+    /**
+     * Returns the internal name prefixes of the classes which should be transformed ({@code include} option).
+     * If the list is empty, all classes which aren't excluded are transformed.
+     * 
+     * @return The included class name prefixes.
+     */
+    public List<String> getIncludes() {
+
+        return Collections.unmodifiableList(includes);
+    }
+
+    /**
+     * Returns the internal name prefixes of the classes which should never be transformed ({@code exclude} option).
+     * 
+     * @return The excluded class name prefixes.
+     */
+    public List<String> getExcludes() {
+
+        return Collections.unmodifiableList(excludes);
+    }
+
+    /**
+     * Returns the {@link BarrierStrategy} which should be used by the inserted parent watchers ({@code barriers} option).
+     * 
+     * @return The barrier strategy.
+     */
+    public BarrierStrategy getBarrierStrategy() {
+
+        return barrierStrategy;
+    }
+
+    /**
+     * Returns whether classes which are not contained in the node index should be recognized as nodes by their bytecode ({@code detect} option).
+     * 
+     * @return Whether the node detection mode is enabled.
+     */
+    public boolean isDetect() {
+
+        return detect;
+    }
+
+    /**
+     * Returns whether the JAXB tweaks should be added to node classes ({@code jaxb} option).
+     * 
+     * @return Whether JAXB tweaks are enabled.
+     */
+    public boolean isJAXBTweaks() {
+
+        return jaxbTweaks;
+    }
+
+    /**
+     * Returns whether each transformed class should be checked for structural errors ({@code verify} option).
+     * 
+     * @return Whether the verification mode is enabled.
+     */
+    public boolean isVerify() {
+
+        return verify;
+    }
+
+    /**
+     * Returns whether details about each transformed class should be logged ({@code diagnostics} option).
+     * 
+     * @return Whether the diagnostics mode is enabled.
+     */
+    public boolean isDiagnostics() {
+
+        return diagnostics;
+    }
+
+    /**
+     * Returns the directory into which the bytecode of each transformed class should be written ({@code dump} option).
+     * 
+     * @return The dump directory, or {@code null} if no classes should be dumped.
+     */
+    public Path getDumpDirectory() {
+
+        return dumpDirectory;
+    }
+
+    /**
+     * Returns whether the inserted parent watchers should record sampled counters using the barrier profiler ({@code profile} option).
+     * 
+     * @return Whether the profile mode is enabled.
+     */
+    public boolean isProfile() {
+
+        return profile;
+    }
+
+    /**
+     * Returns the sample rate of the barrier profiler ({@code profileSampleRate} option).
+     * On average, only one of that many parent watcher executions is counted.
+     * 
+     * @return The profiler sample rate.
+     */
+    public int getProfileSampleRate() {
+
+        return profileSampleRate;
+    }
+
+    /**
+     * Returns whether the {@link TransformationMetrics} should be published as an MBean ({@code jmx} option).
+     * 
+     * @return Whether the metrics MBean is enabled.
+     */
+    public boolean isJMX() {
+
+        return jmx;
+    }
+
+    /**
+     * Returns whether all indexed node classes should be loaded by background threads right after the agent has been started ({@code preload} option).
+     * 
+     * @return Whether the preload mode is enabled.
+     */
+    public boolean isPreload() {
+
+        return preload;
+    }
+
+    /**
+     * Returns the maximum amount of threads which preload node classes in parallel ({@code preloadThreads} option).
+     * 
+     * @return The amount of preload threads.
+     */
+    public int getPreloadThreads() {
+
+        return preloadThreads;
+    }
+
+    @Override
+    public String toString() {
+
+        return "includes=" + includes + ", excludes=" + excludes + ", barriers=" + barrierStrategy + ", detect=" + detect + ", jaxb=" + jaxbTweaks + ", verify=" + verify + ", diagnostics=" + diagnostics + ", dump=" + dumpDirectory + ", profile=" + profile + ", profileSampleRate=" + profileSampleRate + ", jmx=" + jmx + ", preload=" + preload + ", preloadThreads=" + preloadThreads;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.quartercode.jtimber.rh.agent.asm.TimberClassFileTransformer;
+
+/**
+ * The node class preloader loads all indexed node classes on a bounded pool of background threads right after the agent has been started.
+ * Since loading a class runs the installed {@link TimberClassFileTransformer}, all node classes are transformed in parallel before the application needs them.
+ * That way, the first real use of a node class doesn't stall on its transformation.<br>
+ * <br>
+ * Note that the classes are only loaded and not initialized; static initializers are still run lazily on first use.
+ * Moreover, only node classes which are visible to the given class loader can be preloaded.
+ * The {@link TimberAgent} uses the system class loader since the application class loaders don't exist yet when the agent is started.
+ * Therefore, node classes which are loaded by other class loaders (e.g. the web application class loaders of a servlet container) are not preloaded.
+ * All other node classes are still transformed lazily when the application loads them.
+ * 
+ * @see TimberAgent
+ */
+public class NodeClassPreloader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeClassPreloader.class);
+
+    /**
+     * Starts preloading all given node classes using the given class loader.
+     * This method returns immediately; the actual work is done by the given amount of daemon threads, which terminate as soon as all classes have been loaded.
+     * Classes which cannot be loaded are skipped.
+     * 
+     * @param classNames The internal names of the node classes which should be preloaded.
+     * @param loader The class loader which should be used to load the node classes.
+     * @param threads The maximum amount of threads which should load classes in parallel.
+     * @param diagnostics Whether classes that cannot be preloaded and the total preload time should be logged.
+     * @return The executor which loads the classes. It has already been {@link ExecutorService#shutdown() shut down}, so it can be used to
+     *         {@link ExecutorService#awaitTermination(long, java.util.concurrent.TimeUnit) await} the end of the preloading.
+     */
+    public static ExecutorService start(Collection<String> classNames, final ClassLoader loader, int threads, final boolean diagnostics) {
+
+        final long startTime = System.nanoTime();
+        final AtomicInteger remaining = new AtomicInteger(classNames.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new PreloaderThreadFactory());
+
+        for (String className : classNames) {
+            final String binaryName = className.replace('/', '.');
+
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        // Only load the class; the class file transformer is invoked during that process
+                        Class.forName(binaryName, false, loader);
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        if (diagnostics) {
+                            LOGGER.info("Cannot preload node class '{}'", binaryName, e);
+                        }
+                    }
+
+                    if (remaining.decrementAndGet() == 0 && diagnostics) {
+                        LOGGER.info("Preloaded all node classes in {} ms", (System.nanoTime() - startTime) / 1000000);
+                    }
+                }
+
+            });
+        }
+
+        // Let the threads terminate once all submitted classes have been loaded; no threads are started if there are no classes
+        executor.shutdown();
+        return executor;
+    }
+
+    /**
+     * Returns the given node class names without all classes which are not {@link AgentConfig#isIncluded(String) included} by the given agent configuration.
+     * Classes which are not transformed don't need to be preloaded.
+     * 
+     * @param classNames The internal names of the node classes which should be filtered.
+     * @param config The agent configuration whose include and exclude options should be applied.
+     * @return The internal names of the included node classes.
+     */
+    public static List<String> filterIncluded(Collection<String> classNames, AgentConfig config) {
+
+        List<String> included = new ArrayList<>();
+
+        for (String className : classNames) {
+            if (config.isIncluded(className)) {
+                included.add(className);
+            }
+        }
+
+        return included;
+    }
+
+    private NodeClassPreloader() {
+
+    }
+
+    /*
+     * Creates named daemon threads which don't prevent the JVM from shutting down.
+     */
+    private static class PreloaderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, "JTimber Node Class Preloader " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
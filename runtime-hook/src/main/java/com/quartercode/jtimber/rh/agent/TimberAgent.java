@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -32,26 +33,129 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.quartercode.jtimber.rh.agent.asm.TimberClassFileTransformer;
+import com.quartercode.jtimber.rh.agent.util.ASMUtils;
 import com.quartercode.jtimber.rh.agent.util.ResourceLister;
 
 /**
  * The javaagent which installs the bytecode manipulator using a {@link ClassFileTransformer} (the {@link TimberClassFileTransformer}).
  * The bytecode manipulator then adds extra bytecode for tracking the parents of parent-aware objects.
- * This agent is part of the runtime hook.
+ * This agent is part of the runtime hook.<br>
+ * <br>
+ * The agent can be configured using the agent argument string (e.g. {@code -javaagent:jtimber-runtime-hook.jar=barriers=checked}).
+ * See {@link AgentConfig} for the available options.
  * 
  * @see TimberClassFileTransformer
+ * @see AgentConfig
  */
 public class TimberAgent {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(TimberAgent.class);
+    private static final Logger LOGGER         = LoggerFactory.getLogger(TimberAgent.class);
+
+    // The agent doesn't depend on the API at compile time; therefore, the barrier profiler is accessed reflectively
+    private static final String PROFILER_CLASS = "com.quartercode.jtimber.api.profile.BarrierProfiler";
 
     public static void premain(String args, Instrumentation inst) {
 
-        // Read the stored node index; use a set in order to avoid (possible) duplicate entries
-        Set<String> nodeIndex = readIndex("/META-INF/jtimber/nodes.index");
+        // Parse the agent arguments; invalid arguments should prevent the JVM from starting instead of being silently ignored
+        AgentConfig config = AgentConfig.parse(args);
+        if (config.isDiagnostics()) {
+            LOGGER.info("Starting JTimber agent with configuration: {}", config);
+        }
+
+        // Use sets in order to avoid (possible) duplicate entries
+        Set<String> nodeIndex = new HashSet<>();
+        Set<String> parentSafeFieldIndex = new HashSet<>();
+
+        // Merge the stored per-class index fragments into the node index and the index of fields which don't require a parent type check at runtime
+        readIndexFragments("/META-INF/jtimber/nodes", nodeIndex, parentSafeFieldIndex);
+
+        // Also read the aggregated node index files which have been written by older versions of the annotation processor
+        nodeIndex.addAll(readIndex("/META-INF/jtimber/nodes.index"));
+
+        // The barrier profiler of the API reads its sample rate from a system property when it is first used
+        if (config.isProfile()) {
+            System.setProperty("jtimber.profiler.sampleRate", String.valueOf(config.getProfileSampleRate()));
+        }
+
+        // Publish the transformation metrics (and the barrier profiler) if requested
+        TransformationMetrics metrics = new TransformationMetrics();
+        if (config.isJMX()) {
+            metrics.register();
+
+            if (config.isProfile()) {
+                registerBarrierProfiler();
+            }
+        }
 
         // Add a transformer to transform all nodes
-        inst.addTransformer(new TimberClassFileTransformer(nodeIndex));
+        inst.addTransformer(new TimberClassFileTransformer(config, nodeIndex, parentSafeFieldIndex, metrics));
+
+        // Load and transform all included node classes in the background if requested; the transformer must be installed before
+        // Only the system class loader is available at this point; node classes of other class loaders are transformed lazily
+        if (config.isPreload()) {
+            NodeClassPreloader.start(NodeClassPreloader.filterIncluded(nodeIndex, config), ClassLoader.getSystemClassLoader(), config.getPreloadThreads(), config.isDiagnostics());
+        }
+    }
+
+    /*
+     * Publishes the barrier profiler of the API, which must be available to the system class loader, as an MXBean.
+     */
+    private static void registerBarrierProfiler() {
+
+        try {
+            Class.forName(PROFILER_CLASS, true, ClassLoader.getSystemClassLoader()).getMethod("register").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.error("Cannot register JTimber barrier profiler MXBean", e);
+        }
+    }
+
+    /*
+     * Reads all index fragments that can be found on the classpath inside the directories under the given resource path.
+     * The collected node classes and parent-safe fields are added to the given index sets.
+     */
+    private static void readIndexFragments(String resourcePath, Set<String> nodeIndex, Set<String> parentSafeFieldIndex) {
+
+        try (ResourceLister resourceLister = new ResourceLister(resourcePath, false)) {
+            readIndexFragments(resourceLister.getResourcePaths(), nodeIndex, parentSafeFieldIndex);
+        } catch (IOException e) {
+            LOGGER.error("Cannot read index fragment directories from '{}'", resourcePath, e);
+        }
+    }
+
+    /**
+     * Reads all index fragments ({@code *.index} files) which are located inside the given directories.
+     * The directories may be located on any file system, e.g. inside a jar file.
+     * The name of each fragment is the binary name of a node class; its lines are the names of the parent-safe fields of that class.
+     * The collected node classes and parent-safe fields are added to the given index sets.
+     * If a fragment or a directory cannot be read, an error is logged.
+     * 
+     * @param directories The directories which contain the index fragments.
+     * @param nodeIndex The set the internal names of the node classes are added to.
+     * @param parentSafeFieldIndex The set the {@link ASMUtils#getFieldIndexKey(String, String) keys} of the parent-safe fields are added to.
+     */
+    public static void readIndexFragments(List<Path> directories, Set<String> nodeIndex, Set<String> parentSafeFieldIndex) {
+
+        for (Path directory : directories) {
+            try (DirectoryStream<Path> fragments = Files.newDirectoryStream(directory, "*.index")) {
+                for (Path fragment : fragments) {
+                    String fileName = fragment.getFileName().toString();
+                    String className = fileName.substring(0, fileName.length() - ".index".length()).replace('.', '/');
+
+                    try {
+                        List<String> parentSafeFields = readLines(fragment);
+
+                        nodeIndex.add(className);
+                        for (String fieldName : parentSafeFields) {
+                            parentSafeFieldIndex.add(ASMUtils.getFieldIndexKey(className, fieldName));
+                        }
+                    } catch (IOException e) {
+                        LOGGER.error("Cannot read lines from specific index fragment ('{}')", fragment, e);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.error("Cannot list index fragments in directory '{}'", directory, e);
+            }
+        }
     }
 
     /*
@@ -0,0 +1,199 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.quartercode.jtimber.rh.agent.asm.TimberClassFileTransformer;
+import com.quartercode.jtimber.rh.agent.util.Histogram;
+
+/**
+ * The transformation metrics collect counters and histograms about the work done by the {@link TimberClassFileTransformer}.
+ * They can be used to track the startup cost of the runtime hook.
+ * If the {@code jmx} option is enabled, the {@link TimberAgent} publishes the metrics as an MXBean under the {@link #OBJECT_NAME}.
+ * All methods are thread-safe.
+ * 
+ * @see TransformationMetricsMXBean
+ */
+public class TransformationMetrics implements TransformationMetricsMXBean {
+
+    /**
+     * The JMX object name under which the transformation metrics are published.
+     */
+    public static final String  OBJECT_NAME            = "com.quartercode.jtimber:type=TransformationMetrics";
+
+    private static final Logger LOGGER                 = LoggerFactory.getLogger(TransformationMetrics.class);
+
+    private final AtomicLong    classesTransformed     = new AtomicLong();
+    private final AtomicLong    classesSkipped         = new AtomicLong();
+    private final AtomicLong    classesFailed          = new AtomicLong();
+    private final Histogram     transformTime          = new Histogram();
+    private final Histogram     barriersPerClass       = new Histogram();
+    private final Histogram     accessorFieldsPerClass = new Histogram();
+    private final Histogram     bytecodeSizeDelta      = new Histogram();
+
+    /**
+     * Publishes the transformation metrics on the platform MBean server under the {@link #OBJECT_NAME}.
+     * If that fails, an error is logged.
+     */
+    public void register() {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            LOGGER.error("Cannot register JTimber transformation metrics MBean '{}'", OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Records that a class has been skipped because it is no (included) node class.
+     */
+    public void recordSkipped() {
+
+        classesSkipped.incrementAndGet();
+    }
+
+    /**
+     * Records that the transformation of a node class has failed.
+     */
+    public void recordFailed() {
+
+        classesFailed.incrementAndGet();
+    }
+
+    /**
+     * Records that a node class has been transformed successfully.
+     * 
+     * @param micros The time the transformation took in microseconds.
+     * @param barriers The amount of parent watchers (barriers) which have been inserted into the class.
+     * @param accessorFields The amount of fields which are accessed by the generated child accessors.
+     * @param sizeBefore The size of the bytecode before the transformation in bytes.
+     * @param sizeAfter The size of the bytecode after the transformation in bytes.
+     */
+    public void recordTransformed(long micros, int barriers, int accessorFields, int sizeBefore, int sizeAfter) {
+
+        classesTransformed.incrementAndGet();
+        transformTime.record(micros);
+        barriersPerClass.record(barriers);
+        accessorFieldsPerClass.record(accessorFields);
+        bytecodeSizeDelta.record(sizeAfter - sizeBefore);
+    }
+
+    @Override
+    public long getClassesTransformed() {
+
+        return classesTransformed.get();
+    }
+
+    @Override
+    public long getClassesSkipped() {
+
+        return classesSkipped.get();
+    }
+
+    @Override
+    public long getClassesFailed() {
+
+        return classesFailed.get();
+    }
+
+    @Override
+    public long getTransformTimeTotalMicros() {
+
+        return transformTime.getSum();
+    }
+
+    @Override
+    public long getTransformTimeMaxMicros() {
+
+        return transformTime.getMax();
+    }
+
+    @Override
+    public double getTransformTimeMeanMicros() {
+
+        return transformTime.getMean();
+    }
+
+    @Override
+    public long[] getTransformTimeHistogram() {
+
+        return transformTime.getBuckets();
+    }
+
+    @Override
+    public long getBarriersEmitted() {
+
+        return barriersPerClass.getSum();
+    }
+
+    @Override
+    public long[] getBarriersPerClassHistogram() {
+
+        return barriersPerClass.getBuckets();
+    }
+
+    @Override
+    public long getAccessorFieldsEmitted() {
+
+        return accessorFieldsPerClass.getSum();
+    }
+
+    @Override
+    public long[] getAccessorFieldsPerClassHistogram() {
+
+        return accessorFieldsPerClass.getBuckets();
+    }
+
+    @Override
+    public long getBytecodeSizeDeltaTotal() {
+
+        return bytecodeSizeDelta.getSum();
+    }
+
+    @Override
+    public long[] getBytecodeSizeDeltaHistogram() {
+
+        return bytecodeSizeDelta.getBuckets();
+    }
+
+    @Override
+    public void reset() {
+
+        classesTransformed.set(0);
+        classesSkipped.set(0);
+        classesFailed.set(0);
+        transformTime.reset();
+        barriersPerClass.reset();
+        accessorFieldsPerClass.reset();
+        bytecodeSizeDelta.reset();
+    }
+
+    @Override
+    public String toString() {
+
+        return "transformed=" + getClassesTransformed() + ", skipped=" + getClassesSkipped() + ", failed=" + getClassesFailed() + ", transformTime=" + getTransformTimeTotalMicros() + "us, barriers="
+                + getBarriersEmitted() + ", accessorFields=" + getAccessorFieldsEmitted() + ", sizeDelta=" + getBytecodeSizeDeltaTotal() + "B";
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent;
+
+import com.quartercode.jtimber.rh.agent.util.Histogram;
+
+/**
+ * The management interface of the {@link TransformationMetrics}, which are published via JMX by the {@link TimberAgent}.
+ * All histograms are returned as power-of-two bucket counts (see {@link Histogram} for the bucket bounds).
+ * 
+ * @see TransformationMetrics
+ */
+public interface TransformationMetricsMXBean {
+
+    /**
+     * Returns the amount of node classes which have been transformed successfully.
+     * 
+     * @return The amount of transformed classes.
+     */
+    public long getClassesTransformed();
+
+    /**
+     * Returns the amount of loaded classes which have not been transformed because they are no (included) node classes.
+     * 
+     * @return The amount of skipped classes.
+     */
+    public long getClassesSkipped();
+
+    /**
+     * Returns the amount of node classes whose transformation has failed. Such classes are left untouched.
+     * 
+     * @return The amount of failed classes.
+     */
+    public long getClassesFailed();
+
+    /**
+     * Returns the total time spent transforming node classes in microseconds.
+     * 
+     * @return The total transformation time.
+     */
+    public long getTransformTimeTotalMicros();
+
+    /**
+     * Returns the longest time spent transforming a single node class in microseconds.
+     * 
+     * @return The maximum transformation time.
+     */
+    public long getTransformTimeMaxMicros();
+
+    /**
+     * Returns the average time spent transforming a single node class in microseconds.
+     * 
+     * @return The mean transformation time.
+     */
+    public double getTransformTimeMeanMicros();
+
+    /**
+     * Returns the histogram of the transformation times of single node classes in microseconds.
+     * 
+     * @return The transformation time histogram buckets.
+     */
+    public long[] getTransformTimeHistogram();
+
+    /**
+     * Returns the total amount of parent watchers (barriers) which have been inserted into node classes.
+     * 
+     * @return The total amount of inserted barriers.
+     */
+    public long getBarriersEmitted();
+
+    /**
+     * Returns the histogram of the amounts of parent watchers (barriers) inserted per node class.
+     * 
+     * @return The barriers per class histogram buckets.
+     */
+    public long[] getBarriersPerClassHistogram();
+
+    /**
+     * Returns the total amount of fields which are accessed by the generated child accessors of all node classes.
+     * 
+     * @return The total amount of child accessor fields.
+     */
+    public long getAccessorFieldsEmitted();
+
+    /**
+     * Returns the histogram of the amounts of fields accessed by the generated child accessors per node class.
+     * 
+     * @return The child accessor fields per class histogram buckets.
+     */
+    public long[] getAccessorFieldsPerClassHistogram();
+
+    /**
+     * Returns the total amount of bytes the bytecode of all node classes has grown by the transformation.
+     * 
+     * @return The total bytecode size delta.
+     */
+    public long getBytecodeSizeDeltaTotal();
+
+    /**
+     * Returns the histogram of the amounts of bytes the bytecode of single node classes has grown by the transformation.
+     * 
+     * @return The bytecode size delta histogram buckets.
+     */
+    public long[] getBytecodeSizeDeltaHistogram();
+
+    /**
+     * Resets all counters and histograms.
+     */
+    public void reset();
+
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent.asm;
+
+import java.util.Set;
+import com.quartercode.jtimber.rh.agent.util.ASMUtils;
+
+/**
+ * The different strategies the parent watchers (also called "barriers") inserted by the runtime hook can use for adding parents.
+ * They mainly differ in whether the parent type is checked against the type parameter of the parent-aware object.
+ * 
+ * @see InsertParentWatcherClassAdapter
+ * @see InsertJAXBTweaksClassAdapter
+ */
+public enum BarrierStrategy {
+
+    /**
+     * The parent type is always checked.
+     * This is the safest strategy and should be used during development.
+     */
+    CHECKED {
+
+        @Override
+        public boolean skipsParentTypeCheck(String className, String owner, String name, Set<String> parentSafeFieldIndex) {
+
+            return false;
+        }
+
+    },
+
+    /**
+     * The parent type is only checked if its compatibility hasn't been proven at compile time.
+     * Such proofs are only available for fields of the transformed class itself.
+     * This is the default strategy.
+     */
+    PROVEN {
+
+        @Override
+        public boolean skipsParentTypeCheck(String className, String owner, String name, Set<String> parentSafeFieldIndex) {
+
+            return owner.equals(className) && parentSafeFieldIndex.contains(ASMUtils.getFieldIndexKey(owner, name));
+        }
+
+    },
+
+    /**
+     * The parent type is never checked.
+     * This is the leanest strategy which can be used in production once the code has been tested with one of the other strategies.
+     * Note that disallowed parents are silently accepted when this strategy is used.
+     */
+    UNCHECKED {
+
+        @Override
+        public boolean skipsParentTypeCheck(String className, String owner, String name, Set<String> parentSafeFieldIndex) {
+
+            return true;
+        }
+
+    };
+
+    /**
+     * Returns whether the parent watcher for a write to the given field, which is located in a method of the given transformed class, should skip the parent type check.
+     * 
+     * @param className The internal name of the class which is currently being transformed.
+     * @param owner The internal name of the class which declares the written field.
+     * @param name The name of the written field.
+     * @param parentSafeFieldIndex The index that marks which fields are proven to only accept their declaring class as a parent.
+     * @return Whether the parent type check should be skipped.
+     */
+    public abstract boolean skipsParentTypeCheck(String className, String owner, String name, Set<String> parentSafeFieldIndex);
+
+}
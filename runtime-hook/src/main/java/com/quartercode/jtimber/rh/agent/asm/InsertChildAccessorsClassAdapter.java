@@ -21,7 +21,6 @@ package com.quartercode.jtimber.rh.agent.asm;
 import static org.objectweb.asm.Opcodes.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
@@ -45,27 +44,31 @@ public final class InsertChildAccessorsClassAdapter extends ClassVisitor {
     private static final Method            FUNC_ADD_ACTUAL_CHILDREN_TO_LIST = Method.getMethod("void addActualChildrenToList (java.util.List, java.lang.Object)");
     private static final Method            FUNC_COUNT_ACTUAL_CHILDREN       = Method.getMethod("int countActualChildren (java.lang.Object)");
 
+    private static final Type              EVENTS_CLASS                     = Type.getObjectType("com/quartercode/jtimber/api/internal/TreeEvents");
+    private static final Method            EVENTS_BEGIN_GET_CHILDREN        = Method.getMethod("java.lang.Object beginGetChildren (java.lang.Object, java.lang.Class)");
+    private static final Method            EVENTS_COMMIT_GET_CHILDREN       = Method.getMethod("void commitGetChildren (java.util.List, java.lang.Object, java.lang.Object, java.lang.Class)");
+
     private static final Method            GET_CHILDREN_METHOD              = Method.getMethod("java.util.List getChildren ()");
     private static final Method            GET_CHILD_COUNT_METHOD           = Method.getMethod("int getChildCount ()");
 
-    private final Set<String>              nodeIndex;
+    private final boolean                  hasNodeAsSuperclass;
 
     private Type                           classType;
     private Type                           superclassType;
-    private boolean                        hasNodeAsSuperclass;
     private final List<Pair<String, Type>> fields                           = new ArrayList<>();
 
     /**
      * Creates a new insert child accessors class adapter.
      * 
      * @param cv The class visitor to which this visitor delegates method calls. May be {@code null}.
-     * @param nodeIndex The index that marks which classes are nodes.
+     * @param hasNodeAsSuperclass Whether the superclass of the transformed class is a node which is transformed as well.
+     *        If that is the case, the generated child accessors include the children returned by the child accessors of the superclass.
      */
-    public InsertChildAccessorsClassAdapter(ClassVisitor cv, Set<String> nodeIndex) {
+    public InsertChildAccessorsClassAdapter(ClassVisitor cv, boolean hasNodeAsSuperclass) {
 
         super(ASM5, cv);
 
-        this.nodeIndex = nodeIndex;
+        this.hasNodeAsSuperclass = hasNodeAsSuperclass;
     }
 
     @Override
@@ -73,7 +76,6 @@ public final class InsertChildAccessorsClassAdapter extends ClassVisitor {
 
         classType = Type.getObjectType(name);
         superclassType = Type.getObjectType(superName);
-        hasNodeAsSuperclass = nodeIndex.contains(superName);
 
         super.visit(version, access, name, signature, superName, interfaces);
     }
@@ -81,7 +83,10 @@ public final class InsertChildAccessorsClassAdapter extends ClassVisitor {
     @Override
     public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
 
-        fields.add(Pair.of(name, Type.getType(desc)));
+        // Static fields don't belong to any node instance; therefore, their values are no children
+        if ( (access & ACC_STATIC) == 0) {
+            fields.add(Pair.of(name, Type.getType(desc)));
+        }
 
         return super.visitField(access, name, desc, signature, value);
     }
@@ -109,10 +114,28 @@ public final class InsertChildAccessorsClassAdapter extends ClassVisitor {
         super.visitEnd();
     }
 
+    /**
+     * Returns the amount of fields which are accessed by the generated child accessors.
+     * This value is only complete after the whole class has been visited.
+     * 
+     * @return The amount of fields covered by the child accessors.
+     */
+    public int getAccessedFieldCount() {
+
+        return fields.size();
+    }
+
     private void generateGetChildrenMethod() {
 
         GeneratorAdapter mg = new GeneratorAdapter(ACC_PUBLIC, GET_CHILDREN_METHOD, null, null, cv);
 
+        // Start recording the tree event and store the returned token in a local variable; the event is only started by the outermost getChildren() call of a class hierarchy
+        int eventToken = mg.newLocal(Type.getType(Object.class));
+        mg.loadThis();
+        mg.push(classType);
+        mg.invokeStatic(EVENTS_CLASS, EVENTS_BEGIN_GET_CHILDREN);
+        mg.storeLocal(eventToken);
+
         // Create the list; if the superclass is a node, call the getChildren() method on the superclass and use the result as the list
         // The leave the list at the bottom of the stack
         if (hasNodeAsSuperclass) {
@@ -147,6 +170,15 @@ public final class InsertChildAccessorsClassAdapter extends ClassVisitor {
             // ----- Stack: [list]
         }
 
+        // Finish recording the tree event
+        mg.dup();
+        mg.loadLocal(eventToken);
+        mg.loadThis();
+        mg.push(classType);
+        mg.invokeStatic(EVENTS_CLASS, EVENTS_COMMIT_GET_CHILDREN);
+
+        // ----- Stack: [list]
+
         // Return the list (which is at the bottom of the stack)
         mg.returnValue();
 
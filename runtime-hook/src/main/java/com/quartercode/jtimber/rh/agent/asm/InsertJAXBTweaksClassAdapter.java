@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import org.apache.commons.lang3.tuple.Triple;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassVisitor;
@@ -40,7 +41,8 @@ import com.quartercode.jtimber.rh.agent.util.ASMUtils;
  * 
  * <ol>
  * <li>Wrap all field values, which are annotated with {@code @SubstituteWithWrapper}, into the specified wrapper and set the fields to that wrapper.</li>
- * <li>Call the {@code addParent()} method (with {@code this} as the first argument) on all fields which are parent-aware.</li>
+ * <li>Call the {@code addParent()} method (with {@code this} as the first argument) on all fields which are parent-aware.
+ * Depending on the used {@link BarrierStrategy}, the parent type check might be skipped.</li>
  * </ol>
  * 
  * Note that the class visitor transforms all classes that are fed into it.
@@ -48,26 +50,38 @@ import com.quartercode.jtimber.rh.agent.util.ASMUtils;
  */
 public final class InsertJAXBTweaksClassAdapter extends ClassVisitor {
 
-    private static final Type                      SWW_CLASS                    = Type.getObjectType("com/quartercode/jtimber/api/node/wrapper/SubstituteWithWrapper");
-    private static final Type                      SWW_DEFAULT_CLASS            = Type.getObjectType(SWW_CLASS.getInternalName() + "$Default");
+    private static final Type                      SWW_CLASS                     = Type.getObjectType("com/quartercode/jtimber/api/node/wrapper/SubstituteWithWrapper");
+    private static final Type                      SWW_DEFAULT_CLASS             = Type.getObjectType(SWW_CLASS.getInternalName() + "$Default");
 
-    private static final Method                    AFTER_UNMARSHAL_METHOD       = Method.getMethod("void afterUnmarshal (javax.xml.bind.Unmarshaller, java.lang.Object)");
-    private static final Method                    ADDED_AFTER_UNMARSHAL_METHOD = Method.getMethod("void afterUnmarshal_jtimber (javax.xml.bind.Unmarshaller, java.lang.Object)");
+    private static final Method                    AFTER_UNMARSHAL_METHOD        = Method.getMethod("void afterUnmarshal (javax.xml.bind.Unmarshaller, java.lang.Object)");
+    private static final Method                    ADDED_AFTER_UNMARSHAL_METHOD  = Method.getMethod("void afterUnmarshal_jtimber (javax.xml.bind.Unmarshaller, java.lang.Object)");
+
+    private static final Type                      EVENTS_CLASS                  = Type.getObjectType("com/quartercode/jtimber/api/internal/TreeEvents");
+    private static final Method                    EVENTS_BEGIN_AFTER_UNMARSHAL  = Method.getMethod("java.lang.Object beginAfterUnmarshal ()");
+    private static final Method                    EVENTS_COMMIT_AFTER_UNMARSHAL = Method.getMethod("void commitAfterUnmarshal (java.lang.Object, java.lang.Object, int)");
+
+    private final BarrierStrategy                  barrierStrategy;
+    private final Set<String>                      parentSafeFieldIndex;
 
     private Type                                   classType;
     private boolean                                containsCustomAfterUnmarshalMethod;
 
-    private final Map<String, Type>                fields                       = new HashMap<>();
-    private final List<Triple<String, Type, Type>> fieldsForWrapperSubstitution = new ArrayList<>();
+    private final Map<String, Type>                fields                        = new HashMap<>();
+    private final List<Triple<String, Type, Type>> fieldsForWrapperSubstitution  = new ArrayList<>();
 
     /**
      * Creates a new insert JAXB tweaks class adapter.
      * 
      * @param cv The class visitor to which this visitor delegates method calls. May be {@code null}.
+     * @param barrierStrategy The strategy which decides whether the generated {@code addParent()} calls should check the parent type.
+     * @param parentSafeFieldIndex The index that marks which fields are proven to only accept the transformed class as a parent.
      */
-    public InsertJAXBTweaksClassAdapter(ClassVisitor cv) {
+    public InsertJAXBTweaksClassAdapter(ClassVisitor cv, BarrierStrategy barrierStrategy, Set<String> parentSafeFieldIndex) {
 
         super(ASM5, cv);
+
+        this.barrierStrategy = barrierStrategy;
+        this.parentSafeFieldIndex = parentSafeFieldIndex;
     }
 
     @Override
@@ -81,7 +95,10 @@ public final class InsertJAXBTweaksClassAdapter extends ClassVisitor {
     @Override
     public FieldVisitor visitField(int access, final String name, String desc, String signature, Object value) {
 
-        fields.put(name, Type.getType(desc));
+        // Static fields are not unmarshalled
+        if ( (access & ACC_STATIC) == 0) {
+            fields.put(name, Type.getType(desc));
+        }
 
         // This annotation visitor expects "SubstituteWithWrapper" annotations, parses them and adds their data to the list "fieldsForWrapperSubstitution"
         final class AnnotationVisitorImpl extends AnnotationVisitor {
@@ -209,6 +226,11 @@ public final class InsertJAXBTweaksClassAdapter extends ClassVisitor {
 
         GeneratorAdapter mg = new GeneratorAdapter(ACC_PUBLIC, method, null, null, cv);
 
+        // Start recording the tree event and store the returned token in a local variable
+        int eventToken = mg.newLocal(Type.getType(Object.class));
+        mg.invokeStatic(EVENTS_CLASS, EVENTS_BEGIN_AFTER_UNMARSHAL);
+        mg.storeLocal(eventToken);
+
         /*
          * Iterate through all fields annotated with "SubstituteWithWrapper" and replace their current value with their current value wrapped inside a wrapper.
          * This section first reads the current field value, then creates a new wrapper which wraps around that field value, and finally sets the field to the wrapper.
@@ -263,9 +285,20 @@ public final class InsertJAXBTweaksClassAdapter extends ClassVisitor {
 
             // ----- Stack: [fieldValue]
 
-            ASMUtils.generateAddOrRemoveThisAsParent(mg, "addParent");
+            String className = classType.getInternalName();
+            if (barrierStrategy.skipsParentTypeCheck(className, className, fieldName, parentSafeFieldIndex)) {
+                ASMUtils.generateAddThisAsParentUnchecked(mg);
+            } else {
+                ASMUtils.generateAddOrRemoveThisAsParent(mg, "addParent");
+            }
         }
 
+        // Finish recording the tree event; all fields have been scanned, but only their parent-aware values have received the parent
+        mg.loadLocal(eventToken);
+        mg.loadThis();
+        mg.push(fields.size());
+        mg.invokeStatic(EVENTS_CLASS, EVENTS_COMMIT_AFTER_UNMARSHAL);
+
         // End the method
         mg.returnValue();
         mg.endMethod();
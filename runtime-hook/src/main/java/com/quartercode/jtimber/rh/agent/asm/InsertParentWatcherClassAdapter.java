@@ -19,6 +19,7 @@
 package com.quartercode.jtimber.rh.agent.asm;
 
 import static org.objectweb.asm.Opcodes.*;
+import java.util.Set;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
@@ -27,18 +28,45 @@ import com.quartercode.jtimber.rh.agent.util.ASMUtils;
 /**
  * The {@link ClassVisitor} which adds so called "parent watchers" to nodes in order to track the parents of parent-aware objects.
  * Note that it transforms all classes that are fed into it.
- * Therefore, only node classes should be sent through it.
+ * Therefore, only node classes should be sent through it.<br>
+ * <br>
+ * Depending on the used {@link BarrierStrategy}, the inserted parent watchers might skip the parent type check (e.g. if the parent type compatibility of the
+ * written field has been proven at compile time).
+ * In profile mode, the parent watchers are replaced by calls to the barrier profiler of the API, which additionally records some counters for each written field.
  */
 public final class InsertParentWatcherClassAdapter extends ClassVisitor {
 
+    private final BarrierStrategy  barrierStrategy;
+    private final Set<String>      parentSafeFieldIndex;
+    private final ProfiledFieldIds profiledFieldIds;
+
+    private String                 className;
+    private int                    barrierCount;
+
     /**
      * Creates a new insert parent watcher class adapter.
      * 
      * @param cv The class visitor to which this visitor delegates method calls. May be {@code null}.
+     * @param barrierStrategy The strategy which decides whether the inserted parent watchers should check the parent type.
+     * @param parentSafeFieldIndex The index that marks which fields are proven to only accept the transformed class as a parent.
+     * @param profiledFieldIds The field ids which should be used for profiling the inserted parent watchers.
+     *        If this is {@code null}, the regular parent watchers without profiling are inserted.
      */
-    public InsertParentWatcherClassAdapter(ClassVisitor cv) {
+    public InsertParentWatcherClassAdapter(ClassVisitor cv, BarrierStrategy barrierStrategy, Set<String> parentSafeFieldIndex, ProfiledFieldIds profiledFieldIds) {
 
         super(ASM5, cv);
+
+        this.barrierStrategy = barrierStrategy;
+        this.parentSafeFieldIndex = parentSafeFieldIndex;
+        this.profiledFieldIds = profiledFieldIds;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+
+        className = name;
+
+        super.visit(version, access, name, signature, superName, interfaces);
     }
 
     @Override
@@ -52,10 +80,21 @@ public final class InsertParentWatcherClassAdapter extends ClassVisitor {
         return mv;
     }
 
+    /**
+     * Returns the amount of parent watchers (barriers) which have been inserted into the transformed class so far.
+     * After the whole class has been visited, this is the total amount of inserted parent watchers.
+     * 
+     * @return The amount of inserted parent watchers.
+     */
+    public int getBarrierCount() {
+
+        return barrierCount;
+    }
+
     /*
      * The method adapter internally used by the InsertParentWatcherClassAdapter.
      */
-    private static final class InsertParentWatcherMethodAdapter extends MethodVisitor {
+    private final class InsertParentWatcherMethodAdapter extends MethodVisitor {
 
         private InsertParentWatcherMethodAdapter(MethodVisitor mv) {
 
@@ -67,27 +106,40 @@ public final class InsertParentWatcherClassAdapter extends ClassVisitor {
 
             // Note that the instructions inside this block make sure to reconstruct the "input" stack
             if (opcode == PUTFIELD && Type.getType(desc).getSort() == Type.OBJECT) {
-                /*
-                 * If a parent-aware object is already present in the field, remove "this" from its parents.
-                 */
-
-                // Push the old object from the accessed field
-                super.visitVarInsn(ALOAD, 0);
-                super.visitFieldInsn(GETFIELD, owner, name, desc);
-
-                // Write a remove parent instruction set that uses the recently pushed "old" object
-                ASMUtils.generateAddOrRemoveThisAsParent(mv, "removeParent");
-
-                // Discard the "old" field value pushed earlier
-                super.visitInsn(POP);
-
-                /*
-                 * If the new object is parent-aware (and not null), add this objects to its parents.
-                 */
-
-                // Write an add parent instruction set that uses the "new" object already on the stack
-                // No popping is necessary afterwards because the "new" object will be used by the next instruction
-                ASMUtils.generateAddOrRemoveThisAsParent(mv, "addParent");
+                barrierCount++;
+                boolean checked = !barrierStrategy.skipsParentTypeCheck(className, owner, name, parentSafeFieldIndex);
+
+                if (profiledFieldIds != null) {
+                    // In profile mode, the whole parent watcher logic is executed by the barrier profiler
+                    ASMUtils.generateProfiledWrite(mv, owner, name, desc, checked, profiledFieldIds.getId(ASMUtils.getFieldIndexKey(owner, name)));
+                } else {
+                    /*
+                     * If a parent-aware object is already present in the field, remove "this" from its parents.
+                     */
+
+                    // Push the old object from the accessed field
+                    super.visitVarInsn(ALOAD, 0);
+                    super.visitFieldInsn(GETFIELD, owner, name, desc);
+
+                    // Write a remove parent instruction set that uses the recently pushed "old" object
+                    ASMUtils.generateAddOrRemoveThisAsParent(mv, "removeParent");
+
+                    // Discard the "old" field value pushed earlier
+                    super.visitInsn(POP);
+
+                    /*
+                     * If the new object is parent-aware (and not null), add this objects to its parents.
+                     */
+
+                    // Write an add parent instruction set that uses the "new" object already on the stack
+                    // No popping is necessary afterwards because the "new" object will be used by the next instruction
+                    // Note that the parent type check might be skipped depending on the barrier strategy
+                    if (checked) {
+                        ASMUtils.generateAddOrRemoveThisAsParent(mv, "addParent");
+                    } else {
+                        ASMUtils.generateAddThisAsParentUnchecked(mv);
+                    }
+                }
             }
 
             // Write the actual field instruction by calling the next visitor
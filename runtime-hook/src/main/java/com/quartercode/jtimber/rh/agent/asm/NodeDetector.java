@@ -0,0 +1,207 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent.asm;
+
+import static org.objectweb.asm.Opcodes.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * The node detector recognizes node classes by their bytecode instead of the node index.
+ * It is used for classes which haven't been compiled with the annotation processor of the compiler hook (e.g. classes from third-party libraries).<br>
+ * <br>
+ * In order to keep the overhead low, only the headers of classes (superclass and interfaces) are read.
+ * Moreover, the result for each type is cached per class loader, so each supertype is only resolved once for each loader.
+ * Known non-node types (including types whose bytecode cannot be found) are rejected by that cache without reading or parsing any bytecode.
+ * Classes from the platform packages (like {@code java.*}) are rejected by their names without reading any bytecode.
+ * The caches are weakly bound to their class loaders and are cleared once they contain a certain amount of types, so they don't grow indefinitely.
+ */
+public class NodeDetector {
+
+    private static final String                                    NODE_CLASS                 = "com/quartercode/jtimber/api/node/Node";
+    private static final String[]                                  PLATFORM_PREFIXES          = { "java/", "javax/", "jdk/", "sun/", "com/sun/" };
+    // The classes of JTimber itself are never transformed; however, the API classes still must be resolved as supertypes
+    private static final String[]                                  NON_TRANSFORMABLE_PREFIXES = { "com/quartercode/jtimber/api/", "com/quartercode/jtimber/rh/" };
+    private static final int                                       MAX_CACHED_TYPES           = 1 << 16;
+
+    private final Set<String>                                      nodeIndex;
+    // The node type caches of the class loaders; the null key stands for the bootstrap class loader
+    private final Map<ClassLoader, ConcurrentMap<String, Boolean>> nodeTypeCaches             = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Creates a new node detector.
+     * Classes which are contained in the given node index are always recognized as nodes without reading any bytecode.
+     * 
+     * @param nodeIndex The index that marks which classes are known nodes.
+     */
+    public NodeDetector(Set<String> nodeIndex) {
+
+        this.nodeIndex = nodeIndex;
+    }
+
+    /**
+     * Returns whether the class with the given internal name is a node class which should be transformed.
+     * That is the case if the class is neither an interface nor an enum and implements the {@code Node} interface through any of its supertypes.
+     * If the bytecode of the class is not provided, it is loaded as a resource from the given class loader.
+     * 
+     * @param loader The class loader which loads the class. {@code null} stands for the bootstrap class loader.
+     * @param className The internal name of the class which should be checked.
+     * @param classfile The bytecode of the class, or {@code null} if it should be loaded from the class loader.
+     * @return Whether the given class is a transformable node class.
+     */
+    public boolean isNodeClass(ClassLoader loader, String className, byte[] classfile) {
+
+        if (hasPrefix(className, PLATFORM_PREFIXES) || hasPrefix(className, NON_TRANSFORMABLE_PREFIXES)) {
+            return false;
+        } else if (nodeIndex.contains(className)) {
+            return true;
+        }
+
+        // Known non-node types are rejected without reading any bytecode
+        ConcurrentMap<String, Boolean> cache = getCache(loader);
+        Boolean cached = cache.get(className);
+        if (cached != null && !cached) {
+            return false;
+        }
+
+        ClassReader header = classfile == null ? readHeader(loader, className) : readHeader(classfile);
+        if (header == null || (header.getAccess() & (ACC_INTERFACE | ACC_ENUM)) != 0) {
+            return false;
+        }
+
+        return cached != null || resolveNodeType(loader, cache, className, header);
+    }
+
+    /**
+     * Returns whether the type (class or interface) with the given internal name is a subtype of the {@code Node} interface.
+     * If the result isn't cached yet, the bytecode of the type is loaded as a resource from the given class loader.
+     * 
+     * @param loader The class loader which is used to load the bytecode of the type and its supertypes. {@code null} stands for the bootstrap class loader.
+     * @param typeName The internal name of the type which should be checked.
+     * @return Whether the given type is a node type.
+     */
+    public boolean isNodeType(ClassLoader loader, String typeName) {
+
+        return isNodeType(loader, getCache(loader), typeName);
+    }
+
+    private boolean isNodeType(ClassLoader loader, ConcurrentMap<String, Boolean> cache, String typeName) {
+
+        if (typeName.equals(NODE_CLASS)) {
+            return true;
+        } else if (hasPrefix(typeName, PLATFORM_PREFIXES)) {
+            return false;
+        } else if (nodeIndex.contains(typeName)) {
+            return true;
+        }
+
+        Boolean cached = cache.get(typeName);
+        if (cached != null) {
+            return cached;
+        }
+
+        ClassReader header = readHeader(loader, typeName);
+        if (header == null) {
+            // Since the cache is scoped to the class loader, the missing type won't be looked up again
+            putCache(cache, typeName, false);
+            return false;
+        }
+
+        return resolveNodeType(loader, cache, typeName, header);
+    }
+
+    /*
+     * Checks the supertypes from the given class header and caches the result.
+     */
+    private boolean resolveNodeType(ClassLoader loader, ConcurrentMap<String, Boolean> cache, String typeName, ClassReader header) {
+
+        boolean result = false;
+
+        String superName = header.getSuperName();
+        if (superName != null && isNodeType(loader, cache, superName)) {
+            result = true;
+        } else {
+            for (String interfaceName : header.getInterfaces()) {
+                if (isNodeType(loader, cache, interfaceName)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+
+        putCache(cache, typeName, result);
+        return result;
+    }
+
+    private ConcurrentMap<String, Boolean> getCache(ClassLoader loader) {
+
+        return nodeTypeCaches.computeIfAbsent(loader, key -> new ConcurrentHashMap<>());
+    }
+
+    private void putCache(ConcurrentMap<String, Boolean> cache, String typeName, boolean result) {
+
+        // The cleared results are simply resolved again when they are needed
+        if (cache.size() >= MAX_CACHED_TYPES) {
+            cache.clear();
+        }
+
+        cache.put(typeName, result);
+    }
+
+    private ClassReader readHeader(ClassLoader loader, String typeName) {
+
+        String resourceName = typeName + ".class";
+
+        try (InputStream in = loader == null ? ClassLoader.getSystemResourceAsStream(resourceName) : loader.getResourceAsStream(resourceName)) {
+            return in == null ? null : new ClassReader(in);
+        } catch (IOException | IllegalArgumentException e) {
+            // The class file cannot be read or has an unsupported version
+            return null;
+        }
+    }
+
+    private ClassReader readHeader(byte[] classfile) {
+
+        try {
+            return new ClassReader(classfile);
+        } catch (IllegalArgumentException e) {
+            // The class file has an unsupported version
+            return null;
+        }
+    }
+
+    private boolean hasPrefix(String className, String[] prefixes) {
+
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent.asm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.quartercode.jtimber.rh.agent.util.ASMUtils;
+
+/**
+ * The profiled field ids assign a dense integer id to each field which is written by a profiled parent watcher.
+ * The ids are passed to the barrier profiler of the API, which uses them as indices into its counter arrays.
+ * All methods are thread-safe.
+ * 
+ * @see InsertParentWatcherClassAdapter
+ */
+public class ProfiledFieldIds {
+
+    private final ConcurrentMap<String, Integer> ids    = new ConcurrentHashMap<>();
+    private final AtomicInteger                  nextId = new AtomicInteger();
+
+    /**
+     * Returns the id of the field with the given key (as returned by {@link ASMUtils#getFieldIndexKey(String, String)}).
+     * If the field doesn't have an id yet, a new one is assigned.
+     * 
+     * @param fieldKey The key of the field whose id should be returned.
+     * @return The id of the field.
+     */
+    public int getId(String fieldKey) {
+
+        Integer id = ids.get(fieldKey);
+
+        if (id == null) {
+            Integer newId = nextId.getAndIncrement();
+            id = ids.putIfAbsent(fieldKey, newId);
+            if (id == null) {
+                id = newId;
+            }
+        }
+
+        return id;
+    }
+
+}
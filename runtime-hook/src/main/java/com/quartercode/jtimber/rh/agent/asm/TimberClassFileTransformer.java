@@ -18,56 +18,174 @@
 
 package com.quartercode.jtimber.rh.agent.asm;
 
+import java.io.IOException;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.IllegalClassFormatException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.ProtectionDomain;
 import java.util.Set;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.quartercode.jtimber.rh.agent.AgentConfig;
+import com.quartercode.jtimber.rh.agent.NodeClassPreloader;
+import com.quartercode.jtimber.rh.agent.TransformationMetrics;
+import com.quartercode.jtimber.rh.agent.util.ASMUtils;
 
 /**
  * The {@link ClassFileTransformer} which manipulates the bytecode of newly loaded classes using the {@link InsertParentWatcherClassAdapter}.
  * That bytecode manipulator adds extra bytecode for tracking the parents of parent-aware objects.
+ * Which node classes are transformed and which additional transformations are applied is controlled by the {@link AgentConfig}.
+ * Since classes might be loaded by multiple threads at the same time (e.g. by the {@link NodeClassPreloader}), the transformer is thread-safe
+ * as long as the given indexes are not modified anymore.
  * 
  * @see InsertParentWatcherClassAdapter
  */
 public class TimberClassFileTransformer implements ClassFileTransformer {
 
-    private final Set<String> nodeIndex;
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimberClassFileTransformer.class);
+
+    private final AgentConfig           config;
+    private final Set<String>           nodeIndex;
+    private final Set<String>           parentSafeFieldIndex;
+    private final TransformationMetrics metrics;
+    private final NodeDetector          nodeDetector;
+    private final ProfiledFieldIds      profiledFieldIds;
 
     /**
      * Creates a new timber class file transformer that only transforms nodes.
      * Which classes are nodes should be listed in the given node index (containing the internal names of node classes).
+     * Moreover, the parent-safe field index lists all fields whose parent type compatibility has already been proven at compile time
+     * (entries have the format {@code internalClassName#fieldName}).
+     * If the {@link AgentConfig#isDetect() detection mode} is enabled, classes which are not contained in the node index are additionally checked
+     * using a {@link NodeDetector}.
      * 
+     * @param config The agent configuration which controls which node classes are transformed and how that is done.
      * @param nodeIndex The index that marks which classes are nodes and should therefore be transformed.
+     * @param parentSafeFieldIndex The index that marks which fields don't require a parent type check at runtime.
+     * @param metrics The transformation metrics which should be updated for each class that passes through the transformer.
      */
-    public TimberClassFileTransformer(Set<String> nodeIndex) {
+    public TimberClassFileTransformer(AgentConfig config, Set<String> nodeIndex, Set<String> parentSafeFieldIndex, TransformationMetrics metrics) {
 
+        this.config = config;
         this.nodeIndex = nodeIndex;
+        this.parentSafeFieldIndex = parentSafeFieldIndex;
+        this.metrics = metrics;
+        nodeDetector = config.isDetect() ? new NodeDetector(nodeIndex) : null;
+        profiledFieldIds = config.isProfile() ? new ProfiledFieldIds() : null;
     }
 
     @Override
     public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) throws IllegalClassFormatException {
 
         // Only transform actual nodes because only they are able to be parents and have children
-        if (!nodeIndex.contains(className)) {
+        // Note that the class name is null for anonymous classes that are defined at runtime
+        if (className == null || !isTransformedNode(loader, className, classfileBuffer)) {
+            metrics.recordSkipped();
+            return classfileBuffer;
+        }
+
+        long startTime = System.nanoTime();
+
+        // Exceptions thrown by transformers are silently swallowed by the JVM; therefore, they are logged here
+        NodeTransformation transformation;
+        byte[] transformed;
+        try {
+            transformation = transformNode(loader, classfileBuffer);
+            transformed = transformation.classfile;
+
+            if (config.isVerify()) {
+                ASMUtils.verifyClass(transformed);
+            }
+        } catch (Exception e) {
+            metrics.recordFailed();
+            LOGGER.error("Cannot transform node class '{}'; it is left untouched", className, e);
             return classfileBuffer;
         }
 
+        long micros = (System.nanoTime() - startTime) / 1000;
+        metrics.recordTransformed(micros, transformation.barrierCount, transformation.accessedFieldCount, classfileBuffer.length, transformed.length);
+
+        if (config.isDiagnostics()) {
+            LOGGER.info("Transformed node class '{}' in {} microseconds (size {} -> {} bytes, {} barriers)", className, micros, classfileBuffer.length, transformed.length, transformation.barrierCount);
+        }
+
+        if (config.getDumpDirectory() != null) {
+            dumpClass(className, transformed);
+        }
+
+        return transformed;
+    }
+
+    /*
+     * Returns whether the given class is an included node class. The bytecode is optional and only used by the node detector.
+     */
+    private boolean isTransformedNode(ClassLoader loader, String className, byte[] classfile) {
+
+        if (!config.isIncluded(className)) {
+            return false;
+        }
+
+        return nodeIndex.contains(className) || nodeDetector != null && nodeDetector.isNodeClass(loader, className, classfile);
+    }
+
+    private NodeTransformation transformNode(ClassLoader loader, byte[] classfileBuffer) {
+
+        // Reader
+        ClassReader reader = new ClassReader(classfileBuffer);
+
+        // The generated child accessors may only call the child accessors of the superclass if the superclass is transformed as well
+        String superName = reader.getSuperName();
+        boolean hasNodeAsSuperclass = superName != null && isTransformedNode(loader, superName, null);
+
         // Writer
         ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
 
         // Transformers
         // It is important that the InsertParentWatcherClassAdapter is located before the InsertJAXBTweaksClassAdapter
-        InsertJAXBTweaksClassAdapter transformer3 = new InsertJAXBTweaksClassAdapter(writer);
-        InsertChildAccessorsClassAdapter transformer2 = new InsertChildAccessorsClassAdapter(transformer3, nodeIndex);
-        InsertParentWatcherClassAdapter transformer1 = new InsertParentWatcherClassAdapter(transformer2);
+        ClassVisitor transformer3 = writer;
+        if (config.isJAXBTweaks()) {
+            transformer3 = new InsertJAXBTweaksClassAdapter(writer, config.getBarrierStrategy(), parentSafeFieldIndex);
+        }
+        InsertChildAccessorsClassAdapter transformer2 = new InsertChildAccessorsClassAdapter(transformer3, hasNodeAsSuperclass);
+        InsertParentWatcherClassAdapter transformer1 = new InsertParentWatcherClassAdapter(transformer2, config.getBarrierStrategy(), parentSafeFieldIndex, profiledFieldIds);
 
-        // Reader
-        ClassReader reader = new ClassReader(classfileBuffer);
         reader.accept(transformer1, 0);
 
-        return writer.toByteArray();
+        return new NodeTransformation(writer.toByteArray(), transformer1.getBarrierCount(), transformer2.getAccessedFieldCount());
+    }
+
+    private void dumpClass(String className, byte[] classfile) {
+
+        Path file = config.getDumpDirectory().resolve(className + ".class");
+
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, classfile);
+        } catch (IOException e) {
+            LOGGER.error("Cannot dump transformed node class '{}' to '{}'", className, file, e);
+        }
+    }
+
+    /*
+     * The result of a node class transformation, which includes some statistics for the transformation metrics.
+     */
+    private static final class NodeTransformation {
+
+        private final byte[] classfile;
+        private final int    barrierCount;
+        private final int    accessedFieldCount;
+
+        private NodeTransformation(byte[] classfile, int barrierCount, int accessedFieldCount) {
+
+            this.classfile = classfile;
+            this.barrierCount = barrierCount;
+            this.accessedFieldCount = accessedFieldCount;
+        }
+
     }
 
 }
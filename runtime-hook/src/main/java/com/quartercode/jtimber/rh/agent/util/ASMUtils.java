@@ -19,10 +19,18 @@
 package com.quartercode.jtimber.rh.agent.util;
 
 import static org.objectweb.asm.Opcodes.*;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.GeneratorAdapter;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.BasicVerifier;
+import org.objectweb.asm.util.CheckClassAdapter;
 
 /**
  * A utility class which contains some utility methods used by ASM transformers.
@@ -32,6 +40,8 @@ public class ASMUtils {
     private static final String API_PCKG           = "com/quartercode/jtimber/api";
     private static final String PARENT_AWARE_CLASS = API_PCKG + "/node/ParentAware";
     private static final String NODE_DESC          = "L" + API_PCKG + "/node/Node;";
+    private static final String FUNCS_CLASS        = API_PCKG + "/internal/RHConstFunctions";
+    private static final String PROFILER_CLASS     = API_PCKG + "/profile/BarrierProfiler";
 
     /**
      * Generates the instructions to push a non-static field onto the stack and box it in case it is a primitive.
@@ -85,6 +95,97 @@ public class ASMUtils {
         mv.visitLabel(endIf);
     }
 
+    /**
+     * Generates the instructions to add {@code this} as a parent to an object <b>without</b> verifying the parent type.
+     * This is done by calling the {@code addParentUnchecked()} function of the {@code RHConstFunctions} class, which also handles objects that are {@code null} or not parent-aware.
+     * Therefore, such instructions may only be generated for fields whose parent type compatibility has already been proven at compile time.<br>
+     * <br>
+     * The object the operation should be performed on needs to be the topmost value on the stack when the generated instructions are entered.
+     * The rest of the stack is ignored by the generated instructions.
+     * 
+     * @param mv The {@link MethodVisitor} that should be used to generate the instructions.
+     */
+    public static void generateAddThisAsParentUnchecked(MethodVisitor mv) {
+
+        // Push a copy of the value because the called function will consume it
+        mv.visitInsn(DUP);
+
+        // Push "this" because it will be used as the second argument for the following function call
+        mv.visitVarInsn(ALOAD, 0);
+
+        // Invoke the function which adds "this" as a parent to the value without checking the parent type
+        mv.visitMethodInsn(INVOKESTATIC, FUNCS_CLASS, "addParentUnchecked", "(Ljava/lang/Object;" + NODE_DESC + ")V", false);
+    }
+
+    /**
+     * Generates the instructions to call the {@code write()} function of the {@code BarrierProfiler} class, which replaces the regular parent watcher instructions
+     * in profile mode. The function removes {@code this} from the parents of the old field value, adds it to the parents of the new field value and
+     * records some sampled counters for the written field.<br>
+     * <br>
+     * The new field value needs to be the topmost value on the stack when the generated instructions are entered.
+     * The rest of the stack is ignored by the generated instructions.
+     * 
+     * @param mv The {@link MethodVisitor} that should be used to generate the instructions.
+     * @param owner The internal name of the class which declares the written field.
+     * @param name The name of the written field.
+     * @param desc The descriptor of the written field.
+     * @param checked Whether the parent type should be checked when adding {@code this} to the parents of the new field value.
+     * @param fieldId The id the runtime hook has assigned to the written field.
+     */
+    public static void generateProfiledWrite(MethodVisitor mv, String owner, String name, String desc, boolean checked, int fieldId) {
+
+        // Push a copy of the new value because the called function will consume it
+        mv.visitInsn(DUP);
+
+        // Push the old value from the written field
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, owner, name, desc);
+
+        // Push "this" as the parent and the remaining arguments
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(checked ? ICONST_1 : ICONST_0);
+        mv.visitLdcInsn(fieldId);
+        mv.visitLdcInsn(getFieldIndexKey(owner, name));
+
+        // Invoke the function which executes the parent watcher logic and records the counters
+        mv.visitMethodInsn(INVOKESTATIC, PROFILER_CLASS, "write", "(Ljava/lang/Object;Ljava/lang/Object;" + NODE_DESC + "ZILjava/lang/String;)V", false);
+    }
+
+    /**
+     * Returns the key which is used for the given field in the parent-safe field index.
+     * The index contains all fields whose parent type compatibility has already been proven at compile time.
+     * 
+     * @param owner The internal name of the class which declares the field.
+     * @param name The name of the field.
+     * @return The key of the field inside the parent-safe field index.
+     */
+    public static String getFieldIndexKey(String owner, String name) {
+
+        return owner + "#" + name;
+    }
+
+    /**
+     * Checks the given class bytecode for structural errors and runs a basic data flow analysis on all of its methods.
+     * Note that this check doesn't load any other classes; therefore, it is not able to find all errors the JVM verifier would find.
+     * However, it is safe to use it while a class is being loaded.
+     * 
+     * @param classfile The bytecode of the class which should be checked.
+     * @throws AnalyzerException The data flow analysis of one of the methods has failed.
+     * @throws IllegalStateException The bytecode contains a structural error.
+     * @throws IllegalArgumentException The bytecode contains a structural error.
+     */
+    public static void verifyClass(byte[] classfile) throws AnalyzerException {
+
+        // Read the class into a class node; the check class adapter throws exceptions on structural errors
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classfile).accept(new CheckClassAdapter(classNode, false), ClassReader.SKIP_DEBUG);
+
+        // Analyze the data flow of all methods
+        for (MethodNode method : classNode.methods) {
+            new Analyzer<BasicValue>(new BasicVerifier()).analyze(classNode.name, method);
+        }
+    }
+
     private ASMUtils() {
 
     }
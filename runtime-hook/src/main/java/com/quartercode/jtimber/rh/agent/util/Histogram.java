@@ -0,0 +1,135 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.agent.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe histogram of non-negative long values whose buckets have power-of-two bounds.
+ * Bucket {@code 0} counts the value {@code 0}; each other bucket {@code i} counts the values from {@code 2^(i-1)} to {@code 2^i - 1}.
+ * Apart from the buckets, the histogram keeps track of the amount, the sum and the maximum of all recorded values.
+ * All operations are lock-free.
+ */
+public class Histogram {
+
+    private static final int      BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong      count   = new AtomicLong();
+    private final AtomicLong      sum     = new AtomicLong();
+    private final AtomicLong      max     = new AtomicLong();
+
+    /**
+     * Records the given value. Negative values are counted in bucket {@code 0}; however, they are added to the sum with their actual value.
+     * 
+     * @param value The value which should be recorded.
+     */
+    public void record(long value) {
+
+        int bucket = value <= 0 ? 0 : Math.min(BUCKETS - Long.numberOfLeadingZeros(value), BUCKETS - 1);
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            // Retry until the maximum is updated or a greater value has been recorded concurrently
+        }
+    }
+
+    /**
+     * Returns the amount of recorded values.
+     * 
+     * @return The value count.
+     */
+    public long getCount() {
+
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     * 
+     * @return The value sum.
+     */
+    public long getSum() {
+
+        return sum.get();
+    }
+
+    /**
+     * Returns the greatest recorded value, or {@code 0} if no positive value has been recorded yet.
+     * 
+     * @return The maximum value.
+     */
+    public long getMax() {
+
+        return max.get();
+    }
+
+    /**
+     * Returns the arithmetic mean of all recorded values, or {@code 0} if no value has been recorded yet.
+     * 
+     * @return The mean value.
+     */
+    public double getMean() {
+
+        long currentCount = count.get();
+        return currentCount == 0 ? 0 : (double) sum.get() / currentCount;
+    }
+
+    /**
+     * Returns a snapshot of the bucket counts (see {@link Histogram} for the bucket bounds).
+     * Trailing empty buckets are omitted.
+     * 
+     * @return The counts of the non-trailing buckets.
+     */
+    public long[] getBuckets() {
+
+        long[] snapshot = new long[BUCKETS];
+        int length = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            snapshot[bucket] = buckets.get(bucket);
+            if (snapshot[bucket] != 0) {
+                length = bucket + 1;
+            }
+        }
+
+        return Arrays.copyOf(snapshot, length);
+    }
+
+    /**
+     * Removes all recorded values.
+     * Values which are recorded concurrently might be lost partially.
+     */
+    public void reset() {
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            buckets.set(bucket, 0);
+        }
+
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+}
@@ -85,7 +85,7 @@ public class ResourceLister implements Closeable {
                     Path jarFile = Paths.get(toURI( ((JarURLConnection) location.openConnection()).getJarFileURL()));
 
                     // Load the resources from the jar file
-                    FileSystem jarFS = FileSystems.newFileSystem(jarFile, null);
+                    FileSystem jarFS = FileSystems.newFileSystem(jarFile, (ClassLoader) null);
                     resourcePaths.add(jarFS.getPath(resourcePath));
                     jarFileSystems.add(jarFS);
                 } catch (IOException e) {
@@ -0,0 +1,81 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.test.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.quartercode.jtimber.api.profile.BarrierProfiler;
+import com.quartercode.jtimber.rh.agent.AgentConfig;
+
+public class AgentConfigTest {
+
+    @Test
+    public void testIncludePackageBoundary() {
+
+        AgentConfig config = AgentConfig.parse("include=com.example");
+
+        assertTrue("Class inside the included package is included", config.isIncluded("com/example/Node"));
+        assertTrue("Class inside a subpackage of the included package is included", config.isIncluded("com/example/model/Node"));
+        assertFalse("Class inside a package with the same prefix is included", config.isIncluded("com/examples/Node"));
+        assertFalse("Class with the included package name as prefix is included", config.isIncluded("com/exampleNode"));
+    }
+
+    @Test
+    public void testIncludeClass() {
+
+        AgentConfig config = AgentConfig.parse("include=com.example.Node:com.other.");
+
+        assertTrue("Included class is included", config.isIncluded("com/example/Node"));
+        assertTrue("Nested class of the included class is included", config.isIncluded("com/example/Node$Child"));
+        assertFalse("Class with the included class name as prefix is included", config.isIncluded("com/example/NodeFactory"));
+        assertTrue("Class inside a package given with a trailing dot is included", config.isIncluded("com/other/Node"));
+    }
+
+    @Test
+    public void testExcludePackageBoundary() {
+
+        AgentConfig config = AgentConfig.parse("include=com.example,exclude=com.example.internal");
+
+        assertFalse("Class inside the excluded package is included", config.isIncluded("com/example/internal/Node"));
+        assertTrue("Class inside a package with the same prefix as the excluded one is included", config.isIncluded("com/example/internals/Node"));
+    }
+
+    @Test
+    public void testJMXDisabledByDefault() {
+
+        assertFalse("JMX option of the default configuration", AgentConfig.parse(null).isJMX());
+        assertFalse("JMX option of a configuration without the option", AgentConfig.parse("jaxb=false").isJMX());
+    }
+
+    @Test
+    public void testJMXEnabled() {
+
+        assertTrue("JMX option after it has been enabled", AgentConfig.parse("jmx=true").isJMX());
+    }
+
+    @Test
+    public void testProfileSampleRateDefault() {
+
+        assertEquals("Default profile sample rate of the agent", BarrierProfiler.DEFAULT_SAMPLE_RATE, AgentConfig.DEFAULT_PROFILE_SAMPLE_RATE);
+        assertEquals("Profile sample rate of the default configuration", AgentConfig.DEFAULT_PROFILE_SAMPLE_RATE, AgentConfig.parse(null).getProfileSampleRate());
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.test.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import com.quartercode.jtimber.rh.agent.AgentConfig;
+import com.quartercode.jtimber.rh.agent.NodeClassPreloader;
+
+public class NodeClassPreloaderTest {
+
+    private static final List<String> CLASS_NAMES = Arrays.asList("java/util/ArrayList", "java/util/LinkedList", "java/util/HashMap", "java/util/TreeMap",
+            "java/util/HashSet", "java/util/TreeSet", "java/util/ArrayDeque", "java/util/PriorityQueue");
+
+    @Test
+    public void testPreloadParallel() throws InterruptedException {
+
+        int threads = 4;
+        RecordingClassLoader loader = new RecordingClassLoader(new CountDownLatch(threads));
+
+        ExecutorService executor = NodeClassPreloader.start(CLASS_NAMES, loader, threads, true);
+        assertTrue("Preloading has terminated", executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals("Loaded classes", new HashSet<>(toBinaryNames(CLASS_NAMES)), loader.loadedClasses);
+        // Each load waits until all threads are loading a class at the same time; if that has never happened, the latch would not have reached zero
+        assertEquals("Classes which have been loaded in parallel", 0, loader.parallelLoads.getCount());
+        assertEquals("Amount of preloader threads", threads, loader.threadNames.size());
+        for (String threadName : loader.threadNames) {
+            assertTrue("Class has been loaded by a non-preloader thread: " + threadName, threadName.startsWith("JTimber Node Class Preloader"));
+        }
+    }
+
+    @Test
+    public void testPreloadFailingClasses() throws InterruptedException {
+
+        List<String> classNames = new ArrayList<>(CLASS_NAMES);
+        classNames.add("com/example/Missing");
+        classNames.add("com/example/Broken");
+
+        RecordingClassLoader loader = new RecordingClassLoader(new CountDownLatch(0));
+
+        // The classes which cannot be loaded are skipped without affecting the other classes
+        ExecutorService executor = NodeClassPreloader.start(classNames, loader, 2, true);
+        assertTrue("Preloading has terminated", executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals("Loaded classes", new HashSet<>(toBinaryNames(CLASS_NAMES)), loader.loadedClasses);
+    }
+
+    @Test
+    public void testPreloadNoClasses() throws InterruptedException {
+
+        ExecutorService executor = NodeClassPreloader.start(new ArrayList<String>(), getClass().getClassLoader(), 4, false);
+        assertTrue("Preloading has terminated", executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFilterIncluded() {
+
+        AgentConfig config = AgentConfig.parse("include=java.util");
+        List<String> classNames = Arrays.asList("java/util/ArrayList", "com/example/Node", "java/util/HashMap");
+
+        assertEquals("Included classes", Arrays.asList("java/util/ArrayList", "java/util/HashMap"), NodeClassPreloader.filterIncluded(classNames, config));
+    }
+
+    private List<String> toBinaryNames(List<String> classNames) {
+
+        List<String> binaryNames = new ArrayList<>();
+        for (String className : classNames) {
+            binaryNames.add(className.replace('/', '.'));
+        }
+        return binaryNames;
+    }
+
+    /*
+     * Records the loaded classes and the loading threads, and lets each load wait until the given latch has reached zero.
+     * The class "com.example.Broken" fails with a linkage error.
+     */
+    private static class RecordingClassLoader extends ClassLoader {
+
+        static {
+            // Otherwise, the JVM would only let one thread at a time load a class through this loader
+            registerAsParallelCapable();
+        }
+
+        private final CountDownLatch parallelLoads;
+        private final Set<String>    loadedClasses = ConcurrentHashMap.newKeySet();
+        private final Set<String>    threadNames   = ConcurrentHashMap.newKeySet();
+
+        private RecordingClassLoader(CountDownLatch parallelLoads) {
+
+            super(NodeClassPreloaderTest.class.getClassLoader());
+
+            this.parallelLoads = parallelLoads;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+            if (name.equals("com.example.Broken")) {
+                throw new NoClassDefFoundError(name);
+            }
+
+            Class<?> loadedClass = super.loadClass(name, resolve);
+
+            threadNames.add(Thread.currentThread().getName());
+            parallelLoads.countDown();
+            try {
+                parallelLoads.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            loadedClasses.add(name);
+            return loadedClass;
+        }
+
+    }
+
+}
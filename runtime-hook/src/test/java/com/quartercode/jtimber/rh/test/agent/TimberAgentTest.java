@@ -0,0 +1,103 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.test.agent;
+
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.quartercode.jtimber.rh.agent.TimberAgent;
+
+public class TimberAgentTest {
+
+    private static final String  FRAGMENT_DIRECTORY = "META-INF/jtimber/nodes/";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder    = new TemporaryFolder();
+
+    private final Set<String>    nodeIndex          = new HashSet<>();
+    private final Set<String>    parentSafeFields   = new HashSet<>();
+
+    @Test
+    public void testReadIndexFragmentsDirectory() throws IOException {
+
+        Path directory = temporaryFolder.newFolder().toPath();
+        Files.write(directory.resolve("com.example.Node1.index"), "child\n\n  other  \n".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("com.example.Outer$Inner.index"), new byte[0]);
+        Files.write(directory.resolve("com.example.Ignored.txt"), "child\n".getBytes(StandardCharsets.UTF_8));
+
+        TimberAgent.readIndexFragments(Arrays.asList(directory), nodeIndex, parentSafeFields);
+
+        assertEquals("Node index", new HashSet<>(Arrays.asList("com/example/Node1", "com/example/Outer$Inner")), nodeIndex);
+        assertEquals("Parent-safe field index", new HashSet<>(Arrays.asList("com/example/Node1#child", "com/example/Node1#other")), parentSafeFields);
+    }
+
+    @Test
+    public void testReadIndexFragmentsDirectoryAndJar() throws IOException {
+
+        Path directory = temporaryFolder.newFolder().toPath();
+        Files.write(directory.resolve("com.example.Node1.index"), "child\n".getBytes(StandardCharsets.UTF_8));
+
+        Path jarFile = temporaryFolder.newFile("fragments.jar").toPath();
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            writeJarEntry(jar, FRAGMENT_DIRECTORY + "com.example.Node1.index", "other\n");
+            writeJarEntry(jar, FRAGMENT_DIRECTORY + "com.example.Node2.index", "child\n");
+        }
+
+        // The agent reads the fragments of jar files from zip file systems
+        try (FileSystem jarFS = FileSystems.newFileSystem(jarFile, (ClassLoader) null)) {
+            TimberAgent.readIndexFragments(Arrays.asList(directory, jarFS.getPath("/" + FRAGMENT_DIRECTORY)), nodeIndex, parentSafeFields);
+        }
+
+        assertEquals("Merged node index", new HashSet<>(Arrays.asList("com/example/Node1", "com/example/Node2")), nodeIndex);
+        assertEquals("Merged parent-safe field index", new HashSet<>(Arrays.asList("com/example/Node1#child", "com/example/Node1#other", "com/example/Node2#child")), parentSafeFields);
+    }
+
+    @Test
+    public void testReadIndexFragmentsMissingDirectory() throws IOException {
+
+        Path missingDirectory = temporaryFolder.getRoot().toPath().resolve("missing");
+        Path directory = temporaryFolder.newFolder().toPath();
+        Files.write(directory.resolve("com.example.Node1.index"), new byte[0]);
+
+        // The missing directory is logged and skipped
+        TimberAgent.readIndexFragments(Arrays.asList(missingDirectory, directory), nodeIndex, parentSafeFields);
+
+        assertEquals("Node index", new HashSet<>(Arrays.asList("com/example/Node1")), nodeIndex);
+    }
+
+    private void writeJarEntry(JarOutputStream jar, String name, String content) throws IOException {
+
+        jar.putNextEntry(new JarEntry(name));
+        jar.write(content.getBytes(StandardCharsets.UTF_8));
+        jar.closeEntry();
+    }
+
+}
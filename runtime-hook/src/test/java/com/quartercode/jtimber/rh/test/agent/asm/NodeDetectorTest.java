@@ -0,0 +1,185 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.test.agent.asm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.Test;
+import org.objectweb.asm.Type;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.rh.agent.asm.NodeDetector;
+
+public class NodeDetectorTest {
+
+    // The classes of the runtime hook (including these tests) are never transformed; therefore, the test classes are checked under example names
+    private static final String       EXAMPLE_PACKAGE     = "com/example/";
+    private static final String       NESTED_CLASS_PREFIX = Type.getInternalName(NodeDetectorTest.class) + "$";
+
+    private final NodeDetector        detector            = new NodeDetector(Collections.<String> emptySet());
+    private final CountingClassLoader loader              = new CountingClassLoader(false);
+
+    @Test
+    public void testDetectInterface() {
+
+        assertTrue("Class implementing a node interface is detected", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "InterfaceNode", null));
+        assertTrue("Class implementing a node interface is detected (given bytecode)", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "InterfaceNode", readClassfile(InterfaceNode.class)));
+    }
+
+    @Test
+    public void testDetectSuperclass() {
+
+        assertTrue("Class extending a node class is detected", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "SuperclassNode", null));
+        assertTrue("Class indirectly extending a node class is detected", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "IndirectNode", null));
+    }
+
+    @Test
+    public void testRejectNonNode() {
+
+        assertFalse("Non-node class is rejected", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "NonNode", null));
+        assertFalse("Non-node class is rejected (given bytecode)", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "NonNode", readClassfile(NonNode.class)));
+    }
+
+    @Test
+    public void testRejectNodeInterface() {
+
+        assertTrue("Node interface is a node type", detector.isNodeType(loader, EXAMPLE_PACKAGE + "NodeInterface"));
+        assertFalse("Node interface is rejected as node class", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "NodeInterface", null));
+    }
+
+    @Test
+    public void testRejectPlatformClass() {
+
+        assertFalse("Platform class is rejected", detector.isNodeClass(loader, "java/util/ArrayList", null));
+        assertEquals("Resource reads for a platform class", 0, loader.resourceReads);
+    }
+
+    @Test
+    public void testDetectIndexedClass() {
+
+        NodeDetector indexDetector = new NodeDetector(Collections.singleton(EXAMPLE_PACKAGE + "Missing"));
+        assertTrue("Indexed class is detected", indexDetector.isNodeClass(loader, EXAMPLE_PACKAGE + "Missing", null));
+        assertEquals("Resource reads for an indexed class", 0, loader.resourceReads);
+    }
+
+    @Test
+    public void testNegativeCache() {
+
+        assertFalse("Non-node class is rejected", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "NonNode", null));
+        int resourceReads = loader.resourceReads;
+        assertTrue("Resources have been read on the first check", resourceReads > 0);
+
+        assertFalse("Non-node class is rejected again", detector.isNodeClass(loader, EXAMPLE_PACKAGE + "NonNode", null));
+        assertEquals("Resource reads after the second check", resourceReads, loader.resourceReads);
+
+        assertFalse("Missing type is rejected", detector.isNodeType(loader, EXAMPLE_PACKAGE + "Missing"));
+        assertFalse("Missing type is rejected again", detector.isNodeType(loader, EXAMPLE_PACKAGE + "Missing"));
+        assertEquals("Resource reads for a missing type checked twice", resourceReads + 1, loader.resourceReads);
+    }
+
+    @Test
+    public void testCacheScopedToLoader() {
+
+        CountingClassLoader hidingLoader = new CountingClassLoader(true);
+        assertFalse("Class hidden by the loader is rejected", detector.isNodeType(hidingLoader, EXAMPLE_PACKAGE + "IndirectNode"));
+
+        // The negative result for the hiding loader must not leak into the cache of the other loader
+        assertTrue("Class visible to the loader is detected", detector.isNodeType(loader, EXAMPLE_PACKAGE + "IndirectNode"));
+    }
+
+    private byte[] readClassfile(Class<?> type) {
+
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(Type.getInternalName(type) + ".class")) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ( (read = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read classfile of '" + type.getName() + "'", e);
+        }
+    }
+
+    /*
+     * Counts the resource reads and serves the nested classes of this test under the example package.
+     * Optionally, all resources are hidden.
+     */
+    private static class CountingClassLoader extends ClassLoader {
+
+        private final boolean hideResources;
+        private int           resourceReads;
+
+        private CountingClassLoader(boolean hideResources) {
+
+            super(NodeDetectorTest.class.getClassLoader());
+
+            this.hideResources = hideResources;
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+
+            resourceReads++;
+
+            if (hideResources) {
+                return null;
+            } else if (name.startsWith(EXAMPLE_PACKAGE)) {
+                return super.getResourceAsStream(NESTED_CLASS_PREFIX + name.substring(EXAMPLE_PACKAGE.length()));
+            } else {
+                return super.getResourceAsStream(name);
+            }
+        }
+
+    }
+
+    private static interface NodeInterface extends Node<Node<?>> {
+
+    }
+
+    private static abstract class InterfaceNode implements NodeInterface {
+
+    }
+
+    private static class SuperclassNode extends DefaultNode<Node<?>> {
+
+    }
+
+    private static class IndirectNode extends SuperclassNode {
+
+    }
+
+    @SuppressWarnings ("serial")
+    private static class NonNode extends ArrayList<Object> implements Runnable {
+
+        @Override
+        public void run() {
+
+        }
+
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * This file is part of JTimber.
+ * Copyright (c) 2015 QuarterCode <http://quartercode.com/>
+ *
+ * JTimber is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JTimber is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JTimber. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.quartercode.jtimber.rh.test.agent.asm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import com.quartercode.jtimber.api.node.DefaultNode;
+import com.quartercode.jtimber.api.node.Node;
+import com.quartercode.jtimber.rh.agent.AgentConfig;
+import com.quartercode.jtimber.rh.agent.TransformationMetrics;
+import com.quartercode.jtimber.rh.agent.asm.TimberClassFileTransformer;
+
+public class TimberClassFileTransformerTest {
+
+    @Test
+    public void testStaticFieldsAreNoChildren() throws Exception {
+
+        Node<?> node = (Node<?>) transformAndLoad(AgentConfig.parse("")).newInstance();
+        Node<?> child = new DefaultNode<>();
+        setChild(node, child);
+
+        assertEquals("Children of the transformed node", Arrays.asList(child), node.getChildren());
+        assertEquals("Child count of the transformed node", 1, node.getChildCount());
+    }
+
+    @Test
+    public void testStaticFieldsAreNotUnmarshalled() throws Exception {
+
+        Class<?> nodeClass = transformAndLoad(AgentConfig.parse("jaxb=true"));
+        Node<?> node = (Node<?>) nodeClass.newInstance();
+        Node<?> child = new DefaultNode<>();
+        setChild(node, child);
+
+        Method afterUnmarshal = null;
+        for (Method method : nodeClass.getMethods()) {
+            if (method.getName().equals("afterUnmarshal")) {
+                afterUnmarshal = method;
+            }
+        }
+        assertTrue("The transformed node has an afterUnmarshal() method", afterUnmarshal != null);
+
+        afterUnmarshal.invoke(node, null, null);
+        assertEquals("Parents of the child after unmarshalling", Arrays.asList(node), child.getParents());
+        Node<?> shared = (Node<?>) nodeClass.getField("SHARED").get(null);
+        assertEquals("Parents of the static field value after unmarshalling", 0, shared.getParentCount());
+    }
+
+    @Test
+    public void testProvenFieldsSkipParentTypeCheck() throws Exception {
+
+        String internalName = Type.getInternalName(ProvenFieldNode.class);
+        byte[] transformed = transform(ProvenFieldNode.class, AgentConfig.parse(""), Collections.singleton(internalName + "#proven"));
+        Map<String, List<String>> invocations = getMethodInvocations(transformed);
+
+        assertTrue("Setter of the proven field calls addParentUnchecked()", invocations.get("setProven").contains("com/quartercode/jtimber/api/internal/RHConstFunctions.addParentUnchecked"));
+        assertFalse("Setter of the proven field calls addParent()", invocations.get("setProven").contains("com/quartercode/jtimber/api/node/ParentAware.addParent"));
+        assertTrue("Setter of the unproven field calls addParent()", invocations.get("setUnproven").contains("com/quartercode/jtimber/api/node/ParentAware.addParent"));
+        assertFalse("Setter of the unproven field calls addParentUnchecked()", invocations.get("setUnproven").contains("com/quartercode/jtimber/api/internal/RHConstFunctions.addParentUnchecked"));
+
+        // The unchecked parent watcher still adds the parent
+        Class<?> nodeClass = new SingleClassLoader(ProvenFieldNode.class.getName(), transformed).loadClass(ProvenFieldNode.class.getName());
+        Node<?> node = (Node<?>) nodeClass.newInstance();
+        DefaultNode<?> child = new DefaultNode<>();
+        nodeClass.getMethod("setProven", DefaultNode.class).invoke(node, child);
+        assertEquals("Parents of the value of the proven field", Arrays.asList(node), child.getParents());
+    }
+
+    /*
+     * Returns the methods invoked by each method of the given class in the format "owner.name".
+     */
+    private Map<String, List<String>> getMethodInvocations(byte[] classfile) {
+
+        final Map<String, List<String>> invocations = new HashMap<>();
+
+        new ClassReader(classfile).accept(new ClassVisitor(Opcodes.ASM5) {
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+
+                final List<String> methodInvocations = new ArrayList<>();
+                invocations.put(name, methodInvocations);
+
+                return new MethodVisitor(Opcodes.ASM5) {
+
+                    @Override
+                    public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+
+                        methodInvocations.add(owner + "." + name);
+                    }
+
+                };
+            }
+
+        }, 0);
+
+        return invocations;
+    }
+
+    private void setChild(Node<?> node, Node<?> child) throws ReflectiveOperationException {
+
+        // Reflective writes bypass the parent watchers
+        Field field = node.getClass().getDeclaredField("child");
+        field.setAccessible(true);
+        field.set(node, child);
+    }
+
+    private Class<?> transformAndLoad(AgentConfig config) throws Exception {
+
+        byte[] transformed = transform(StaticFieldNode.class, config, Collections.<String> emptySet());
+        return new SingleClassLoader(StaticFieldNode.class.getName(), transformed).loadClass(StaticFieldNode.class.getName());
+    }
+
+    private byte[] transform(Class<?> nodeClass, AgentConfig config, Set<String> parentSafeFieldIndex) throws Exception {
+
+        String internalName = Type.getInternalName(nodeClass);
+        TimberClassFileTransformer transformer = new TimberClassFileTransformer(config, Collections.singleton(internalName), parentSafeFieldIndex, new TransformationMetrics());
+
+        byte[] classfile = readClassfile(internalName);
+        byte[] transformed = transformer.transform(getClass().getClassLoader(), internalName, null, null, classfile);
+        assertTrue("The node class has been transformed", transformed != classfile);
+
+        return transformed;
+    }
+
+    private byte[] readClassfile(String internalName) throws IOException {
+
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(internalName + ".class")) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ( (read = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+
+    /*
+     * Defines the given class from the given bytecode and delegates all other classes to the class loader of the test.
+     */
+    private static class SingleClassLoader extends ClassLoader {
+
+        private final String className;
+        private final byte[] classfile;
+
+        private SingleClassLoader(String className, byte[] classfile) {
+
+            super(TimberClassFileTransformerTest.class.getClassLoader());
+
+            this.className = className;
+            this.classfile = classfile;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+            if (!name.equals(className)) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    loadedClass = defineClass(name, classfile, 0, classfile.length);
+                }
+                return loadedClass;
+            }
+        }
+
+    }
+
+    public static class StaticFieldNode extends DefaultNode<Node<?>> {
+
+        public static final DefaultNode<Node<?>> SHARED = new DefaultNode<>();
+
+        private Node<?>                          child;
+
+    }
+
+    public static class ProvenFieldNode extends DefaultNode<Node<?>> {
+
+        private DefaultNode<?> proven;
+        private DefaultNode<?> unproven;
+
+        public void setProven(DefaultNode<?> proven) {
+
+            this.proven = proven;
+        }
+
+        public void setUnproven(DefaultNode<?> unproven) {
+
+            this.unproven = unproven;
+        }
+
+    }
+
+}